@@ -0,0 +1,65 @@
+package com.myou.backend.simulator.jmh;
+
+import com.myou.backend.simulator.domain.model.ConditionEntry;
+import com.myou.backend.simulator.domain.model.ConditionMatcher;
+import com.myou.backend.simulator.domain.model.JsonContent;
+import com.myou.backend.simulator.domain.model.RequestData;
+import com.myou.backend.simulator.domain.policy.ConditionPolicy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 条件エントリの照合。リクエストは最後の条件に一致させ、線形探索の最悪ケースを測る。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConditionMatchingBenchmark {
+
+    @Param({"1", "10", "100"})
+    int conditionCount;
+
+    @Param({"10", "100"})
+    int payloadFields;
+
+    private ConditionEntry conditionEntry;
+    private ConditionMatcher conditionMatcher;
+    private ConditionPolicy lastPolicy;
+    private RequestData requestData;
+
+    @Setup
+    public void setUp() {
+        conditionEntry = MatchingFixtures.conditionEntry(conditionCount, MatchingFixtures.JSON_POINTER);
+        conditionMatcher = ConditionMatcher.compile(conditionEntry);
+        lastPolicy = conditionEntry.responseIdConditions().getLast().conditionPolicy();
+        int target = conditionCount - 1;
+        requestData = new RequestData("interfaceId", MatchingFixtures.headers(target),
+                new JsonContent(MatchingFixtures.json(payloadFields, target)));
+        // 一致しない経路を測らないよう、準備したリクエストが最後の条件に一致することを確かめる
+        if (!conditionEntry.searchResponseId(requestData).equals(Optional.of("responseId" + target))) {
+            throw new IllegalStateException("リクエストが最後の条件に一致しない");
+        }
+    }
+
+    @Benchmark
+    public Optional<String> searchResponseId() {
+        return conditionEntry.searchResponseId(requestData);
+    }
+
+    @Benchmark
+    public Optional<String> compiledSearchResponseId() {
+        return conditionMatcher.searchResponseId(requestData);
+    }
+
+    @Benchmark
+    public boolean policyApply() {
+        return lastPolicy.apply(requestData);
+    }
+
+    @Benchmark
+    public ConditionMatcher compile() {
+        return ConditionMatcher.compile(conditionEntry);
+    }
+}
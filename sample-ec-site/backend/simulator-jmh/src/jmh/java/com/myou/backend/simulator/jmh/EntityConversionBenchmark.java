@@ -0,0 +1,38 @@
+package com.myou.backend.simulator.jmh;
+
+import com.myou.backend.simulator.domain.model.ConditionEntry;
+import com.myou.backend.simulator.infrastructure.storage.ConditionEntryEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ストレージのエンティティとドメインモデルの変換。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EntityConversionBenchmark {
+
+    @Param({"1", "10", "100"})
+    int conditionCount;
+
+    private ConditionEntry conditionEntry;
+    private ConditionEntryEntity conditionEntryEntity;
+
+    @Setup
+    public void setUp() {
+        conditionEntry = MatchingFixtures.conditionEntry(conditionCount, MatchingFixtures.JSON_POINTER);
+        conditionEntryEntity = ConditionEntryEntity.from(conditionEntry);
+    }
+
+    @Benchmark
+    public ConditionEntry toConditionEntry() {
+        return conditionEntryEntity.toConditionEntry();
+    }
+
+    @Benchmark
+    public ConditionEntryEntity fromConditionEntry() {
+        return ConditionEntryEntity.from(conditionEntry);
+    }
+}
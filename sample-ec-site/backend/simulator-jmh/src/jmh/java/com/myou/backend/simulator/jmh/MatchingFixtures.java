@@ -0,0 +1,72 @@
+package com.myou.backend.simulator.jmh;
+
+import com.myou.backend.simulator.domain.model.ConditionEntry;
+import com.myou.backend.simulator.domain.model.ResponseIdCondition;
+import com.myou.backend.simulator.domain.policy.ConditionPolicy;
+import com.myou.backend.simulator.domain.policy.rule.RequestContentConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.RequestHeaderConditionRule;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ベンチマークで使う条件エントリとリクエストボディを生成する。
+ * <p>
+ * 条件iはヘッダ {@value #ROUTE_HEADER} が「route{i}」かつコンテンツの対象キーが「id{i}」の場合に一致する。
+ * ボディは指定した数のフィールドの後ろに対象キーを置き、照合が全体を走査する最悪に近い形にする。
+ */
+final class MatchingFixtures {
+
+    static final String ROUTE_HEADER = "X-Route";
+    static final String JSON_POINTER = "/target/id";
+    static final String XPATH = "/request/target/id";
+
+    private MatchingFixtures() {
+    }
+
+    static ConditionEntry conditionEntry(int conditionCount, String contentKey) {
+        List<ResponseIdCondition> conditions = new ArrayList<>(conditionCount);
+        for (int i = 0; i < conditionCount; i++) {
+            conditions.add(new ResponseIdCondition("responseId" + i, new ConditionPolicy(List.of(
+                    new RequestHeaderConditionRule(ROUTE_HEADER, "route" + i),
+                    new RequestContentConditionRule(contentKey, "id" + i)))));
+        }
+        return new ConditionEntry("interfaceId", conditions);
+    }
+
+    static Map<String, List<String>> headers(int conditionIndex) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", List.of("application/json"));
+        headers.put("Accept", List.of("*/*"));
+        headers.put(ROUTE_HEADER, List.of("route" + conditionIndex));
+        return headers;
+    }
+
+    static String json(int fieldCount, int conditionIndex) {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < fieldCount; i++) {
+            json.append("\"field").append(i).append("\":{\"name\":\"value").append(i).append("\",\"count\":").append(i).append("},");
+        }
+        return json.append("\"target\":{\"id\":\"id").append(conditionIndex).append("\"}}").toString();
+    }
+
+    static String xml(int fieldCount, int conditionIndex) {
+        StringBuilder xml = new StringBuilder("<request>");
+        for (int i = 0; i < fieldCount; i++) {
+            xml.append("<field").append(i).append("><name>value").append(i).append("</name><count>").append(i)
+                    .append("</count></field").append(i).append('>');
+        }
+        return xml.append("<target><id>id").append(conditionIndex).append("</id></target></request>").toString();
+    }
+
+    static Map<String, List<String>> params(int fieldCount, int conditionIndex) {
+        Map<String, List<String>> params = new LinkedHashMap<>();
+        for (int i = 0; i < fieldCount; i++) {
+            params.put("field" + i, List.of("value" + i));
+        }
+        params.put("id", List.of("id" + conditionIndex));
+        return params;
+    }
+}
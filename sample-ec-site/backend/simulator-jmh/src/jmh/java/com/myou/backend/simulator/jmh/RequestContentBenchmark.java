@@ -0,0 +1,93 @@
+package com.myou.backend.simulator.jmh;
+
+import com.myou.backend.simulator.domain.model.FormDataContent;
+import com.myou.backend.simulator.domain.model.JsonContent;
+import com.myou.backend.simulator.domain.model.JsonPointerContent;
+import com.myou.backend.simulator.domain.model.QueryParamsContent;
+import com.myou.backend.simulator.domain.model.XmlContent;
+import com.myou.backend.simulator.domain.model.XmlPath;
+import com.myou.backend.simulator.domain.model.XmlPathContent;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * リクエストコンテンツの構築と照合。ツリーを構築する実装と、参照キーだけを抽出する実装を比較する。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RequestContentBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int payloadFields;
+
+    private String json;
+    private byte[] jsonBytes;
+    private String xml;
+    private byte[] xmlBytes;
+    private List<XmlPath> xmlPaths;
+    private JsonContent jsonContent;
+    private XmlContent xmlContent;
+    private FormDataContent formDataContent;
+    private QueryParamsContent queryParamsContent;
+
+    @Setup
+    public void setUp() {
+        json = MatchingFixtures.json(payloadFields, 0);
+        jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+        xml = MatchingFixtures.xml(payloadFields, 0);
+        xmlBytes = xml.getBytes(StandardCharsets.UTF_8);
+        xmlPaths = List.of(XmlPath.compile(MatchingFixtures.XPATH));
+        jsonContent = new JsonContent(json);
+        xmlContent = new XmlContent(xml);
+        formDataContent = new FormDataContent(MatchingFixtures.params(payloadFields, 0));
+        queryParamsContent = new QueryParamsContent(MatchingFixtures.params(payloadFields, 0));
+    }
+
+    @Benchmark
+    public JsonContent jsonContentConstruct() {
+        return new JsonContent(json);
+    }
+
+    @Benchmark
+    public boolean jsonContentMatch() {
+        return jsonContent.matches(MatchingFixtures.JSON_POINTER, "id0");
+    }
+
+    @Benchmark
+    public boolean jsonPointerContentReadAndMatch() {
+        return JsonPointerContent.read(new ByteArrayInputStream(jsonBytes), Set.of(MatchingFixtures.JSON_POINTER))
+                .matches(MatchingFixtures.JSON_POINTER, "id0");
+    }
+
+    @Benchmark
+    public XmlContent xmlContentConstruct() {
+        return new XmlContent(xml);
+    }
+
+    @Benchmark
+    public boolean xmlContentMatch() {
+        return xmlContent.matches(MatchingFixtures.XPATH, "id0");
+    }
+
+    @Benchmark
+    public boolean xmlPathContentReadAndMatch() {
+        return XmlPathContent.read(new ByteArrayInputStream(xmlBytes), xmlPaths)
+                .matches(MatchingFixtures.XPATH, "id0");
+    }
+
+    @Benchmark
+    public boolean formDataContentMatch() {
+        return formDataContent.matches("id", "id0");
+    }
+
+    @Benchmark
+    public boolean queryParamsContentMatch() {
+        return queryParamsContent.matches("id", "id0");
+    }
+}
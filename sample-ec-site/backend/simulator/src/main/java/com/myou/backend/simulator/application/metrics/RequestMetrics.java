@@ -0,0 +1,49 @@
+package com.myou.backend.simulator.application.metrics;
+
+/**
+ * シミュレーターの処理時間・一致結果・返却バイト数の記録先。
+ */
+public interface RequestMetrics {
+
+    /**
+     * インターフェースIDの記録先。
+     */
+    Recorder forInterface(String interfaceId);
+
+    /**
+     * 条件エントリが存在しないインターフェースIDの記録先。
+     */
+    Recorder unknownInterface();
+
+    /**
+     * リクエストの処理結果。
+     */
+    enum Outcome {
+        MATCHED,
+        // 条件エントリはあるが、いずれの条件にも一致しない
+        NO_MATCH,
+        // 条件エントリが存在しない
+        UNKNOWN_INTERFACE,
+        // 一致した条件のレスポンスIDにレスポンスデータが存在しない
+        RESPONSE_NOT_FOUND,
+        // 条件に一致しないため上流に転送した
+        PROXIED
+    }
+
+    interface Recorder {
+
+        void recordLookup(long nanos);
+
+        void recordRuleEvaluation(long nanos);
+
+        void recordBodyParse(long nanos);
+
+        void recordMatchCache(boolean hit);
+
+        void recordMatched(String responseId);
+
+        void recordUnmatched(Outcome outcome);
+
+        void recordServed(String responseId, int bytes);
+    }
+}
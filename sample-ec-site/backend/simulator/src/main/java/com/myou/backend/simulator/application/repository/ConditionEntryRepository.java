@@ -1,6 +1,7 @@
 package com.myou.backend.simulator.application.repository;
 
 import com.myou.backend.simulator.domain.model.ConditionEntry;
+import com.myou.backend.simulator.domain.model.ConditionMatcher;
 
 import java.util.List;
 import java.util.Optional;
@@ -9,8 +10,14 @@ public interface ConditionEntryRepository {
 
     ConditionEntry save(ConditionEntry conditionEntry);
 
+    void saveAll(List<ConditionEntry> conditionEntries);
+
+    void deleteByInterfaceId(String interfaceId);
+
     Optional<ConditionEntry> findByInterfaceId(String interfaceId);
 
+    Optional<ConditionMatcher> findMatcherByInterfaceId(String interfaceId);
+
     List<ConditionEntry> findAll();
 
 }
@@ -11,8 +11,21 @@ public interface ResponseDataRepository {
 
     void saveAll(List<ResponseData> responseDataList);
 
+    void deleteByResponseId(String responseId);
+
+    /**
+     * レスポンスデータを取得する。ボディストアに置いたボディは参照のまま返すため、応答の送信に使う。
+     */
     Optional<ResponseData> findByResponseId(String responseId);
 
+    /**
+     * ボディストアに置いたボディを読み込んだレスポンスデータを取得する。定義の参照に使う。
+     */
+    Optional<ResponseData> findWithBodyByResponseId(String responseId);
+
+    /**
+     * 全てのレスポンスデータを、ボディストアに置いたボディを読み込んで取得する。
+     */
     List<ResponseData> findAll();
 
 }
@@ -2,11 +2,16 @@ package com.myou.backend.simulator.application.service;
 
 import com.myou.backend.simulator.domain.model.ConditionEntry;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface ConditionEntryService {
 
     void saveConditionEntry(ConditionEntry conditionEntry);
 
+    void saveConditionEntries(List<ConditionEntry> conditionEntries);
+
+    void deleteConditionEntry(String interfaceId);
+
     Optional<ConditionEntry> findByInterfaceId(String interfaceId);
 }
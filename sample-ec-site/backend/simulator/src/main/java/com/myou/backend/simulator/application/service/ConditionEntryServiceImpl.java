@@ -4,6 +4,7 @@ import com.myou.backend.simulator.application.repository.ConditionEntryRepositor
 import com.myou.backend.simulator.domain.model.ConditionEntry;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Optional;
 
 @Service("conditionEntryService")
@@ -20,6 +21,16 @@ public class ConditionEntryServiceImpl implements ConditionEntryService {
         conditionEntryRepository.save(conditionEntry);
     }
 
+    @Override
+    public void saveConditionEntries(List<ConditionEntry> conditionEntries) {
+        conditionEntryRepository.saveAll(conditionEntries);
+    }
+
+    @Override
+    public void deleteConditionEntry(String interfaceId) {
+        conditionEntryRepository.deleteByInterfaceId(interfaceId);
+    }
+
     @Override
     public Optional<ConditionEntry> findByInterfaceId(String interfaceId) {
         return conditionEntryRepository.findByInterfaceId(interfaceId);
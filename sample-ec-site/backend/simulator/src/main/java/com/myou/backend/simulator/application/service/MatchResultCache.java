@@ -0,0 +1,86 @@
+package com.myou.backend.simulator.application.service;
+
+import com.myou.backend.simulator.application.metrics.RequestMetrics;
+import com.myou.backend.simulator.domain.model.ConditionMatcher;
+import com.myou.backend.simulator.domain.model.RequestData;
+import com.myou.backend.simulator.domain.model.ResponseIdCondition;
+
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * インターフェースID毎に、条件が参照する値の指紋から一致した条件を引く上限付きのキャッシュ。
+ * 一致しなかった結果もキャッシュする。
+ * シナリオを持つ条件はキャッシュした条件からシナリオの状態を進めるため、キャッシュしても呼び出し毎に応答が変わる。
+ * <p>
+ * 結果はマッチャーのインスタンスに紐づけて保持する。条件エントリが保存・破棄されるとニアキャッシュのマッチャーが
+ * 作り直されるため、インスタンスが変わった時点でそのインターフェースの結果を全て捨てる。
+ * 上限に達した場合は任意の1件を捨ててから追加する。
+ */
+class MatchResultCache {
+
+    private final int maxEntriesPerInterface;
+    private final ConcurrentMap<String, Results> results = new ConcurrentHashMap<>();
+
+    MatchResultCache(int maxEntriesPerInterface) {
+        this.maxEntriesPerInterface = maxEntriesPerInterface;
+    }
+
+    boolean enabled() {
+        return maxEntriesPerInterface > 0;
+    }
+
+    /**
+     * キャッシュした結果、またはマッチャーで評価した結果を返す。
+     */
+    Optional<ResponseIdCondition> searchCondition(ConditionMatcher matcher, RequestData requestData,
+                                                  RequestMetrics.Recorder metrics) {
+        Optional<ConditionMatcher.Fingerprint> fingerprint = matcher.fingerprint(requestData);
+        if (fingerprint.isEmpty()) {
+            metrics.recordMatchCache(false);
+            return matcher.searchCondition(requestData);
+        }
+        Results current = resultsOf(matcher);
+        Optional<ResponseIdCondition> cached = current.byFingerprint.get(fingerprint.get());
+        if (cached != null) {
+            metrics.recordMatchCache(true);
+            return cached;
+        }
+        metrics.recordMatchCache(false);
+        Optional<ResponseIdCondition> condition = matcher.searchCondition(requestData);
+        if (current.byFingerprint.size() >= maxEntriesPerInterface) {
+            Iterator<ConditionMatcher.Fingerprint> iterator = current.byFingerprint.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        current.byFingerprint.put(fingerprint.get(), condition);
+        return condition;
+    }
+
+    int size(String interfaceId) {
+        Results current = results.get(interfaceId);
+        return current == null ? 0 : current.byFingerprint.size();
+    }
+
+    private Results resultsOf(ConditionMatcher matcher) {
+        Results current = results.get(matcher.interfaceId());
+        if (current != null && current.matcher == matcher) {
+            return current;
+        }
+        return results.compute(matcher.interfaceId(),
+                (key, existing) -> existing != null && existing.matcher == matcher ? existing : new Results(matcher));
+    }
+
+    private static final class Results {
+        private final ConditionMatcher matcher;
+        private final ConcurrentMap<ConditionMatcher.Fingerprint, Optional<ResponseIdCondition>> byFingerprint = new ConcurrentHashMap<>();
+
+        private Results(ConditionMatcher matcher) {
+            this.matcher = matcher;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.myou.backend.simulator.application.service;
+
+import com.myou.backend.simulator.application.repository.ConditionEntryRepository;
+import com.myou.backend.simulator.application.repository.ResponseDataRepository;
+import com.myou.backend.simulator.application.upstream.UpstreamClient;
+import com.myou.backend.simulator.application.upstream.UpstreamRequest;
+import com.myou.backend.simulator.application.upstream.UpstreamResponse;
+import com.myou.backend.simulator.domain.model.ConditionEntry;
+import com.myou.backend.simulator.domain.model.HttpStatus;
+import com.myou.backend.simulator.domain.model.RequestData;
+import com.myou.backend.simulator.domain.model.ResponseData;
+import com.myou.backend.simulator.domain.model.ResponseIdCondition;
+import com.myou.backend.simulator.domain.policy.ConditionPolicy;
+import com.myou.backend.simulator.domain.policy.rule.ConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.PresenceConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.RequestContentConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.RequestHeaderConditionRule;
+import com.myou.backend.simulator.domain.type.RuleTarget;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 条件に一致しないリクエストを上流に転送し、応答をレスポンスデータとして記録するプロキシ。
+ * <p>
+ * 記録した応答には、設定したリクエストの属性(ヘッダ・コンテンツのキー)の値で一致する条件を生成して条件エントリの末尾に追加する。
+ * 以降に同じ属性の値を持つリクエストは上流に転送せずに記録した応答を返すため、遅い上流の前段にキャッシュとして置ける。
+ * 属性を設定しない場合はインターフェース毎に最初の応答だけを記録する。
+ * <p>
+ * 同じ属性の値のリクエストが同時に届いた場合は、上流への転送を1回にまとめて結果を共有する。
+ * 5xxの応答は一時的な障害の可能性があるため返却のみ行い記録しない。
+ * レスポンスデータのボディは文字列のため、Content-Typeがテキストでない、または文字セットで復号できない応答(画像等)も記録しない。
+ * 条件エントリへの追加はノード内でのみ排他するため、複数ノードで同じインターフェースを同時に記録すると条件が失われ得る。
+ */
+@Component
+public class RecordThroughProxy {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecordThroughProxy.class);
+
+    // 条件エントリへの追加を排他するロックの数。インターフェースIDのハッシュで選ぶ
+    static final int LOCK_STRIPES = 64;
+
+    private final UpstreamClient upstreamClient;
+    private final ResponseDataRepository responseDataRepository;
+    private final ConditionEntryRepository conditionEntryRepository;
+    private final List<String> keyHeaders;
+    private final Set<String> keyContentKeys;
+    private final ConcurrentMap<String, CompletableFuture<ResponseData>> inFlight = new ConcurrentHashMap<>();
+    private final ReentrantLock[] interfaceLocks = new ReentrantLock[LOCK_STRIPES];
+
+    /**
+     * @param keyHeaders     条件に使うヘッダ名
+     * @param keyContentKeys 条件に使うコンテンツのキー(JSON Pointer・XPath・パラメータ名)
+     */
+    public RecordThroughProxy(UpstreamClient upstreamClient,
+                              ResponseDataRepository responseDataRepository,
+                              ConditionEntryRepository conditionEntryRepository,
+                              @Value("${simulator.proxy.key-headers:}") List<String> keyHeaders,
+                              @Value("${simulator.proxy.key-content-keys:}") List<String> keyContentKeys) {
+        this.upstreamClient = upstreamClient;
+        this.responseDataRepository = responseDataRepository;
+        this.conditionEntryRepository = conditionEntryRepository;
+        this.keyHeaders = keyHeaders.stream().filter(key -> !key.isBlank()).toList();
+        this.keyContentKeys = Set.copyOf(keyContentKeys.stream().filter(key -> !key.isBlank()).toList());
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            interfaceLocks[i] = new ReentrantLock();
+        }
+    }
+
+    public boolean enabled() {
+        return upstreamClient.enabled();
+    }
+
+    /**
+     * 条件の生成のためにリクエストボディから抽出する必要があるキー。
+     */
+    public Set<String> contentKeys() {
+        return keyContentKeys;
+    }
+
+    /**
+     * リクエストを上流に転送し、応答を記録して返す。
+     */
+    public ResponseData record(RequestData requestData, UpstreamRequest upstreamRequest) {
+        List<ConditionRule> rules = keyRules(requestData);
+        String responseId = responseIdOf(requestData.interfaceId(), rules);
+
+        CompletableFuture<ResponseData> created = new CompletableFuture<>();
+        CompletableFuture<ResponseData> existing = inFlight.putIfAbsent(responseId, created);
+        if (existing != null) {
+            return join(existing);
+        }
+        try {
+            ResponseData responseData = forwardAndRecord(requestData.interfaceId(), responseId, rules, upstreamRequest);
+            created.complete(responseData);
+            return responseData;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(responseId, created);
+        }
+    }
+
+    private ResponseData forwardAndRecord(String interfaceId, String responseId, List<ConditionRule> rules,
+                                          UpstreamRequest upstreamRequest) {
+        UpstreamResponse upstreamResponse = upstreamClient.forward(interfaceId, upstreamRequest);
+        MediaType contentType = contentTypeOf(upstreamResponse.headers());
+        String body = decode(upstreamResponse.body(), contentType);
+        ResponseData responseData = new ResponseData(responseId, upstreamResponse.headers(),
+                body != null ? body : new String(upstreamResponse.body(), charsetOf(contentType)),
+                HttpStatus.of(upstreamResponse.statusCode()));
+        if (upstreamResponse.statusCode() >= 500) {
+            return responseData;
+        }
+        if (body == null) {
+            // 文字列に変換すると元のバイト列に戻せず、記録した応答が上流と異なる内容になる
+            logger.warn("上流の応答がテキストでないため記録しない。interfaceId:{} contentType:{}", interfaceId, contentType);
+            return responseData;
+        }
+
+        ReentrantLock lock = interfaceLocks[Math.floorMod(interfaceId.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            ResponseData saved = responseDataRepository.save(responseData);
+            // 既存の条件を優先するため、生成した条件は末尾に追加する
+            ConditionEntry entry = conditionEntryRepository.findByInterfaceId(interfaceId).orElse(null);
+            List<ResponseIdCondition> conditions = entry == null ? new ArrayList<>() : new ArrayList<>(entry.responseIdConditions());
+            ResponseIdCondition condition = new ResponseIdCondition(responseId, new ConditionPolicy(rules));
+            if (!conditions.contains(condition)) {
+                conditions.add(condition);
+            }
+            conditionEntryRepository.save(new ConditionEntry(interfaceId, conditions,
+                    entry == null ? null : entry.latencyProfile(),
+                    entry == null ? null : entry.capacityPolicy()));
+            logger.info("上流の応答を記録。interfaceId:{} responseId:{} status:{}", interfaceId, responseId,
+                    upstreamResponse.statusCode());
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 設定した属性の値で一致する条件。値がない属性は、値がないことを条件にする。
+     */
+    private List<ConditionRule> keyRules(RequestData requestData) {
+        List<ConditionRule> rules = new ArrayList<>();
+        for (String header : keyHeaders) {
+            // ヘッダ名はクライアントが送った表記のまま格納されるため、送られた表記で条件を作る
+            String name = headerName(requestData, header);
+            List<String> values = RuleTarget.REQUEST_HEADER.values(requestData, name);
+            rules.add(values.isEmpty()
+                    ? new PresenceConditionRule(RuleTarget.REQUEST_HEADER, name, false)
+                    : new RequestHeaderConditionRule(name, values.get(0)));
+        }
+        for (String key : keyContentKeys.stream().sorted().toList()) {
+            List<String> values = RuleTarget.REQUEST_CONTENT.values(requestData, key);
+            rules.add(values.isEmpty()
+                    ? new PresenceConditionRule(RuleTarget.REQUEST_CONTENT, key, false)
+                    : new RequestContentConditionRule(key, values.get(0)));
+        }
+        return List.copyOf(rules);
+    }
+
+    private static String headerName(RequestData requestData, String header) {
+        if (requestData.requestHeaders() != null) {
+            for (String name : requestData.requestHeaders().keySet()) {
+                if (name.equalsIgnoreCase(header)) {
+                    return name;
+                }
+            }
+        }
+        return header;
+    }
+
+    private static String responseIdOf(String interfaceId, List<ConditionRule> rules) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((interfaceId + "\n" + rules).getBytes(StandardCharsets.UTF_8));
+            return "proxy-" + interfaceId + "-" + HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * テキストの応答を文字列に復号する。テキストでない、または文字セットで復号できない場合はnull。
+     */
+    private static String decode(byte[] body, MediaType contentType) {
+        if (contentType != null && !isText(contentType)) {
+            return null;
+        }
+        try {
+            return charsetOf(contentType).newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(body))
+                    .toString();
+        } catch (CharacterCodingException e) {
+            return null;
+        }
+    }
+
+    private static boolean isText(MediaType contentType) {
+        String subtype = contentType.getSubtype();
+        return "text".equals(contentType.getType())
+                || subtype.equals("json") || subtype.endsWith("+json")
+                || subtype.equals("xml") || subtype.endsWith("+xml")
+                || subtype.equals("x-www-form-urlencoded") || subtype.equals("javascript");
+    }
+
+    private static MediaType contentTypeOf(Map<String, List<String>> headers) {
+        HttpHeaders httpHeaders = new HttpHeaders();
+        headers.forEach(httpHeaders::addAll);
+        try {
+            return httpHeaders.getContentType();
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+    }
+
+    private static Charset charsetOf(MediaType contentType) {
+        return contentType != null && contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+    }
+
+    private static ResponseData join(CompletableFuture<ResponseData> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -9,6 +9,10 @@ public interface ResponseDataService {
 
     void saveResponseData(ResponseData responseData);
 
+    void saveAllResponseData(List<ResponseData> responseDataList);
+
+    void deleteResponseData(String responseId);
+
     Optional<ResponseData> getResponseDataById(String responseId);
 
     List<ResponseData> getAllResponseData();
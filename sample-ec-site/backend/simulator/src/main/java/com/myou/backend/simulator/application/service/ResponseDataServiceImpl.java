@@ -23,9 +23,19 @@ public class ResponseDataServiceImpl implements ResponseDataService {
         responseDataRepository.save(responseData);
     }
 
+    @Override
+    public void saveAllResponseData(List<ResponseData> responseDataList) {
+        responseDataRepository.saveAll(responseDataList);
+    }
+
+    @Override
+    public void deleteResponseData(String responseId) {
+        responseDataRepository.deleteByResponseId(responseId);
+    }
+
     @Override
     public Optional<ResponseData> getResponseDataById(String responseId) {
-        return responseDataRepository.findByResponseId(responseId);
+        return responseDataRepository.findWithBodyByResponseId(responseId);
     }
 
     @Override
@@ -0,0 +1,129 @@
+package com.myou.backend.simulator.application.service;
+
+import com.myou.backend.simulator.domain.model.ConditionEntry;
+import com.myou.backend.simulator.domain.model.ConditionMatcher;
+import com.myou.backend.simulator.domain.model.RequestData;
+import com.myou.backend.simulator.domain.model.ResponseIdCondition;
+import com.myou.backend.simulator.domain.model.scenario.Scenario;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * インターフェースID毎に、シナリオのキーの値毎の位置を保持する上限付きの状態。
+ * <p>
+ * 位置は {@link AtomicLong} をCASで進めるため、同じキーに同時にリクエストが届いてもロックを取らずに
+ * それぞれ異なるステップを返す。ロックを取るのはキーの状態を初めて作る時だけ。
+ * <p>
+ * 状態は条件エントリに紐づけて保持し、条件エントリの内容が変わった時点でそのインターフェースの状態を全て捨てる。
+ * ニアキャッシュからの破棄等でマッチャーが作り直されただけの場合は状態を引き継ぐ。
+ * 上限に達した場合は任意の1件を捨ててから追加する。
+ */
+class ScenarioStates {
+
+    private final int maxKeysPerInterface;
+    private final ConcurrentMap<String, States> states = new ConcurrentHashMap<>();
+
+    ScenarioStates(int maxKeysPerInterface) {
+        this.maxKeysPerInterface = maxKeysPerInterface;
+    }
+
+    /**
+     * 一致した条件が返すレスポンスID。シナリオを持つ場合はその状態を進める。
+     */
+    String responseIdOf(ConditionMatcher matcher, ResponseIdCondition condition, RequestData requestData) {
+        Scenario scenario = condition.scenario();
+        if (scenario == null) {
+            return condition.responseId();
+        }
+        if (!scenario.isStateful()) {
+            return scenario.pick(ThreadLocalRandom.current().nextDouble());
+        }
+        AtomicLong position = positionOf(statesOf(matcher), new Key(condition, scenario.keyOf(requestData)));
+        long current;
+        do {
+            current = position.get();
+        } while (!position.compareAndSet(current, scenario.advance(current)));
+        return scenario.responseIdAt(current);
+    }
+
+    /**
+     * インターフェースの状態を捨て、次の呼び出しを最初のステップに戻す。
+     *
+     * @return 捨てたキーの件数
+     */
+    int reset(String interfaceId) {
+        States removed = states.remove(interfaceId);
+        return removed == null ? 0 : removed.positions.size();
+    }
+
+    /**
+     * 全てのインターフェースの状態を捨てる。
+     *
+     * @return 捨てたキーの件数
+     */
+    int resetAll() {
+        int count = 0;
+        for (String interfaceId : states.keySet()) {
+            count += reset(interfaceId);
+        }
+        return count;
+    }
+
+    int size(String interfaceId) {
+        States current = states.get(interfaceId);
+        return current == null ? 0 : current.positions.size();
+    }
+
+    private AtomicLong positionOf(States current, Key key) {
+        AtomicLong position = current.positions.get(key);
+        if (position != null) {
+            return position;
+        }
+        if (current.positions.size() >= maxKeysPerInterface) {
+            Iterator<Key> iterator = current.positions.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        return current.positions.computeIfAbsent(key, k -> new AtomicLong());
+    }
+
+    private States statesOf(ConditionMatcher matcher) {
+        States current = states.get(matcher.interfaceId());
+        if (current != null && current.conditionEntry == matcher.conditionEntry()) {
+            return current;
+        }
+        return states.compute(matcher.interfaceId(), (key, existing) -> {
+            if (existing == null || !existing.conditionEntry.equals(matcher.conditionEntry())) {
+                return new States(matcher.conditionEntry());
+            }
+            // 内容が同じであれば状態を引き継ぎ、以降は参照の比較だけで済ませる
+            return existing.conditionEntry == matcher.conditionEntry() ? existing : new States(matcher.conditionEntry(), existing.positions);
+        });
+    }
+
+    /**
+     * @param condition 同じ条件エントリに内容の等しい条件が複数ある場合は状態を共有する
+     */
+    private record Key(ResponseIdCondition condition, String value) {
+    }
+
+    private static final class States {
+        private final ConditionEntry conditionEntry;
+        private final ConcurrentMap<Key, AtomicLong> positions;
+
+        private States(ConditionEntry conditionEntry) {
+            this(conditionEntry, new ConcurrentHashMap<>());
+        }
+
+        private States(ConditionEntry conditionEntry, ConcurrentMap<Key, AtomicLong> positions) {
+            this.conditionEntry = conditionEntry;
+            this.positions = positions;
+        }
+    }
+}
@@ -1,9 +1,50 @@
 package com.myou.backend.simulator.application.service;
 
+import com.myou.backend.simulator.application.upstream.UpstreamRequest;
 import com.myou.backend.simulator.domain.model.RequestData;
 import com.myou.backend.simulator.domain.model.ResponseData;
+import com.myou.backend.simulator.domain.model.XmlPath;
+import com.myou.backend.simulator.domain.model.capacity.CapacityLimiter;
+import com.myou.backend.simulator.domain.model.latency.LatencyProfile;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 public interface SimulatorService {
 
     ResponseData processRequest(RequestData requestData);
+
+    /**
+     * @param upstreamRequest 条件に一致しない場合に上流へ転送するリクエスト。nullの場合は転送しない
+     */
+    ResponseData processRequest(RequestData requestData, UpstreamRequest upstreamRequest);
+
+    /**
+     * 条件に一致しないリクエストを上流に転送して記録するか。転送する場合、呼び出し側はボディを保持して渡す必要がある。
+     */
+    boolean recordThroughEnabled();
+
+    /**
+     * シナリオの状態を捨て、次の呼び出しを最初のステップに戻す。
+     *
+     * @param interfaceId 対象のインターフェースID。nullの場合は全て
+     * @return 捨てた状態(シナリオのキーの値)の件数
+     */
+    int resetScenarios(String interfaceId);
+
+    Set<String> findContentKeys(String interfaceId);
+
+    List<XmlPath> findXmlPaths(String interfaceId);
+
+    /**
+     * レスポンスに適用する遅延。インターフェース単位の指定があればレスポンスデータの指定より優先する。
+     */
+    Optional<LatencyProfile> findLatencyProfile(String interfaceId, ResponseData responseData);
+
+    /**
+     * インターフェースの処理能力を制御するリミッター。処理能力の指定がない場合は空。
+     * 同じ指定である限り同じインスタンスを返し、状態(トークン・処理中の件数)を引き継ぐ。
+     */
+    Optional<CapacityLimiter> findCapacityLimiter(String interfaceId);
 }
@@ -1,31 +1,185 @@
 package com.myou.backend.simulator.application.service;
 
+import com.myou.backend.simulator.application.metrics.RequestMetrics;
+import com.myou.backend.simulator.application.metrics.RequestMetrics.Outcome;
 import com.myou.backend.simulator.application.repository.ConditionEntryRepository;
 import com.myou.backend.simulator.application.repository.ResponseDataRepository;
+import com.myou.backend.simulator.application.upstream.UpstreamRequest;
+import com.myou.backend.simulator.domain.model.ConditionMatcher;
 import com.myou.backend.simulator.domain.model.RequestData;
 import com.myou.backend.simulator.domain.model.ResponseData;
+import com.myou.backend.simulator.domain.model.ResponseIdCondition;
+import com.myou.backend.simulator.domain.model.XmlPath;
+import com.myou.backend.simulator.domain.model.capacity.CapacityLimiter;
+import com.myou.backend.simulator.domain.model.capacity.CapacityPolicy;
+import com.myou.backend.simulator.domain.model.latency.LatencyProfile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
 @Service("simulatorService")
 public class SimulatorServiceImpl implements SimulatorService {
 
+    private static final int DEFAULT_SCENARIO_MAX_KEYS = 10000;
+
     private final ConditionEntryRepository conditionEntryRepository;
     private final ResponseDataRepository responseDataRepository;
+    private final RequestMetrics requestMetrics;
+    private final MatchResultCache matchResultCache;
+    private final ScenarioStates scenarioStates;
+    private final RecordThroughProxy recordThroughProxy;
+    private final ConcurrentMap<String, CapacityLimiter> capacityLimiters = new ConcurrentHashMap<>();
+
+    public SimulatorServiceImpl(ConditionEntryRepository conditionEntryRepository, ResponseDataRepository responseDataRepository,
+                                RequestMetrics requestMetrics, int matchCacheMaxEntries) {
+        this(conditionEntryRepository, responseDataRepository, requestMetrics, matchCacheMaxEntries,
+                DEFAULT_SCENARIO_MAX_KEYS, null);
+    }
 
-    public SimulatorServiceImpl(ConditionEntryRepository conditionEntryRepository, ResponseDataRepository responseDataRepository) {
+    /**
+     * @param matchCacheMaxEntries インターフェースID毎にキャッシュする一致結果の上限。0以下の場合はキャッシュしない
+     * @param scenarioMaxKeys      インターフェースID毎に保持するシナリオの状態(キーの値)の上限
+     * @param recordThroughProxy   一致しないリクエストを上流に転送して記録するプロキシ。nullの場合は転送しない
+     */
+    @Autowired
+    public SimulatorServiceImpl(ConditionEntryRepository conditionEntryRepository, ResponseDataRepository responseDataRepository,
+                                RequestMetrics requestMetrics,
+                                @Value("${simulator.match-cache.max-entries-per-interface:1024}") int matchCacheMaxEntries,
+                                @Value("${simulator.scenario.max-keys-per-interface:" + DEFAULT_SCENARIO_MAX_KEYS + "}") int scenarioMaxKeys,
+                                RecordThroughProxy recordThroughProxy) {
         this.conditionEntryRepository = conditionEntryRepository;
         this.responseDataRepository = responseDataRepository;
+        this.requestMetrics = requestMetrics;
+        this.matchResultCache = new MatchResultCache(matchCacheMaxEntries);
+        this.scenarioStates = new ScenarioStates(scenarioMaxKeys);
+        this.recordThroughProxy = recordThroughProxy;
+    }
+
+    @Override
+    public boolean recordThroughEnabled() {
+        return recordThroughProxy != null && recordThroughProxy.enabled();
     }
 
     @Override
     public ResponseData processRequest(RequestData requestData) {
+        return processRequest(requestData, null);
+    }
+
+    @Override
+    public ResponseData processRequest(RequestData requestData, UpstreamRequest upstreamRequest) {
+        long lookupStart = System.nanoTime();
+        Optional<ConditionMatcher> matcher = conditionEntryRepository.findMatcherByInterfaceId(requestData.interfaceId());
+        long evaluationStart = System.nanoTime();
+        // 呼び出し元が送る存在しないインターフェースIDでタグの上限を消費しないよう、固定のタグにまとめる
+        RequestMetrics.Recorder metrics = matcher.isPresent()
+                ? requestMetrics.forInterface(requestData.interfaceId())
+                : requestMetrics.unknownInterface();
+        metrics.recordLookup(evaluationStart - lookupStart);
+        if (matcher.isEmpty()) {
+            if (upstreamRequest != null && recordThroughEnabled()) {
+                metrics.recordUnmatched(Outcome.PROXIED);
+                return recordThroughProxy.record(requestData, upstreamRequest);
+            }
+            metrics.recordUnmatched(Outcome.UNKNOWN_INTERFACE);
+            throw new IllegalArgumentException("インターフェースIDの条件エントリが存在しない、またはリクエストの内容が条件に一致しない");
+        }
+
+        // 負荷試験のトラフィックは同じ値の繰り返しが多いため、条件が参照する値が同じであれば評価結果を再利用する
+        Optional<ResponseIdCondition> condition = matchResultCache.enabled()
+                ? matchResultCache.searchCondition(matcher.get(), requestData, metrics)
+                : matcher.get().searchCondition(requestData);
+        metrics.recordRuleEvaluation(System.nanoTime() - evaluationStart);
+        if (condition.isEmpty()) {
+            if (upstreamRequest != null && recordThroughEnabled()) {
+                metrics.recordUnmatched(Outcome.PROXIED);
+                return recordThroughProxy.record(requestData, upstreamRequest);
+            }
+            metrics.recordUnmatched(Outcome.NO_MATCH);
+            throw new IllegalArgumentException("インターフェースIDの条件エントリが存在しない、またはリクエストの内容が条件に一致しない");
+        }
+
+        String responseId = scenarioStates.responseIdOf(matcher.get(), condition.get(), requestData);
+        Optional<ResponseData> responseData = responseDataRepository.findByResponseId(responseId);
+        if (responseData.isEmpty()) {
+            metrics.recordUnmatched(Outcome.RESPONSE_NOT_FOUND);
+            throw new IllegalArgumentException("レスポンスIDがレスポンスデータに存在しない。responseId:" + responseId);
+        }
+        metrics.recordMatched(responseId);
+        return responseData.get();
+    }
+
+    @Override
+    public int resetScenarios(String interfaceId) {
+        return interfaceId == null ? scenarioStates.resetAll() : scenarioStates.reset(interfaceId);
+    }
+
+    @Override
+    public Set<String> findContentKeys(String interfaceId) {
+        Set<String> contentKeys = conditionEntryRepository.findMatcherByInterfaceId(interfaceId)
+                .map(ConditionMatcher::contentKeys)
+                .orElse(Set.of());
+        if (!recordThroughEnabled() || contentKeys.containsAll(recordThroughProxy.contentKeys())) {
+            return contentKeys;
+        }
+        // 転送時に条件を生成できるよう、プロキシが条件に使うキーも抽出する
+        Set<String> merged = new HashSet<>(contentKeys);
+        merged.addAll(recordThroughProxy.contentKeys());
+        return merged;
+    }
 
-        String responseId = conditionEntryRepository.findByInterfaceId(requestData.interfaceId())
-                .flatMap(e -> e.searchResponseId(requestData))
-                .orElseThrow(() -> new IllegalArgumentException("インターフェースIDの条件エントリが存在しない、またはリクエストの内容が条件に一致しない"));
+    @Override
+    public List<XmlPath> findXmlPaths(String interfaceId) {
+        List<XmlPath> xmlPaths = conditionEntryRepository.findMatcherByInterfaceId(interfaceId)
+                .map(ConditionMatcher::xmlPaths)
+                .orElse(List.of());
+        if (!recordThroughEnabled()) {
+            return xmlPaths;
+        }
+        Set<String> expressions = xmlPaths.stream().map(XmlPath::expression).collect(Collectors.toSet());
+        List<XmlPath> merged = new ArrayList<>(xmlPaths);
+        for (String key : recordThroughProxy.contentKeys()) {
+            if (!expressions.contains(key)) {
+                try {
+                    merged.add(XmlPath.of(key));
+                } catch (IllegalArgumentException e) {
+                    // XPathとして不正なキーはXMLリクエストでは抽出しない
+                }
+            }
+        }
+        return merged;
+    }
 
-        return responseDataRepository.findByResponseId(responseId)
-                .orElseThrow(() -> new IllegalArgumentException("レスポンスIDがレスポンスデータに存在しない。responseId:" + responseId));
+    @Override
+    public Optional<LatencyProfile> findLatencyProfile(String interfaceId, ResponseData responseData) {
+        return conditionEntryRepository.findMatcherByInterfaceId(interfaceId)
+                .map(m -> m.conditionEntry().latencyProfile())
+                .or(() -> Optional.ofNullable(responseData.latencyProfile()));
+    }
 
+    @Override
+    public Optional<CapacityLimiter> findCapacityLimiter(String interfaceId) {
+        CapacityPolicy policy = conditionEntryRepository.findMatcherByInterfaceId(interfaceId)
+                .map(m -> m.conditionEntry().capacityPolicy())
+                .orElse(null);
+        if (policy == null) {
+            capacityLimiters.remove(interfaceId);
+            return Optional.empty();
+        }
+        CapacityLimiter current = capacityLimiters.get(interfaceId);
+        if (current != null && current.policy().equals(policy)) {
+            return Optional.of(current);
+        }
+        // 指定が変更された場合のみ作り直す
+        return Optional.of(capacityLimiters.compute(interfaceId,
+                (key, existing) -> existing != null && existing.policy().equals(policy) ? existing : new CapacityLimiter(policy)));
     }
 }
@@ -0,0 +1,21 @@
+package com.myou.backend.simulator.application.upstream;
+
+import java.io.UncheckedIOException;
+
+/**
+ * 条件エントリのないリクエストの転送先。
+ */
+public interface UpstreamClient {
+
+    /**
+     * 上流が設定されているか。
+     */
+    boolean enabled();
+
+    /**
+     * 上流の {@code /{interfaceId}} にリクエストを転送する。
+     *
+     * @throws UncheckedIOException 上流に接続できない、またはタイムアウトした場合
+     */
+    UpstreamResponse forward(String interfaceId, UpstreamRequest request);
+}
@@ -0,0 +1,13 @@
+package com.myou.backend.simulator.application.upstream;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 上流に転送するリクエスト。
+ *
+ * @param queryString クエリ文字列。ない場合はnull
+ * @param body        ボディ。ない場合はnull
+ */
+public record UpstreamRequest(String method, String queryString, Map<String, List<String>> headers, byte[] body) {
+}
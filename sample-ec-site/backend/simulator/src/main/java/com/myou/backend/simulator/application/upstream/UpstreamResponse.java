@@ -0,0 +1,10 @@
+package com.myou.backend.simulator.application.upstream;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 上流から受け取ったレスポンス。ヘッダはホップ毎のヘッダを除いたもの。
+ */
+public record UpstreamResponse(int statusCode, Map<String, List<String>> headers, byte[] body) {
+}
@@ -1,8 +1,22 @@
 package com.myou.backend.simulator.config;
 
+import com.myou.backend.simulator.infrastructure.cache.DefinitionCache;
+import com.myou.backend.simulator.infrastructure.cache.DefinitionChangeNotifier;
+import com.myou.backend.simulator.infrastructure.cache.RedisDefinitionChangeNotifier;
+import com.myou.backend.simulator.infrastructure.storage.BatchingKeyValueRepository;
+import com.myou.backend.simulator.infrastructure.storage.BinaryRedisKeyValueAdapter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.keyvalue.core.KeyValueTemplate;
+import org.springframework.data.keyvalue.core.mapping.context.KeyValueMappingContext;
 import org.springframework.data.map.repository.config.EnableMapRepositories;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.repository.configuration.EnableRedisRepositories;
 
 @Configuration(proxyBeanMethods = false)
@@ -10,11 +24,62 @@ public class SimulatorConfig {
 
     @ConditionalOnProperty(prefix = "spring.data.redis.repositories", name = "enable", havingValue = "false", matchIfMissing = true)
     @EnableMapRepositories(basePackages = "com.myou.backend.simulator.infrastructure.storage")
-    public static class MapRepository{}
+    public static class MapRepository{
 
+        // 単一ノードのためキャッシュは保存時の更新のみで整合する
+        @Bean
+        public DefinitionChangeNotifier definitionChangeNotifier() {
+            return DefinitionChangeNotifier.noop();
+        }
+    }
+
+    // 保存形式毎の入れ子の設定を読み込ませるため、構成クラスとして登録する
     @ConditionalOnProperty(prefix = "spring.data.redis.repositories", name = "enable", havingValue = "true", matchIfMissing = false)
-    @EnableRedisRepositories(basePackages = "com.myou.backend.simulator.infrastructure.storage")
-    public static class RedisRepository{}
+    @Configuration(proxyBeanMethods = false)
+    public static class RedisRepository{
+
+        // キースペースマッピング(ハッシュと二次インデックス)で保存する
+        @ConditionalOnProperty(prefix = "simulator.storage", name = "redis-format", havingValue = "hash", matchIfMissing = true)
+        @EnableRedisRepositories(basePackages = "com.myou.backend.simulator.infrastructure.storage")
+        public static class HashFormat {
+        }
+
+        // 定義を1キー1値のバイナリで保存する
+        @ConditionalOnProperty(prefix = "simulator.storage", name = "redis-format", havingValue = "binary")
+        @EnableMapRepositories(basePackages = "com.myou.backend.simulator.infrastructure.storage",
+                keyValueTemplateRef = "binaryRedisKeyValueTemplate",
+                repositoryBaseClass = BatchingKeyValueRepository.class)
+        public static class BinaryFormat {
+
+            @Bean
+            public KeyValueTemplate binaryRedisKeyValueTemplate(StringRedisTemplate redisTemplate) {
+                KeyValueMappingContext<?, ?> mappingContext = new KeyValueMappingContext<>();
+                return new KeyValueTemplate(new BinaryRedisKeyValueAdapter(redisTemplate, mappingContext), mappingContext);
+            }
+        }
+
+        @Bean
+        public RedisDefinitionChangeNotifier definitionChangeNotifier(StringRedisTemplate redisTemplate,
+                                                                      DefinitionCache definitionCache) {
+            return new RedisDefinitionChangeNotifier(redisTemplate, definitionCache);
+        }
+
+        @Bean
+        public RedisMessageListenerContainer definitionChangeListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                               RedisDefinitionChangeNotifier notifier,
+                                                                               Environment environment) {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            if (Threading.VIRTUAL.isActive(environment)) {
+                // 仮想スレッドモードではサブスクライブと通知の処理も仮想スレッドで行う
+                SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("definition-change-");
+                executor.setVirtualThreads(true);
+                container.setTaskExecutor(executor);
+            }
+            container.addMessageListener(notifier, RedisDefinitionChangeNotifier.TOPIC);
+            return container;
+        }
+    }
 
 
 }
@@ -0,0 +1,12 @@
+package com.myou.backend.simulator.domain.model;
+
+import java.io.Serializable;
+
+/**
+ * ヒープ外のボディストアに保存したレスポンスボディへの参照。
+ *
+ * @param key    エンコード後のボディのSHA-256(16進)。同じ内容のボディは同じキーになる
+ * @param length エンコード後のバイト数
+ */
+public record BodyHandle(String key, long length) implements Serializable {
+}
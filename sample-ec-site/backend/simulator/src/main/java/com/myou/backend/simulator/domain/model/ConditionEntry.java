@@ -1,11 +1,28 @@
 package com.myou.backend.simulator.domain.model;
 
+import com.myou.backend.simulator.domain.model.capacity.CapacityPolicy;
+import com.myou.backend.simulator.domain.model.latency.LatencyProfile;
+import org.springframework.lang.Nullable;
+
 import java.io.Serializable;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * @param latencyProfile インターフェース単位の遅延。指定した場合はレスポンスデータの遅延より優先する
+ * @param capacityPolicy インターフェース単位の処理能力。nullの場合は制限しない
+ */
 public record ConditionEntry(String interfaceId,
-                             List<ResponseIdCondition> responseIdConditions) implements Serializable {
+                             List<ResponseIdCondition> responseIdConditions,
+                             @Nullable
+                             LatencyProfile latencyProfile,
+                             @Nullable
+                             CapacityPolicy capacityPolicy) implements Serializable {
+
+    public ConditionEntry(String interfaceId, List<ResponseIdCondition> responseIdConditions) {
+        this(interfaceId, responseIdConditions, null, null);
+    }
+
     public Optional<String> searchResponseId(RequestData requestData) {
         return responseIdConditions.stream()
                 .filter(c -> c.matches(requestData))
@@ -0,0 +1,342 @@
+package com.myou.backend.simulator.domain.model;
+
+import com.myou.backend.simulator.domain.model.scenario.Scenario;
+import com.myou.backend.simulator.domain.policy.CompiledConditionPolicy;
+import com.myou.backend.simulator.domain.policy.rule.ConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.PrefixConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.PresenceConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.RangeConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.RegexConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.RequestContentConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.RequestHeaderConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.SetConditionRule;
+import com.myou.backend.simulator.domain.type.RuleOrdering;
+import com.myou.backend.simulator.domain.type.RuleTarget;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 条件エントリをコンパイルした不変のマッチャー。
+ * 各条件をヘッダ名・コンテンツキーと期待値で索引化し、リクエストに一致し得る候補だけを宣言順に評価する。
+ * <p>
+ * 抽出するコンテンツのキーには、条件が返すレスポンスデータのテンプレートが参照するキーも含める。
+ * ボディはストリーミングで一度だけ読むため、レスポンスを決める前に必要な値を全て抽出しておく。
+ * <p>
+ * 各条件のポリシーは評価順を決めてコンパイルし、安価で一致しにくいルールから評価する。
+ * <p>
+ * シナリオを持つ条件は、シナリオの各ステップのレスポンスIDとシナリオのキーも参照するものとして扱う。
+ */
+public final class ConditionMatcher {
+
+    private final ConditionEntry conditionEntry;
+    private final ResponseIdCondition[] conditions;
+    private final CompiledConditionPolicy[] policies;
+    private final int[] unindexedConditions;
+    private final Map<String, Map<String, int[]>> headerIndex;
+    private final Map<String, Map<String, int[]>> contentIndex;
+    private final Set<String> contentKeys;
+    private final String[] ruleHeaderNames;
+    private final String[] ruleContentKeys;
+    private final List<XmlPath> xmlPaths;
+    private final Set<String> responseIds;
+
+    private ConditionMatcher(ConditionEntry conditionEntry,
+                             int[] unindexedConditions,
+                             Map<String, Map<String, int[]>> headerIndex,
+                             Map<String, Map<String, int[]>> contentIndex,
+                             Set<String> contentKeys,
+                             Set<String> ruleHeaderNames,
+                             Set<String> ruleContentKeys,
+                             RuleOrdering ruleOrdering) {
+        this.conditionEntry = conditionEntry;
+        this.conditions = conditionEntry.responseIdConditions().toArray(ResponseIdCondition[]::new);
+        this.policies = new CompiledConditionPolicy[conditions.length];
+        for (int i = 0; i < conditions.length; i++) {
+            policies[i] = CompiledConditionPolicy.compile(conditions[i].conditionPolicy(), ruleOrdering);
+        }
+        this.unindexedConditions = unindexedConditions;
+        this.headerIndex = headerIndex;
+        this.contentIndex = contentIndex;
+        this.contentKeys = contentKeys;
+        this.ruleHeaderNames = ruleHeaderNames.toArray(String[]::new);
+        this.ruleContentKeys = ruleContentKeys.toArray(String[]::new);
+        this.xmlPaths = compileXmlPaths(contentKeys);
+        this.responseIds = conditionEntry.responseIdConditions().stream()
+                .flatMap(ConditionMatcher::responseIdsOf)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public static ConditionMatcher compile(ConditionEntry conditionEntry) {
+        return compile(conditionEntry, responseId -> Set.of(), RuleOrdering.STATIC);
+    }
+
+    /**
+     * @param responseContentKeys レスポンスIDから、そのレスポンスデータのテンプレートが参照するコンテンツのキーを返す
+     * @param ruleOrdering        各条件のルールの評価順の決め方
+     */
+    public static ConditionMatcher compile(ConditionEntry conditionEntry,
+                                           Function<String, Set<String>> responseContentKeys,
+                                           RuleOrdering ruleOrdering) {
+        List<ResponseIdCondition> responseIdConditions = conditionEntry.responseIdConditions();
+        List<Integer> unindexed = new ArrayList<>();
+        Map<String, Map<String, List<Integer>>> headerIndex = new HashMap<>();
+        Map<String, Map<String, List<Integer>>> contentIndex = new HashMap<>();
+        Set<String> headerNames = new HashSet<>();
+        Set<String> contentKeys = new HashSet<>();
+        Set<String> scenarioContentKeys = new HashSet<>();
+
+        for (int i = 0; i < responseIdConditions.size(); i++) {
+            List<ConditionRule> rules = responseIdConditions.get(i).conditionPolicy().rules();
+            for (ConditionRule rule : rules) {
+                String key = key(rule);
+                if (key != null) {
+                    (target(rule) == RuleTarget.REQUEST_HEADER ? headerNames : contentKeys).add(key);
+                }
+            }
+            Scenario scenario = responseIdConditions.get(i).scenario();
+            if (scenario != null && scenario.keyTarget() == RuleTarget.REQUEST_CONTENT) {
+                scenarioContentKeys.add(scenario.key());
+            }
+            // ヘッダ条件は取得が安価なため、コンテンツ条件より優先して索引に使う
+            if (addIndex(headerIndex, rules, RuleTarget.REQUEST_HEADER, i)
+                    || addIndex(contentIndex, rules, RuleTarget.REQUEST_CONTENT, i)) {
+                continue;
+            }
+            unindexed.add(i);
+        }
+        Set<String> extractedKeys = new HashSet<>(contentKeys);
+        extractedKeys.addAll(scenarioContentKeys);
+        responseIdConditions.stream()
+                .flatMap(ConditionMatcher::responseIdsOf)
+                .distinct()
+                .forEach(responseId -> extractedKeys.addAll(responseContentKeys.apply(responseId)));
+
+        return new ConditionMatcher(
+                conditionEntry,
+                toArray(unindexed),
+                freeze(headerIndex),
+                freeze(contentIndex),
+                Set.copyOf(extractedKeys),
+                headerNames,
+                contentKeys,
+                ruleOrdering);
+    }
+
+    public String interfaceId() {
+        return conditionEntry.interfaceId();
+    }
+
+    public ConditionEntry conditionEntry() {
+        return conditionEntry;
+    }
+
+    /**
+     * いずれかの条件が参照するコンテンツのキー(JSON Pointer等)。
+     * リクエストボディからはこのキーの値だけを抽出すればよい。
+     */
+    public Set<String> contentKeys() {
+        return contentKeys;
+    }
+
+    /**
+     * 条件が返し得るレスポンスID。
+     */
+    public Set<String> responseIds() {
+        return responseIds;
+    }
+
+    /**
+     * コンテンツのキーのうちXPathとして有効なものを、登録時にコンパイルしたもの。
+     */
+    public List<XmlPath> xmlPaths() {
+        return xmlPaths;
+    }
+
+    /**
+     * 条件が参照するリクエストの値(ヘッダの値とコンテンツの値)だけからなる指紋。
+     * 指紋が等しいリクエストは、このマッチャーで必ず同じ結果になる。
+     * ボディがない場合は値を判定できないため空を返す。
+     */
+    public Optional<Fingerprint> fingerprint(RequestData requestData) {
+        if (requestData.content() == null && ruleContentKeys.length > 0) {
+            return Optional.empty();
+        }
+        List<List<String>> values = new ArrayList<>(ruleHeaderNames.length + ruleContentKeys.length);
+        for (String headerName : ruleHeaderNames) {
+            values.add(copyOf(RuleTarget.REQUEST_HEADER.values(requestData, headerName)));
+        }
+        for (String contentKey : ruleContentKeys) {
+            values.add(copyOf(RuleTarget.REQUEST_CONTENT.values(requestData, contentKey)));
+        }
+        return Optional.of(new Fingerprint(values));
+    }
+
+    public Optional<String> searchResponseId(RequestData requestData) {
+        return searchCondition(requestData).map(ResponseIdCondition::responseId);
+    }
+
+    /**
+     * 最初に一致した条件。シナリオを持つ場合、返すレスポンスは呼び出し側がシナリオの状態から決める。
+     */
+    public Optional<ResponseIdCondition> searchCondition(RequestData requestData) {
+        BitSet candidates = new BitSet(conditions.length);
+        for (int i : unindexedConditions) {
+            candidates.set(i);
+        }
+        if (!headerIndex.isEmpty() && requestData.requestHeaders() != null) {
+            Map<String, List<String>> headers = requestData.requestHeaders();
+            headerIndex.forEach((headerName, byValue) -> collect(byValue, headers.get(headerName), candidates));
+        }
+        if (!contentIndex.isEmpty() && requestData.content() != null) {
+            RequestContent content = requestData.content();
+            contentIndex.forEach((key, byValue) -> collect(byValue, content.extractValues(key), candidates));
+        }
+
+        // 宣言順に評価し、最初に一致した条件を採用する
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (policies[i].apply(requestData)) {
+                return Optional.of(conditions[i]);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static void collect(Map<String, int[]> byValue, List<String> actualValues, BitSet candidates) {
+        if (actualValues == null) {
+            return;
+        }
+        for (String actualValue : actualValues) {
+            int[] indexes = actualValue == null ? null : byValue.get(actualValue);
+            if (indexes != null) {
+                for (int i : indexes) {
+                    candidates.set(i);
+                }
+            }
+        }
+    }
+
+    private static Stream<String> responseIdsOf(ResponseIdCondition condition) {
+        Stream<String> responseIds = condition.scenario() == null
+                ? Stream.of(condition.responseId())
+                : Stream.concat(Stream.of(condition.responseId()), condition.scenario().responseIds().stream());
+        return responseIds.filter(Objects::nonNull);
+    }
+
+    private static List<XmlPath> compileXmlPaths(Set<String> contentKeys) {
+        List<XmlPath> compiled = new ArrayList<>();
+        for (String key : contentKeys) {
+            try {
+                compiled.add(XmlPath.of(key));
+            } catch (IllegalArgumentException e) {
+                // XPathとして不正なキーは抽出対象外とし、XMLリクエストでは一致しない
+            }
+        }
+        return List.copyOf(compiled);
+    }
+
+    private static RuleTarget target(ConditionRule rule) {
+        return switch (rule) {
+            case RequestHeaderConditionRule r -> RuleTarget.REQUEST_HEADER;
+            case RequestContentConditionRule r -> RuleTarget.REQUEST_CONTENT;
+            case PrefixConditionRule r -> r.target();
+            case RegexConditionRule r -> r.target();
+            case RangeConditionRule r -> r.target();
+            case PresenceConditionRule r -> r.target();
+            case SetConditionRule r -> r.target();
+        };
+    }
+
+    private static String key(ConditionRule rule) {
+        return switch (rule) {
+            case RequestHeaderConditionRule r -> r.headerName();
+            case RequestContentConditionRule r -> r.key();
+            case PrefixConditionRule r -> r.key();
+            case RegexConditionRule r -> r.key();
+            case RangeConditionRule r -> r.key();
+            case PresenceConditionRule r -> r.key();
+            case SetConditionRule r -> r.key();
+        };
+    }
+
+    // リクエストの値のリストは可変の場合があるため、キャッシュのキーに使えるよう複製する。値のnullも保持する
+    private static List<String> copyOf(List<String> values) {
+        return values.isEmpty() ? List.of() : Arrays.asList(values.toArray(String[]::new));
+    }
+
+    /**
+     * 期待値が決まっているルール(完全一致、集合)のうち最初のもので索引に登録する。
+     *
+     * @return 登録した場合はtrue
+     */
+    private static boolean addIndex(Map<String, Map<String, List<Integer>>> index, List<ConditionRule> rules,
+                                    RuleTarget target, int conditionIndex) {
+        for (ConditionRule rule : rules) {
+            IndexEntry entry = indexEntry(rule, target);
+            if (entry != null) {
+                Map<String, List<Integer>> byValue = index.computeIfAbsent(entry.key(), k -> new HashMap<>());
+                entry.expectedValues().forEach(expectedValue ->
+                        byValue.computeIfAbsent(expectedValue, v -> new ArrayList<>()).add(conditionIndex));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static IndexEntry indexEntry(ConditionRule rule, RuleTarget target) {
+        IndexEntry entry = switch (rule) {
+            case RequestHeaderConditionRule r when target == RuleTarget.REQUEST_HEADER && r.expectedValue() != null ->
+                    new IndexEntry(r.headerName(), List.of(r.expectedValue()));
+            case RequestContentConditionRule r when target == RuleTarget.REQUEST_CONTENT && r.expectedValue() != null ->
+                    new IndexEntry(r.key(), List.of(r.expectedValue()));
+            case SetConditionRule r when r.target() == target -> new IndexEntry(r.key(), r.values());
+            default -> null;
+        };
+        return entry == null || entry.key() == null ? null : entry;
+    }
+
+    private record IndexEntry(String key, Collection<String> expectedValues) {
+    }
+
+    /**
+     * @param values 条件が参照するヘッダ名・コンテンツのキー毎の値。並びはマッチャー毎に固定
+     */
+    public record Fingerprint(List<List<String>> values) {
+    }
+
+    private static Map<String, Map<String, int[]>> freeze(Map<String, Map<String, List<Integer>>> index) {
+        Map<String, Map<String, int[]>> frozen = new HashMap<>();
+        index.forEach((key, byValue) -> {
+            Map<String, int[]> frozenByValue = new HashMap<>();
+            byValue.forEach((value, indexes) -> frozenByValue.put(value, toArray(indexes)));
+            frozen.put(key, Map.copyOf(frozenByValue));
+        });
+        return Map.copyOf(frozen);
+    }
+
+    private static int[] toArray(List<Integer> indexes) {
+        return indexes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Override
+    public String toString() {
+        return "ConditionMatcher{" +
+                "interfaceId='" + interfaceId() + '\'' +
+                ", conditions=" + conditions.length +
+                ", headerIndexKeys=" + headerIndex.keySet() +
+                ", contentIndexKeys=" + contentIndex.keySet() +
+                '}';
+    }
+}
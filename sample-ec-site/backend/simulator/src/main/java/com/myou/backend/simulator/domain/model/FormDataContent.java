@@ -8,4 +8,12 @@ public record FormDataContent(Map<String, List<String>> formData) implements Req
     public boolean matches(String key, String expectedValue) {
         return formData.containsKey(key) && formData.get(key).contains(expectedValue);
     }
+
+    @Override
+    public List<String> extractValues(String key) {
+        if (formData == null || !formData.containsKey(key)) {
+            return List.of();
+        }
+        return formData.get(key);
+    }
 }
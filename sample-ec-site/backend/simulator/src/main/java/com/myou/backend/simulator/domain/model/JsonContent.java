@@ -6,10 +6,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.Assert;
 
+import java.util.List;
+
 public record JsonContent(String content, JsonNode rootNode) implements RequestContent {
 
     private static final Logger logger = LoggerFactory.getLogger(JsonContent.class);
 
+    // JsonMapperはスレッドセーフなため、リクエスト毎に生成せず共有する
+    static final JsonMapper JSON_MAPPER = JsonMapper.builder().build();
+
     public JsonContent(String content) {
         this(content, parseJson(content));
     }
@@ -17,7 +22,7 @@ public record JsonContent(String content, JsonNode rootNode) implements RequestC
     private static JsonNode parseJson(String json) {
         Assert.hasText(json, () -> "json content is null or blank");
         try {
-            return JsonMapper.builder().build().readTree(json);
+            return JSON_MAPPER.readTree(json);
         } catch (Exception e) {
             throw new IllegalArgumentException("Provided string is not valid JSON.", e);
         }
@@ -40,4 +45,15 @@ public record JsonContent(String content, JsonNode rootNode) implements RequestC
             return false;
         }
     }
+
+    @Override
+    public List<String> extractValues(String key) {
+        try {
+            JsonNode targetNode = rootNode.at(key);
+            return targetNode.isMissingNode() ? List.of() : List.of(targetNode.asText());
+        } catch (Exception e) {
+            logger.error("JSONデータの解析に失敗", e);
+            return List.of();
+        }
+    }
 }
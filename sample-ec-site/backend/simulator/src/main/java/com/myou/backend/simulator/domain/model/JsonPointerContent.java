@@ -0,0 +1,144 @@
+package com.myou.backend.simulator.domain.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 条件が参照するJSON Pointerの値だけをストリーミングで抽出したJSONコンテンツ。
+ * <p>
+ * {@link JsonContent} と異なりボディ全体のツリーは構築しない。
+ * 参照されないサブツリーは読み飛ばす。読み飛ばす部分も構文は検証するため、{@link JsonContent} と同様に不正なJSONは受け付けない。
+ * 値は {@link JsonNode#asText()} と同じ表現で保持するため、{@link JsonContent} と同じ判定結果になる。
+ */
+public record JsonPointerContent(Map<String, String> values) implements RequestContent {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonPointerContent.class);
+
+    public static JsonPointerContent read(InputStream inputStream, Set<String> pointers) {
+        PointerNode root = PointerNode.compile(pointers);
+        Map<String, String> values = new HashMap<>();
+        try (JsonParser parser = JsonContent.JSON_MAPPER.createParser(inputStream)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw new IllegalArgumentException("json content is null or blank");
+            }
+            if (!root.isEmpty()) {
+                readValue(parser, root, values);
+            } else {
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Provided string is not valid JSON.", e);
+        }
+        return new JsonPointerContent(Map.copyOf(values));
+    }
+
+    /**
+     * パーサが値の先頭トークンを指している状態で呼び出し、値の末尾まで読み進める。
+     */
+    private static void readValue(JsonParser parser, PointerNode node, Map<String, String> values) throws IOException {
+        if (node.pointer != null) {
+            // Pointerの終端に達した値はツリー化し、配下のPointerもそのツリーから解決する
+            JsonNode subtree = JsonContent.JSON_MAPPER.readTree(parser);
+            node.collect(subtree, values);
+            return;
+        }
+
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                PointerNode child = node.children.get(parser.currentName());
+                parser.nextToken();
+                if (child == null) {
+                    parser.skipChildren();
+                } else {
+                    readValue(parser, child, values);
+                }
+            }
+        } else if (token == JsonToken.START_ARRAY) {
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                PointerNode child = node.children.get(Integer.toString(index++));
+                if (child == null || child.index < 0) {
+                    parser.skipChildren();
+                } else {
+                    readValue(parser, child, values);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean matches(String key, String expectedValue) {
+        String actual = values.get(key);
+        return actual != null && actual.equals(expectedValue);
+    }
+
+    @Override
+    public List<String> extractValues(String key) {
+        String actual = values.get(key);
+        return actual == null ? List.of() : List.of(actual);
+    }
+
+    /**
+     * JSON Pointerのセグメントを木構造にしたもの。
+     */
+    private static final class PointerNode {
+
+        private final Map<String, PointerNode> children = new HashMap<>();
+        private final int index;
+        private String pointer;
+
+        private PointerNode(int index) {
+            this.index = index;
+        }
+
+        static PointerNode compile(Set<String> pointers) {
+            PointerNode root = new PointerNode(-1);
+            for (String pointer : pointers) {
+                JsonPointer compiled;
+                try {
+                    compiled = JsonPointer.compile(pointer);
+                } catch (IllegalArgumentException e) {
+                    // 不正なPointerは値なしとして扱い、一致しない
+                    logger.warn("JSON Pointerの形式が不正なため抽出対象外とする。pointer:{}", pointer);
+                    continue;
+                }
+                PointerNode node = root;
+                for (JsonPointer p = compiled; !p.matches(); p = p.tail()) {
+                    JsonPointer segment = p;
+                    node = node.children.computeIfAbsent(segment.getMatchingProperty(),
+                            name -> new PointerNode(segment.getMatchingIndex()));
+                }
+                node.pointer = pointer;
+            }
+            return root;
+        }
+
+        boolean isEmpty() {
+            return pointer == null && children.isEmpty();
+        }
+
+        void collect(JsonNode jsonNode, Map<String, String> values) {
+            if (jsonNode.isMissingNode()) {
+                return;
+            }
+            if (pointer != null) {
+                values.put(pointer, jsonNode.asText());
+            }
+            children.forEach((name, child) -> child.collect(
+                    jsonNode.isArray() ? jsonNode.path(child.index) : jsonNode.path(name), values));
+        }
+    }
+}
@@ -8,4 +8,12 @@ public record QueryParamsContent(Map<String, List<String>> queryParam) implement
     public boolean matches(String key, String expectedValue) {
         return queryParam.containsKey(key) && queryParam.get(key).contains(expectedValue);
     }
+
+    @Override
+    public List<String> extractValues(String key) {
+        if (queryParam == null || !queryParam.containsKey(key)) {
+            return List.of();
+        }
+        return queryParam.get(key);
+    }
 }
@@ -1,7 +1,11 @@
 package com.myou.backend.simulator.domain.model;
 
+import java.util.List;
+
 public interface RequestContent {
 
     boolean matches(String key, String expectedValue);
 
+    List<String> extractValues(String key);
+
 }
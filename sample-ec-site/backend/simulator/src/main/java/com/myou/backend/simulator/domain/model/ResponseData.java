@@ -1,17 +1,65 @@
 package com.myou.backend.simulator.domain.model;
 
+import com.myou.backend.simulator.domain.model.latency.LatencyProfile;
+import com.myou.backend.simulator.domain.model.template.ResponseTemplate;
 import org.springframework.lang.Nullable;
 
 import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
+/**
+ * @param responseBody ボディストアに保存した場合はnull
+ * @param bodyHandle   ボディストアに保存したボディへの参照。ヒープ上のボディを使う場合はnull
+ * @param template     ボディを {@link ResponseTemplate} としてレンダリングするか。falseの場合は「${」を含んでもそのまま返す
+ */
 public record ResponseData(String responseId,
                            @Nullable
                            Map<String, List<String>> responseHeaders,
                            String responseBody,
-                           HttpStatus statusCode) implements Serializable {
+                           HttpStatus statusCode,
+                           @Nullable
+                           LatencyProfile latencyProfile,
+                           @Nullable
+                           BodyHandle bodyHandle,
+                           boolean template) implements Serializable {
+
+    public ResponseData(String responseId, Map<String, List<String>> responseHeaders, String responseBody, HttpStatus statusCode) {
+        this(responseId, responseHeaders, responseBody, statusCode, null, null, false);
+    }
+
+    public ResponseData(String responseId, Map<String, List<String>> responseHeaders, String responseBody, HttpStatus statusCode,
+                        LatencyProfile latencyProfile) {
+        this(responseId, responseHeaders, responseBody, statusCode, latencyProfile, null, false);
+    }
+
+    /**
+     * テンプレートとして扱う場合のみ、ボディのテンプレートを返す。
+     */
+    public Optional<ResponseTemplate> responseTemplate() {
+        return template ? ResponseTemplate.of(responseBody) : Optional.empty();
+    }
+
+    /**
+     * ボディをテンプレートとして扱うかを置き換えたもの。
+     */
+    public ResponseData withTemplate(boolean template) {
+        return new ResponseData(responseId, responseHeaders, responseBody, statusCode, latencyProfile, bodyHandle, template);
+    }
 
+    /**
+     * ボディをボディストアへの参照に置き換えたもの。
+     */
+    public ResponseData withBodyHandle(BodyHandle handle) {
+        return new ResponseData(responseId, responseHeaders, null, statusCode, latencyProfile, handle, template);
+    }
 
+    /**
+     * ボディストアへの参照をボディに置き換えたもの。
+     */
+    public ResponseData withResponseBody(String body) {
+        return new ResponseData(responseId, responseHeaders, body, statusCode, latencyProfile, null, template);
+    }
 
 }
@@ -1,8 +1,18 @@
 package com.myou.backend.simulator.domain.model;
 
+import com.myou.backend.simulator.domain.model.scenario.Scenario;
 import com.myou.backend.simulator.domain.policy.ConditionPolicy;
+import org.springframework.lang.Nullable;
+
+/**
+ * @param scenario 指定した場合はresponseIdの代わりにシナリオのステップのレスポンスを返す
+ */
+public record ResponseIdCondition(String responseId, ConditionPolicy conditionPolicy, @Nullable Scenario scenario) {
+
+    public ResponseIdCondition(String responseId, ConditionPolicy conditionPolicy) {
+        this(responseId, conditionPolicy, null);
+    }
 
-public record ResponseIdCondition(String responseId, ConditionPolicy conditionPolicy) {
     public boolean matches(RequestData requestData){
         return conditionPolicy.apply(requestData);
     }
@@ -8,27 +8,54 @@ import org.xml.sax.InputSource;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import java.io.StringReader;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
 
 public record XmlContent(String xml, Document document) implements RequestContent {
 
     private static final Logger logger = LoggerFactory.getLogger(XmlContent.class);
 
+    // DocumentBuilderFactoryの検索はコストが高いため共有し、スレッドセーフでないDocumentBuilderはプールする
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = DocumentBuilderFactory.newInstance();
+    private static final ReentrantLock DOCUMENT_BUILDER_FACTORY_LOCK = new ReentrantLock();
+    private static final Queue<DocumentBuilder> DOCUMENT_BUILDERS = new ConcurrentLinkedQueue<>();
+
     public XmlContent(String xml) {
         this(xml, parseXml(xml));
     }
 
     private static Document parseXml(String xml) {
         Assert.hasText(xml, () -> "xml content is null or blank");
+        return parseDocument(new InputSource(new StringReader(xml)));
+    }
+
+    static Document parseDocument(InputSource inputSource) {
+        DocumentBuilder builder = DOCUMENT_BUILDERS.poll();
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            return builder.parse(new InputSource(new StringReader(xml)));
+            if (builder == null) {
+                builder = newDocumentBuilder();
+            }
+            return builder.parse(inputSource);
         } catch (Exception e) {
             throw new IllegalArgumentException("Provided string is not valid XML.", e);
+        } finally {
+            if (builder != null) {
+                builder.reset();
+                DOCUMENT_BUILDERS.offer(builder);
+            }
+        }
+    }
+
+    private static DocumentBuilder newDocumentBuilder() throws ParserConfigurationException {
+        DOCUMENT_BUILDER_FACTORY_LOCK.lock();
+        try {
+            return DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
+        } finally {
+            DOCUMENT_BUILDER_FACTORY_LOCK.unlock();
         }
     }
 
@@ -42,12 +69,21 @@ public record XmlContent(String xml, Document document) implements RequestConten
     @Override
     public boolean matches(String key, String expectedValue) {
         try {
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            String result = (String) xpath.evaluate(key, document, XPathConstants.STRING);
+            String result = XmlPath.of(key).evaluate(document);
             return expectedValue.equals(result);
         } catch (Exception e) {
             logger.error("XMLデータの解析に失敗", e);
             return false;
         }
     }
+
+    @Override
+    public List<String> extractValues(String key) {
+        try {
+            return List.of(XmlPath.of(key).evaluate(document));
+        } catch (Exception e) {
+            logger.error("XMLデータの解析に失敗", e);
+            return List.of();
+        }
+    }
 }
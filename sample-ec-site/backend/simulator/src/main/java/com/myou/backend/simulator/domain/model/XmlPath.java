@@ -0,0 +1,152 @@
+package com.myou.backend.simulator.domain.model;
+
+import org.w3c.dom.Document;
+
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 条件エントリの登録時にコンパイルしたXPath。
+ * <p>
+ * {@link XPathExpression} はスレッドセーフではないため、評価器をプールして貸し出す。
+ * {@code /a/b[2]/c} や {@code /a/@attr} のような単純な絶対パスは {@link #steps()} に分解し、
+ * DOMを構築しないStAXでの抽出に使う。
+ */
+public final class XmlPath {
+
+    private static final Pattern SIMPLE_PATH = Pattern.compile(
+            "(/[A-Za-z_][\\w.\\-]*(\\[[1-9][0-9]*])?)+(/@[A-Za-z_][\\w.\\-]*)?");
+    private static final Pattern STEP = Pattern.compile("/(@?)([A-Za-z_][\\w.\\-]*)(?:\\[([1-9][0-9]*)])?");
+
+    // XPathFactoryはスレッドセーフではないため、評価器の追加生成時のみロックして使う
+    private static final XPathFactory XPATH_FACTORY = XPathFactory.newInstance();
+    private static final ReentrantLock XPATH_FACTORY_LOCK = new ReentrantLock();
+
+    // 条件エントリ間で共有するコンパイル済みのXPath。キーは定義に由来するため件数に上限を設け、超えた分は共有しない
+    private static final int MAX_SHARED = 4096;
+    private static final ConcurrentMap<String, XmlPath> SHARED = new ConcurrentHashMap<>();
+
+    private final String expression;
+    private final List<Step> steps;
+    private final String attributeName;
+    private final Queue<XPathExpression> pool = new ConcurrentLinkedQueue<>();
+
+    private XmlPath(String expression, List<Step> steps, String attributeName, XPathExpression compiled) {
+        this.expression = expression;
+        this.steps = steps;
+        this.attributeName = attributeName;
+        this.pool.offer(compiled);
+    }
+
+    /**
+     * コンパイル済みのXPathを返す。同じ式は同じインスタンスを共有し、多数の条件エントリを読み込む場合にコンパイルを省く。
+     * 評価器はプールして貸し出すため、共有しても並行に評価できる。
+     */
+    public static XmlPath of(String expression) {
+        XmlPath shared = SHARED.get(expression);
+        if (shared != null) {
+            return shared;
+        }
+        XmlPath compiled = compile(expression);
+        if (SHARED.size() >= MAX_SHARED) {
+            return compiled;
+        }
+        shared = SHARED.putIfAbsent(expression, compiled);
+        return shared != null ? shared : compiled;
+    }
+
+    public static XmlPath compile(String expression) {
+        XPathExpression compiled = newExpression(expression);
+        if (!SIMPLE_PATH.matcher(expression).matches()) {
+            return new XmlPath(expression, null, null, compiled);
+        }
+        List<Step> steps = new ArrayList<>();
+        String attributeName = null;
+        Matcher matcher = STEP.matcher(expression);
+        while (matcher.find()) {
+            if (!matcher.group(1).isEmpty()) {
+                attributeName = matcher.group(2);
+            } else {
+                steps.add(new Step(matcher.group(2), matcher.group(3) == null ? 0 : Integer.parseInt(matcher.group(3))));
+            }
+        }
+        return new XmlPath(expression, List.copyOf(steps), attributeName, compiled);
+    }
+
+    public String expression() {
+        return expression;
+    }
+
+    /**
+     * StAXで抽出できる単純な絶対パスか。
+     */
+    public boolean isSimple() {
+        return steps != null;
+    }
+
+    /**
+     * 要素のステップ。単純な絶対パスでない場合はnull。
+     */
+    public List<Step> steps() {
+        return steps;
+    }
+
+    /**
+     * 末尾が属性を指す場合の属性名。属性を指さない場合はnull。
+     */
+    public String attributeName() {
+        return attributeName;
+    }
+
+    /**
+     * XPathの文字列値を評価する。該当するノードがない場合は空文字を返す。
+     */
+    public String evaluate(Document document) {
+        XPathExpression xpathExpression = pool.poll();
+        if (xpathExpression == null) {
+            xpathExpression = newExpression(expression);
+        }
+        try {
+            return (String) xpathExpression.evaluate(document, XPathConstants.STRING);
+        } catch (XPathExpressionException e) {
+            throw new IllegalArgumentException("XPathの評価に失敗。expression:" + expression, e);
+        } finally {
+            pool.offer(xpathExpression);
+        }
+    }
+
+    private static XPathExpression newExpression(String expression) {
+        XPATH_FACTORY_LOCK.lock();
+        try {
+            return XPATH_FACTORY.newXPath().compile(expression);
+        } catch (XPathExpressionException e) {
+            throw new IllegalArgumentException("Provided string is not valid XPath. expression:" + expression, e);
+        } finally {
+            XPATH_FACTORY_LOCK.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "XmlPath{" +
+                "expression='" + expression + '\'' +
+                '}';
+    }
+
+    /**
+     * 要素名と兄弟要素内の位置(1始まり、0は位置指定なし)。
+     */
+    public record Step(String name, int position) {
+    }
+}
@@ -0,0 +1,194 @@
+package com.myou.backend.simulator.domain.model;
+
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 条件が参照するXPathの値だけを抽出したXMLコンテンツ。
+ * <p>
+ * 全てのXPathが単純な絶対パスの場合はStAXで必要な値だけを読み取り、DOMを構築しない。
+ * それ以外のXPathを含む場合はDOMを構築し、登録時にコンパイル済みの {@link XmlPath} で評価する。
+ * 値は {@link XmlContent} と同じくXPathの文字列値(該当なしは空文字)で保持する。
+ */
+public record XmlPathContent(Map<String, String> values) implements RequestContent {
+
+    // XMLInputFactoryは設定後のリーダー生成がスレッドセーフなため共有する
+    private static final XMLInputFactory XML_INPUT_FACTORY = newXmlInputFactory();
+
+    public static XmlPathContent read(InputStream inputStream, Collection<XmlPath> xmlPaths) {
+        if (xmlPaths.stream().allMatch(XmlPath::isSimple)) {
+            return new XmlPathContent(Map.copyOf(StreamingExtractor.extract(inputStream, List.copyOf(xmlPaths))));
+        }
+        Document document = XmlContent.parseDocument(new InputSource(inputStream));
+        Map<String, String> values = new HashMap<>();
+        xmlPaths.forEach(xmlPath -> values.put(xmlPath.expression(), xmlPath.evaluate(document)));
+        return new XmlPathContent(Map.copyOf(values));
+    }
+
+    @Override
+    public boolean matches(String key, String expectedValue) {
+        String actual = values.get(key);
+        return actual != null && actual.equals(expectedValue);
+    }
+
+    @Override
+    public List<String> extractValues(String key) {
+        String actual = values.get(key);
+        return actual == null ? List.of() : List.of(actual);
+    }
+
+    private static XMLInputFactory newXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        // DOM側(DocumentBuilderFactoryの既定)と同じく名前空間を解釈せず、接頭辞付きの名前で照合する
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * 単純な絶対パスをStAXで1パス抽出する。
+     * パス毎に一致済みの要素の深さを追跡し、全ての値が揃った時点で読み込みを打ち切る。
+     */
+    private static final class StreamingExtractor {
+
+        private final List<XmlPath> xmlPaths;
+        private final Map<String, String> values = new HashMap<>();
+        // パス毎の、先頭から連続して一致している要素ステップ数
+        private final int[] matchedDepth;
+        // パス毎・ステップ毎の、一致した親要素配下で同名の兄弟要素を数えたもの
+        private final int[][] siblingCounts;
+        private final StringBuilder[] texts;
+        private int resolved;
+
+        private StreamingExtractor(List<XmlPath> xmlPaths) {
+            this.xmlPaths = xmlPaths;
+            this.matchedDepth = new int[xmlPaths.size()];
+            this.siblingCounts = new int[xmlPaths.size()][];
+            for (int i = 0; i < xmlPaths.size(); i++) {
+                siblingCounts[i] = new int[xmlPaths.get(i).steps().size()];
+            }
+            this.texts = new StringBuilder[xmlPaths.size()];
+        }
+
+        static Map<String, String> extract(InputStream inputStream, List<XmlPath> xmlPaths) {
+            StreamingExtractor extractor = new StreamingExtractor(xmlPaths);
+            XMLStreamReader reader = null;
+            try {
+                reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+                extractor.read(reader);
+            } catch (XMLStreamException e) {
+                throw new IllegalArgumentException("Provided string is not valid XML.", e);
+            } finally {
+                close(reader);
+            }
+            // 該当する要素がなかったパスはXPathと同じく空文字とする
+            xmlPaths.forEach(xmlPath -> extractor.values.putIfAbsent(xmlPath.expression(), ""));
+            return extractor.values;
+        }
+
+        private void read(XMLStreamReader reader) throws XMLStreamException {
+            boolean rootFound = false;
+            int depth = 0;
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        rootFound = true;
+                        depth++;
+                        startElement(reader, depth);
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        endElement(depth);
+                        depth--;
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                        for (StringBuilder text : texts) {
+                            if (text != null) {
+                                text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                            }
+                        }
+                    }
+                    default -> {
+                    }
+                }
+                if (rootFound && resolved == xmlPaths.size()) {
+                    return;
+                }
+            }
+            if (!rootFound) {
+                throw new IllegalArgumentException("xml content is null or blank");
+            }
+        }
+
+        private void startElement(XMLStreamReader reader, int depth) {
+            String name = reader.getLocalName();
+            for (int i = 0; i < xmlPaths.size(); i++) {
+                XmlPath xmlPath = xmlPaths.get(i);
+                List<XmlPath.Step> steps = xmlPath.steps();
+                if (values.containsKey(xmlPath.expression()) || matchedDepth[i] != depth - 1 || depth > steps.size()) {
+                    continue;
+                }
+                XmlPath.Step step = steps.get(depth - 1);
+                if (!step.name().equals(name)) {
+                    continue;
+                }
+                int position = ++siblingCounts[i][depth - 1];
+                if (step.position() != 0 && step.position() != position) {
+                    continue;
+                }
+                matchedDepth[i] = depth;
+                if (depth < steps.size()) {
+                    siblingCounts[i][depth] = 0;
+                } else if (xmlPath.attributeName() != null) {
+                    // 属性がない要素は一致とみなさず、後続の要素を探す
+                    String attribute = reader.getAttributeValue(null, xmlPath.attributeName());
+                    if (attribute != null) {
+                        resolve(i, attribute);
+                    }
+                } else {
+                    texts[i] = new StringBuilder();
+                }
+            }
+        }
+
+        private void endElement(int depth) {
+            for (int i = 0; i < xmlPaths.size(); i++) {
+                if (matchedDepth[i] != depth) {
+                    continue;
+                }
+                matchedDepth[i] = depth - 1;
+                if (texts[i] != null) {
+                    resolve(i, texts[i].toString());
+                }
+            }
+        }
+
+        private void resolve(int i, String value) {
+            texts[i] = null;
+            if (values.putIfAbsent(xmlPaths.get(i).expression(), value) == null) {
+                resolved++;
+            }
+        }
+
+        private static void close(XMLStreamReader reader) {
+            if (reader == null) {
+                return;
+            }
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                // 抽出結果には影響しないため無視する
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.myou.backend.simulator.domain.model.capacity;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link CapacityPolicy} に従ってリクエストの受け付けを制御する。
+ * <p>
+ * レート制限はGCRA(トークンバケットと等価)で、次のトークンが使える理論上の時刻だけをCASで更新する。
+ * 同時実行数は非公平の {@link Semaphore} で数え、待機しない場合はCASのみで判定する。
+ * いずれもロックを取らないため、制限する側がボトルネックにならない。
+ * <p>
+ * 同時実行数の枠を先に確保し、レートで拒否した場合は枠を返却する。
+ * 同時実行数で拒否したリクエストがトークンを消費しないため、飽和中もレートの枠は減らない。
+ * <p>
+ * 待機する場合は呼び出し元のスレッドを {@code maxWaitMillis} まで停止させる。
+ * プラットフォームスレッドではTomcatのワーカーを占有するため、待機を伴うポリシーは
+ * {@code virtual-threads} プロファイルで使用すること。
+ */
+public final class CapacityLimiter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final CapacityPolicy policy;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final long maxWaitNanos;
+    // 次のリクエストが理論上到着してよい時刻(System.nanoTime基準)
+    private final AtomicLong theoreticalArrivalTime;
+    private final Semaphore concurrency;
+
+    public CapacityLimiter(CapacityPolicy policy) {
+        this.policy = policy;
+        this.emissionIntervalNanos = policy.isRateLimited() ? Math.max(1, (long) (NANOS_PER_SECOND / policy.ratePerSecond())) : 0;
+        this.burstToleranceNanos = emissionIntervalNanos * policy.burst();
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(policy.maxWaitMillis());
+        this.theoreticalArrivalTime = new AtomicLong(System.nanoTime());
+        this.concurrency = policy.isConcurrencyLimited() ? new Semaphore(policy.maxConcurrency()) : null;
+    }
+
+    public CapacityPolicy policy() {
+        return policy;
+    }
+
+    /**
+     * 処理枠を取得する。取得できた場合は処理の完了後に {@link Permit#release()} を呼び出すこと。
+     */
+    public Permit acquire() throws InterruptedException {
+        long start = System.nanoTime();
+        if (concurrency != null) {
+            boolean acquired = maxWaitNanos > 0
+                    ? concurrency.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)
+                    : concurrency.tryAcquire();
+            if (!acquired) {
+                return reject(null);
+            }
+        }
+        if (policy.isRateLimited()) {
+            long now = System.nanoTime();
+            long waitNanos = reserveToken(now, maxWaitNanos - (now - start));
+            if (waitNanos < 0) {
+                if (concurrency != null) {
+                    concurrency.release();
+                }
+                return reject(Duration.ofNanos(-waitNanos));
+            }
+            if (waitNanos > 0) {
+                try {
+                    parkNanos(waitNanos);
+                } catch (InterruptedException e) {
+                    if (concurrency != null) {
+                        concurrency.release();
+                    }
+                    throw e;
+                }
+            }
+        }
+        return concurrency != null ? new Permit(true, null, concurrency) : Permit.UNLIMITED;
+    }
+
+    /**
+     * トークンを予約し、予約できるまでの待機時間を返す。
+     * 待機の上限を超える場合は予約せず、トークンが補充されるまでの時間を負数で返す。
+     */
+    private long reserveToken(long now, long maxWaitNanos) {
+        while (true) {
+            long current = theoreticalArrivalTime.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            long waitNanos = next - now - burstToleranceNanos;
+            if (waitNanos > Math.max(0, maxWaitNanos)) {
+                return -waitNanos;
+            }
+            if (theoreticalArrivalTime.compareAndSet(current, next)) {
+                return Math.max(0, waitNanos);
+            }
+        }
+    }
+
+    /**
+     * 予約した時刻まで待機する。parkNanosは早く戻ることがあるため、期限まで繰り返す。
+     */
+    private static void parkNanos(long waitNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + waitNanos;
+        long remaining = waitNanos;
+        while (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    private Permit reject(Duration untilAvailable) {
+        Duration retryAfter;
+        if (policy.retryAfterSeconds() != null) {
+            retryAfter = Duration.ofSeconds(policy.retryAfterSeconds());
+        } else if (untilAvailable != null) {
+            retryAfter = untilAvailable;
+        } else {
+            // 同時実行数の飽和は空くまでの時間が分からないため、最小の1秒とする
+            retryAfter = Duration.ofSeconds(1);
+        }
+        return new Permit(false, retryAfter, null);
+    }
+
+    @Override
+    public String toString() {
+        return "CapacityLimiter{" +
+                "policy=" + policy +
+                '}';
+    }
+
+    /**
+     * 処理枠の取得結果。
+     */
+    public static final class Permit {
+
+        public static final Permit UNLIMITED = new Permit(true, null, null);
+
+        private final boolean admitted;
+        private final Duration retryAfter;
+        private final Semaphore concurrency;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(boolean admitted, Duration retryAfter, Semaphore concurrency) {
+            this.admitted = admitted;
+            this.retryAfter = retryAfter;
+            this.concurrency = concurrency;
+        }
+
+        public boolean admitted() {
+            return admitted;
+        }
+
+        /**
+         * 拒否した場合の、再試行までの秒数(切り上げ)。
+         */
+        public long retryAfterSeconds() {
+            if (retryAfter == null) {
+                return 0;
+            }
+            long seconds = retryAfter.toSeconds();
+            return retryAfter.equals(Duration.ofSeconds(seconds)) ? seconds : seconds + 1;
+        }
+
+        /**
+         * 同時実行数の枠を返却する。複数回呼び出しても一度だけ返却する。
+         */
+        public void release() {
+            if (concurrency != null && released.compareAndSet(false, true)) {
+                concurrency.release();
+            }
+        }
+    }
+}
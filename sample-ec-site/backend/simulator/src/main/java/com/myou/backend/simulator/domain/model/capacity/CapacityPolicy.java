@@ -0,0 +1,44 @@
+package com.myou.backend.simulator.domain.model.capacity;
+
+import com.myou.backend.simulator.domain.model.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.io.Serializable;
+
+/**
+ * インターフェース単位の処理能力。飽和したバックエンドの振る舞いを再現する。
+ *
+ * @param ratePerSecond     トークンバケットの補充レート(件/秒)。0は無制限
+ * @param burst             トークンバケットの容量
+ * @param maxConcurrency    同時に処理できるリクエスト数。0は無制限
+ * @param maxWaitMillis     飽和時に待機する上限。0は待機せず即座に拒否する。待機中はリクエストのスレッドを停止させるため、virtual-threadsプロファイルで使用する
+ * @param rejectStatus      拒否時のステータス(429, 503等)
+ * @param retryAfterSeconds 拒否時のRetry-After。nullの場合はトークンの補充までの時間から算出する
+ */
+public record CapacityPolicy(double ratePerSecond,
+                             int burst,
+                             int maxConcurrency,
+                             long maxWaitMillis,
+                             HttpStatus rejectStatus,
+                             @Nullable
+                             Long retryAfterSeconds) implements Serializable {
+
+    public CapacityPolicy {
+        Assert.isTrue(ratePerSecond >= 0, () -> "ratePerSecond must not be negative: " + ratePerSecond);
+        Assert.isTrue(burst >= 1, () -> "burst must be positive: " + burst);
+        Assert.isTrue(maxConcurrency >= 0, () -> "maxConcurrency must not be negative: " + maxConcurrency);
+        Assert.isTrue(maxWaitMillis >= 0, () -> "maxWaitMillis must not be negative: " + maxWaitMillis);
+        Assert.notNull(rejectStatus, "rejectStatus must not be null");
+        Assert.isTrue(retryAfterSeconds == null || retryAfterSeconds >= 0,
+                () -> "retryAfterSeconds must not be negative: " + retryAfterSeconds);
+    }
+
+    public boolean isRateLimited() {
+        return ratePerSecond > 0;
+    }
+
+    public boolean isConcurrencyLimited() {
+        return maxConcurrency > 0;
+    }
+}
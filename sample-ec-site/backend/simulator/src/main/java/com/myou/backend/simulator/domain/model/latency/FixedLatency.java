@@ -0,0 +1,19 @@
+package com.myou.backend.simulator.domain.model.latency;
+
+import org.springframework.util.Assert;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+public record FixedLatency(long millis) implements LatencyProfile, Serializable {
+
+    public FixedLatency {
+        Assert.isTrue(millis >= 0, () -> "millis must not be negative: " + millis);
+    }
+
+    @Override
+    public Duration sample(RandomGenerator random) {
+        return Duration.ofMillis(millis);
+    }
+}
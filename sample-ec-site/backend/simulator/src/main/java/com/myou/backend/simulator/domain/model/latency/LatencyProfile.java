@@ -0,0 +1,18 @@
+package com.myou.backend.simulator.domain.model.latency;
+
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/**
+ * シミュレートするレスポンスの遅延時間の分布。
+ */
+public sealed interface LatencyProfile
+        permits FixedLatency, UniformLatency, NormalLatency, LogNormalLatency, PercentileLatency {
+
+    Duration sample(RandomGenerator random);
+
+    static Duration ofMillis(double millis) {
+        // 分布の裾で負になった場合は遅延なしとする
+        return millis <= 0 ? Duration.ZERO : Duration.ofNanos(Math.round(millis * 1_000_000));
+    }
+}
@@ -0,0 +1,24 @@
+package com.myou.backend.simulator.domain.model.latency;
+
+import org.springframework.util.Assert;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/**
+ * 対数正規分布の遅延。中央値と、対数をとった値の標準偏差(sigma)で指定する。
+ * 裾の長いバックエンドの応答時間を表すのに使う。
+ */
+public record LogNormalLatency(double medianMillis, double sigma) implements LatencyProfile, Serializable {
+
+    public LogNormalLatency {
+        Assert.isTrue(medianMillis > 0 && sigma >= 0,
+                () -> "medianMillis must be positive and sigma must not be negative: median=" + medianMillis + ", sigma=" + sigma);
+    }
+
+    @Override
+    public Duration sample(RandomGenerator random) {
+        return LatencyProfile.ofMillis(medianMillis * Math.exp(sigma * random.nextGaussian()));
+    }
+}
@@ -0,0 +1,20 @@
+package com.myou.backend.simulator.domain.model.latency;
+
+import org.springframework.util.Assert;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+public record NormalLatency(double meanMillis, double stdDevMillis) implements LatencyProfile, Serializable {
+
+    public NormalLatency {
+        Assert.isTrue(meanMillis >= 0 && stdDevMillis >= 0,
+                () -> "meanMillis and stdDevMillis must not be negative: mean=" + meanMillis + ", stdDev=" + stdDevMillis);
+    }
+
+    @Override
+    public Duration sample(RandomGenerator random) {
+        return LatencyProfile.ofMillis(random.nextGaussian(meanMillis, stdDevMillis));
+    }
+}
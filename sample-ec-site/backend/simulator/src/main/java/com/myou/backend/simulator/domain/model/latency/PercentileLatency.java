@@ -0,0 +1,51 @@
+package com.myou.backend.simulator.domain.model.latency;
+
+import org.springframework.util.Assert;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.random.RandomGenerator;
+
+/**
+ * 計測済みのパーセンタイル(p50/p90/p99/p999等)を再現する遅延。
+ * パーセンタイル間は線形補間し、最小のパーセンタイルより下はその値、最大より上はその値とする。
+ *
+ * @param percentiles パーセンタイル(0超100以下)とその遅延(ミリ秒)
+ */
+public record PercentileLatency(NavigableMap<Double, Long> percentiles) implements LatencyProfile, Serializable {
+
+    public PercentileLatency {
+        Assert.notEmpty(percentiles, () -> "percentiles must not be empty");
+        percentiles = new TreeMap<>(percentiles);
+        long previous = -1;
+        for (Map.Entry<Double, Long> entry : percentiles.entrySet()) {
+            double percentile = entry.getKey();
+            long millis = entry.getValue();
+            Assert.isTrue(percentile > 0 && percentile <= 100, () -> "percentile must be in (0, 100]: " + percentile);
+            Assert.isTrue(millis >= previous, () -> "latency must not decrease as percentile increases: " + percentile);
+            previous = millis;
+        }
+    }
+
+    public static PercentileLatency of(Map<Double, Long> percentiles) {
+        return new PercentileLatency(new TreeMap<>(percentiles));
+    }
+
+    @Override
+    public Duration sample(RandomGenerator random) {
+        double percentile = random.nextDouble() * 100;
+        Map.Entry<Double, Long> floor = percentiles.floorEntry(percentile);
+        Map.Entry<Double, Long> ceiling = percentiles.ceilingEntry(percentile);
+        if (floor == null) {
+            return Duration.ofMillis(ceiling.getValue());
+        }
+        if (ceiling == null || floor.getKey().equals(ceiling.getKey())) {
+            return Duration.ofMillis(floor.getValue());
+        }
+        double ratio = (percentile - floor.getKey()) / (ceiling.getKey() - floor.getKey());
+        return LatencyProfile.ofMillis(floor.getValue() + (ceiling.getValue() - floor.getValue()) * ratio);
+    }
+}
@@ -0,0 +1,20 @@
+package com.myou.backend.simulator.domain.model.latency;
+
+import org.springframework.util.Assert;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+public record UniformLatency(long minMillis, long maxMillis) implements LatencyProfile, Serializable {
+
+    public UniformLatency {
+        Assert.isTrue(minMillis >= 0 && minMillis <= maxMillis,
+                () -> "0 <= minMillis <= maxMillis must hold: min=" + minMillis + ", max=" + maxMillis);
+    }
+
+    @Override
+    public Duration sample(RandomGenerator random) {
+        return Duration.ofMillis(minMillis == maxMillis ? minMillis : random.nextLong(minMillis, maxMillis + 1));
+    }
+}
@@ -0,0 +1,110 @@
+package com.myou.backend.simulator.domain.model.scenario;
+
+import com.myou.backend.simulator.domain.model.RequestData;
+import com.myou.backend.simulator.domain.type.RuleTarget;
+import com.myou.backend.simulator.domain.type.ScenarioMode;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 条件に一致したリクエストに、呼び出し回数や重みに応じて異なるレスポンスを返すシナリオ。
+ * 状態(何回目の呼び出しか)はシナリオのキーの値毎に持つ。
+ *
+ * @param mode      ステップの進め方
+ * @param steps     返すレスポンスの並び。同じレスポンスIDを繰り返してよい
+ * @param keyTarget シナリオのキーの取得元。nullの場合はキーを使わず、一致した全てのリクエストで状態を共有する
+ * @param key       シナリオのキー(相関IDのヘッダ名等)。値がないリクエストは空文字のキーとして状態を共有する
+ */
+public record Scenario(ScenarioMode mode,
+                       List<Step> steps,
+                       @Nullable
+                       RuleTarget keyTarget,
+                       @Nullable
+                       String key) implements Serializable {
+
+    public Scenario {
+        Assert.notNull(mode, "mode must not be null");
+        Assert.notEmpty(steps, "steps must not be empty");
+        Assert.isTrue((keyTarget == null) == (key == null), "keyTarget and key must be specified together");
+        steps = List.copyOf(steps);
+        if (mode == ScenarioMode.WEIGHTED_RANDOM) {
+            Assert.isTrue(steps.stream().mapToLong(Step::weight).sum() > 0, "total weight must be positive");
+        }
+    }
+
+    public Scenario(ScenarioMode mode, List<Step> steps) {
+        this(mode, steps, null, null);
+    }
+
+    /**
+     * 状態を持つか。持たない場合は {@link #pick(double)} で選ぶ。
+     */
+    public boolean isStateful() {
+        return mode != ScenarioMode.WEIGHTED_RANDOM;
+    }
+
+    public List<String> responseIds() {
+        return steps.stream().map(Step::responseId).toList();
+    }
+
+    /**
+     * 状態を分けるキーの値。キーを使わない場合、または値がない場合は空文字。
+     */
+    public String keyOf(RequestData requestData) {
+        if (keyTarget == null) {
+            return "";
+        }
+        List<String> values = keyTarget.values(requestData, key);
+        return values.isEmpty() || values.get(0) == null ? "" : values.get(0);
+    }
+
+    /**
+     * 状態を進めた結果の位置。SEQUENCEは最後のステップで止まる。
+     */
+    public long advance(long position) {
+        return mode == ScenarioMode.SEQUENCE && position >= steps.size() - 1 ? position : position + 1;
+    }
+
+    /**
+     * 位置に対応するステップのレスポンスID。
+     */
+    public String responseIdAt(long position) {
+        return steps.get((int) Math.floorMod(position, (long) steps.size())).responseId();
+    }
+
+    /**
+     * 重みに比例してステップを選ぶ。
+     *
+     * @param random 0以上1未満の乱数
+     */
+    public String pick(double random) {
+        long total = steps.stream().mapToLong(Step::weight).sum();
+        double threshold = random * total;
+        long cumulative = 0;
+        for (Step step : steps) {
+            cumulative += step.weight();
+            if (threshold < cumulative) {
+                return step.responseId();
+            }
+        }
+        return steps.get(steps.size() - 1).responseId();
+    }
+
+    /**
+     * @param weight WEIGHTED_RANDOMでの重み。他のモードでは使わない
+     */
+    public record Step(String responseId, int weight) implements Serializable {
+
+        public Step {
+            Assert.notNull(responseId, "responseId must not be null");
+            Assert.isTrue(weight >= 0, () -> "weight must not be negative: " + weight);
+        }
+
+        public Step(String responseId) {
+            this(responseId, 1);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.myou.backend.simulator.domain.model.template;
+
+import com.myou.backend.simulator.domain.model.FormDataContent;
+import com.myou.backend.simulator.domain.model.JsonContent;
+import com.myou.backend.simulator.domain.model.JsonPointerContent;
+import com.myou.backend.simulator.domain.model.QueryParamsContent;
+import com.myou.backend.simulator.domain.model.RequestContent;
+import com.myou.backend.simulator.domain.model.RequestData;
+import com.myou.backend.simulator.domain.model.XmlContent;
+import com.myou.backend.simulator.domain.model.XmlPathContent;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * プレースホルダの値の取得元。
+ */
+public enum PlaceholderSource {
+    // リクエストヘッダ。名前は大文字小文字を区別しない
+    HEADER("header"),
+    // JSONリクエストのJSON Pointer
+    JSON("json"),
+    // XMLリクエストのXPath
+    XML("xml"),
+    // フォームデータのフィールド
+    FORM("form"),
+    // GETリクエストのクエリパラメータ
+    QUERY("query");
+
+    private final String prefix;
+
+    PlaceholderSource(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public String prefix() {
+        return prefix;
+    }
+
+    static PlaceholderSource ofPrefix(String prefix) {
+        for (PlaceholderSource source : values()) {
+            if (source.prefix.equals(prefix)) {
+                return source;
+            }
+        }
+        throw new IllegalArgumentException("プレースホルダの取得元が不正。source:" + prefix);
+    }
+
+    /**
+     * リクエストボディから抽出する必要があるキーか。
+     */
+    public boolean isBodyContent() {
+        return this == JSON || this == XML;
+    }
+
+    /**
+     * リクエストから最初の値を取得する。値がない場合や、リクエストの形式が取得元と異なる場合はnull。
+     */
+    String resolve(RequestData requestData, String key) {
+        if (this == HEADER) {
+            return header(requestData.requestHeaders(), key);
+        }
+        RequestContent content = requestData.content();
+        boolean applicable = switch (this) {
+            case JSON -> content instanceof JsonPointerContent || content instanceof JsonContent;
+            case XML -> content instanceof XmlPathContent || content instanceof XmlContent;
+            case FORM -> content instanceof FormDataContent;
+            case QUERY -> content instanceof QueryParamsContent;
+            case HEADER -> false;
+        };
+        if (!applicable) {
+            return null;
+        }
+        List<String> values = content.extractValues(key);
+        return values == null || values.isEmpty() ? null : values.getFirst();
+    }
+
+    private static String header(Map<String, List<String>> headers, String name) {
+        if (headers == null) {
+            return null;
+        }
+        // ヘッダ名はクライアントが送った表記のまま格納されるため、大文字小文字を区別せずに探す
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey()) && header.getValue() != null && !header.getValue().isEmpty()) {
+                return header.getValue().getFirst();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,201 @@
+package com.myou.backend.simulator.domain.model.template;
+
+import com.myou.backend.simulator.domain.model.RequestData;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * リクエストの値を埋め込むレスポンスボディのテンプレート。
+ * <p>
+ * {@code ${取得元:キー}} の形式でリクエストの値を参照し、{@code ${取得元:キー:-既定値}} で値がない場合の既定値を指定する。
+ * 取得元は {@link PlaceholderSource} の接頭辞({@code header}・{@code json}・{@code xml}・{@code form}・{@code query})。
+ * {@code $${} は文字どおりの {@code ${} を表す。
+ * <p>
+ * 保存時に一度だけ固定部分とプレースホルダに分解し、リクエスト毎には正規表現や再解析を行わない。
+ */
+public final class ResponseTemplate {
+
+    private static final String OPEN = "${";
+    private static final String DEFAULT_SEPARATOR = ":-";
+
+    private final List<Segment> segments;
+
+    private ResponseTemplate(List<Segment> segments) {
+        this.segments = segments;
+    }
+
+    public static ResponseTemplate compile(String body) {
+        List<Segment> segments = new ArrayList<>();
+        if (body == null) {
+            return new ResponseTemplate(List.of());
+        }
+        StringBuilder literal = new StringBuilder();
+        int index = 0;
+        while (index < body.length()) {
+            int open = body.indexOf(OPEN, index);
+            if (open < 0) {
+                literal.append(body, index, body.length());
+                break;
+            }
+            // 「$${」はエスケープとして「${」をそのまま残す
+            if (open > 0 && body.charAt(open - 1) == '$') {
+                literal.append(body, index, open - 1).append(OPEN);
+                index = open + OPEN.length();
+                continue;
+            }
+            int close = body.indexOf('}', open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("プレースホルダが閉じられていない。position:" + open);
+            }
+            literal.append(body, index, open);
+            if (!literal.isEmpty()) {
+                segments.add(new Literal(literal.toString()));
+                literal.setLength(0);
+            }
+            segments.add(Placeholder.parse(body.substring(open + OPEN.length(), close)));
+            index = close + 1;
+        }
+        if (!literal.isEmpty()) {
+            segments.add(new Literal(literal.toString()));
+        }
+        return new ResponseTemplate(List.copyOf(segments));
+    }
+
+    /**
+     * プレースホルダを含むボディの場合のみテンプレートを返す。
+     *
+     * @throws IllegalArgumentException テンプレートとして不正な場合
+     */
+    public static Optional<ResponseTemplate> of(String body) {
+        if (body == null || !body.contains(OPEN)) {
+            return Optional.empty();
+        }
+        ResponseTemplate template = compile(body);
+        return template.isStatic() ? Optional.empty() : Optional.of(template);
+    }
+
+    /**
+     * プレースホルダを含まないか。
+     */
+    public boolean isStatic() {
+        return segments.stream().noneMatch(Placeholder.class::isInstance);
+    }
+
+    public List<Segment> segments() {
+        return segments;
+    }
+
+    /**
+     * リクエストボディから抽出する必要があるキー(JSON Pointer・XPath)。
+     */
+    public Set<String> contentKeys() {
+        Set<String> keys = new LinkedHashSet<>();
+        for (Segment segment : segments) {
+            if (segment instanceof Placeholder placeholder && placeholder.source().isBodyContent()) {
+                keys.add(placeholder.key());
+            }
+        }
+        return Set.copyOf(keys);
+    }
+
+    /**
+     * 固定部分をエンコード済みのバイト列にしたレンダラーを作る。
+     *
+     * @param escaper 埋め込む値のエスケープ
+     */
+    public Renderer compileRenderer(Charset charset, ValueEscaper escaper) {
+        Object[] parts = new Object[segments.size()];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = segments.get(i) instanceof Literal(String text) ? text.getBytes(charset) : segments.get(i);
+        }
+        return new Renderer(parts, charset, escaper);
+    }
+
+    public sealed interface Segment permits Literal, Placeholder {
+    }
+
+    public record Literal(String text) implements Segment {
+    }
+
+    /**
+     * @param defaultValue 値がない場合に使う値。nullの場合は空文字
+     */
+    public record Placeholder(PlaceholderSource source, String key, String defaultValue) implements Segment {
+
+        static Placeholder parse(String expression) {
+            int colon = expression.indexOf(':');
+            if (colon <= 0 || colon == expression.length() - 1) {
+                throw new IllegalArgumentException("プレースホルダの形式が不正。placeholder:" + expression);
+            }
+            PlaceholderSource source = PlaceholderSource.ofPrefix(expression.substring(0, colon));
+            String rest = expression.substring(colon + 1);
+            int separator = rest.indexOf(DEFAULT_SEPARATOR);
+            return separator < 0
+                    ? new Placeholder(source, rest, null)
+                    : new Placeholder(source, rest.substring(0, separator), rest.substring(separator + DEFAULT_SEPARATOR.length()));
+        }
+
+        String resolve(RequestData requestData) {
+            String value = source.resolve(requestData, key);
+            if (value != null) {
+                return value;
+            }
+            return defaultValue == null ? "" : defaultValue;
+        }
+    }
+
+    /**
+     * テンプレートをバイト列にレンダリングする。固定部分はエンコード済みのものをコピーする。
+     */
+    public static final class Renderer {
+
+        // byte[](固定部分)またはPlaceholder
+        private final Object[] parts;
+        private final Charset charset;
+        private final ValueEscaper escaper;
+        private final int placeholderCount;
+
+        private Renderer(Object[] parts, Charset charset, ValueEscaper escaper) {
+            this.parts = parts;
+            this.charset = charset;
+            this.escaper = escaper;
+            int count = 0;
+            for (Object part : parts) {
+                if (part instanceof Placeholder) {
+                    count++;
+                }
+            }
+            this.placeholderCount = count;
+        }
+
+        public byte[] render(RequestData requestData) {
+            // 埋め込む値を先にエンコードして長さを確定し、ちょうどの大きさのバッファに一度で書き込む
+            byte[][] values = new byte[placeholderCount][];
+            int length = 0;
+            int valueIndex = 0;
+            for (Object part : parts) {
+                if (part instanceof byte[] bytes) {
+                    length += bytes.length;
+                } else {
+                    byte[] value = escaper.apply(((Placeholder) part).resolve(requestData)).getBytes(charset);
+                    values[valueIndex++] = value;
+                    length += value.length;
+                }
+            }
+            byte[] rendered = new byte[length];
+            int position = 0;
+            valueIndex = 0;
+            for (Object part : parts) {
+                byte[] bytes = part instanceof byte[] literal ? literal : values[valueIndex++];
+                System.arraycopy(bytes, 0, rendered, position, bytes.length);
+                position += bytes.length;
+            }
+            return rendered;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.myou.backend.simulator.domain.model.template;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * テンプレートに埋め込む値のエスケープ。リクエストの値でレスポンスの構文が壊れないようにする。
+ */
+public enum ValueEscaper implements UnaryOperator<String> {
+    NONE {
+        @Override
+        public String apply(String value) {
+            return value;
+        }
+    },
+    // JSON文字列の内容としてエスケープする(値は引用符の内側に置く前提)
+    JSON {
+        @Override
+        public String apply(String value) {
+            StringBuilder escaped = null;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                String replacement = switch (c) {
+                    case '"' -> "\\\"";
+                    case '\\' -> "\\\\";
+                    case '\n' -> "\\n";
+                    case '\r' -> "\\r";
+                    case '\t' -> "\\t";
+                    default -> c < 0x20 ? String.format("\\u%04x", (int) c) : null;
+                };
+                escaped = append(escaped, value, i, c, replacement);
+            }
+            return escaped == null ? value : escaped.toString();
+        }
+    },
+    XML {
+        @Override
+        public String apply(String value) {
+            StringBuilder escaped = null;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                String replacement = switch (c) {
+                    case '&' -> "&amp;";
+                    case '<' -> "&lt;";
+                    case '>' -> "&gt;";
+                    case '"' -> "&quot;";
+                    case '\'' -> "&apos;";
+                    default -> null;
+                };
+                escaped = append(escaped, value, i, c, replacement);
+            }
+            return escaped == null ? value : escaped.toString();
+        }
+    };
+
+    // エスケープが不要な値では新しい文字列を作らない
+    private static StringBuilder append(StringBuilder escaped, String value, int index, char c, String replacement) {
+        if (replacement == null) {
+            if (escaped != null) {
+                escaped.append(c);
+            }
+            return escaped;
+        }
+        if (escaped == null) {
+            escaped = new StringBuilder(value.length() + 16).append(value, 0, index);
+        }
+        return escaped.append(replacement);
+    }
+}
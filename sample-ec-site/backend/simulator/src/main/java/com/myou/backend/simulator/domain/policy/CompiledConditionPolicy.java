@@ -0,0 +1,106 @@
+package com.myou.backend.simulator.domain.policy;
+
+import com.myou.backend.simulator.domain.model.RequestData;
+import com.myou.backend.simulator.domain.policy.rule.ConditionRule;
+import com.myou.backend.simulator.domain.type.RuleOrdering;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * 評価順を決めた条件ポリシー。
+ * <p>
+ * 条件は全て論理積で副作用もないため、評価順を変えても結果は変わらない。
+ * 安価で一致しにくい条件から評価し、不一致を早く確定させる。
+ * 初期の順序は見積もりコストの昇順(同じコストは宣言順)とする。
+ * <p>
+ * {@link RuleOrdering#ADAPTIVE} の場合は一部のリクエストで条件毎の評価回数と一致回数を数え、
+ * 一定数の標本毎に コスト / (1 - 一致率) の昇順に並べ替える。
+ * 条件が独立であれば、論理積の評価の期待コストはこの順序で最小になる。
+ */
+public final class CompiledConditionPolicy {
+
+    // 標本として数えるリクエストの割合(1/n)。数えるためのアトミック操作を全リクエストで行わないようにする
+    static final int SAMPLING_INTERVAL = 16;
+    // この数の標本毎に評価順を見直す
+    static final int REORDER_SAMPLES = 256;
+
+    private final ConditionRule[] rules;
+    private final boolean adaptive;
+    private final AtomicLongArray evaluated;
+    private final AtomicLongArray passed;
+    private final AtomicInteger samples = new AtomicInteger();
+    private volatile int[] order;
+
+    private CompiledConditionPolicy(ConditionRule[] rules, RuleOrdering ordering) {
+        this.rules = rules;
+        this.adaptive = ordering == RuleOrdering.ADAPTIVE && rules.length > 1;
+        this.evaluated = adaptive ? new AtomicLongArray(rules.length) : null;
+        this.passed = adaptive ? new AtomicLongArray(rules.length) : null;
+        this.order = IntStream.range(0, rules.length)
+                .boxed()
+                .sorted(Comparator.comparingInt(i -> rules[i].estimatedCost()))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    public static CompiledConditionPolicy compile(ConditionPolicy conditionPolicy, RuleOrdering ordering) {
+        List<ConditionRule> rules = conditionPolicy.rules() == null ? List.of() : conditionPolicy.rules();
+        return new CompiledConditionPolicy(rules.toArray(ConditionRule[]::new), ordering);
+    }
+
+    public boolean apply(RequestData requestData) {
+        int[] current = order;
+        if (adaptive && ThreadLocalRandom.current().nextInt(SAMPLING_INTERVAL) == 0) {
+            return applyAndObserve(requestData, current);
+        }
+        for (int i : current) {
+            if (!rules[i].evaluate(requestData)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 現在の評価順の条件。
+     */
+    public List<ConditionRule> rules() {
+        return Arrays.stream(order).mapToObj(i -> rules[i]).toList();
+    }
+
+    private boolean applyAndObserve(RequestData requestData, int[] current) {
+        boolean result = true;
+        for (int i : current) {
+            evaluated.incrementAndGet(i);
+            if (!rules[i].evaluate(requestData)) {
+                result = false;
+                break;
+            }
+            passed.incrementAndGet(i);
+        }
+        if (samples.incrementAndGet() % REORDER_SAMPLES == 0) {
+            reorder();
+        }
+        return result;
+    }
+
+    private void reorder() {
+        double[] ranks = new double[rules.length];
+        for (int i = 0; i < rules.length; i++) {
+            // 評価されていない条件は一致率を1/2とみなす(ラプラス平滑化)
+            double passRate = (passed.get(i) + 1.0) / (evaluated.get(i) + 2.0);
+            ranks[i] = rules[i].estimatedCost() / (1.0 - passRate);
+        }
+        order = IntStream.range(0, rules.length)
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> ranks[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+}
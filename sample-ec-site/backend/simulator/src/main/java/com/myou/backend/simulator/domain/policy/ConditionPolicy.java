@@ -8,6 +8,9 @@ import java.util.List;
 
 public record ConditionPolicy(List<ConditionRule> rules) implements Serializable {
 
+    /**
+     * 宣言順に評価する。リクエスト毎の照合では評価順を決めた {@link CompiledConditionPolicy} を使う。
+     */
     public boolean apply(RequestData requestData) {
         return rules.stream().allMatch(rule -> rule.evaluate(requestData));
     }
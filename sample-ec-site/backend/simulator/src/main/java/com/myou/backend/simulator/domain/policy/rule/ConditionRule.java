@@ -2,6 +2,14 @@ package com.myou.backend.simulator.domain.policy.rule;
 
 import com.myou.backend.simulator.domain.model.RequestData;
 
-public sealed interface ConditionRule permits RequestHeaderConditionRule, RequestContentConditionRule {
+public sealed interface ConditionRule
+        permits RequestHeaderConditionRule, RequestContentConditionRule,
+        PrefixConditionRule, RegexConditionRule, RangeConditionRule, PresenceConditionRule, SetConditionRule {
+
     boolean evaluate(RequestData requestData);
+
+    /**
+     * 評価の相対的なコストの静的な見積もり。値の取得元のコストと比較のコストの積とする。
+     */
+    int estimatedCost();
 }
@@ -0,0 +1,26 @@
+package com.myou.backend.simulator.domain.policy.rule;
+
+import com.myou.backend.simulator.domain.model.RequestData;
+import com.myou.backend.simulator.domain.type.RuleTarget;
+
+import java.io.Serializable;
+
+/**
+ * いずれかの値が接頭辞で始まる場合に一致する。
+ */
+public record PrefixConditionRule(RuleTarget target, String key, String prefix) implements ConditionRule, Serializable {
+    @Override
+    public boolean evaluate(RequestData requestData) {
+        for (String value : target.values(requestData, key)) {
+            if (value != null && value.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int estimatedCost() {
+        return target.cost() * 2;
+    }
+}
@@ -0,0 +1,23 @@
+package com.myou.backend.simulator.domain.policy.rule;
+
+import com.myou.backend.simulator.domain.model.RequestData;
+import com.myou.backend.simulator.domain.type.RuleTarget;
+
+import java.io.Serializable;
+
+/**
+ * 値の有無で判定する。
+ *
+ * @param present trueの場合は値が存在すれば一致し、falseの場合は存在しなければ一致する
+ */
+public record PresenceConditionRule(RuleTarget target, String key, boolean present) implements ConditionRule, Serializable {
+    @Override
+    public boolean evaluate(RequestData requestData) {
+        return target.values(requestData, key).isEmpty() != present;
+    }
+
+    @Override
+    public int estimatedCost() {
+        return target.cost();
+    }
+}
@@ -0,0 +1,56 @@
+package com.myou.backend.simulator.domain.policy.rule;
+
+import com.myou.backend.simulator.domain.model.RequestData;
+import com.myou.backend.simulator.domain.type.RuleTarget;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * いずれかの値が数値として範囲内の場合に一致する。
+ *
+ * @param min 下限(含む)。nullの場合は下限なし
+ * @param max 上限(含む)。nullの場合は上限なし
+ */
+public record RangeConditionRule(RuleTarget target, String key, BigDecimal min, BigDecimal max)
+        implements ConditionRule, Serializable {
+
+    public RangeConditionRule {
+        if (min == null && max == null) {
+            throw new IllegalArgumentException("min or max is required for range rule");
+        }
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new IllegalArgumentException("min must not be greater than max. min:" + min + " max:" + max);
+        }
+    }
+
+    @Override
+    public boolean evaluate(RequestData requestData) {
+        for (String value : target.values(requestData, key)) {
+            BigDecimal number = parse(value);
+            if (number != null
+                    && (min == null || min.compareTo(number) <= 0)
+                    && (max == null || max.compareTo(number) >= 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int estimatedCost() {
+        return target.cost() * 4;
+    }
+
+    private static BigDecimal parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.strip());
+        } catch (NumberFormatException e) {
+            // 数値でない値は範囲外とする
+            return null;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.myou.backend.simulator.domain.policy.rule;
+
+import com.myou.backend.simulator.domain.model.RequestData;
+import com.myou.backend.simulator.domain.type.RuleTarget;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * いずれかの値全体が正規表現に一致する場合に一致する。パターンは条件の生成時に一度だけコンパイルする。
+ */
+public record RegexConditionRule(RuleTarget target, String key, Pattern pattern) implements ConditionRule, Serializable {
+
+    /**
+     * @throws java.util.regex.PatternSyntaxException 正規表現が不正な場合
+     */
+    public static RegexConditionRule of(RuleTarget target, String key, String regex) {
+        return new RegexConditionRule(target, key, Pattern.compile(regex));
+    }
+
+    @Override
+    public boolean evaluate(RequestData requestData) {
+        for (String value : target.values(requestData, key)) {
+            if (value != null && pattern.matcher(value).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int estimatedCost() {
+        return target.cost() * 8;
+    }
+
+    // Patternは同値性を持たないため、パターンの文字列とフラグで比較する
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof RegexConditionRule other
+                && target == other.target
+                && Objects.equals(key, other.key)
+                && pattern.pattern().equals(other.pattern.pattern())
+                && pattern.flags() == other.pattern.flags();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(target, key, pattern.pattern(), pattern.flags());
+    }
+}
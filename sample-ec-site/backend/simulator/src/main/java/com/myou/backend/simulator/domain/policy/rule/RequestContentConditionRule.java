@@ -1,6 +1,7 @@
 package com.myou.backend.simulator.domain.policy.rule;
 
 import com.myou.backend.simulator.domain.model.RequestData;
+import com.myou.backend.simulator.domain.type.RuleTarget;
 
 import java.io.Serializable;
 
@@ -9,4 +10,9 @@ public record RequestContentConditionRule(String key, String expectedValue) impl
     public boolean evaluate(RequestData requestData) {
         return requestData.content().matches(key, expectedValue);
     }
+
+    @Override
+    public int estimatedCost() {
+        return RuleTarget.REQUEST_CONTENT.cost();
+    }
 }
@@ -1,6 +1,7 @@
 package com.myou.backend.simulator.domain.policy.rule;
 
 import com.myou.backend.simulator.domain.model.RequestData;
+import com.myou.backend.simulator.domain.type.RuleTarget;
 
 import java.io.Serializable;
 import java.util.List;
@@ -12,4 +13,9 @@ public record RequestHeaderConditionRule(String headerName, String expectedValue
         Map<String, List<String>> headers = requestData.requestHeaders();
         return headers.containsKey(headerName) && headers.get(headerName).contains(expectedValue);
     }
+
+    @Override
+    public int estimatedCost() {
+        return RuleTarget.REQUEST_HEADER.cost();
+    }
 }
@@ -0,0 +1,35 @@
+package com.myou.backend.simulator.domain.policy.rule;
+
+import com.myou.backend.simulator.domain.model.RequestData;
+import com.myou.backend.simulator.domain.type.RuleTarget;
+
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * いずれかの値が候補の集合に含まれる場合に一致する。候補の数によらずハッシュの参照1回で判定する。
+ */
+public record SetConditionRule(RuleTarget target, String key, Set<String> values) implements ConditionRule, Serializable {
+
+    public SetConditionRule {
+        if (values == null || values.isEmpty()) {
+            throw new IllegalArgumentException("values is required for set rule");
+        }
+        values = Set.copyOf(values);
+    }
+
+    @Override
+    public boolean evaluate(RequestData requestData) {
+        for (String value : target.values(requestData, key)) {
+            if (value != null && values.contains(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int estimatedCost() {
+        return target.cost();
+    }
+}
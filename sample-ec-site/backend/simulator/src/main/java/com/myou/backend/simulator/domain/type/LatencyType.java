@@ -0,0 +1,9 @@
+package com.myou.backend.simulator.domain.type;
+
+public enum LatencyType {
+    FIXED,
+    UNIFORM,
+    NORMAL,
+    LOG_NORMAL,
+    PERCENTILE
+}
@@ -0,0 +1,15 @@
+package com.myou.backend.simulator.domain.type;
+
+/**
+ * コンパイルした条件ポリシーの評価順の決め方。
+ */
+public enum RuleOrdering {
+    /**
+     * 静的な見積もりコストの昇順。
+     */
+    STATIC,
+    /**
+     * 見積もりコストと、実際のリクエストで観測した一致率から決める。
+     */
+    ADAPTIVE
+}
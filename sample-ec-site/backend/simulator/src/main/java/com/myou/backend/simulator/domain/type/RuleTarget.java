@@ -0,0 +1,44 @@
+package com.myou.backend.simulator.domain.type;
+
+import com.myou.backend.simulator.domain.model.RequestContent;
+import com.myou.backend.simulator.domain.model.RequestData;
+
+import java.util.List;
+
+/**
+ * 条件が評価するリクエストの値の取得元。
+ */
+public enum RuleTarget {
+    REQUEST_HEADER(1) {
+        @Override
+        public List<String> values(RequestData requestData, String key) {
+            List<String> values = requestData.requestHeaders() == null ? null : requestData.requestHeaders().get(key);
+            return values == null ? List.of() : values;
+        }
+    },
+    REQUEST_CONTENT(2) {
+        @Override
+        public List<String> values(RequestData requestData, String key) {
+            RequestContent content = requestData.content();
+            return content == null ? List.of() : content.extractValues(key);
+        }
+    };
+
+    private final int cost;
+
+    RuleTarget(int cost) {
+        this.cost = cost;
+    }
+
+    /**
+     * 値を取得する相対的なコスト。ヘッダはマップの参照だけで済むため、コンテンツより安価とする。
+     */
+    public int cost() {
+        return cost;
+    }
+
+    /**
+     * キーに対応する値。存在しない場合は空のリストを返す。
+     */
+    public abstract List<String> values(RequestData requestData, String key);
+}
@@ -2,5 +2,11 @@ package com.myou.backend.simulator.domain.type;
 
 public enum RuleType {
     REQUEST_HEADER,
-    REQUEST_CONTENT
+    REQUEST_CONTENT,
+    PREFIX,
+    REGEX,
+    RANGE,
+    EXISTS,
+    ABSENT,
+    IN
 }
@@ -0,0 +1,16 @@
+package com.myou.backend.simulator.domain.type;
+
+public enum ScenarioMode {
+    /**
+     * 呼び出し毎に次のステップに進み、最後のステップに達したらそれを返し続ける
+     */
+    SEQUENCE,
+    /**
+     * 呼び出し毎に次のステップに進み、最後のステップの次は最初に戻る
+     */
+    ROUND_ROBIN,
+    /**
+     * 重みに比例した確率でステップを選ぶ。状態を持たない
+     */
+    WEIGHTED_RANDOM
+}
@@ -0,0 +1,32 @@
+package com.myou.backend.simulator.infrastructure.body;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+
+/**
+ * ボディストアのファイルをメモリマップしたもの。
+ *
+ * @param path   ボディのファイル。sendfileでの送信に使う
+ * @param buffer ファイル全体をマップした読み取り専用のバッファ。共有するため直接読み書きせず、複製して使う
+ */
+public record MappedBody(Path path, ByteBuffer buffer) {
+
+    public long length() {
+        return buffer.capacity();
+    }
+
+    /**
+     * マップしたバッファからストリームに書き込む。ボディ全体をヒープにコピーせず、チャネルの転送用の小さなバッファ経由で書き込む。
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        WritableByteChannel channel = Channels.newChannel(out);
+        ByteBuffer source = buffer.duplicate();
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.myou.backend.simulator.infrastructure.body;
+
+import com.myou.backend.simulator.domain.model.BodyHandle;
+import com.myou.backend.simulator.domain.model.ResponseData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 大きなレスポンスボディをヒープ外に置くボディストア。
+ * <p>
+ * 閾値以上のボディはエンコード後のバイト列をSHA-256をファイル名とするファイルに保存し、レスポンスデータには参照だけを残す。
+ * 同じ内容のボディは1ファイルを共有し、参照するレスポンスデータがなくなった時点で削除する。ファイルは初回参照時にメモリマップし、以降はマップしたバッファを使い回す。
+ * マップした領域はページキャッシュに載るため、ボディの数・大きさがヒープの使用量とGCに影響しない。
+ * <p>
+ * テンプレートのボディはリクエスト毎にレンダリングするためストアに置かない。
+ * ファイルはノード毎のディレクトリに保存するため、複数ノードでRedisを共有する場合はディレクトリも共有する必要がある。
+ */
+@Component
+public class MappedBodyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedBodyStore.class);
+    private static final String SUFFIX = ".body";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long threshold;
+    private final ConcurrentMap<String, MappedBody> mappedBodies = new ConcurrentHashMap<>();
+
+    public MappedBodyStore(@Value("${simulator.body-store.enabled:false}") boolean enabled,
+                           @Value("${simulator.body-store.directory:${java.io.tmpdir}/simulator-bodies}") Path directory,
+                           @Value("${simulator.body-store.threshold:1MB}") DataSize threshold) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.threshold = threshold.toBytes();
+    }
+
+    /**
+     * 閾値以上の固定のボディをストアに保存し、参照に置き換えたレスポンスデータを返す。対象外の場合はそのまま返す。
+     */
+    public ResponseData offload(ResponseData responseData) {
+        String body = responseData.responseBody();
+        // 1文字は高々4バイトのため、エンコードしなくても閾値に届かないボディを先に除外する
+        if (!enabled || body == null || body.length() < threshold / 4 || responseData.responseTemplate().isPresent()) {
+            return responseData;
+        }
+        byte[] bytes = body.getBytes(charsetOf(responseData));
+        if (bytes.length < threshold) {
+            return responseData;
+        }
+        return responseData.withBodyHandle(write(bytes));
+    }
+
+    /**
+     * ストアに保存したボディを読み込み、ボディを持つレスポンスデータを返す。参照を持たない場合はそのまま返す。
+     * ボディ全体をヒープに載せるため、定義の参照・出力にだけ使う。
+     */
+    public ResponseData load(ResponseData responseData) {
+        if (responseData.bodyHandle() == null) {
+            return responseData;
+        }
+        MappedBody mapped = open(responseData.bodyHandle());
+        return responseData.withResponseBody(charsetOf(responseData).decode(mapped.buffer().duplicate()).toString());
+    }
+
+    /**
+     * ボディのファイルをマップする。マップ済みの場合は同じバッファを返す。
+     *
+     * @throws IllegalStateException ファイルが存在しない、または長さが参照と一致しない場合
+     */
+    public MappedBody open(BodyHandle handle) {
+        MappedBody mapped = mappedBodies.get(handle.key());
+        if (mapped != null) {
+            return mapped;
+        }
+        // ロックを保持したままI/Oで待機しないよう、マップはcomputeIfAbsentの外で行う
+        mapped = map(handle);
+        MappedBody existing = mappedBodies.putIfAbsent(handle.key(), mapped);
+        return existing != null ? existing : mapped;
+    }
+
+    /**
+     * ボディのファイルを削除する。
+     * 応答中の書き込みがあり得るため、マップ済みのバッファは無効にせず参照を外すだけにする。
+     */
+    public void delete(String key) {
+        mappedBodies.remove(key);
+        try {
+            if (Files.deleteIfExists(pathOf(key))) {
+                logger.debug("ボディストアから削除。key:{}", key);
+            }
+        } catch (IOException e) {
+            // 定義の更新は済んでいるため、削除できなかったファイルは残して続行する
+            logger.warn("ボディストアのファイルの削除に失敗。key:{}", key, e);
+        }
+    }
+
+    private MappedBody map(BodyHandle handle) {
+        Path path = pathOf(handle.key());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() != handle.length()) {
+                throw new IllegalStateException("ボディストアのファイルの長さが一致しない。key:" + handle.key()
+                        + " expected:" + handle.length() + " actual:" + channel.size());
+            }
+            // マップした領域はチャネルを閉じた後も有効
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedBody(path, buffer.asReadOnlyBuffer());
+        } catch (IOException e) {
+            throw new IllegalStateException("ボディストアのファイルのマップに失敗。key:" + handle.key(), e);
+        }
+    }
+
+    private BodyHandle write(byte[] bytes) {
+        String key = sha256(bytes);
+        Path path = pathOf(key);
+        if (!Files.exists(path)) {
+            try {
+                Files.createDirectories(directory);
+                // 書き込み途中のファイルを参照させないよう、一時ファイルに書き込んでから移動する
+                Path temporary = Files.createTempFile(directory, key, ".tmp");
+                try {
+                    Files.write(temporary, bytes);
+                    Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // 同じ内容を同時に保存した場合は先に保存した方を使う
+                } finally {
+                    Files.deleteIfExists(temporary);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("ボディストアへの保存に失敗。key:" + key, e);
+            }
+            logger.debug("ボディストアに保存。key:{} length:{}", key, bytes.length);
+        }
+        return new BodyHandle(key, bytes.length);
+    }
+
+    private Path pathOf(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Charset charsetOf(ResponseData responseData) {
+        if (responseData.responseHeaders() == null) {
+            return StandardCharsets.UTF_8;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        responseData.responseHeaders().forEach(headers::addAll);
+        MediaType contentType = headers.getContentType();
+        return contentType != null && contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+    }
+}
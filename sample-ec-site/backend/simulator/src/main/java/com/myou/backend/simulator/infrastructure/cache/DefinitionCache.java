@@ -0,0 +1,178 @@
+package com.myou.backend.simulator.infrastructure.cache;
+
+import com.myou.backend.simulator.domain.model.ConditionMatcher;
+import com.myou.backend.simulator.domain.model.ResponseData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * ストレージの前段に置くプロセス内のニアキャッシュ。
+ * デシリアライズ・コンパイル済みのオブジェクトを保持し、ホットパスでのRedisアクセスと変換を省く。
+ * <p>
+ * ストレージからの読み込みはマップのロック({@link ConcurrentHashMap#computeIfAbsent})の外で行う。
+ * ロックを保持したままI/Oで待機すると仮想スレッドがキャリアスレッドに固定(pin)されるため。
+ * 代わりに破棄の世代番号を数え、読み込み中に破棄があった場合は読み込んだ定義をキャッシュに残さない。
+ * <p>
+ * ストレージに存在しなかった結果もキャッシュし、保存・破棄で定義と同様に更新する。
+ * 存在しないIDの参照でキャッシュが増え続けないよう、件数が上限に達している間は存在しなかった結果を保存しない。
+ * 他ノードの更新通知を取りこぼした場合に備え、最大保持期間を設定した場合は経過したエントリを読み直す。
+ */
+@Component
+public class DefinitionCache {
+
+    private final ConcurrentMap<String, Entry<ConditionMatcher>> conditionMatchers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Entry<ResponseData>> responseData = new ConcurrentHashMap<>();
+    private final AtomicLong evictionGeneration = new AtomicLong();
+    private final List<Consumer<String>> responseDataEvictionListeners = new CopyOnWriteArrayList<>();
+    private final long maxAgeNanos;
+    private final int maxEntriesForMisses;
+    private final LongSupplier nanoTime;
+
+    public DefinitionCache() {
+        this(Duration.ZERO, 10000);
+    }
+
+    @Autowired
+    public DefinitionCache(@Value("${simulator.definition-cache.max-age:0s}") Duration maxAge,
+                           @Value("${simulator.definition-cache.max-entries-for-misses:10000}") int maxEntriesForMisses) {
+        this(maxAge, maxEntriesForMisses, System::nanoTime);
+    }
+
+    DefinitionCache(Duration maxAge, int maxEntriesForMisses, LongSupplier nanoTime) {
+        this.maxAgeNanos = maxAge.toNanos();
+        this.maxEntriesForMisses = maxEntriesForMisses;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * レスポンスデータがキャッシュから破棄、または別のインスタンスに置き換えられた時に、そのレスポンスIDで呼び出す処理を登録する。
+     * レスポンスデータのインスタンスから作った派生データを、定義と同じ契機で破棄するため。
+     */
+    public void addResponseDataEvictionListener(Consumer<String> listener) {
+        responseDataEvictionListeners.add(listener);
+    }
+
+    public Optional<ConditionMatcher> getConditionMatcher(String interfaceId,
+                                                          Function<String, Optional<ConditionMatcher>> loader) {
+        return get(conditionMatchers, interfaceId, loader, id -> {
+        });
+    }
+
+    public void putConditionMatcher(ConditionMatcher conditionMatcher) {
+        conditionMatchers.put(conditionMatcher.interfaceId(), new Entry<>(conditionMatcher, nanoTime.getAsLong()));
+    }
+
+    public Optional<ResponseData> getResponseData(String responseId,
+                                                  Function<String, Optional<ResponseData>> loader) {
+        return get(responseData, responseId, loader, this::notifyResponseDataEvicted);
+    }
+
+    public void putResponseData(ResponseData data) {
+        putAllResponseData(List.of(data));
+    }
+
+    /**
+     * レスポンスデータを保存し、それを返し得る条件エントリのマッチャーを破棄する。
+     * マッチャーはレスポンスデータのテンプレートが参照するキーを含めてコンパイルしているため。
+     */
+    public void putAllResponseData(Collection<ResponseData> data) {
+        evictionGeneration.incrementAndGet();
+        Set<String> responseIds = new HashSet<>();
+        long now = nanoTime.getAsLong();
+        for (ResponseData d : data) {
+            responseData.put(d.responseId(), new Entry<>(d, now));
+            responseIds.add(d.responseId());
+        }
+        evictConditionMatchersReferencing(responseIds);
+        responseIds.forEach(this::notifyResponseDataEvicted);
+    }
+
+    public void evict(DefinitionType type, String id) {
+        // 読み込み中のスレッドが検知できるよう、削除より先に世代を進める
+        evictionGeneration.incrementAndGet();
+        switch (type) {
+            case CONDITION_ENTRY -> conditionMatchers.remove(id);
+            case RESPONSE_DATA -> {
+                responseData.remove(id);
+                evictConditionMatchersReferencing(Set.of(id));
+                notifyResponseDataEvicted(id);
+            }
+        }
+    }
+
+    public void clear() {
+        evictionGeneration.incrementAndGet();
+        conditionMatchers.clear();
+        Set<String> responseIds = new HashSet<>(responseData.keySet());
+        responseData.clear();
+        responseIds.forEach(this::notifyResponseDataEvicted);
+    }
+
+    private void notifyResponseDataEvicted(String responseId) {
+        for (Consumer<String> listener : responseDataEvictionListeners) {
+            listener.accept(responseId);
+        }
+    }
+
+    private void evictConditionMatchersReferencing(Set<String> responseIds) {
+        conditionMatchers.values().removeIf(entry -> entry.value() != null
+                && entry.value().responseIds().stream().anyMatch(responseIds::contains));
+    }
+
+    private <T> Optional<T> get(ConcurrentMap<String, Entry<T>> cache, String id, Function<String, Optional<T>> loader,
+                                Consumer<String> onReplaced) {
+        Entry<T> cached = cache.get(id);
+        if (cached != null && !isStale(cached)) {
+            return Optional.ofNullable(cached.value());
+        }
+        long generation = evictionGeneration.get();
+        Entry<T> loaded = new Entry<>(loader.apply(id).orElse(null), nanoTime.getAsLong());
+        if (loaded.value() == null && cache.size() >= maxEntriesForMisses) {
+            if (cached != null && cache.remove(id, cached) && cached.value() != null) {
+                onReplaced.accept(id);
+            }
+            return Optional.empty();
+        }
+        // 同時に読み込んだ場合は先にキャッシュした方に揃え、以降と同じインスタンスを返す
+        Entry<T> existing = cached == null
+                ? cache.putIfAbsent(id, loaded)
+                : cache.replace(id, cached, loaded) ? null : cache.get(id);
+        if (existing != null) {
+            return Optional.ofNullable(existing.value());
+        }
+        // 最大保持期間の経過で読み直した場合は古いインスタンスを置き換えている
+        if (cached != null && cached.value() != null) {
+            onReplaced.accept(id);
+        }
+        // 読み込み中に破棄された場合は古い定義の可能性があるため残さない
+        if (evictionGeneration.get() != generation) {
+            cache.remove(id, loaded);
+        }
+        return Optional.ofNullable(loaded.value());
+    }
+
+    private boolean isStale(Entry<?> entry) {
+        return maxAgeNanos > 0 && nanoTime.getAsLong() - entry.loadedAt() > maxAgeNanos;
+    }
+
+    /**
+     * キャッシュの1件。ストレージに存在しなかった場合は value が null。
+     */
+    private record Entry<T>(T value, long loadedAt) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.myou.backend.simulator.infrastructure.cache;
+
+import org.springframework.util.Assert;
+
+public record DefinitionChangeMessage(String nodeId, DefinitionType type, String id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        return nodeId + SEPARATOR + type.name() + SEPARATOR + id;
+    }
+
+    public static DefinitionChangeMessage decode(String message) {
+        // idに区切り文字が含まれても良いように、先頭2つだけで分割する
+        String[] parts = message.split("\\|", 3);
+        Assert.isTrue(parts.length == 3, () -> "invalid definition change message: " + message);
+        return new DefinitionChangeMessage(parts[0], DefinitionType.valueOf(parts[1]), parts[2]);
+    }
+}
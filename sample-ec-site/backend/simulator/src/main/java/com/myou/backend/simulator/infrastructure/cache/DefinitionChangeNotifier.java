@@ -0,0 +1,24 @@
+package com.myou.backend.simulator.infrastructure.cache;
+
+import java.util.Collection;
+
+/**
+ * シミュレータ定義の更新を他ノードへ通知する。
+ * 通知を受けたノードは自ノードのニアキャッシュから該当定義を破棄する。
+ */
+public interface DefinitionChangeNotifier {
+
+    void notifyChanged(DefinitionType type, String id);
+
+    /**
+     * 一括保存した定義の更新をまとめて通知する。
+     */
+    default void notifyChanged(DefinitionType type, Collection<String> ids) {
+        ids.forEach(id -> notifyChanged(type, id));
+    }
+
+    static DefinitionChangeNotifier noop() {
+        return (type, id) -> {
+        };
+    }
+}
@@ -0,0 +1,6 @@
+package com.myou.backend.simulator.infrastructure.cache;
+
+public enum DefinitionType {
+    CONDITION_ENTRY,
+    RESPONSE_DATA
+}
@@ -0,0 +1,74 @@
+package com.myou.backend.simulator.infrastructure.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Redis pub/sub で定義の更新を全ノードへ通知し、受信したノードのニアキャッシュを破棄する。
+ * 自ノードが発行した通知は保存時にキャッシュを更新済みのため無視する。
+ * <p>
+ * pub/sub は配信を保証しないため、(再)サブスクライブの度にキャッシュ全体を破棄する。
+ * 接続断の間に発行された通知を取りこぼしても、再接続後は最新の定義を読み直す。
+ */
+public class RedisDefinitionChangeNotifier implements DefinitionChangeNotifier, MessageListener, SubscriptionListener {
+
+    public static final ChannelTopic TOPIC = ChannelTopic.of("simulator:definition-changed");
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisDefinitionChangeNotifier.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final DefinitionCache definitionCache;
+
+    public RedisDefinitionChangeNotifier(StringRedisTemplate redisTemplate, DefinitionCache definitionCache) {
+        this.redisTemplate = redisTemplate;
+        this.definitionCache = definitionCache;
+    }
+
+    @Override
+    public void notifyChanged(DefinitionType type, String id) {
+        redisTemplate.convertAndSend(TOPIC.getTopic(), new DefinitionChangeMessage(nodeId, type, id).encode());
+    }
+
+    @Override
+    public void notifyChanged(DefinitionType type, Collection<String> ids) {
+        // 一括保存時は通知をパイプラインでまとめて送り、件数分の往復を避ける
+        byte[] channel = TOPIC.getTopic().getBytes(StandardCharsets.UTF_8);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String id : ids) {
+                connection.publish(channel, new DefinitionChangeMessage(nodeId, type, id).encode().getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            DefinitionChangeMessage change = DefinitionChangeMessage.decode(new String(message.getBody(), StandardCharsets.UTF_8));
+            if (!nodeId.equals(change.nodeId())) {
+                definitionCache.evict(change.type(), change.id());
+            }
+        } catch (Exception e) {
+            // 解析できない通知は取りこぼしを避けるためキャッシュ全体を破棄する
+            logger.warn("定義更新通知の解析に失敗したため、キャッシュを全て破棄する", e);
+            definitionCache.clear();
+        }
+    }
+
+    @Override
+    public void onChannelSubscribed(byte[] channel, long count) {
+        logger.info("定義更新通知をサブスクライブしたため、キャッシュを全て破棄する");
+        definitionCache.clear();
+    }
+}
@@ -0,0 +1,138 @@
+package com.myou.backend.simulator.infrastructure.capture;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * キャプチャファイルの形式。
+ * <p>
+ * 先頭にマジックナンバーとキャプチャ開始時刻(エポックミリ秒)を置き、以降に「長さ(int)+レコード」を繰り返す。
+ * 文字列・バイト列は「長さ(int)+内容」で表し、nullは長さ-1で表す。
+ */
+public final class CaptureFile {
+
+    private static final byte[] MAGIC = "SIMCAP01".getBytes(StandardCharsets.US_ASCII);
+
+    private CaptureFile() {
+    }
+
+    public static void writeHeader(DataOutputStream out, long startEpochMillis) throws IOException {
+        out.write(MAGIC);
+        out.writeLong(startEpochMillis);
+    }
+
+    public static byte[] encode(CapturedRequest request) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256 + (request.body() == null ? 0 : request.body().length));
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeLong(request.arrivalNanos());
+            writeString(out, request.method());
+            writeString(out, request.interfaceId());
+            writeString(out, request.queryString());
+            out.writeInt(request.headers().size());
+            for (Map.Entry<String, List<String>> header : request.headers().entrySet()) {
+                writeString(out, header.getKey());
+                out.writeInt(header.getValue().size());
+                for (String value : header.getValue()) {
+                    writeString(out, value);
+                }
+            }
+            writeBytes(out, request.body());
+            writeString(out, request.responseId());
+            out.writeInt(request.statusCode());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    public static CapturedRequest decode(DataInputStream in) throws IOException {
+        long arrivalNanos = in.readLong();
+        String method = readString(in);
+        String interfaceId = readString(in);
+        String queryString = readString(in);
+        int headerCount = in.readInt();
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            String name = readString(in);
+            int valueCount = in.readInt();
+            List<String> values = new ArrayList<>(valueCount);
+            for (int j = 0; j < valueCount; j++) {
+                values.add(readString(in));
+            }
+            headers.put(name, values);
+        }
+        byte[] body = readBytes(in);
+        String responseId = readString(in);
+        int statusCode = in.readInt();
+        return new CapturedRequest(arrivalNanos, method, interfaceId, queryString, headers, body, responseId, statusCode);
+    }
+
+    /**
+     * キャプチャファイルを読み込む。レコードは到着順とは限らない。
+     */
+    public static Contents read(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IllegalArgumentException("キャプチャファイルの形式が不正");
+        }
+        long startEpochMillis = in.readLong();
+        List<CapturedRequest> requests = new ArrayList<>();
+        while (true) {
+            int length;
+            try {
+                length = in.readInt();
+            } catch (EOFException e) {
+                break;
+            }
+            byte[] record = new byte[length];
+            in.readFully(record);
+            requests.add(decode(new DataInputStream(new ByteArrayInputStream(record))));
+        }
+        return new Contents(startEpochMillis, List.copyOf(requests));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = readBytes(in);
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    public record Contents(long startEpochMillis, List<CapturedRequest> requests) {
+    }
+}
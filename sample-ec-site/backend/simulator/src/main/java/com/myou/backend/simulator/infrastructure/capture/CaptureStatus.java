@@ -0,0 +1,9 @@
+package com.myou.backend.simulator.infrastructure.capture;
+
+/**
+ * キャプチャの状態。
+ *
+ * @param droppedCount バッファが一杯のため記録できなかった件数
+ */
+public record CaptureStatus(boolean running, long capturedCount, long droppedCount, long usedBytes, long capacityBytes) {
+}
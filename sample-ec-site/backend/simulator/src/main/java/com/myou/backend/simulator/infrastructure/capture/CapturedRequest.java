@@ -0,0 +1,24 @@
+package com.myou.backend.simulator.infrastructure.capture;
+
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * キャプチャしたリクエスト1件。
+ *
+ * @param arrivalNanos キャプチャ開始からの到着時刻(ナノ秒)
+ * @param body         リクエストボディ。GETリクエストの場合はnull
+ * @param responseId   返却したレスポンスデータのID。条件に一致しなかった場合や拒否した場合はnull
+ * @param statusCode   返却したステータスコード。処理中に例外が発生した場合は0
+ */
+public record CapturedRequest(long arrivalNanos,
+                              String method,
+                              String interfaceId,
+                              @Nullable String queryString,
+                              Map<String, List<String>> headers,
+                              @Nullable byte[] body,
+                              @Nullable String responseId,
+                              int statusCode) {
+}
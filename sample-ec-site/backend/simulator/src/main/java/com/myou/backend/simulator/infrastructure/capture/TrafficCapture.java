@@ -0,0 +1,173 @@
+package com.myou.backend.simulator.infrastructure.capture;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 受信したリクエストをヒープ外の固定長バッファに記録する。
+ * <p>
+ * 記録中のリクエストがGCの対象やヒープの圧迫にならないよう、エンコードしたレコードをダイレクトバッファに書き込む。
+ * 書き込み位置はCASで予約し、レコード長をリリース書き込みすることで確定させるため、記録はロックを取らない。
+ * バッファが一杯になった後のリクエストは記録せず件数だけを数える(連続した区間を再生できるよう、古いレコードは上書きしない)。
+ * クリア時はバッファごと差し替えるため、差し替え前に書き込み中のスレッドがあっても新しいバッファには影響しない。
+ */
+@Component
+public class TrafficCapture {
+
+    // ダイレクトバッファへのアクセスモード付きの読み書きは4バイト境界に揃える必要がある
+    private static final VarHandle LENGTH = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final int ALIGNMENT = Integer.BYTES;
+
+    private final int capacity;
+    private final boolean startOnBoot;
+    private volatile Segment segment;
+    private volatile boolean running;
+
+    public TrafficCapture(@Value("${simulator.capture.capacity:64MB}") DataSize capacity,
+                          @Value("${simulator.capture.start-on-boot:false}") boolean startOnBoot) {
+        this.capacity = (int) Math.min(capacity.toBytes(), Integer.MAX_VALUE - ALIGNMENT);
+        this.startOnBoot = startOnBoot;
+    }
+
+    /**
+     * 起動時に記録を開始する設定の場合、初期化後に記録を開始する。
+     */
+    @PostConstruct
+    void startOnBoot() {
+        if (startOnBoot) {
+            start();
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 記録を開始する。バッファは初回の開始時に確保する。
+     */
+    public synchronized void start() {
+        if (segment == null) {
+            segment = new Segment(capacity);
+        }
+        running = true;
+    }
+
+    public synchronized void stop() {
+        running = false;
+    }
+
+    /**
+     * 記録済みのレコードを破棄し、キャプチャ開始時刻をリセットする。
+     */
+    public synchronized void clear() {
+        if (segment != null) {
+            segment = new Segment(capacity);
+        }
+    }
+
+    /**
+     * リクエストを記録する。記録中でない場合やバッファが一杯の場合はfalseを返す。
+     *
+     * @param arrivalNanos リクエストの到着時の {@link System#nanoTime()}
+     */
+    public boolean offer(long arrivalNanos, CapturedRequest request) {
+        Segment current = segment;
+        if (!running || current == null) {
+            return false;
+        }
+        CapturedRequest relative = new CapturedRequest(Math.max(0, arrivalNanos - current.startNanos),
+                request.method(), request.interfaceId(), request.queryString(), request.headers(), request.body(),
+                request.responseId(), request.statusCode());
+        return current.append(CaptureFile.encode(relative));
+    }
+
+    public CaptureStatus status() {
+        Segment current = segment;
+        if (current == null) {
+            return new CaptureStatus(running, 0, 0, 0, capacity);
+        }
+        return new CaptureStatus(running, current.captured.get(), current.dropped.get(),
+                Math.min(current.position.get(), capacity), capacity);
+    }
+
+    /**
+     * 記録済みのレコードをキャプチャファイルの形式で書き出す。
+     * 記録中に書き出した場合は、書き込みが確定していない最初のレコードの手前までを書き出す。
+     */
+    public void exportTo(OutputStream outputStream) throws IOException {
+        Segment current = segment;
+        DataOutputStream out = new DataOutputStream(outputStream);
+        CaptureFile.writeHeader(out, current == null ? System.currentTimeMillis() : current.startEpochMillis);
+        if (current != null) {
+            current.exportTo(out);
+        }
+        out.flush();
+    }
+
+    private static final class Segment {
+
+        private final ByteBuffer buffer;
+        private final long startNanos = System.nanoTime();
+        private final long startEpochMillis = System.currentTimeMillis();
+        private final AtomicInteger position = new AtomicInteger();
+        private final AtomicLong captured = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+
+        private Segment(int capacity) {
+            this.buffer = ByteBuffer.allocateDirect(capacity);
+        }
+
+        boolean append(byte[] record) {
+            int size = align(Integer.BYTES + record.length);
+            int start;
+            do {
+                start = position.get();
+                if (start > buffer.capacity() - size) {
+                    dropped.incrementAndGet();
+                    return false;
+                }
+            } while (!position.compareAndSet(start, start + size));
+            // 予約した領域は他のスレッドと重ならないため、絶対位置指定でそのまま書き込める
+            buffer.put(start + Integer.BYTES, record);
+            LENGTH.setRelease(buffer, start, record.length);
+            captured.incrementAndGet();
+            return true;
+        }
+
+        void exportTo(DataOutputStream out) throws IOException {
+            int end = Math.min(position.get(), buffer.capacity());
+            out.flush();
+            WritableByteChannel channel = Channels.newChannel(out);
+            int offset = 0;
+            while (offset + Integer.BYTES <= end) {
+                int length = (int) LENGTH.getAcquire(buffer, offset);
+                if (length == 0) {
+                    break;
+                }
+                out.writeInt(length);
+                out.flush();
+                channel.write(buffer.slice(offset + Integer.BYTES, length));
+                offset += align(Integer.BYTES + length);
+            }
+        }
+
+        private static int align(int size) {
+            return (size + ALIGNMENT - 1) & -ALIGNMENT;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.myou.backend.simulator.infrastructure.metrics;
+
+/**
+ * インターフェース単位の集計。時間はミリ秒。
+ *
+ * @param requests           一致・不一致を合わせたリクエスト数
+ * @param matchCacheHitRatio 一致結果のキャッシュのヒット率。キャッシュを参照していない場合は0
+ */
+public record InterfaceStatistics(String interfaceId,
+                                  long requests,
+                                  long matched,
+                                  long unmatched,
+                                  double meanLookupMillis,
+                                  double meanRuleEvaluationMillis,
+                                  double meanBodyParseMillis,
+                                  double maxRuleEvaluationMillis,
+                                  long bytesServed,
+                                  double matchCacheHitRatio) {
+
+    /**
+     * 1リクエストあたりの平均処理時間(取得・抽出・評価の合計)。
+     */
+    public double meanProcessingMillis() {
+        return meanLookupMillis + meanRuleEvaluationMillis + meanBodyParseMillis;
+    }
+}
@@ -0,0 +1,46 @@
+package com.myou.backend.simulator.infrastructure.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * リクエスト数の多いインターフェースと、処理時間の長いインターフェースを返すアクチュエーターエンドポイント。
+ */
+@Component
+@Endpoint(id = "simulator")
+public class SimulatorEndpoint {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final SimulatorMetrics simulatorMetrics;
+
+    public SimulatorEndpoint(SimulatorMetrics simulatorMetrics) {
+        this.simulatorMetrics = simulatorMetrics;
+    }
+
+    @ReadOperation
+    public Report report(@Nullable Integer limit) {
+        int size = limit == null || limit <= 0 ? DEFAULT_LIMIT : limit;
+        List<InterfaceStatistics> statistics = simulatorMetrics.interfaces().stream()
+                .map(SimulatorMetrics.InterfaceMetrics::statistics)
+                .filter(s -> s.requests() > 0)
+                .toList();
+        return new Report(
+                statistics.stream()
+                        .sorted(Comparator.comparingLong(InterfaceStatistics::requests).reversed())
+                        .limit(size)
+                        .toList(),
+                statistics.stream()
+                        .sorted(Comparator.comparingDouble(InterfaceStatistics::meanProcessingMillis).reversed())
+                        .limit(size)
+                        .toList());
+    }
+
+    public record Report(List<InterfaceStatistics> hottest, List<InterfaceStatistics> slowest) {
+    }
+}
@@ -0,0 +1,201 @@
+package com.myou.backend.simulator.infrastructure.metrics;
+
+import com.myou.backend.simulator.application.metrics.RequestMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * シミュレーターの処理時間・一致結果・返却バイト数をインターフェースID・レスポンスID単位で記録する。
+ * <p>
+ * タグの値はクライアントが送るパスに由来するため、種類数に上限を設ける。
+ * 上限を超えたインターフェースID・レスポンスIDは {@link #OVERFLOW_TAG} にまとめて記録する。
+ * 条件エントリが存在しないインターフェースIDは {@link #UNKNOWN_TAG} にまとめて記録し、上限を消費しない。
+ * メーターはID毎に一度だけ登録して保持し、リクエスト毎にはレジストリを検索しない。
+ */
+@Component
+public class SimulatorMetrics implements RequestMetrics {
+
+    public static final String OVERFLOW_TAG = "OTHER";
+    public static final String UNKNOWN_TAG = "UNKNOWN";
+    private static final String NONE_TAG = "none";
+
+    private final MeterRegistry registry;
+    private final int maxInterfaceIds;
+    private final int maxResponseIdsPerInterface;
+    private final ConcurrentMap<String, InterfaceMetrics> interfaces = new ConcurrentHashMap<>();
+
+    public SimulatorMetrics(MeterRegistry registry,
+                            @Value("${simulator.metrics.max-interface-ids:200}") int maxInterfaceIds,
+                            @Value("${simulator.metrics.max-response-ids-per-interface:50}") int maxResponseIdsPerInterface) {
+        this.registry = registry;
+        this.maxInterfaceIds = maxInterfaceIds;
+        this.maxResponseIdsPerInterface = maxResponseIdsPerInterface;
+    }
+
+    @Override
+    public InterfaceMetrics forInterface(String interfaceId) {
+        InterfaceMetrics metrics = interfaces.get(interfaceId);
+        if (metrics != null) {
+            return metrics;
+        }
+        // 上限の判定と登録はアトミックではないため、同時に登録された分だけ上限をわずかに超え得る
+        String tag = interfaces.size() < maxInterfaceIds ? interfaceId : OVERFLOW_TAG;
+        return interfaces.computeIfAbsent(tag, InterfaceMetrics::new);
+    }
+
+    /**
+     * 条件エントリが存在しないインターフェースIDの記録先。
+     */
+    @Override
+    public InterfaceMetrics unknownInterface() {
+        return interfaces.computeIfAbsent(UNKNOWN_TAG, InterfaceMetrics::new);
+    }
+
+    public Collection<InterfaceMetrics> interfaces() {
+        return List.copyOf(interfaces.values());
+    }
+
+    public final class InterfaceMetrics implements Recorder {
+
+        private final String interfaceId;
+        private final Timer lookup;
+        private final Timer ruleEvaluation;
+        private final Timer bodyParse;
+        private final Counter matchCacheHits;
+        private final Counter matchCacheMisses;
+        private final ConcurrentMap<Outcome, Counter> unmatched = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, ResponseMetrics> responses = new ConcurrentHashMap<>();
+
+        private InterfaceMetrics(String interfaceId) {
+            this.interfaceId = interfaceId;
+            this.lookup = Timer.builder("simulator.lookup")
+                    .description("条件エントリの取得時間")
+                    .tag("interfaceId", interfaceId)
+                    .register(registry);
+            this.ruleEvaluation = Timer.builder("simulator.rule.evaluation")
+                    .description("条件の評価時間(一致結果のキャッシュの参照を含む)")
+                    .tag("interfaceId", interfaceId)
+                    .register(registry);
+            this.bodyParse = Timer.builder("simulator.body.parse")
+                    .description("リクエストボディから条件の値を抽出する時間")
+                    .tag("interfaceId", interfaceId)
+                    .register(registry);
+            this.matchCacheHits = matchCacheCounter("hit");
+            this.matchCacheMisses = matchCacheCounter("miss");
+        }
+
+        public String interfaceId() {
+            return interfaceId;
+        }
+
+        @Override
+        public void recordLookup(long nanos) {
+            lookup.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void recordRuleEvaluation(long nanos) {
+            ruleEvaluation.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void recordBodyParse(long nanos) {
+            bodyParse.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void recordMatchCache(boolean hit) {
+            (hit ? matchCacheHits : matchCacheMisses).increment();
+        }
+
+        @Override
+        public void recordMatched(String responseId) {
+            forResponse(responseId).matched.increment();
+        }
+
+        @Override
+        public void recordUnmatched(Outcome outcome) {
+            unmatched.computeIfAbsent(outcome, o -> requestCounter(NONE_TAG, o)).increment();
+        }
+
+        @Override
+        public void recordServed(String responseId, int bytes) {
+            forResponse(responseId).served.record(bytes);
+        }
+
+        public InterfaceStatistics statistics() {
+            long matched = 0;
+            double bytesServed = 0;
+            for (ResponseMetrics response : responses.values()) {
+                matched += (long) response.matched.count();
+                bytesServed += response.served.totalAmount();
+            }
+            long unmatchedCount = 0;
+            for (Counter counter : unmatched.values()) {
+                unmatchedCount += (long) counter.count();
+            }
+            double hits = matchCacheHits.count();
+            double lookups = hits + matchCacheMisses.count();
+            return new InterfaceStatistics(interfaceId, matched + unmatchedCount, matched, unmatchedCount,
+                    mean(lookup), mean(ruleEvaluation), mean(bodyParse), ruleEvaluation.max(TimeUnit.MILLISECONDS),
+                    (long) bytesServed, lookups == 0 ? 0 : hits / lookups);
+        }
+
+        private ResponseMetrics forResponse(String responseId) {
+            ResponseMetrics metrics = responses.get(responseId);
+            if (metrics != null) {
+                return metrics;
+            }
+            String tag = responses.size() < maxResponseIdsPerInterface ? responseId : OVERFLOW_TAG;
+            return responses.computeIfAbsent(tag, ResponseMetrics::new);
+        }
+
+        private Counter matchCacheCounter(String result) {
+            return Counter.builder("simulator.match.cache")
+                    .description("一致結果のキャッシュの参照数")
+                    .tag("interfaceId", interfaceId)
+                    .tag("result", result)
+                    .register(registry);
+        }
+
+        private Counter requestCounter(String responseId, Outcome outcome) {
+            return Counter.builder("simulator.requests")
+                    .description("処理したリクエスト数")
+                    .tag("interfaceId", interfaceId)
+                    .tag("responseId", responseId)
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .register(registry);
+        }
+
+        private static double mean(Timer timer) {
+            return timer.mean(TimeUnit.MILLISECONDS);
+        }
+
+        private final class ResponseMetrics {
+
+            private final Counter matched;
+            private final DistributionSummary served;
+
+            private ResponseMetrics(String responseId) {
+                this.matched = requestCounter(responseId, Outcome.MATCHED);
+                this.served = DistributionSummary.builder("simulator.served")
+                        .description("返却したボディのバイト数")
+                        .baseUnit("bytes")
+                        .tag("interfaceId", interfaceId)
+                        .tag("responseId", responseId)
+                        .register(registry);
+            }
+        }
+    }
+}
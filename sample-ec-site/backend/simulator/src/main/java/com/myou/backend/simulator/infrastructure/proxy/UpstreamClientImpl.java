@@ -0,0 +1,94 @@
+package com.myou.backend.simulator.infrastructure.proxy;
+
+import com.myou.backend.simulator.application.upstream.UpstreamClient;
+import com.myou.backend.simulator.application.upstream.UpstreamRequest;
+import com.myou.backend.simulator.application.upstream.UpstreamResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 条件エントリのないリクエストを上流に転送するHTTPクライアント。
+ * <p>
+ * {@link HttpClient} は宛先毎に接続をプールして使い回すため、インスタンスは1つだけ生成して共有する。
+ * 上流の応答をそのまま記録できるよう、圧縮を要求するヘッダは転送しない(返却時の圧縮はシミュレーターで行う)。
+ */
+@Component
+public class UpstreamClientImpl implements UpstreamClient {
+
+    // ホップ毎のヘッダと、HttpClientが設定するため指定できないヘッダ
+    private static final Set<String> EXCLUDED_REQUEST_HEADERS = Set.of(
+            "connection", "content-length", "expect", "host", "upgrade", "keep-alive", "proxy-authorization",
+            "proxy-connection", "te", "trailer", "transfer-encoding", "accept-encoding");
+    // ホップ毎のヘッダと、返却時にシミュレーターが設定し直すヘッダ
+    private static final Set<String> EXCLUDED_RESPONSE_HEADERS = Set.of(
+            "connection", "content-length", "keep-alive", "proxy-authenticate", "trailer", "transfer-encoding",
+            "upgrade", "content-encoding", "date", ":status");
+
+    private final String upstream;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+
+    public UpstreamClientImpl(@Value("${simulator.proxy.upstream:}") String upstream,
+                          @Value("${simulator.proxy.connect-timeout:5s}") Duration connectTimeout,
+                          @Value("${simulator.proxy.timeout:30s}") Duration timeout) {
+        this.upstream = upstream.endsWith("/") ? upstream.substring(0, upstream.length() - 1) : upstream;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder()
+                // h2cへのアップグレードを試みず、HTTP/1.1のキープアライブで接続を使い回す
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .build();
+    }
+
+    @Override
+    public boolean enabled() {
+        return !upstream.isEmpty();
+    }
+
+    @Override
+    public UpstreamResponse forward(String interfaceId, UpstreamRequest request) {
+        String uri = upstream + "/" + UriUtils.encodePathSegment(interfaceId, StandardCharsets.UTF_8)
+                + (request.queryString() == null ? "" : "?" + request.queryString());
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(uri))
+                .timeout(timeout)
+                .method(request.method(), request.body() == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(request.body()));
+        request.headers().forEach((name, values) -> {
+            if (!EXCLUDED_REQUEST_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                values.forEach(value -> builder.header(name, value));
+            }
+        });
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("上流への転送に失敗。uri:" + uri, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("上流への転送中に割り込まれた。uri:" + uri, e);
+        }
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        response.headers().map().forEach((name, values) -> {
+            if (!EXCLUDED_RESPONSE_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.put(name, List.copyOf(values));
+            }
+        });
+        return new UpstreamResponse(response.statusCode(), headers, response.body());
+    }
+}
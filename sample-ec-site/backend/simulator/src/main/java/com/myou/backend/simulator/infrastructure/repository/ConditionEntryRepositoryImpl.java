@@ -1,26 +1,68 @@
 package com.myou.backend.simulator.infrastructure.repository;
 
 import com.myou.backend.simulator.application.repository.ConditionEntryRepository;
+import com.myou.backend.simulator.application.repository.ResponseDataRepository;
 import com.myou.backend.simulator.domain.model.ConditionEntry;
+import com.myou.backend.simulator.domain.model.ConditionMatcher;
+import com.myou.backend.simulator.domain.model.ResponseData;
+import com.myou.backend.simulator.domain.model.template.ResponseTemplate;
+import com.myou.backend.simulator.domain.type.RuleOrdering;
+import com.myou.backend.simulator.infrastructure.cache.DefinitionCache;
+import com.myou.backend.simulator.infrastructure.cache.DefinitionChangeNotifier;
+import com.myou.backend.simulator.infrastructure.cache.DefinitionType;
 import com.myou.backend.simulator.infrastructure.storage.ConditionEntryEntity;
 import com.myou.backend.simulator.infrastructure.storage.ConditionEntryStorage;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository("conditionEntryRepository")
 public class ConditionEntryRepositoryImpl implements ConditionEntryRepository {
     private final ConditionEntryStorage conditionEntryStorage;
+    private final DefinitionCache definitionCache;
+    private final DefinitionChangeNotifier definitionChangeNotifier;
+    private final ResponseDataRepository responseDataRepository;
+    private final RuleOrdering ruleOrdering;
 
-    public ConditionEntryRepositoryImpl(ConditionEntryStorage conditionEntryStorage) {
+    public ConditionEntryRepositoryImpl(ConditionEntryStorage conditionEntryStorage,
+                                        DefinitionCache definitionCache,
+                                        DefinitionChangeNotifier definitionChangeNotifier,
+                                        ResponseDataRepository responseDataRepository,
+                                        @Value("${simulator.matching.rule-ordering:STATIC}") RuleOrdering ruleOrdering) {
         this.conditionEntryStorage = conditionEntryStorage;
+        this.definitionCache = definitionCache;
+        this.definitionChangeNotifier = definitionChangeNotifier;
+        this.responseDataRepository = responseDataRepository;
+        this.ruleOrdering = ruleOrdering;
     }
 
     @Override
     public ConditionEntry save(ConditionEntry conditionEntry) {
         ConditionEntryEntity entity = conditionEntryStorage.save(ConditionEntryEntity.from(conditionEntry));
-        return entity.toConditionEntry();
+        ConditionEntry saved = entity.toConditionEntry();
+        // 保存時にコンパイルしておき、リクエスト毎のエンティティ変換とコンパイルを避ける
+        definitionCache.putConditionMatcher(compile(saved));
+        definitionChangeNotifier.notifyChanged(DefinitionType.CONDITION_ENTRY, saved.interfaceId());
+        return saved;
+    }
+
+    @Override
+    public void saveAll(List<ConditionEntry> conditionEntries) {
+        conditionEntryStorage.saveAll(conditionEntries.stream().map(ConditionEntryEntity::from).toList());
+        // スナップショットの読み込み等で件数が多い場合に備え、コンパイルは並列に行う
+        conditionEntries.parallelStream().map(this::compile).toList().forEach(definitionCache::putConditionMatcher);
+        definitionChangeNotifier.notifyChanged(DefinitionType.CONDITION_ENTRY,
+                conditionEntries.stream().map(ConditionEntry::interfaceId).toList());
+    }
+
+    @Override
+    public void deleteByInterfaceId(String interfaceId) {
+        conditionEntryStorage.deleteById(interfaceId);
+        definitionCache.evict(DefinitionType.CONDITION_ENTRY, interfaceId);
+        definitionChangeNotifier.notifyChanged(DefinitionType.CONDITION_ENTRY, interfaceId);
     }
 
     @Override
@@ -29,6 +71,21 @@ public class ConditionEntryRepositoryImpl implements ConditionEntryRepository {
                 .flatMap(entity -> Optional.of(entity.toConditionEntry()));
     }
 
+    @Override
+    public Optional<ConditionMatcher> findMatcherByInterfaceId(String interfaceId) {
+        // 他ノードで保存された、または再起動前に保存された条件エントリは初回参照時にコンパイルする
+        return definitionCache.getConditionMatcher(interfaceId,
+                id -> findByInterfaceId(id).map(this::compile));
+    }
+
+    private ConditionMatcher compile(ConditionEntry conditionEntry) {
+        // レスポンスデータのテンプレートが参照するキーも抽出対象にする
+        return ConditionMatcher.compile(conditionEntry, responseId -> responseDataRepository.findByResponseId(responseId)
+                .flatMap(ResponseData::responseTemplate)
+                .map(ResponseTemplate::contentKeys)
+                .orElse(Set.of()), ruleOrdering);
+    }
+
     @Override
     public List<ConditionEntry> findAll() {
         return conditionEntryStorage.findAll()
@@ -2,37 +2,79 @@ package com.myou.backend.simulator.infrastructure.repository;
 
 import com.myou.backend.simulator.application.repository.ResponseDataRepository;
 import com.myou.backend.simulator.domain.model.ResponseData;
+import com.myou.backend.simulator.infrastructure.body.MappedBodyStore;
+import com.myou.backend.simulator.infrastructure.cache.DefinitionCache;
+import com.myou.backend.simulator.infrastructure.cache.DefinitionChangeNotifier;
+import com.myou.backend.simulator.infrastructure.cache.DefinitionType;
 import com.myou.backend.simulator.infrastructure.storage.ResponseDataEntity;
 import com.myou.backend.simulator.infrastructure.storage.ResponseDataStorage;
 import org.springframework.stereotype.Repository;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public class ResponseDataRepositoryImpl implements ResponseDataRepository {
 
     private final ResponseDataStorage responseDataStorage;
+    private final DefinitionCache definitionCache;
+    private final DefinitionChangeNotifier definitionChangeNotifier;
+    private final MappedBodyStore bodyStore;
 
-    public ResponseDataRepositoryImpl(ResponseDataStorage responseDataStorage) {
+    public ResponseDataRepositoryImpl(ResponseDataStorage responseDataStorage,
+                                      DefinitionCache definitionCache,
+                                      DefinitionChangeNotifier definitionChangeNotifier,
+                                      MappedBodyStore bodyStore) {
         this.responseDataStorage = responseDataStorage;
+        this.definitionCache = definitionCache;
+        this.definitionChangeNotifier = definitionChangeNotifier;
+        this.bodyStore = bodyStore;
     }
 
     @Override
     public ResponseData save(ResponseData responseData) {
-        ResponseDataEntity entity = responseDataStorage.save(ResponseDataEntity.from(responseData));
-        return entity.toResponseData();
+        Optional<String> previousKey = responseDataStorage.findById(responseData.responseId()).map(ResponseDataEntity::bodyKey);
+        // 大きなボディはボディストアに置き、ストレージとニアキャッシュには参照だけを保持する
+        ResponseDataEntity entity = responseDataStorage.save(ResponseDataEntity.from(bodyStore.offload(responseData)));
+        ResponseData saved = entity.toResponseData();
+        definitionCache.putResponseData(saved);
+        definitionChangeNotifier.notifyChanged(DefinitionType.RESPONSE_DATA, saved.responseId());
+        previousKey.ifPresent(key -> releaseBodies(Set.of(key)));
+        return saved;
     }
 
     @Override
     public void saveAll(List<ResponseData> responseDataList) {
-        responseDataStorage.saveAll(responseDataList.stream().map(ResponseDataEntity::from).toList());
+        Set<String> previousKeys = bodyKeysOf(responseDataStorage.findAllById(
+                responseDataList.stream().map(ResponseData::responseId).toList()));
+        List<ResponseData> offloaded = responseDataList.stream().map(bodyStore::offload).toList();
+        responseDataStorage.saveAll(offloaded.stream().map(ResponseDataEntity::from).toList());
+        definitionCache.putAllResponseData(offloaded);
+        definitionChangeNotifier.notifyChanged(DefinitionType.RESPONSE_DATA,
+                offloaded.stream().map(ResponseData::responseId).toList());
+        releaseBodies(previousKeys);
+    }
+
+    @Override
+    public void deleteByResponseId(String responseId) {
+        Optional<String> previousKey = responseDataStorage.findById(responseId).map(ResponseDataEntity::bodyKey);
+        responseDataStorage.deleteById(responseId);
+        definitionCache.evict(DefinitionType.RESPONSE_DATA, responseId);
+        definitionChangeNotifier.notifyChanged(DefinitionType.RESPONSE_DATA, responseId);
+        previousKey.ifPresent(key -> releaseBodies(Set.of(key)));
     }
 
     @Override
     public Optional<ResponseData> findByResponseId(String responseId) {
-        return responseDataStorage.findById(responseId)
-                .flatMap(e -> Optional.of(e.toResponseData()));
+        return definitionCache.getResponseData(responseId,
+                id -> responseDataStorage.findById(id).map(ResponseDataEntity::toResponseData));
+    }
+
+    @Override
+    public Optional<ResponseData> findWithBodyByResponseId(String responseId) {
+        return findByResponseId(responseId).map(bodyStore::load);
     }
 
     @Override
@@ -40,6 +82,30 @@ public class ResponseDataRepositoryImpl implements ResponseDataRepository {
         return responseDataStorage.findAll()
                 .stream()
                 .map(ResponseDataEntity::toResponseData)
+                .map(bodyStore::load)
                 .toList();
     }
+
+    /**
+     * 上書き・削除で参照されなくなったボディをボディストアから削除する。
+     * 同じ内容のボディは1ファイルを共有するため、他のレスポンスデータが参照しているキーは残す。
+     */
+    private void releaseBodies(Set<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        Set<String> unreferenced = new HashSet<>(keys);
+        unreferenced.removeAll(bodyKeysOf(responseDataStorage.findAll()));
+        unreferenced.forEach(bodyStore::delete);
+    }
+
+    private static Set<String> bodyKeysOf(Iterable<ResponseDataEntity> entities) {
+        Set<String> keys = new HashSet<>();
+        entities.forEach(entity -> {
+            if (entity.bodyKey() != null) {
+                keys.add(entity.bodyKey());
+            }
+        });
+        return keys;
+    }
 }
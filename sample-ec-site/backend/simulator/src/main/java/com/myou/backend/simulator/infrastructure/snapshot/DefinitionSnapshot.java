@@ -0,0 +1,151 @@
+package com.myou.backend.simulator.infrastructure.snapshot;
+
+import com.myou.backend.simulator.application.repository.ConditionEntryRepository;
+import com.myou.backend.simulator.application.repository.ResponseDataRepository;
+import com.myou.backend.simulator.domain.model.ConditionEntry;
+import com.myou.backend.simulator.domain.model.ResponseData;
+import com.myou.backend.simulator.infrastructure.storage.ConditionEntryEntity;
+import com.myou.backend.simulator.infrastructure.storage.ResponseDataEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 全ての定義(条件エントリとレスポンスデータ)をスナップショットファイルに保存・読み込みする。
+ * <p>
+ * ファイルを設定した場合は起動時に読み込む。
+ * {@link ApplicationRunner} として読み込むため、読み込みが終わるまでアプリケーションはReadyにならない。
+ * 読み込みは既存の定義への上書きで、スナップショットにない定義は削除しない。
+ * ボディストアに置いたボディはボディそのものを書き込むため、他のノードでも読み込める。
+ */
+@Component
+public class DefinitionSnapshot implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefinitionSnapshot.class);
+
+    private final ResponseDataRepository responseDataRepository;
+    private final ConditionEntryRepository conditionEntryRepository;
+    private final Path file;
+    private final boolean loadOnStartup;
+
+    public DefinitionSnapshot(ResponseDataRepository responseDataRepository,
+                              ConditionEntryRepository conditionEntryRepository,
+                              @Value("${simulator.snapshot.file:}") String file,
+                              @Value("${simulator.snapshot.load-on-startup:true}") boolean loadOnStartup) {
+        this.responseDataRepository = responseDataRepository;
+        this.conditionEntryRepository = conditionEntryRepository;
+        this.file = file.isBlank() ? null : Path.of(file);
+        this.loadOnStartup = loadOnStartup;
+    }
+
+    /**
+     * 設定したスナップショットファイル。設定していない場合は空。
+     */
+    public Optional<Path> file() {
+        return Optional.ofNullable(file);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (file == null || !loadOnStartup) {
+            return;
+        }
+        if (!Files.exists(file)) {
+            logger.info("スナップショットファイルが存在しないため読み込まない。file:{}", file);
+            return;
+        }
+        SnapshotSummary summary = load(file);
+        logger.info("スナップショットを読み込み。file:{} responses:{} conditions:{} elapsed:{}ms",
+                file, summary.responses(), summary.conditions(), summary.elapsedMillis());
+    }
+
+    /**
+     * スナップショットをファイルに保存する。書き込み途中のファイルを読み込ませないよう、一時ファイルに書き込んでから置き換える。
+     */
+    public SnapshotSummary save(Path path) {
+        long start = System.nanoTime();
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try {
+                SnapshotSummary summary;
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+                    summary = writeTo(out);
+                }
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                return withElapsed(summary, start);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("スナップショットの保存に失敗。file:" + path, e);
+        }
+    }
+
+    public SnapshotSummary writeTo(OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        List<ResponseDataEntity> responses = responseDataRepository.findAll().stream()
+                .map(ResponseDataEntity::from)
+                .toList();
+        List<ConditionEntryEntity> conditions = conditionEntryRepository.findAll().stream()
+                .map(ConditionEntryEntity::from)
+                .toList();
+        SnapshotFile.Contents contents = new SnapshotFile.Contents(System.currentTimeMillis(), responses, conditions);
+        SnapshotFile.write(out, contents);
+        return summaryOf(contents, start);
+    }
+
+    public SnapshotSummary load(Path path) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("スナップショットの読み込みに失敗。file:" + path, e);
+        }
+        return load(bytes);
+    }
+
+    /**
+     * スナップショットを読み込んで定義を保存する。
+     * 条件エントリのコンパイル時にレスポンスデータを参照するため、レスポンスデータを先に保存する。
+     *
+     * @throws IllegalArgumentException 形式が不正な場合
+     */
+    public SnapshotSummary load(byte[] bytes) {
+        long start = System.nanoTime();
+        SnapshotFile.Contents contents = SnapshotFile.read(bytes);
+        List<ResponseData> responses = contents.responses().parallelStream()
+                .map(ResponseDataEntity::toResponseData)
+                .toList();
+        List<ConditionEntry> conditions = contents.conditions().parallelStream()
+                .map(ConditionEntryEntity::toConditionEntry)
+                .toList();
+        responseDataRepository.saveAll(responses);
+        conditionEntryRepository.saveAll(conditions);
+        return summaryOf(contents, start);
+    }
+
+    private static SnapshotSummary summaryOf(SnapshotFile.Contents contents, long startNanos) {
+        return withElapsed(new SnapshotSummary(contents.responses().size(), contents.conditions().size(),
+                contents.createdEpochMillis(), 0), startNanos);
+    }
+
+    private static SnapshotSummary withElapsed(SnapshotSummary summary, long startNanos) {
+        return new SnapshotSummary(summary.responses(), summary.conditions(), summary.createdEpochMillis(),
+                (System.nanoTime() - startNanos) / 1_000_000);
+    }
+}
@@ -0,0 +1,122 @@
+package com.myou.backend.simulator.infrastructure.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.myou.backend.simulator.infrastructure.storage.ConditionEntryEntity;
+import com.myou.backend.simulator.infrastructure.storage.ResponseDataEntity;
+import com.myou.backend.simulator.infrastructure.storage.SmileMapperFactory;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 定義のスナップショットファイルの形式。
+ * <p>
+ * 先頭にマジックナンバー・作成時刻(エポックミリ秒)・レスポンスデータの件数・条件エントリの件数を置き、
+ * 以降にレスポンスデータ、条件エントリの順で「長さ(int)+Smileでエンコードしたエンティティの配列」のチャンクを繰り返す。
+ * チャンクは最大 {@link #CHUNK_SIZE} 件で、種類の境界ではチャンクを分ける。
+ * 読み込み時は先に各チャンクの位置だけを走査し、デコードはチャンク単位で並列に行う。
+ */
+public final class SnapshotFile {
+
+    private static final byte[] MAGIC = "SIMSNAP1".getBytes(StandardCharsets.US_ASCII);
+    private static final int HEADER_LENGTH = MAGIC.length + Long.BYTES + Integer.BYTES * 2;
+    // パーサーの生成とフィールド名の解決をチャンク内で使い回す件数
+    static final int CHUNK_SIZE = 256;
+
+    private static final SmileMapper SMILE_MAPPER = SmileMapperFactory.create();
+    private static final ObjectReader RESPONSE_READER = SMILE_MAPPER.readerForListOf(ResponseDataEntity.class);
+    private static final ObjectReader CONDITION_READER = SMILE_MAPPER.readerForListOf(ConditionEntryEntity.class);
+
+    private SnapshotFile() {
+    }
+
+    public static void write(OutputStream outputStream, Contents contents) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.write(MAGIC);
+        out.writeLong(contents.createdEpochMillis());
+        out.writeInt(contents.responses().size());
+        out.writeInt(contents.conditions().size());
+        writeChunks(out, contents.responses());
+        writeChunks(out, contents.conditions());
+        out.flush();
+    }
+
+    /**
+     * スナップショットを読み込む。レコードは書き込んだ順に返す。
+     *
+     * @throws IllegalArgumentException 形式が不正な場合
+     */
+    public static Contents read(byte[] bytes) {
+        if (bytes.length < HEADER_LENGTH || !Arrays.equals(bytes, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+            throw new IllegalArgumentException("スナップショットファイルの形式が不正");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.position(MAGIC.length);
+        long createdEpochMillis = buffer.getLong();
+        int responseCount = buffer.getInt();
+        int conditionCount = buffer.getInt();
+        if (responseCount < 0 || conditionCount < 0) {
+            throw new IllegalArgumentException("スナップショットファイルの件数が不正");
+        }
+
+        // デコードを分割できるよう、先に各チャンクの開始位置と長さだけを求める
+        int responseChunks = chunkCount(responseCount);
+        int chunkCount = responseChunks + chunkCount(conditionCount);
+        int[] offsets = new int[chunkCount];
+        int[] lengths = new int[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            int length = buffer.remaining() < Integer.BYTES ? -1 : buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IllegalArgumentException("スナップショットファイルが途中で終わっている。chunks:" + i);
+            }
+            offsets[i] = buffer.position();
+            lengths[i] = length;
+            buffer.position(buffer.position() + length);
+        }
+
+        List<ResponseDataEntity> responses = IntStream.range(0, responseChunks).parallel()
+                .mapToObj(i -> SnapshotFile.<ResponseDataEntity>decode(RESPONSE_READER, bytes, offsets[i], lengths[i]))
+                .flatMap(List::stream)
+                .toList();
+        List<ConditionEntryEntity> conditions = IntStream.range(responseChunks, chunkCount).parallel()
+                .mapToObj(i -> SnapshotFile.<ConditionEntryEntity>decode(CONDITION_READER, bytes, offsets[i], lengths[i]))
+                .flatMap(List::stream)
+                .toList();
+        if (responses.size() != responseCount || conditions.size() != conditionCount) {
+            throw new IllegalArgumentException("スナップショットファイルの件数が一致しない");
+        }
+        return new Contents(createdEpochMillis, responses, conditions);
+    }
+
+    private static void writeChunks(DataOutputStream out, List<?> entities) throws IOException {
+        for (int from = 0; from < entities.size(); from += CHUNK_SIZE) {
+            byte[] chunk = SMILE_MAPPER.writeValueAsBytes(entities.subList(from, Math.min(from + CHUNK_SIZE, entities.size())));
+            out.writeInt(chunk.length);
+            out.write(chunk);
+        }
+    }
+
+    private static int chunkCount(int count) {
+        return (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    private static <T> List<T> decode(ObjectReader reader, byte[] bytes, int offset, int length) {
+        try {
+            return reader.readValue(bytes, offset, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("スナップショットのチャンクのデコードに失敗。offset:" + offset, e);
+        }
+    }
+
+    public record Contents(long createdEpochMillis, List<ResponseDataEntity> responses,
+                           List<ConditionEntryEntity> conditions) {
+    }
+}
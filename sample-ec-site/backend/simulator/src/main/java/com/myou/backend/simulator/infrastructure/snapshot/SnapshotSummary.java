@@ -0,0 +1,10 @@
+package com.myou.backend.simulator.infrastructure.snapshot;
+
+/**
+ * スナップショットの保存・読み込みの結果。
+ *
+ * @param createdEpochMillis スナップショットの作成時刻(エポックミリ秒)
+ * @param elapsedMillis      保存・読み込みにかかった時間
+ */
+public record SnapshotSummary(int responses, int conditions, long createdEpochMillis, long elapsedMillis) {
+}
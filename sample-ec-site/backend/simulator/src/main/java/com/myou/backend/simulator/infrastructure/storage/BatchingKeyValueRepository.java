@@ -0,0 +1,68 @@
+package com.myou.backend.simulator.infrastructure.storage;
+
+import org.springframework.data.keyvalue.core.KeyValueOperations;
+import org.springframework.data.keyvalue.core.mapping.KeyValuePersistentEntity;
+import org.springframework.data.keyvalue.repository.support.SimpleKeyValueRepository;
+import org.springframework.data.repository.core.EntityInformation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一括保存・一括取得をアダプターにまとめて委譲するリポジトリの基底クラス。
+ * <p>
+ * {@link SimpleKeyValueRepository} は1件ずつアダプターを呼び出すため、
+ * {@link BinaryRedisKeyValueAdapter} の場合はパイプライン・MGETでまとめて処理する。
+ * それ以外のアダプター、およびIDが未採番のエンティティは従来どおり1件ずつ処理する。
+ */
+public class BatchingKeyValueRepository<T, ID> extends SimpleKeyValueRepository<T, ID> {
+
+    private final EntityInformation<T, ID> entityInformation;
+    private final KeyValueOperations operations;
+
+    public BatchingKeyValueRepository(EntityInformation<T, ID> entityInformation, KeyValueOperations operations) {
+        super(entityInformation, operations);
+        this.entityInformation = entityInformation;
+        this.operations = operations;
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        Map<ID, S> items = new LinkedHashMap<>();
+        for (S entity : entities) {
+            ID id = entityInformation.getId(entity);
+            if (id == null) {
+                return super.saveAll(entities);
+            }
+            items.put(id, entity);
+        }
+        Boolean batched = operations.execute(adapter -> {
+            if (!(adapter instanceof BinaryRedisKeyValueAdapter binaryAdapter)) {
+                return false;
+            }
+            binaryAdapter.putAll(keyspace(), items);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(batched)) {
+            return super.saveAll(entities);
+        }
+        return new ArrayList<>(items.values());
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<ID> ids) {
+        List<ID> idList = new ArrayList<>();
+        ids.forEach(idList::add);
+        List<T> found = operations.execute(adapter -> adapter instanceof BinaryRedisKeyValueAdapter binaryAdapter
+                ? binaryAdapter.getAll(idList, keyspace(), entityInformation.getJavaType())
+                : null);
+        return found != null ? found : super.findAllById(idList);
+    }
+
+    private String keyspace() {
+        return ((KeyValuePersistentEntity<?, ?>) operations.getMappingContext()
+                .getRequiredPersistentEntity(entityInformation.getJavaType())).getKeySpace();
+    }
+}
@@ -0,0 +1,245 @@
+package com.myou.backend.simulator.infrastructure.storage;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.springframework.data.keyvalue.core.AbstractKeyValueAdapter;
+import org.springframework.data.keyvalue.core.mapping.KeyValuePersistentEntity;
+import org.springframework.data.keyvalue.core.mapping.context.KeyValueMappingContext;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.util.CloseableIterator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 定義を1キー1値のバイナリ(Smile)でRedisに保存するアダプター。
+ * <p>
+ * Spring Data Redisのキースペースマッピングは入れ子のリストやヘッダのマップをハッシュのフィールドに展開し、
+ * 二次インデックスも保持するため、1件の保存・読み込みに複数回の往復が必要になる。
+ * このアダプターは値を1つのバイナリにまとめ、キースペース毎のID集合だけを別に持つ。
+ * 一括読み込みはMGET、一括書き込みはパイプラインで行う。
+ * <p>
+ * キーはキースペースマッピングのハッシュと衝突しないよう {@link #KEY_PREFIX} を付ける。
+ */
+public class BinaryRedisKeyValueAdapter extends AbstractKeyValueAdapter {
+
+    public static final String KEY_PREFIX = "simulator:bin:";
+
+    // MGETとパイプラインの1回あたりの件数
+    static final int CHUNK_SIZE = 500;
+
+    private static final SmileMapper SMILE_MAPPER = SmileMapperFactory.create();
+
+    private final StringRedisTemplate redisTemplate;
+    private final KeyValueMappingContext<?, ?> mappingContext;
+    private final Map<String, Class<?>> typeByKeyspace = new ConcurrentHashMap<>();
+
+    public BinaryRedisKeyValueAdapter(StringRedisTemplate redisTemplate, KeyValueMappingContext<?, ?> mappingContext) {
+        this.redisTemplate = redisTemplate;
+        this.mappingContext = mappingContext;
+    }
+
+    @Override
+    public Object put(Object id, Object item, String keyspace) {
+        putAll(keyspace, Map.of(id, item));
+        return null;
+    }
+
+    /**
+     * 複数の定義をパイプラインでまとめて保存する。
+     */
+    public void putAll(String keyspace, Map<?, ?> items) {
+        byte[] indexKey = indexKey(keyspace);
+        List<Map.Entry<byte[], byte[]>> entries = new ArrayList<>(items.size());
+        items.forEach((id, item) -> entries.add(Map.entry(toBytes(id), serialize(item))));
+        for (int from = 0; from < entries.size(); from += CHUNK_SIZE) {
+            List<Map.Entry<byte[], byte[]>> chunk = entries.subList(from, Math.min(from + CHUNK_SIZE, entries.size()));
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Map.Entry<byte[], byte[]> entry : chunk) {
+                    connection.stringCommands().set(valueKey(keyspace, entry.getKey()), entry.getValue());
+                    connection.setCommands().sAdd(indexKey, entry.getKey());
+                }
+                return null;
+            });
+        }
+    }
+
+    @Override
+    public boolean contains(Object id, String keyspace) {
+        Boolean exists = redisTemplate.execute((RedisCallback<Boolean>) connection ->
+                connection.keyCommands().exists(valueKey(keyspace, toBytes(id))));
+        return Boolean.TRUE.equals(exists);
+    }
+
+    @Override
+    public Object get(Object id, String keyspace) {
+        return get(id, keyspace, typeOf(keyspace));
+    }
+
+    @Override
+    public <T> T get(Object id, String keyspace, Class<T> type) {
+        byte[] value = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.stringCommands().get(valueKey(keyspace, toBytes(id))));
+        return value == null ? null : deserialize(value, type);
+    }
+
+    /**
+     * 複数の定義をMGETでまとめて読み込む。存在しないIDは結果に含めない。
+     */
+    public <T> List<T> getAll(Collection<?> ids, String keyspace, Class<T> type) {
+        return getAllByKeys(ids.stream().map(id -> valueKey(keyspace, toBytes(id))).toList(), type);
+    }
+
+    private <T> List<T> getAllByKeys(List<byte[]> keys, Class<T> type) {
+        List<T> results = new ArrayList<>(keys.size());
+        for (int from = 0; from < keys.size(); from += CHUNK_SIZE) {
+            byte[][] chunk = keys.subList(from, Math.min(from + CHUNK_SIZE, keys.size())).toArray(byte[][]::new);
+            List<byte[]> values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                    connection.stringCommands().mGet(chunk));
+            if (values == null) {
+                continue;
+            }
+            for (byte[] value : values) {
+                if (value != null) {
+                    results.add(deserialize(value, type));
+                }
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public Object delete(Object id, String keyspace) {
+        return delete(id, keyspace, typeOf(keyspace));
+    }
+
+    @Override
+    public <T> T delete(Object id, String keyspace, Class<T> type) {
+        T existing = get(id, keyspace, type);
+        byte[] rawId = toBytes(id);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.keyCommands().del(valueKey(keyspace, rawId));
+            connection.setCommands().sRem(indexKey(keyspace), rawId);
+            return null;
+        });
+        return existing;
+    }
+
+    @Override
+    public Iterable<?> getAllOf(String keyspace) {
+        return getAllOf(keyspace, typeOf(keyspace));
+    }
+
+    @Override
+    public <T> Iterable<T> getAllOf(String keyspace, Class<T> type) {
+        // IDの集合はバイト列のまま返るため、文字列に変換せずにキーを組み立てる
+        return getAllByKeys(ids(keyspace).stream().map(id -> valueKey(keyspace, id)).toList(), type);
+    }
+
+    @Override
+    public CloseableIterator<Map.Entry<Object, Object>> entries(String keyspace) {
+        Class<?> type = typeOf(keyspace);
+        KeyValuePersistentEntity<?, ?> entity = mappingContext.getRequiredPersistentEntity(type);
+        Iterator<?> iterator = getAllOf(keyspace, type).iterator();
+        return new CloseableIterator<>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Map.Entry<Object, Object> next() {
+                Object item = iterator.next();
+                Object id = entity.getIdentifierAccessor(item).getIdentifier();
+                return new AbstractMap.SimpleImmutableEntry<>(id, item);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @Override
+    public void deleteAllOf(String keyspace) {
+        List<byte[]> keys = new ArrayList<>();
+        ids(keyspace).forEach(id -> keys.add(valueKey(keyspace, id)));
+        keys.add(indexKey(keyspace));
+        for (int from = 0; from < keys.size(); from += CHUNK_SIZE) {
+            byte[][] chunk = keys.subList(from, Math.min(from + CHUNK_SIZE, keys.size())).toArray(byte[][]::new);
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.keyCommands().del(chunk));
+        }
+    }
+
+    @Override
+    public void clear() {
+        mappingContext.getPersistentEntities().forEach(entity -> deleteAllOf(entity.getKeySpace()));
+    }
+
+    @Override
+    public long count(String keyspace) {
+        Long count = redisTemplate.execute((RedisCallback<Long>) connection ->
+                connection.setCommands().sCard(indexKey(keyspace)));
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public void destroy() {
+        // 接続はRedisConnectionFactoryが管理する
+    }
+
+    private Set<byte[]> ids(String keyspace) {
+        Set<byte[]> ids = redisTemplate.execute((RedisCallback<Set<byte[]>>) connection ->
+                connection.setCommands().sMembers(indexKey(keyspace)));
+        return ids == null ? Set.of() : ids;
+    }
+
+    private Class<?> typeOf(String keyspace) {
+        return typeByKeyspace.computeIfAbsent(keyspace, k -> mappingContext.getPersistentEntities().stream()
+                .filter(entity -> k.equals(entity.getKeySpace()))
+                .findFirst()
+                .<Class<?>>map(KeyValuePersistentEntity::getType)
+                .orElseThrow(() -> new IllegalStateException("キースペースに対応するエンティティがない。keyspace:" + k)));
+    }
+
+    private static byte[] indexKey(String keyspace) {
+        return (KEY_PREFIX + keyspace).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] valueKey(String keyspace, byte[] id) {
+        byte[] prefix = (KEY_PREFIX + keyspace + ":").getBytes(StandardCharsets.UTF_8);
+        byte[] key = new byte[prefix.length + id.length];
+        System.arraycopy(prefix, 0, key, 0, prefix.length);
+        System.arraycopy(id, 0, key, prefix.length, id.length);
+        return key;
+    }
+
+    private static byte[] toBytes(Object id) {
+        return id.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] serialize(Object item) {
+        try {
+            return SMILE_MAPPER.writeValueAsBytes(item);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("定義のシリアライズに失敗。type:" + item.getClass().getName(), e);
+        }
+    }
+
+    static <T> T deserialize(byte[] value, Class<T> type) {
+        try {
+            return SMILE_MAPPER.readValue(value, type);
+        } catch (IOException e) {
+            throw new IllegalStateException("定義のデシリアライズに失敗。type:" + type.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.myou.backend.simulator.infrastructure.storage;
+
+import com.myou.backend.simulator.domain.model.HttpStatus;
+import com.myou.backend.simulator.domain.model.capacity.CapacityPolicy;
+
+public record CapacityPolicyEntity(double ratePerSecond, int burst, int maxConcurrency, long maxWaitMillis,
+                                   int rejectStatusCode, Long retryAfterSeconds) {
+
+    public static CapacityPolicyEntity from(CapacityPolicy capacityPolicy) {
+        if (capacityPolicy == null) {
+            return null;
+        }
+        return new CapacityPolicyEntity(
+                capacityPolicy.ratePerSecond(),
+                capacityPolicy.burst(),
+                capacityPolicy.maxConcurrency(),
+                capacityPolicy.maxWaitMillis(),
+                capacityPolicy.rejectStatus().value(),
+                capacityPolicy.retryAfterSeconds());
+    }
+
+    public CapacityPolicy toCapacityPolicy() {
+        return new CapacityPolicy(ratePerSecond, burst, maxConcurrency, maxWaitMillis,
+                HttpStatus.of(rejectStatusCode), retryAfterSeconds);
+    }
+}
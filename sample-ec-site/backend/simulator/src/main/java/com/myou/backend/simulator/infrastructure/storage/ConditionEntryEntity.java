@@ -2,18 +2,34 @@ package com.myou.backend.simulator.infrastructure.storage;
 
 import com.myou.backend.simulator.domain.model.ConditionEntry;
 import com.myou.backend.simulator.domain.model.ResponseIdCondition;
+import com.myou.backend.simulator.domain.model.scenario.Scenario;
 import com.myou.backend.simulator.domain.policy.ConditionPolicy;
 import com.myou.backend.simulator.domain.policy.rule.ConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.PrefixConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.PresenceConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.RangeConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.RegexConditionRule;
 import com.myou.backend.simulator.domain.policy.rule.RequestContentConditionRule;
 import com.myou.backend.simulator.domain.policy.rule.RequestHeaderConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.SetConditionRule;
+import com.myou.backend.simulator.domain.type.RuleTarget;
 import com.myou.backend.simulator.domain.type.RuleType;
+import com.myou.backend.simulator.domain.type.ScenarioMode;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.keyvalue.annotation.KeySpace;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 @KeySpace
-public record ConditionEntryEntity(@Id String interfaceId, List<ResponseIdConditionEntity> responseIdConditions) {
+public record ConditionEntryEntity(@Id String interfaceId, List<ResponseIdConditionEntity> responseIdConditions,
+                                   LatencyProfileEntity latency, CapacityPolicyEntity capacity) {
+
+    public ConditionEntryEntity(String interfaceId, List<ResponseIdConditionEntity> responseIdConditions) {
+        this(interfaceId, responseIdConditions, null, null);
+    }
 
     public static ConditionEntryEntity from(ConditionEntry conditionEntry) {
         List<ResponseIdConditionEntity> responseIdConditionEntityList = conditionEntry
@@ -21,30 +37,62 @@ public record ConditionEntryEntity(@Id String interfaceId, List<ResponseIdCondit
                 .stream()
                 .map(ResponseIdConditionEntity::from)
                 .toList();
-        return new ConditionEntryEntity(conditionEntry.interfaceId(), responseIdConditionEntityList);
+        return new ConditionEntryEntity(conditionEntry.interfaceId(), responseIdConditionEntityList,
+                LatencyProfileEntity.from(conditionEntry.latencyProfile()),
+                CapacityPolicyEntity.from(conditionEntry.capacityPolicy()));
     }
 
     public ConditionEntry toConditionEntry() {
         List<ResponseIdCondition> conditionPolicies = responseIdConditions.stream()
                 .map(ResponseIdConditionEntity::toResponseIdCondition)
                 .toList();
-        return new ConditionEntry(interfaceId, conditionPolicies);
+        return new ConditionEntry(interfaceId, conditionPolicies,
+                latency == null ? null : latency.toLatencyProfile(),
+                capacity == null ? null : capacity.toCapacityPolicy());
     }
 
-    public record ResponseIdConditionEntity(String responseId, PolicyEntity policy) {
+    public record ResponseIdConditionEntity(String responseId, PolicyEntity policy, ScenarioEntity scenario) {
+
+        public ResponseIdConditionEntity(String responseId, PolicyEntity policy) {
+            this(responseId, policy, null);
+        }
+
         public static ResponseIdConditionEntity from(ResponseIdCondition responseIdCondition) {
             return new ResponseIdConditionEntity(
                     responseIdCondition.responseId(),
-                    PolicyEntity.from(responseIdCondition.conditionPolicy()));
+                    PolicyEntity.from(responseIdCondition.conditionPolicy()),
+                    ScenarioEntity.from(responseIdCondition.scenario()));
         }
 
         public ResponseIdCondition toResponseIdCondition() {
             return new ResponseIdCondition(
                     responseId,
-                    policy.toConditionPolicy());
+                    policy.toConditionPolicy(),
+                    scenario == null ? null : scenario.toScenario());
         }
     }
 
+    public record ScenarioEntity(ScenarioMode mode, List<StepEntity> steps, RuleTarget keyTarget, String key) {
+
+        public static ScenarioEntity from(Scenario scenario) {
+            if (scenario == null) {
+                return null;
+            }
+            return new ScenarioEntity(scenario.mode(),
+                    scenario.steps().stream().map(step -> new StepEntity(step.responseId(), step.weight())).toList(),
+                    scenario.keyTarget(), scenario.key());
+        }
+
+        public Scenario toScenario() {
+            return new Scenario(mode,
+                    steps.stream().map(step -> new Scenario.Step(step.responseId(), step.weight())).toList(),
+                    keyTarget, key);
+        }
+    }
+
+    public record StepEntity(String responseId, int weight) {
+    }
+
     public record PolicyEntity(List<RuleEntity> rules) {
 
         public static PolicyEntity from(ConditionPolicy conditionPolicy) {
@@ -62,7 +110,16 @@ public record ConditionEntryEntity(@Id String interfaceId, List<ResponseIdCondit
 
     }
 
-    public record RuleEntity(RuleType type, String key, String expectedValue) {
+    /**
+     * @param min 範囲の下限。数値の精度を保つため文字列で保存する
+     * @param max 範囲の上限。数値の精度を保つため文字列で保存する
+     */
+    public record RuleEntity(RuleType type, String key, String expectedValue,
+                             RuleTarget target, List<String> values, String min, String max) {
+
+        public RuleEntity(RuleType type, String key, String expectedValue) {
+            this(type, key, expectedValue, null, null, null, null);
+        }
 
         public static RuleEntity from(ConditionRule conditionRule) {
             return switch (conditionRule) {
@@ -70,6 +127,17 @@ public record ConditionEntryEntity(@Id String interfaceId, List<ResponseIdCondit
                         new RuleEntity(RuleType.REQUEST_HEADER, headerName, expectedValue);
                 case RequestContentConditionRule(String key, String expectedValue) ->
                         new RuleEntity(RuleType.REQUEST_CONTENT, key, expectedValue);
+                case PrefixConditionRule(RuleTarget target, String key, String prefix) ->
+                        new RuleEntity(RuleType.PREFIX, key, prefix, target, null, null, null);
+                case RegexConditionRule(RuleTarget target, String key, Pattern pattern) ->
+                        new RuleEntity(RuleType.REGEX, key, pattern.pattern(), target, null, null, null);
+                case RangeConditionRule(RuleTarget target, String key, BigDecimal min, BigDecimal max) ->
+                        new RuleEntity(RuleType.RANGE, key, null, target, null,
+                                min == null ? null : min.toPlainString(), max == null ? null : max.toPlainString());
+                case PresenceConditionRule(RuleTarget target, String key, boolean present) ->
+                        new RuleEntity(present ? RuleType.EXISTS : RuleType.ABSENT, key, null, target, null, null, null);
+                case SetConditionRule(RuleTarget target, String key, Set<String> values) ->
+                        new RuleEntity(RuleType.IN, key, null, target, values.stream().sorted().toList(), null, null);
             };
         }
 
@@ -77,6 +145,13 @@ public record ConditionEntryEntity(@Id String interfaceId, List<ResponseIdCondit
             return switch (type) {
                 case REQUEST_HEADER -> new RequestHeaderConditionRule(key, expectedValue);
                 case REQUEST_CONTENT -> new RequestContentConditionRule(key, expectedValue);
+                case PREFIX -> new PrefixConditionRule(target, key, expectedValue);
+                case REGEX -> RegexConditionRule.of(target, key, expectedValue);
+                case RANGE -> new RangeConditionRule(target, key,
+                        min == null ? null : new BigDecimal(min), max == null ? null : new BigDecimal(max));
+                case EXISTS -> new PresenceConditionRule(target, key, true);
+                case ABSENT -> new PresenceConditionRule(target, key, false);
+                case IN -> new SetConditionRule(target, key, Set.copyOf(values));
             };
         }
 
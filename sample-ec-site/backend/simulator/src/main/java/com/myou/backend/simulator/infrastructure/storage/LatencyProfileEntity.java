@@ -0,0 +1,50 @@
+package com.myou.backend.simulator.infrastructure.storage;
+
+import com.myou.backend.simulator.domain.model.latency.FixedLatency;
+import com.myou.backend.simulator.domain.model.latency.LatencyProfile;
+import com.myou.backend.simulator.domain.model.latency.LogNormalLatency;
+import com.myou.backend.simulator.domain.model.latency.NormalLatency;
+import com.myou.backend.simulator.domain.model.latency.PercentileLatency;
+import com.myou.backend.simulator.domain.model.latency.UniformLatency;
+import com.myou.backend.simulator.domain.type.LatencyType;
+
+import java.util.Map;
+
+public record LatencyProfileEntity(LatencyType type,
+                                   Long millis,
+                                   Long minMillis,
+                                   Long maxMillis,
+                                   Double meanMillis,
+                                   Double stdDevMillis,
+                                   Double medianMillis,
+                                   Double sigma,
+                                   Map<Double, Long> percentiles) {
+
+    public static LatencyProfileEntity from(LatencyProfile latencyProfile) {
+        if (latencyProfile == null) {
+            return null;
+        }
+        return switch (latencyProfile) {
+            case FixedLatency(long millis) ->
+                    new LatencyProfileEntity(LatencyType.FIXED, millis, null, null, null, null, null, null, null);
+            case UniformLatency(long minMillis, long maxMillis) ->
+                    new LatencyProfileEntity(LatencyType.UNIFORM, null, minMillis, maxMillis, null, null, null, null, null);
+            case NormalLatency(double meanMillis, double stdDevMillis) ->
+                    new LatencyProfileEntity(LatencyType.NORMAL, null, null, null, meanMillis, stdDevMillis, null, null, null);
+            case LogNormalLatency(double medianMillis, double sigma) ->
+                    new LatencyProfileEntity(LatencyType.LOG_NORMAL, null, null, null, null, null, medianMillis, sigma, null);
+            case PercentileLatency(var percentiles) ->
+                    new LatencyProfileEntity(LatencyType.PERCENTILE, null, null, null, null, null, null, null, Map.copyOf(percentiles));
+        };
+    }
+
+    public LatencyProfile toLatencyProfile() {
+        return switch (type) {
+            case FIXED -> new FixedLatency(millis);
+            case UNIFORM -> new UniformLatency(minMillis, maxMillis);
+            case NORMAL -> new NormalLatency(meanMillis, stdDevMillis);
+            case LOG_NORMAL -> new LogNormalLatency(medianMillis, sigma);
+            case PERCENTILE -> PercentileLatency.of(percentiles);
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.myou.backend.simulator.infrastructure.storage;
 
+import com.myou.backend.simulator.domain.model.BodyHandle;
 import com.myou.backend.simulator.domain.model.HttpStatus;
 import com.myou.backend.simulator.domain.model.ResponseData;
 import org.springframework.data.annotation.Id;
@@ -8,16 +9,36 @@ import org.springframework.data.keyvalue.annotation.KeySpace;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * @param bodyKey    ボディストアに保存したボディのキー。ボディをそのまま保存する場合はnull
+ * @param bodyLength ボディストアに保存したボディのバイト数
+ * @param template   ボディをテンプレートとしてレンダリングするか。導入前に保存したエンティティはfalseとして読み込む
+ */
 @KeySpace
 public record ResponseDataEntity(@Id String responseId, Map<String, List<String>> responseHeaders, String responseBody,
-                                 int statusCode) {
+                                 int statusCode, LatencyProfileEntity latency, String bodyKey, Long bodyLength,
+                                 boolean template) {
+
+    public ResponseDataEntity(String responseId, Map<String, List<String>> responseHeaders, String responseBody, int statusCode) {
+        this(responseId, responseHeaders, responseBody, statusCode, null, null, null, false);
+    }
+
+    public ResponseDataEntity(String responseId, Map<String, List<String>> responseHeaders, String responseBody, int statusCode,
+                              LatencyProfileEntity latency) {
+        this(responseId, responseHeaders, responseBody, statusCode, latency, null, null, false);
+    }
 
     public static ResponseDataEntity from(ResponseData responseData) {
+        BodyHandle handle = responseData.bodyHandle();
         return new ResponseDataEntity(
                 responseData.responseId(),
                 responseData.responseHeaders(),
                 responseData.responseBody(),
-                responseData.statusCode().value());
+                responseData.statusCode().value(),
+                LatencyProfileEntity.from(responseData.latencyProfile()),
+                handle == null ? null : handle.key(),
+                handle == null ? null : handle.length(),
+                responseData.template());
     }
 
     public ResponseData toResponseData() {
@@ -25,6 +46,9 @@ public record ResponseDataEntity(@Id String responseId, Map<String, List<String>
                 responseId(),
                 responseHeaders(),
                 responseBody(),
-                HttpStatus.of(statusCode));
+                HttpStatus.of(statusCode),
+                latency == null ? null : latency.toLatencyProfile(),
+                bodyKey == null ? null : new BodyHandle(bodyKey, bodyLength),
+                template);
     }
 }
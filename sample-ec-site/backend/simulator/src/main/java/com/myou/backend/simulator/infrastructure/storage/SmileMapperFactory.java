@@ -0,0 +1,21 @@
+package com.myou.backend.simulator.infrastructure.storage;
+
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+/**
+ * 定義のエンティティをSmileでエンコードするマッパーを生成する。
+ * Redisへの保存({@link BinaryRedisKeyValueAdapter})とスナップショットファイルで同じ設定を使う。
+ */
+public final class SmileMapperFactory {
+
+    private SmileMapperFactory() {
+    }
+
+    public static SmileMapper create() {
+        return SmileMapper.builder()
+                // ヘッダ名等の繰り返し出現する文字列を後方参照で圧縮する
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+    }
+}
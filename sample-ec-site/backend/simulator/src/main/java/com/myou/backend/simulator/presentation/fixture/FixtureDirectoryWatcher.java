@@ -0,0 +1,267 @@
+package com.myou.backend.simulator.presentation.fixture;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.myou.backend.simulator.application.service.ConditionEntryService;
+import com.myou.backend.simulator.application.service.ResponseDataService;
+import com.myou.backend.simulator.domain.model.ConditionEntry;
+import com.myou.backend.simulator.domain.model.ResponseData;
+import com.myou.backend.simulator.presentation.web.controller.ConditionEntryRequest;
+import com.myou.backend.simulator.presentation.web.controller.ResponseDataRequest;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * ディレクトリに置いた定義のファイル(フィクスチャ)を読み込み、変更を監視して差分を反映する。
+ * <p>
+ * ファイルは一括登録と同じNDJSONまたはJSON配列で、名前で種類を判別する。
+ * {@code *.responses.json}・{@code *.responses.ndjson} はレスポンスデータ、
+ * {@code *.conditions.json}・{@code *.conditions.ndjson} は条件エントリとする。
+ * <p>
+ * ファイル毎に反映済みの内容を保持し、変更されたファイルは前回から追加・変更された定義だけを保存し、なくなった定義は削除する。
+ * 書き込み途中の変更をまとめて扱うため、変更を検知してから一定時間待って反映する。
+ * JSONとして読めないファイルは前回の内容を維持し、次の変更で再度読み込む。
+ * 同じIDを複数のファイルに定義した場合は後に反映した方が有効になる。
+ */
+@Component
+public class FixtureDirectoryWatcher implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(FixtureDirectoryWatcher.class);
+
+    private final Path directory;
+    private final Duration debounce;
+    private final FixtureSet<ResponseDataRequest, ResponseData> responses;
+    private final FixtureSet<ConditionEntryRequest, ConditionEntry> conditions;
+    private volatile WatchService watchService;
+
+    public FixtureDirectoryWatcher(ResponseDataService responseDataService,
+                                   ConditionEntryService conditionEntryService,
+                                   ObjectMapper objectMapper,
+                                   @Value("${simulator.fixtures.directory:}") String directory,
+                                   @Value("${simulator.fixtures.debounce:200ms}") Duration debounce) {
+        this.directory = directory.isBlank() ? null : Path.of(directory);
+        this.debounce = debounce;
+        this.responses = new FixtureSet<>(".responses", objectMapper.readerFor(ResponseDataRequest.class),
+                ResponseDataRequest::responseId, ResponseDataRequest::toResponseData,
+                responseDataService::saveAllResponseData, responseDataService::deleteResponseData);
+        this.conditions = new FixtureSet<>(".conditions", objectMapper.readerFor(ConditionEntryRequest.class),
+                ConditionEntryRequest::interfaceId, ConditionEntryRequest::toConditionEntry,
+                conditionEntryService::saveConditionEntries, conditionEntryService::deleteConditionEntry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (directory == null) {
+            return;
+        }
+        Files.createDirectories(directory);
+        // 読み込みと監視開始の間の変更を取りこぼさないよう、監視を先に始める
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        apply(listFiles());
+
+        Thread thread = new Thread(this::watch, "simulator-fixture-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("フィクスチャのディレクトリの監視を開始。directory:{}", directory);
+    }
+
+    /**
+     * 指定したファイルの変更を反映する。存在しないファイルは削除されたものとして扱う。
+     * 条件エントリのコンパイル時にレスポンスデータを参照するため、レスポンスデータのファイルを先に反映する。
+     */
+    synchronized void apply(Collection<Path> paths) {
+        List<Path> sorted = paths.stream().sorted(Comparator.naturalOrder()).toList();
+        sorted.stream().filter(responses::accepts).forEach(responses::apply);
+        sorted.stream().filter(conditions::accepts).forEach(conditions::apply);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        WatchService current = watchService;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Set<Path> changed = new HashSet<>();
+                boolean overflow = collect(key, changed);
+                // 書き込み途中の変更が続けて届くため、しばらく待ってからまとめて反映する
+                Thread.sleep(debounce.toMillis());
+                while ((key = watchService.poll()) != null) {
+                    overflow |= collect(key, changed);
+                }
+                if (overflow) {
+                    // 取りこぼした変更があるため、ディレクトリ全体と反映済みのファイルを読み直す
+                    changed.addAll(listFiles());
+                    changed.addAll(responses.appliedFiles());
+                    changed.addAll(conditions.appliedFiles());
+                }
+                try {
+                    apply(changed);
+                } catch (RuntimeException e) {
+                    logger.warn("フィクスチャの反映に失敗。files:{}", changed, e);
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // 停止時
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean collect(WatchKey key, Set<Path> changed) {
+        boolean overflow = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+            } else {
+                changed.add(directory.resolve((Path) event.context()));
+            }
+        }
+        key.reset();
+        return overflow;
+    }
+
+    private List<Path> listFiles() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(Files::isRegularFile).toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("フィクスチャのディレクトリの読み込みに失敗。directory:" + directory, e);
+        }
+    }
+
+    /**
+     * 1種類の定義のフィクスチャと、ファイル毎に反映済みの内容。
+     *
+     * @param <R> リクエストの型
+     * @param <D> 保存するドメインモデルの型
+     */
+    private static final class FixtureSet<R, D> {
+
+        private final String kind;
+        private final ObjectReader reader;
+        private final Function<R, String> idExtractor;
+        private final Function<R, D> converter;
+        private final Consumer<List<D>> saver;
+        private final Consumer<String> deleter;
+        private final Map<Path, Map<String, R>> applied = new HashMap<>();
+
+        private FixtureSet(String kind, ObjectReader reader, Function<R, String> idExtractor, Function<R, D> converter,
+                           Consumer<List<D>> saver, Consumer<String> deleter) {
+            this.kind = kind;
+            this.reader = reader;
+            this.idExtractor = idExtractor;
+            this.converter = converter;
+            this.saver = saver;
+            this.deleter = deleter;
+        }
+
+        boolean accepts(Path path) {
+            String name = path.getFileName().toString();
+            return name.endsWith(kind + ".json") || name.endsWith(kind + ".ndjson");
+        }
+
+        Set<Path> appliedFiles() {
+            return Set.copyOf(applied.keySet());
+        }
+
+        void apply(Path path) {
+            Map<String, R> current;
+            try {
+                current = Files.exists(path) ? read(path) : Map.of();
+            } catch (IOException | RuntimeException e) {
+                logger.warn("フィクスチャを読み込めないため前回の内容を維持。file:{} error:{}", path, e.getMessage());
+                return;
+            }
+            Map<String, R> previous = applied.getOrDefault(path, Map.of());
+
+            Map<String, R> applying = new LinkedHashMap<>(current);
+            List<D> changed = new ArrayList<>();
+            for (Map.Entry<String, R> entry : current.entrySet()) {
+                if (Objects.equals(previous.get(entry.getKey()), entry.getValue())) {
+                    continue;
+                }
+                try {
+                    changed.add(converter.apply(entry.getValue()));
+                } catch (RuntimeException e) {
+                    // 反映済みとして扱わず、次の変更で再度変換する
+                    applying.remove(entry.getKey());
+                    logger.warn("フィクスチャの定義を変換できないため反映しない。file:{} id:{} error:{}",
+                            path, entry.getKey(), e.getMessage());
+                }
+            }
+            if (!changed.isEmpty()) {
+                saver.accept(changed);
+            }
+            int removed = 0;
+            for (String id : previous.keySet()) {
+                if (!current.containsKey(id) && !definedElsewhere(path, id)) {
+                    deleter.accept(id);
+                    removed++;
+                }
+            }
+
+            if (applying.isEmpty()) {
+                applied.remove(path);
+            } else {
+                applied.put(path, applying);
+            }
+            if (!changed.isEmpty() || removed > 0) {
+                logger.info("フィクスチャを反映。file:{} saved:{} deleted:{}", path, changed.size(), removed);
+            }
+        }
+
+        private boolean definedElsewhere(Path path, String id) {
+            return applied.entrySet().stream()
+                    .anyMatch(entry -> !entry.getKey().equals(path) && entry.getValue().containsKey(id));
+        }
+
+        private Map<String, R> read(Path path) throws IOException {
+            Map<String, R> items = new LinkedHashMap<>();
+            // ルート直下に並んだ値(NDJSON)と、JSON配列の要素のどちらも1件ずつ読み込む
+            try (MappingIterator<R> iterator = reader.readValues(path.toFile())) {
+                while (iterator.hasNextValue()) {
+                    R item = iterator.nextValue();
+                    items.put(idExtractor.apply(item), item);
+                }
+            }
+            return items;
+        }
+    }
+}
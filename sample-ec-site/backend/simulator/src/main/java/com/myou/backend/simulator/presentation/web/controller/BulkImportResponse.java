@@ -0,0 +1,27 @@
+package com.myou.backend.simulator.presentation.web.controller;
+
+import java.util.List;
+
+/**
+ * 一括登録の結果。
+ *
+ * @param results 項目毎の結果(入力順)
+ */
+public record BulkImportResponse(int total, int succeeded, int failed, List<ItemResult> results) {
+
+    /**
+     * @param index 入力内の位置(0始まり)
+     * @param id    レスポンスIDまたはインターフェースID。読み込めなかった項目はnull
+     * @param error 失敗理由。成功した場合はnull
+     */
+    public record ItemResult(int index, String id, boolean success, String error) {
+
+        static ItemResult success(int index, String id) {
+            return new ItemResult(index, id, true, null);
+        }
+
+        static ItemResult failure(int index, String id, String error) {
+            return new ItemResult(index, id, false, error);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.myou.backend.simulator.presentation.web.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * NDJSONまたはJSON配列の定義を1件ずつ読み込み、一定件数ごとにまとめて保存する。
+ * <p>
+ * 入力全体をメモリに載せないよう、保持するのは保存前の1バッチ分と項目毎の結果のみとする。
+ * 項目単位の変換エラーはその項目の失敗として記録して続行し、JSONとして読めなくなった時点で打ち切る。
+ *
+ * @param <R> リクエストの型
+ * @param <D> 保存するドメインモデルの型
+ */
+final class BulkImporter<R, D> {
+
+    private final ObjectReader reader;
+    private final Function<R, D> converter;
+    private final Function<D, String> idExtractor;
+    private final Consumer<List<D>> batchSaver;
+    private final int batchSize;
+
+    BulkImporter(ObjectMapper objectMapper, Class<R> requestType, Function<R, D> converter,
+                 Function<D, String> idExtractor, Consumer<List<D>> batchSaver, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.reader = objectMapper.readerFor(requestType);
+        this.converter = converter;
+        this.idExtractor = idExtractor;
+        this.batchSaver = batchSaver;
+        this.batchSize = batchSize;
+    }
+
+    BulkImportResponse importFrom(InputStream inputStream) throws IOException {
+        List<BulkImportResponse.ItemResult> results = new ArrayList<>();
+        List<D> batch = new ArrayList<>(batchSize);
+        List<Integer> batchIndexes = new ArrayList<>(batchSize);
+        int index = 0;
+        // ルート直下に並んだ値(NDJSON)と、JSON配列の要素のどちらも1件ずつ読み込む
+        try (MappingIterator<R> iterator = reader.readValues(inputStream)) {
+            while (true) {
+                R request;
+                try {
+                    if (!iterator.hasNextValue()) {
+                        break;
+                    }
+                    request = iterator.nextValue();
+                } catch (JsonMappingException e) {
+                    // 型が合わない項目は読み飛ばして次の項目から再開する
+                    results.add(BulkImportResponse.ItemResult.failure(index++, null, e.getOriginalMessage()));
+                    continue;
+                } catch (JsonProcessingException e) {
+                    results.add(BulkImportResponse.ItemResult.failure(index, null, "JSONとして読み込めないため中断: " + e.getOriginalMessage()));
+                    break;
+                }
+
+                D item;
+                try {
+                    item = converter.apply(request);
+                } catch (RuntimeException e) {
+                    results.add(BulkImportResponse.ItemResult.failure(index++, null, e.getMessage()));
+                    continue;
+                }
+                results.add(null);
+                batch.add(item);
+                batchIndexes.add(index++);
+                if (batch.size() == batchSize) {
+                    flush(batch, batchIndexes, results);
+                }
+            }
+        }
+        flush(batch, batchIndexes, results);
+
+        int succeeded = (int) results.stream().filter(BulkImportResponse.ItemResult::success).count();
+        return new BulkImportResponse(results.size(), succeeded, results.size() - succeeded, results);
+    }
+
+    private void flush(List<D> batch, List<Integer> batchIndexes, List<BulkImportResponse.ItemResult> results) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        String error = null;
+        try {
+            batchSaver.accept(List.copyOf(batch));
+        } catch (RuntimeException e) {
+            // どこまで保存されたか判別できないため、バッチ全体を失敗とする
+            error = "保存に失敗: " + e.getMessage();
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            int index = batchIndexes.get(i);
+            String id = idExtractor.apply(batch.get(i));
+            results.set(index, error == null
+                    ? BulkImportResponse.ItemResult.success(index, id)
+                    : BulkImportResponse.ItemResult.failure(index, id, error));
+        }
+        batch.clear();
+        batchIndexes.clear();
+    }
+}
@@ -0,0 +1,27 @@
+package com.myou.backend.simulator.presentation.web.controller;
+
+import com.myou.backend.simulator.domain.model.HttpStatus;
+import com.myou.backend.simulator.domain.model.capacity.CapacityPolicy;
+
+/**
+ * 処理能力の指定。省略した項目は制限なし(待機なし、拒否時は429)とする。
+ */
+public record CapacityPolicyRequest(Double ratePerSecond,
+                                    Integer burst,
+                                    Integer maxConcurrency,
+                                    Long maxWaitMillis,
+                                    Integer rejectStatusCode,
+                                    Long retryAfterSeconds) {
+
+    private static final int DEFAULT_REJECT_STATUS_CODE = 429;
+
+    public CapacityPolicy toCapacityPolicy() {
+        return new CapacityPolicy(
+                ratePerSecond == null ? 0 : ratePerSecond,
+                burst == null ? 1 : burst,
+                maxConcurrency == null ? 0 : maxConcurrency,
+                maxWaitMillis == null ? 0 : maxWaitMillis,
+                HttpStatus.of(rejectStatusCode == null ? DEFAULT_REJECT_STATUS_CODE : rejectStatusCode),
+                retryAfterSeconds);
+    }
+}
@@ -0,0 +1,61 @@
+package com.myou.backend.simulator.presentation.web.controller;
+
+import com.myou.backend.simulator.infrastructure.capture.CaptureStatus;
+import com.myou.backend.simulator.infrastructure.capture.TrafficCapture;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * 受信したリクエストのキャプチャを操作する。
+ * 書き出したファイルは {@code ReplayTool} で任意の宛先に再生できる。
+ */
+@RestController
+@RequestMapping("/api/capture")
+public class CaptureController {
+
+    private final TrafficCapture trafficCapture;
+
+    public CaptureController(TrafficCapture trafficCapture) {
+        this.trafficCapture = trafficCapture;
+    }
+
+    @GetMapping
+    public ResponseEntity<CaptureStatus> getStatus() {
+        return ResponseEntity.ok(trafficCapture.status());
+    }
+
+    @PostMapping("/start")
+    public ResponseEntity<CaptureStatus> start() {
+        trafficCapture.start();
+        return ResponseEntity.ok(trafficCapture.status());
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<CaptureStatus> stop() {
+        trafficCapture.stop();
+        return ResponseEntity.ok(trafficCapture.status());
+    }
+
+    @DeleteMapping
+    public ResponseEntity<CaptureStatus> clear() {
+        trafficCapture.clear();
+        return ResponseEntity.ok(trafficCapture.status());
+    }
+
+    /**
+     * 記録済みのリクエストをキャプチャファイルとして書き出す。
+     */
+    @GetMapping("/export")
+    public void export(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("capture.bin").build().toString());
+        trafficCapture.exportTo(response.getOutputStream());
+    }
+}
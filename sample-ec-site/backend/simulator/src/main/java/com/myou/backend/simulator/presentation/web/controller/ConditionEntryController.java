@@ -1,11 +1,16 @@
 package com.myou.backend.simulator.presentation.web.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.myou.backend.simulator.application.service.ConditionEntryService;
 import com.myou.backend.simulator.domain.model.ConditionEntry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Optional;
 
 @RestController
@@ -13,10 +18,15 @@ import java.util.Optional;
 public class ConditionEntryController {
 
     private final ConditionEntryService conditionEntryService;
+    private final BulkImporter<ConditionEntryRequest, ConditionEntry> bulkImporter;
 
     @Autowired
-    public ConditionEntryController(ConditionEntryService conditionEntryService) {
+    public ConditionEntryController(ConditionEntryService conditionEntryService,
+                                    ObjectMapper objectMapper,
+                                    @Value("${simulator.bulk-import.batch-size:500}") int bulkImportBatchSize) {
         this.conditionEntryService = conditionEntryService;
+        this.bulkImporter = new BulkImporter<>(objectMapper, ConditionEntryRequest.class, ConditionEntryRequest::toConditionEntry,
+                ConditionEntry::interfaceId, conditionEntryService::saveConditionEntries, bulkImportBatchSize);
     }
 
     @PostMapping
@@ -25,6 +35,14 @@ public class ConditionEntryController {
         return ResponseEntity.ok("Condition entry created successfully");
     }
 
+    /**
+     * NDJSONまたはJSON配列の条件エントリを一括登録する。
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<BulkImportResponse> importConditionEntries(InputStream requestBody) throws IOException {
+        return ResponseEntity.ok(bulkImporter.importFrom(requestBody));
+    }
+
     @GetMapping("/{interfaceId}")
     public ResponseEntity<ConditionEntry> getConditionEntryByInterfaceId(@PathVariable("interfaceId") String interfaceId) {
 
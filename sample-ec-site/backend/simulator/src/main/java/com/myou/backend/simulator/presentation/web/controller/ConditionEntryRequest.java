@@ -2,26 +2,77 @@ package com.myou.backend.simulator.presentation.web.controller;
 
 import com.myou.backend.simulator.domain.model.ConditionEntry;
 import com.myou.backend.simulator.domain.model.ResponseIdCondition;
+import com.myou.backend.simulator.domain.model.scenario.Scenario;
 import com.myou.backend.simulator.domain.policy.ConditionPolicy;
 import com.myou.backend.simulator.domain.policy.rule.ConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.PrefixConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.PresenceConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.RangeConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.RegexConditionRule;
 import com.myou.backend.simulator.domain.policy.rule.RequestContentConditionRule;
 import com.myou.backend.simulator.domain.policy.rule.RequestHeaderConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.SetConditionRule;
+import com.myou.backend.simulator.domain.type.RuleTarget;
 import com.myou.backend.simulator.domain.type.RuleType;
+import com.myou.backend.simulator.domain.type.ScenarioMode;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Set;
 
-public record ConditionEntryRequest(String interfaceId, List<ResponseIdConditionRequest> responseIdConditions) {
+public record ConditionEntryRequest(String interfaceId, List<ResponseIdConditionRequest> responseIdConditions,
+                                    LatencyProfileRequest latency, CapacityPolicyRequest capacity) {
+
+    public ConditionEntryRequest(String interfaceId, List<ResponseIdConditionRequest> responseIdConditions) {
+        this(interfaceId, responseIdConditions, null, null);
+    }
 
     public ConditionEntry toConditionEntry() {
         List<ResponseIdCondition> responseIdConditionList = responseIdConditions.stream()
                 .map(ResponseIdConditionRequest::toResponseIdCondition)
                 .toList();
-        return new ConditionEntry(interfaceId, responseIdConditionList);
+        return new ConditionEntry(interfaceId, responseIdConditionList,
+                latency == null ? null : latency.toLatencyProfile(),
+                capacity == null ? null : capacity.toCapacityPolicy());
     }
 
-    public record ResponseIdConditionRequest(String responseId, PolicyRequest policy) {
+    /**
+     * @param scenario 指定した場合はresponseIdの代わりにシナリオのステップのレスポンスを返す。responseIdは省略できる
+     */
+    public record ResponseIdConditionRequest(String responseId, PolicyRequest policy, ScenarioRequest scenario) {
+
+        public ResponseIdConditionRequest(String responseId, PolicyRequest policy) {
+            this(responseId, policy, null);
+        }
+
         public ResponseIdCondition toResponseIdCondition() {
-            return new ResponseIdCondition(responseId, policy.toConditionPolicy());
+            return new ResponseIdCondition(responseId, policy.toConditionPolicy(),
+                    scenario == null ? null : scenario.toScenario());
+        }
+    }
+
+    /**
+     * シナリオの指定。keyTargetとkeyを指定した場合は、その値毎に状態を持つ(例: 相関IDのヘッダ毎に進める)。
+     * <ul>
+     *     <li>SEQUENCE: stepsを順に返し、最後のステップを返し続ける</li>
+     *     <li>ROUND_ROBIN: stepsを順に繰り返す</li>
+     *     <li>WEIGHTED_RANDOM: stepsのweight(省略時は1)に比例した確率で返す</li>
+     * </ul>
+     */
+    public record ScenarioRequest(ScenarioMode mode, List<StepRequest> steps, RuleTarget keyTarget, String key) {
+
+        public Scenario toScenario() {
+            if (mode == null || steps == null) {
+                throw new IllegalArgumentException("mode and steps are required for scenario");
+            }
+            return new Scenario(mode, steps.stream().map(StepRequest::toStep).toList(), keyTarget, key);
+        }
+    }
+
+    public record StepRequest(String responseId, Integer weight) {
+
+        public Scenario.Step toStep() {
+            return new Scenario.Step(responseId, weight == null ? 1 : weight);
         }
     }
 
@@ -35,14 +86,48 @@ public record ConditionEntryRequest(String interfaceId, List<ResponseIdCondition
 
     }
 
-    public record RuleRequest(RuleType type, String key, String expectedValue) {
+    /**
+     * 条件のルール。typeに応じて使う項目が異なる。
+     * <ul>
+     *     <li>REQUEST_HEADER, REQUEST_CONTENT: key, expectedValue(完全一致)</li>
+     *     <li>PREFIX: target, key, expectedValue(接頭辞)</li>
+     *     <li>REGEX: target, key, expectedValue(値全体に一致する正規表現)</li>
+     *     <li>RANGE: target, key, min, max(いずれか必須。両端を含む)</li>
+     *     <li>EXISTS, ABSENT: target, key</li>
+     *     <li>IN: target, key, values</li>
+     * </ul>
+     */
+    public record RuleRequest(RuleType type,
+                              String key,
+                              String expectedValue,
+                              RuleTarget target,
+                              List<String> values,
+                              BigDecimal min,
+                              BigDecimal max) {
+
+        public RuleRequest(RuleType type, String key, String expectedValue) {
+            this(type, key, expectedValue, null, null, null, null);
+        }
 
         public ConditionRule toConditionRule() {
             return switch (type) {
                 case REQUEST_HEADER -> new RequestHeaderConditionRule(key, expectedValue);
                 case REQUEST_CONTENT -> new RequestContentConditionRule(key, expectedValue);
+                case PREFIX -> new PrefixConditionRule(required(target, "target"), key, required(expectedValue, "expectedValue"));
+                case REGEX -> RegexConditionRule.of(required(target, "target"), key, required(expectedValue, "expectedValue"));
+                case RANGE -> new RangeConditionRule(required(target, "target"), key, min, max);
+                case EXISTS -> new PresenceConditionRule(required(target, "target"), key, true);
+                case ABSENT -> new PresenceConditionRule(required(target, "target"), key, false);
+                case IN -> new SetConditionRule(required(target, "target"), key, Set.copyOf(required(values, "values")));
             };
         }
+
+        private <T> T required(T value, String name) {
+            if (value == null) {
+                throw new IllegalArgumentException(name + " is required for rule type " + type);
+            }
+            return value;
+        }
     }
 
 }
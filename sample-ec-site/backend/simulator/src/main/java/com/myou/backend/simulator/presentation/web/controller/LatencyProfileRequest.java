@@ -0,0 +1,49 @@
+package com.myou.backend.simulator.presentation.web.controller;
+
+import com.myou.backend.simulator.domain.model.latency.FixedLatency;
+import com.myou.backend.simulator.domain.model.latency.LatencyProfile;
+import com.myou.backend.simulator.domain.model.latency.LogNormalLatency;
+import com.myou.backend.simulator.domain.model.latency.NormalLatency;
+import com.myou.backend.simulator.domain.model.latency.PercentileLatency;
+import com.myou.backend.simulator.domain.model.latency.UniformLatency;
+import com.myou.backend.simulator.domain.type.LatencyType;
+
+import java.util.Map;
+
+/**
+ * 遅延の指定。typeに応じて使う項目が異なる。
+ * <ul>
+ *     <li>FIXED: millis</li>
+ *     <li>UNIFORM: minMillis, maxMillis</li>
+ *     <li>NORMAL: meanMillis, stdDevMillis</li>
+ *     <li>LOG_NORMAL: medianMillis, sigma</li>
+ *     <li>PERCENTILE: percentiles(例: {"50": 20, "99": 200, "99.9": 800})</li>
+ * </ul>
+ */
+public record LatencyProfileRequest(LatencyType type,
+                                    Long millis,
+                                    Long minMillis,
+                                    Long maxMillis,
+                                    Double meanMillis,
+                                    Double stdDevMillis,
+                                    Double medianMillis,
+                                    Double sigma,
+                                    Map<Double, Long> percentiles) {
+
+    public LatencyProfile toLatencyProfile() {
+        return switch (type) {
+            case FIXED -> new FixedLatency(required(millis, "millis"));
+            case UNIFORM -> new UniformLatency(required(minMillis, "minMillis"), required(maxMillis, "maxMillis"));
+            case NORMAL -> new NormalLatency(required(meanMillis, "meanMillis"), required(stdDevMillis, "stdDevMillis"));
+            case LOG_NORMAL -> new LogNormalLatency(required(medianMillis, "medianMillis"), required(sigma, "sigma"));
+            case PERCENTILE -> PercentileLatency.of(required(percentiles, "percentiles"));
+        };
+    }
+
+    private <T> T required(T value, String name) {
+        if (value == null) {
+            throw new IllegalArgumentException(name + " is required for latency type " + type);
+        }
+        return value;
+    }
+}
@@ -1,10 +1,15 @@
 package com.myou.backend.simulator.presentation.web.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.myou.backend.simulator.application.service.ResponseDataService;
 import com.myou.backend.simulator.domain.model.ResponseData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,9 +17,22 @@ import java.util.Optional;
 @RequestMapping("/api/responses")
 public class ResponseDataController {
     private final ResponseDataService responseDataService;
+    private final BulkImporter<ResponseDataRequest, ResponseData> bulkImporter;
 
-    public ResponseDataController(ResponseDataService responseDataService) {
+    public ResponseDataController(ResponseDataService responseDataService,
+                                  ObjectMapper objectMapper,
+                                  @Value("${simulator.bulk-import.batch-size:500}") int bulkImportBatchSize) {
         this.responseDataService = responseDataService;
+        this.bulkImporter = new BulkImporter<>(objectMapper, ResponseDataRequest.class, ResponseDataRequest::toResponseData,
+                ResponseData::responseId, responseDataService::saveAllResponseData, bulkImportBatchSize);
+    }
+
+    /**
+     * NDJSONまたはJSON配列のレスポンスデータを一括登録する。
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<BulkImportResponse> importResponseData(InputStream requestBody) throws IOException {
+        return ResponseEntity.ok(bulkImporter.importFrom(requestBody));
     }
 
     @PostMapping("/{responseId}")
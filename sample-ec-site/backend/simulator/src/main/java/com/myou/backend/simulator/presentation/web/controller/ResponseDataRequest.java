@@ -2,13 +2,32 @@ package com.myou.backend.simulator.presentation.web.controller;
 
 import com.myou.backend.simulator.domain.model.HttpStatus;
 import com.myou.backend.simulator.domain.model.ResponseData;
+import com.myou.backend.simulator.domain.model.template.ResponseTemplate;
 
 import java.util.List;
 import java.util.Map;
 
-public record ResponseDataRequest(String responseId, Map<String, List<String>> responseHeaders, String responseBody, int statusCode) {
+/**
+ * @param template ボディをテンプレートとしてレンダリングするか。省略した場合はボディをそのまま返す
+ */
+public record ResponseDataRequest(String responseId, Map<String, List<String>> responseHeaders, String responseBody, int statusCode,
+                                  LatencyProfileRequest latency, boolean template) {
+
+    public ResponseDataRequest(String responseId, Map<String, List<String>> responseHeaders, String responseBody, int statusCode) {
+        this(responseId, responseHeaders, responseBody, statusCode, null, false);
+    }
+
+    public ResponseDataRequest(String responseId, Map<String, List<String>> responseHeaders, String responseBody, int statusCode,
+                               LatencyProfileRequest latency) {
+        this(responseId, responseHeaders, responseBody, statusCode, latency, false);
+    }
 
     public ResponseData toResponseData(){
-        return new ResponseData(responseId, responseHeaders, responseBody, HttpStatus.of(statusCode));
+        if (template) {
+            // テンプレートの構文は保存時に検証し、不正な場合は保存しない
+            ResponseTemplate.compile(responseBody);
+        }
+        return new ResponseData(responseId, responseHeaders, responseBody, HttpStatus.of(statusCode),
+                latency == null ? null : latency.toLatencyProfile(), null, template);
     }
 }
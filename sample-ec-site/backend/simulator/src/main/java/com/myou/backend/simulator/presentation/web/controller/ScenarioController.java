@@ -0,0 +1,30 @@
+package com.myou.backend.simulator.presentation.web.controller;
+
+import com.myou.backend.simulator.application.service.SimulatorService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * シナリオの状態を操作する。負荷試験の実行の合間にリセットし、次の実行を最初のステップから始める。
+ * 状態はノード毎に持つため、複数ノードの場合はノード毎に呼び出す。
+ */
+@RestController
+@RequestMapping("/api/scenario")
+public class ScenarioController {
+
+    private final SimulatorService simulatorService;
+
+    public ScenarioController(SimulatorService simulatorService) {
+        this.simulatorService = simulatorService;
+    }
+
+    @PostMapping("/reset")
+    public ResponseEntity<ScenarioResetResponse> resetAll() {
+        return ResponseEntity.ok(new ScenarioResetResponse(null, simulatorService.resetScenarios(null)));
+    }
+
+    @PostMapping("/reset/{interfaceId}")
+    public ResponseEntity<ScenarioResetResponse> reset(@PathVariable String interfaceId) {
+        return ResponseEntity.ok(new ScenarioResetResponse(interfaceId, simulatorService.resetScenarios(interfaceId)));
+    }
+}
@@ -0,0 +1,10 @@
+package com.myou.backend.simulator.presentation.web.controller;
+
+/**
+ * シナリオの状態のリセットの結果。
+ *
+ * @param interfaceId 対象のインターフェースID。全てを対象にした場合はnull
+ * @param reset       捨てた状態(シナリオのキーの値)の件数
+ */
+public record ScenarioResetResponse(String interfaceId, int reset) {
+}
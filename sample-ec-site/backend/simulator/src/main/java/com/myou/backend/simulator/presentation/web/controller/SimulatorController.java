@@ -1,73 +1,317 @@
 package com.myou.backend.simulator.presentation.web.controller;
 
 import com.myou.backend.simulator.application.service.SimulatorService;
+import com.myou.backend.simulator.application.upstream.UpstreamRequest;
 import com.myou.backend.simulator.domain.model.*;
+import com.myou.backend.simulator.domain.model.capacity.CapacityLimiter;
+import com.myou.backend.simulator.infrastructure.body.MappedBodyStore;
+import com.myou.backend.simulator.infrastructure.cache.DefinitionCache;
+import com.myou.backend.simulator.infrastructure.capture.CapturedRequest;
+import com.myou.backend.simulator.infrastructure.capture.TrafficCapture;
+import com.myou.backend.simulator.infrastructure.metrics.SimulatorMetrics;
+import com.myou.backend.simulator.presentation.web.response.DelayedResponseWriter;
+import com.myou.backend.simulator.presentation.web.response.PreparedResponse;
+import com.myou.backend.simulator.presentation.web.response.PreparedResponseCache;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.util.MultiValueMap;
-import org.springframework.util.MultiValueMapAdapter;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+
 @RestController
 public class SimulatorController {
 
+    private static final String TEXT_PLAIN_UTF8_VALUE = MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8";
+
     private final SimulatorService simulatorService;
+    private final TrafficCapture trafficCapture;
+    private final SimulatorMetrics simulatorMetrics;
+    private final PreparedResponseCache preparedResponseCache;
+    private final DelayedResponseWriter delayedResponseWriter = new DelayedResponseWriter();
 
     @Autowired
-    public SimulatorController(SimulatorService simulatorService) {
+    public SimulatorController(SimulatorService simulatorService, TrafficCapture trafficCapture,
+                               SimulatorMetrics simulatorMetrics, MappedBodyStore bodyStore,
+                               DefinitionCache definitionCache) {
         this.simulatorService = simulatorService;
+        this.trafficCapture = trafficCapture;
+        this.simulatorMetrics = simulatorMetrics;
+        this.preparedResponseCache = new PreparedResponseCache(bodyStore::open);
+        definitionCache.addResponseDataEvictionListener(preparedResponseCache::evict);
     }
 
 
     @PostMapping(value = "/{interfaceId}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<String> processJsonRequest(
+    public void processJsonRequest(
             @PathVariable("interfaceId") String interfaceId,
             @RequestHeader MultiValueMap<String, String>  headers,
-            @RequestBody String requestBody) {
-
-        return doProcessRequest(interfaceId, headers, new JsonContent(requestBody));
+            InputStream requestBody,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Capture capture = beginCapture(requestBody);
+        // 条件が参照するJSON Pointerの値だけをボディから直接ストリーミングで抽出する
+        Set<String> contentKeys = simulatorService.findContentKeys(interfaceId);
+        long parseStart = System.nanoTime();
+        JsonPointerContent content = JsonPointerContent.read(bodyOf(requestBody, capture), contentKeys);
+        long parseNanos = System.nanoTime() - parseStart;
+        doProcessRequest(interfaceId, headers, content, parseNanos, MediaType.APPLICATION_JSON_VALUE, request, response, capture,
+                upstreamRequest(request, headers, request.getQueryString(), capture));
     }
 
 
     @PostMapping(value = "/{interfaceId}", consumes = MediaType.APPLICATION_XML_VALUE, produces = MediaType.APPLICATION_XML_VALUE)
-    public ResponseEntity<String> processXmlRequest(
+    public void processXmlRequest(
             @PathVariable("interfaceId") String interfaceId,
             @RequestHeader MultiValueMap<String, String>  headers,
-            @RequestBody String requestBody) {
+            InputStream requestBody,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
         // XMLリクエストの処理とレスポンスの生成
-        return doProcessRequest(interfaceId, headers, new XmlContent(requestBody));
+        // 登録時にコンパイル済みのXPathの値だけを抽出し、単純な絶対パスのみであればDOMを構築しない
+        Capture capture = beginCapture(requestBody);
+        List<XmlPath> xmlPaths = simulatorService.findXmlPaths(interfaceId);
+        long parseStart = System.nanoTime();
+        XmlPathContent content = XmlPathContent.read(bodyOf(requestBody, capture), xmlPaths);
+        long parseNanos = System.nanoTime() - parseStart;
+        doProcessRequest(interfaceId, headers, content, parseNanos, MediaType.APPLICATION_XML_VALUE, request, response, capture,
+                upstreamRequest(request, headers, request.getQueryString(), capture));
     }
 
     @PostMapping(value = "/{interfaceId}", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
-    public ResponseEntity<String> processFormRequest(
+    public void processFormRequest(
             @PathVariable("interfaceId") String interfaceId,
             @RequestHeader MultiValueMap<String, String>  headers,
-            @RequestParam MultiValueMap<String, String>  data) {
+            @RequestParam MultiValueMap<String, String>  data,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
         // フォームデータの処理とレスポンスの生成
-        return doProcessRequest(interfaceId, headers, new FormDataContent(data));
+        // ボディはパラメータの解析で読み込み済みのため、記録・転送時はパラメータからエンコードし直す
+        // クエリ文字列のパラメータも含むため、転送時はクエリ文字列を付けない
+        boolean capturing = trafficCapture.isRunning();
+        Capture capture = capturing || simulatorService.recordThroughEnabled()
+                ? new Capture(System.nanoTime(), encodeForm(data), capturing) : null;
+        doProcessRequest(interfaceId, headers, new FormDataContent(data), 0, negotiatedContentType(headers), request, response, capture,
+                upstreamRequest(request, headers, null, capture));
     }
 
 
     @GetMapping("/{interfaceId}")
-    public ResponseEntity<String> processGetRequest(
+    public void processGetRequest(
             @PathVariable("interfaceId") String interfaceId,
             @RequestHeader MultiValueMap<String, String> headers,
-            @RequestParam(required = false) MultiValueMap<String, String> queryParams) {
+            @RequestParam(required = false) MultiValueMap<String, String> queryParams,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
         // GETリクエストの処理とレスポンスの生成
-        return doProcessRequest(interfaceId, headers, new QueryParamsContent(queryParams));
+        Capture capture = trafficCapture.isRunning() ? new Capture(System.nanoTime(), null, true) : null;
+        doProcessRequest(interfaceId, headers, new QueryParamsContent(queryParams), 0, negotiatedContentType(headers), request, response, capture,
+                upstreamRequest(request, headers, request.getQueryString(), capture));
+    }
+
+
+    /**
+     * @param parseNanos ボディから条件の値を抽出した時間。ボディを解析しない場合は0
+     */
+    private void doProcessRequest(String interfaceId, MultiValueMap<String, String> headers, RequestContent requestContent,
+                                  long parseNanos, String defaultContentType, HttpServletRequest request,
+                                  HttpServletResponse response, Capture capture, UpstreamRequest upstreamRequest) throws IOException {
+        ResponseData responseData = null;
+        boolean completed = false;
+        try {
+            responseData = respond(interfaceId, headers, requestContent, parseNanos, defaultContentType, request, response,
+                    upstreamRequest);
+            completed = true;
+        } finally {
+            if (capture != null && capture.capturing()) {
+                // 拒否した場合はレスポンスデータなし、例外の場合はステータスコード0として記録する
+                int statusCode = !completed ? 0
+                        : responseData != null ? responseData.statusCode().value() : response.getStatus();
+                trafficCapture.offer(capture.arrivalNanos(), new CapturedRequest(0, request.getMethod(), interfaceId,
+                        capture.body() == null ? request.getQueryString() : null, headers, capture.body(),
+                        responseData == null ? null : responseData.responseId(), statusCode));
+            }
+        }
+    }
+
+    /**
+     * レスポンスを書き込み、返却したレスポンスデータを返す。処理能力を超えて拒否した場合はnullを返す。
+     */
+    private ResponseData respond(String interfaceId, MultiValueMap<String, String> headers, RequestContent requestContent,
+                                 long parseNanos, String defaultContentType, HttpServletRequest request,
+                                 HttpServletResponse response, UpstreamRequest upstreamRequest) throws IOException {
+        // 処理能力を超える場合はバックエンドの飽和として拒否する。処理枠はレスポンスを書き込むまで保持する
+        CapacityLimiter capacityLimiter = simulatorService.findCapacityLimiter(interfaceId).orElse(null);
+        CapacityLimiter.Permit permit = acquire(capacityLimiter);
+        if (!permit.admitted()) {
+            response.setStatus(capacityLimiter.policy().rejectStatus().value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(permit.retryAfterSeconds()));
+            return null;
+        }
+
+        boolean delayed = false;
+        try {
+            RequestData requestData = new RequestData(interfaceId, headers, requestContent);
+            ResponseData responseData = upstreamRequest == null
+                    ? simulatorService.processRequest(requestData)
+                    : simulatorService.processRequest(requestData, upstreamRequest);
+            // 存在しないインターフェースIDでタグの上限を消費しないよう、処理できた後にインターフェース毎に記録する
+            SimulatorMetrics.InterfaceMetrics metrics = simulatorMetrics.forInterface(interfaceId);
+            if (parseNanos > 0) {
+                metrics.recordBodyParse(parseNanos);
+            }
+
+            // エンコード済みのボディとヘッダをAccept-Encodingに応じてそのまま書き込む
+            PreparedResponse preparedResponse = preparedResponseCache.get(responseData);
+            String acceptEncoding = acceptEncoding(headers);
+
+            Duration delay = simulatorService.findLatencyProfile(interfaceId, responseData)
+                    .map(latencyProfile -> latencyProfile.sample(ThreadLocalRandom.current()))
+                    .orElse(Duration.ZERO);
+            if (delay.isPositive()) {
+                delayedResponseWriter.writeAfter(delay, request, response, r -> {
+                    int written = preparedResponse.writeTo(r, acceptEncoding, defaultContentType, requestData);
+                    metrics.recordServed(responseData.responseId(), written);
+                }, permit::release);
+                delayed = true;
+                return responseData;
+            }
+            int written = preparedResponse.writeTo(request, response, acceptEncoding, defaultContentType, requestData);
+            metrics.recordServed(responseData.responseId(), written);
+            return responseData;
+        } finally {
+            if (!delayed) {
+                permit.release();
+            }
+        }
     }
 
+    private static CapacityLimiter.Permit acquire(CapacityLimiter capacityLimiter) {
+        if (capacityLimiter == null) {
+            return CapacityLimiter.Permit.UNLIMITED;
+        }
+        try {
+            return capacityLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("処理枠の取得待ちで割り込まれた", e);
+        }
+    }
+
+    /**
+     * 記録中の場合、到着時刻を取得し、再生できるようボディを読み切る。
+     * 上流への転送が有効な場合も転送できるようボディを読み切る。いずれでもない場合はnullを返す。
+     */
+    private Capture beginCapture(InputStream requestBody) throws IOException {
+        boolean capturing = trafficCapture.isRunning();
+        if (!capturing && !simulatorService.recordThroughEnabled()) {
+            return null;
+        }
+        long arrivalNanos = System.nanoTime();
+        return new Capture(arrivalNanos, requestBody.readAllBytes(), capturing);
+    }
 
-    private ResponseEntity<String> doProcessRequest(String interfaceId, MultiValueMap<String, String> headers, RequestContent requestContent) {
-        RequestData requestData = new RequestData(interfaceId, headers, requestContent);
-        ResponseData responseData = simulatorService.processRequest(requestData);
+    /**
+     * 上流への転送が有効な場合、転送するリクエストを返す。有効でない場合はnullを返す。
+     */
+    private UpstreamRequest upstreamRequest(HttpServletRequest request, MultiValueMap<String, String> headers,
+                                            String queryString, Capture capture) {
+        if (!simulatorService.recordThroughEnabled()) {
+            return null;
+        }
+        return new UpstreamRequest(request.getMethod(), queryString, headers, capture == null ? null : capture.body());
+    }
+
+    private static InputStream bodyOf(InputStream requestBody, Capture capture) {
+        return capture == null ? requestBody : new ByteArrayInputStream(capture.body());
+    }
+
+    private static byte[] encodeForm(MultiValueMap<String, String> data) {
+        StringJoiner joiner = new StringJoiner("&");
+        data.forEach((name, values) -> values.forEach(value -> joiner.add(
+                URLEncoder.encode(name, StandardCharsets.UTF_8) + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8))));
+        return joiner.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @PreDestroy
+    public void close() {
+        delayedResponseWriter.close();
+    }
+
+    private static String acceptEncoding(MultiValueMap<String, String> headers) {
+        return headerValue(headers, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    /**
+     * フォーム・GETのリクエストで、レスポンスデータにContent-Typeがない場合の値。
+     * 文字列のボディをメッセージコンバーターで返していた時と同じく、Acceptで最も優先される具体的なメディアタイプを使い、
+     * text/plainを受け付ける場合やAcceptがない場合はtext/plainにする。JSON以外にはUTF-8の文字コードを付ける。
+     */
+    static String negotiatedContentType(MultiValueMap<String, String> headers) {
+        String accept = headerValue(headers, HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return TEXT_PLAIN_UTF8_VALUE;
+        }
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = new ArrayList<>(MediaType.parseMediaTypes(accept));
+            // 品質値の高い順、同じ品質値では具体的な順に並べる
+            MimeTypeUtils.sortBySpecificity(acceptedTypes);
+        } catch (InvalidMediaTypeException | InvalidMimeTypeException e) {
+            return TEXT_PLAIN_UTF8_VALUE;
+        }
+        for (MediaType acceptedType : acceptedTypes) {
+            if (acceptedType.getQualityValue() == 0) {
+                continue;
+            }
+            if (acceptedType.includes(MediaType.TEXT_PLAIN)) {
+                return TEXT_PLAIN_UTF8_VALUE;
+            }
+            if (acceptedType.isConcrete()) {
+                MediaType selected = acceptedType.removeQualityValue();
+                if (selected.isCompatibleWith(MediaType.APPLICATION_JSON) || selected.getSubtype().endsWith("+json")
+                        || selected.getCharset() != null) {
+                    return selected.toString();
+                }
+                return new MediaType(selected, StandardCharsets.UTF_8).toString();
+            }
+            if ("application".equals(acceptedType.getType())) {
+                return new MediaType(MediaType.APPLICATION_OCTET_STREAM, StandardCharsets.UTF_8).toString();
+            }
+        }
+        return TEXT_PLAIN_UTF8_VALUE;
+    }
+
+    private static String headerValue(MultiValueMap<String, String> headers, String name) {
+        // ヘッダ名はクライアントが送った表記のまま格納されるため、大文字小文字を区別せずに探す
+        for (var header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+                return String.join(",", header.getValue());
+            }
+        }
+        return null;
+    }
 
-        // ResponseEntityを使ってレスポンスヘッダ、ボディ、ステータスコードを設定
-        return ResponseEntity
-                .status(responseData.statusCode().value())
-                .headers(new HttpHeaders(new MultiValueMapAdapter<>(responseData.responseHeaders())))
-                .body(responseData.responseBody());
+    /**
+     * @param capturing キャプチャに記録するか。転送のためだけにボディを保持した場合はfalse
+     */
+    private record Capture(long arrivalNanos, byte[] body, boolean capturing) {
     }
 }
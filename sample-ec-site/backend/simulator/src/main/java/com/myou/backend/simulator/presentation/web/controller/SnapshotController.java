@@ -0,0 +1,67 @@
+package com.myou.backend.simulator.presentation.web.controller;
+
+import com.myou.backend.simulator.infrastructure.snapshot.DefinitionSnapshot;
+import com.myou.backend.simulator.infrastructure.snapshot.SnapshotSummary;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+/**
+ * 定義のスナップショットを操作する。
+ * 保存・読み込みは設定したスナップショットファイルを対象とし、ファイルを設定していない場合は400を返す。
+ */
+@RestController
+@RequestMapping("/api/snapshot")
+public class SnapshotController {
+
+    private final DefinitionSnapshot definitionSnapshot;
+
+    public SnapshotController(DefinitionSnapshot definitionSnapshot) {
+        this.definitionSnapshot = definitionSnapshot;
+    }
+
+    @PostMapping("/save")
+    public ResponseEntity<SnapshotSummary> save() {
+        return definitionSnapshot.file()
+                .map(file -> ResponseEntity.ok(definitionSnapshot.save(file)))
+                .orElseGet(() -> ResponseEntity.badRequest().build());
+    }
+
+    @PostMapping("/load")
+    public ResponseEntity<SnapshotSummary> load() {
+        return definitionSnapshot.file()
+                .filter(Files::exists)
+                .map(file -> ResponseEntity.ok(definitionSnapshot.load(file)))
+                .orElseGet(() -> ResponseEntity.badRequest().build());
+    }
+
+    /**
+     * 全ての定義をスナップショットファイルとして書き出す。
+     */
+    @GetMapping("/export")
+    public void export(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("snapshot.bin").build().toString());
+        definitionSnapshot.writeTo(response.getOutputStream());
+    }
+
+    /**
+     * 書き出したスナップショットファイルを読み込む。
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<SnapshotSummary> importSnapshot(InputStream requestBody) throws IOException {
+        try {
+            return ResponseEntity.ok(definitionSnapshot.load(requestBody.readAllBytes()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.myou.backend.simulator.presentation.web.response;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 遅延を指定されたレスポンスを、リクエストスレッドを占有せずに書き込む。
+ * <p>
+ * サーブレットの非同期処理を開始してリクエストスレッドをコンテナに返し、
+ * 遅延後にタイマースレッドからコンテナのスレッドへ書き込みを依頼する。
+ * 待機中はスレッドを消費しないため、長い遅延を多数同時に扱える。
+ * 書き込み・タイムアウト・エラーのいずれで終わった場合も、終了時の処理(処理枠の返却等)を一度だけ呼び出す。
+ */
+public final class DelayedResponseWriter implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DelayedResponseWriter.class);
+
+    // 遅延後の書き込みが終わるまでの猶予
+    private static final long ASYNC_TIMEOUT_MARGIN_MILLIS = 30_000;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "simulator-latency-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @FunctionalInterface
+    public interface ResponseWriter {
+        void write(HttpServletResponse response) throws IOException;
+    }
+
+    /**
+     * 遅延後にレスポンスを書き込む。
+     *
+     * @param onFinished 書き込み・タイムアウト・エラーのいずれかで非同期処理が終わった時点で一度だけ呼び出す処理
+     */
+    public void writeAfter(Duration delay, HttpServletRequest request, HttpServletResponse response, ResponseWriter writer,
+                           Runnable onFinished) {
+        AsyncContext asyncContext = request.startAsync(request, response);
+        asyncContext.setTimeout(delay.toMillis() + ASYNC_TIMEOUT_MARGIN_MILLIS);
+        Completion completion = new Completion(onFinished);
+        asyncContext.addListener(completion);
+        try {
+            // タイマースレッドでは書き込まず、コンテナのスレッドに委ねる
+            timer.schedule(() -> {
+                if (!completion.finished()) {
+                    asyncContext.start(() -> write(asyncContext, response, writer, completion));
+                }
+            }, delay.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            logger.warn("停止中のため遅延させたレスポンスを書き込まない");
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            completion.finish();
+            asyncContext.complete();
+        }
+    }
+
+    private static void write(AsyncContext asyncContext, HttpServletResponse response, ResponseWriter writer,
+                              Completion completion) {
+        // タイムアウト・エラーで終了済みのレスポンスには書き込まない
+        if (completion.finished()) {
+            return;
+        }
+        try {
+            writer.write(response);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("遅延させたレスポンスの書き込みに失敗", e);
+        } finally {
+            completion.finish();
+            asyncContext.complete();
+        }
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * 非同期処理の終了を検知し、終了時の処理を一度だけ呼び出す。
+     */
+    private static final class Completion implements AsyncListener {
+
+        private final Runnable onFinished;
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private Completion(Runnable onFinished) {
+            this.onFinished = onFinished;
+        }
+
+        boolean finished() {
+            return finished.get();
+        }
+
+        void finish() {
+            if (finished.compareAndSet(false, true)) {
+                onFinished.run();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            finish();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            logger.warn("遅延させたレスポンスの書き込みがタイムアウト");
+            finish();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            finish();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // 非同期処理を再開しないため何もしない
+        }
+    }
+}
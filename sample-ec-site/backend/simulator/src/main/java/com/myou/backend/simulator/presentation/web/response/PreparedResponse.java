@@ -0,0 +1,270 @@
+package com.myou.backend.simulator.presentation.web.response;
+
+import com.myou.backend.simulator.domain.model.RequestData;
+import com.myou.backend.simulator.domain.model.ResponseData;
+import com.myou.backend.simulator.domain.model.template.ResponseTemplate;
+import com.myou.backend.simulator.domain.model.template.ValueEscaper;
+import com.myou.backend.simulator.infrastructure.body.MappedBody;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * レスポンスデータをエンコード済みのバイト列とヘッダに変換したもの。
+ * <p>
+ * レスポンスデータは保存されるまで変わらないため、ボディの文字コード変換・圧縮とヘッダの組み立ては一度だけ行い、
+ * リクエスト毎にはAccept-Encodingに応じたバリアントをそのままサーブレットに書き込む。
+ * <p>
+ * ボディがリクエストの値を埋め込むテンプレートの場合は、固定部分だけをエンコードしておき、リクエスト毎にレンダリングする。
+ * レンダリング結果はリクエスト毎に異なるため圧縮しない。
+ * <p>
+ * ボディストアに置いたボディはメモリマップしたファイルから書き込み、ヒープにコピーしない。
+ * コンテナがsendfileに対応している場合はファイルからソケットへ直接転送させる。圧縮はヒープに載せることになるため行わない。
+ */
+public final class PreparedResponse {
+
+    // これより小さいボディは圧縮しても効果が薄いため、圧縮バリアントを作らない
+    static final int COMPRESSION_THRESHOLD = 1024;
+    private static final RequestData EMPTY_REQUEST = new RequestData(null, Map.of(), null);
+    // Tomcatのsendfileの要求属性
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ResponseData source;
+    private final int status;
+    private final List<Map.Entry<String, String>> headers;
+    private final boolean hasContentType;
+    private final Variant identity;
+    private final Variant gzip;
+    private final Variant deflate;
+    private final ResponseTemplate.Renderer renderer;
+    private final MappedBody mappedBody;
+
+    private PreparedResponse(ResponseData source, List<Map.Entry<String, String>> headers, boolean hasContentType,
+                             Variant identity, Variant gzip, Variant deflate, ResponseTemplate.Renderer renderer,
+                             MappedBody mappedBody) {
+        this.source = source;
+        this.status = source.statusCode().value();
+        this.headers = headers;
+        this.hasContentType = hasContentType;
+        this.identity = identity;
+        this.gzip = gzip;
+        this.deflate = deflate;
+        this.renderer = renderer;
+        this.mappedBody = mappedBody;
+    }
+
+    public static PreparedResponse prepare(ResponseData responseData) {
+        return prepare(responseData, null);
+    }
+
+    /**
+     * @param mappedBody レスポンスデータのボディストアへの参照をマップしたもの。参照を持たない場合はnull
+     */
+    public static PreparedResponse prepare(ResponseData responseData, MappedBody mappedBody) {
+        List<Map.Entry<String, String>> headers = new ArrayList<>();
+        HttpHeaders sourceHeaders = new HttpHeaders();
+        if (responseData.responseHeaders() != null) {
+            responseData.responseHeaders().forEach((name, values) -> {
+                // 長さはエンコード後のボディから設定するため、定義側の値は使わない
+                if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) || HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(name)) {
+                    return;
+                }
+                values.forEach(value -> headers.add(Map.entry(name, value)));
+                sourceHeaders.addAll(name, values);
+            });
+        }
+
+        ResponseTemplate template = responseData.responseTemplate().orElse(null);
+        if (template != null) {
+            ResponseTemplate.Renderer renderer = template.compileRenderer(charsetOf(sourceHeaders), escaperOf(sourceHeaders));
+            return new PreparedResponse(responseData, List.copyOf(headers), sourceHeaders.getContentType() != null,
+                    null, null, null, renderer, null);
+        }
+        if (mappedBody != null) {
+            return new PreparedResponse(responseData, List.copyOf(headers), sourceHeaders.getContentType() != null,
+                    null, null, null, null, mappedBody);
+        }
+
+        byte[] body = responseData.responseBody() == null
+                ? new byte[0]
+                : responseData.responseBody().getBytes(charsetOf(sourceHeaders));
+        Variant identity = new Variant(body, null);
+
+        // 定義側で既にエンコード済みの場合や小さいボディは圧縮しない
+        Variant gzip = null;
+        Variant deflate = null;
+        if (!sourceHeaders.containsKey(HttpHeaders.CONTENT_ENCODING) && body.length >= COMPRESSION_THRESHOLD) {
+            gzip = compress(body, "gzip");
+            deflate = compress(body, "deflate");
+        }
+        if (gzip != null || deflate != null) {
+            headers.add(Map.entry(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
+        }
+        return new PreparedResponse(responseData, List.copyOf(headers), sourceHeaders.getContentType() != null,
+                identity, gzip, deflate, null, null);
+    }
+
+    public ResponseData source() {
+        return source;
+    }
+
+    public int writeTo(HttpServletResponse response, String acceptEncoding, String defaultContentType) throws IOException {
+        return writeTo(response, acceptEncoding, defaultContentType, null);
+    }
+
+    public int writeTo(HttpServletResponse response, String acceptEncoding, String defaultContentType,
+                       RequestData requestData) throws IOException {
+        return writeTo(null, response, acceptEncoding, defaultContentType, requestData);
+    }
+
+    /**
+     * Accept-Encodingに応じたバリアントを書き込む。テンプレートの場合はリクエストの値でレンダリングして書き込む。
+     *
+     * @param request            sendfileの要求に使う。nullの場合はsendfileを使わない
+     * @param defaultContentType レスポンスデータにContent-Typeがない場合に使う値
+     * @param requestData        テンプレートに埋め込む値の取得元。nullの場合はプレースホルダを既定値で埋める
+     * @return 書き込んだボディのバイト数
+     */
+    public int writeTo(HttpServletRequest request, HttpServletResponse response, String acceptEncoding,
+                       String defaultContentType, RequestData requestData) throws IOException {
+        if (mappedBody != null) {
+            writeHeaders(response, defaultContentType, null, mappedBody.length());
+            if (request != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                // ボディは書き込まず、レスポンスの完了時にコンテナがファイルから直接送信する
+                request.setAttribute(SENDFILE_FILENAME, mappedBody.path().toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, mappedBody.length());
+            } else {
+                OutputStream outputStream = response.getOutputStream();
+                mappedBody.writeTo(outputStream);
+                outputStream.flush();
+            }
+            return (int) Math.min(mappedBody.length(), Integer.MAX_VALUE);
+        }
+        Variant variant = renderer != null
+                ? new Variant(renderer.render(requestData == null ? EMPTY_REQUEST : requestData), null)
+                : select(acceptEncoding);
+        writeHeaders(response, defaultContentType, variant.contentEncoding(), variant.body().length);
+        OutputStream outputStream = response.getOutputStream();
+        outputStream.write(variant.body());
+        outputStream.flush();
+        return variant.body().length;
+    }
+
+    private void writeHeaders(HttpServletResponse response, String defaultContentType, String contentEncoding,
+                              long contentLength) {
+        response.setStatus(status);
+        for (Map.Entry<String, String> header : headers) {
+            response.addHeader(header.getKey(), header.getValue());
+        }
+        if (!hasContentType && defaultContentType != null) {
+            response.setContentType(defaultContentType);
+        }
+        if (contentEncoding != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+        }
+        response.setContentLengthLong(contentLength);
+    }
+
+    Variant select(String acceptEncoding) {
+        if (!StringUtils.hasText(acceptEncoding) || (gzip == null && deflate == null)) {
+            return identity;
+        }
+        Double gzipQuality = null;
+        Double deflateQuality = null;
+        Double wildcardQuality = null;
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.split(";");
+            double quality = quality(parts);
+            switch (parts[0].trim().toLowerCase(Locale.ROOT)) {
+                case "gzip", "x-gzip" -> gzipQuality = quality;
+                case "deflate" -> deflateQuality = quality;
+                case "*" -> wildcardQuality = quality;
+                default -> {
+                }
+            }
+        }
+        // 明示されていないエンコーディングは「*」の品質値に従う
+        double wildcard = wildcardQuality == null ? 0 : wildcardQuality;
+        gzipQuality = gzipQuality == null ? wildcard : gzipQuality;
+        deflateQuality = deflateQuality == null ? wildcard : deflateQuality;
+        if (gzip != null && gzipQuality > 0 && gzipQuality >= deflateQuality) {
+            return gzip;
+        }
+        if (deflate != null && deflateQuality > 0) {
+            return deflate;
+        }
+        return identity;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static Charset charsetOf(HttpHeaders headers) {
+        MediaType contentType = headers.getContentType();
+        if (contentType != null && contentType.getCharset() != null) {
+            return contentType.getCharset();
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private static ValueEscaper escaperOf(HttpHeaders headers) {
+        MediaType contentType = headers.getContentType();
+        if (contentType == null) {
+            return ValueEscaper.NONE;
+        }
+        String subtype = contentType.getSubtype();
+        if (subtype.equals("json") || subtype.endsWith("+json")) {
+            return ValueEscaper.JSON;
+        }
+        if (subtype.equals("xml") || subtype.endsWith("+xml")) {
+            return ValueEscaper.XML;
+        }
+        return ValueEscaper.NONE;
+    }
+
+    private static Variant compress(byte[] body, String contentEncoding) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 2);
+        try (OutputStream out = "gzip".equals(contentEncoding)
+                ? new GZIPOutputStream(buffer)
+                : new DeflaterOutputStream(buffer)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("レスポンスボディの圧縮に失敗", e);
+        }
+        byte[] compressed = buffer.toByteArray();
+        // 圧縮後の方が大きい場合はバリアントを作らない
+        return compressed.length < body.length ? new Variant(compressed, contentEncoding) : null;
+    }
+
+    record Variant(byte[] body, String contentEncoding) {
+    }
+}
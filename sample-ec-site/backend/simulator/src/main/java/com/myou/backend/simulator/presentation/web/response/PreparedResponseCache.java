@@ -0,0 +1,57 @@
+package com.myou.backend.simulator.presentation.web.response;
+
+import com.myou.backend.simulator.domain.model.BodyHandle;
+import com.myou.backend.simulator.domain.model.ResponseData;
+import com.myou.backend.simulator.infrastructure.body.MappedBody;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * レスポンスIDごとにエンコード済みのレスポンスを保持する。
+ * <p>
+ * ニアキャッシュは保存されるまで同じ {@link ResponseData} インスタンスを返すため、
+ * インスタンスが変わった(=保存・再読み込みされた)場合のみ作り直す。
+ * 削除・置き換えられたレスポンスデータのエンコード結果がヒープに残らないよう、ニアキャッシュの破棄に合わせて {@link #evict} する。
+ */
+public class PreparedResponseCache {
+
+    private final ConcurrentMap<String, PreparedResponse> preparedResponses = new ConcurrentHashMap<>();
+    private final Function<BodyHandle, MappedBody> bodyResolver;
+
+    public PreparedResponseCache() {
+        this(handle -> {
+            throw new IllegalStateException("ボディストアが設定されていない。key:" + handle.key());
+        });
+    }
+
+    /**
+     * @param bodyResolver ボディストアへの参照をマップしたボディに変換する
+     */
+    public PreparedResponseCache(Function<BodyHandle, MappedBody> bodyResolver) {
+        this.bodyResolver = bodyResolver;
+    }
+
+    public PreparedResponse get(ResponseData responseData) {
+        if (responseData.responseId() == null) {
+            return prepare(responseData);
+        }
+        PreparedResponse prepared = preparedResponses.get(responseData.responseId());
+        if (prepared != null && prepared.source() == responseData) {
+            return prepared;
+        }
+        prepared = prepare(responseData);
+        preparedResponses.put(responseData.responseId(), prepared);
+        return prepared;
+    }
+
+    public void evict(String responseId) {
+        preparedResponses.remove(responseId);
+    }
+
+    private PreparedResponse prepare(ResponseData responseData) {
+        return PreparedResponse.prepare(responseData,
+                responseData.bodyHandle() == null ? null : bodyResolver.apply(responseData.bodyHandle()));
+    }
+}
@@ -0,0 +1,133 @@
+package com.myou.backend.simulator.replay;
+
+import com.myou.backend.simulator.infrastructure.capture.CapturedRequest;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * キャプチャしたリクエストを到着時刻どおりのスケジュールで送信する(オープンループ)。
+ * <p>
+ * 送信はレスポンスを待たずに予定時刻に行い、レイテンシは実際の送信時刻ではなく予定時刻から計測する。
+ * 宛先が詰まって送信が遅れた分もレイテンシに含まれるため、協調的欠落(coordinated omission)で遅延が隠れない。
+ */
+public final class OpenLoopReplayer {
+
+    // HttpClientが設定を許可しないヘッダ、および宛先に合わせて付け直されるヘッダ
+    private static final Set<String> SKIPPED_HEADERS = Set.of("connection", "content-length", "expect", "host",
+            "upgrade", "transfer-encoding", "keep-alive", "te", "trailer", "http2-settings");
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final URI target;
+    private final double rateMultiplier;
+    private final Duration timeout;
+
+    /**
+     * @param target         送信先のベースURI。インターフェースIDはこの配下のパスとして付与する
+     * @param rateMultiplier 到着間隔に対する送信レートの倍率。1.0で記録時と同じレート
+     * @param timeout        1リクエストのタイムアウト
+     */
+    public OpenLoopReplayer(URI target, double rateMultiplier, Duration timeout) {
+        if (!(rateMultiplier > 0)) {
+            throw new IllegalArgumentException("rateMultiplier must be positive. rateMultiplier:" + rateMultiplier);
+        }
+        String base = target.toString();
+        this.target = URI.create(base.endsWith("/") ? base : base + "/");
+        this.rateMultiplier = rateMultiplier;
+        this.timeout = timeout;
+    }
+
+    public ReplayReport replay(List<CapturedRequest> capturedRequests) throws InterruptedException {
+        List<CapturedRequest> schedule = new ArrayList<>(capturedRequests);
+        schedule.sort(Comparator.comparingLong(CapturedRequest::arrivalNanos));
+
+        Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        AtomicLong errors = new AtomicLong();
+        AtomicLong statusMismatches = new AtomicLong();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>(schedule.size());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(timeout)
+                    .executor(executor)
+                    .build();
+            long firstArrival = schedule.isEmpty() ? 0 : schedule.getFirst().arrivalNanos();
+            long startNanos = System.nanoTime();
+            for (CapturedRequest capturedRequest : schedule) {
+                long intendedNanos = startNanos + (long) ((capturedRequest.arrivalNanos() - firstArrival) / rateMultiplier);
+                waitUntil(intendedNanos);
+                HttpRequest request = toHttpRequest(capturedRequest);
+                inFlight.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, error) -> {
+                            histogram.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS,
+                                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedNanos)));
+                            if (error != null) {
+                                errors.incrementAndGet();
+                            } else if (capturedRequest.statusCode() != 0
+                                    && response.statusCode() != capturedRequest.statusCode()) {
+                                statusMismatches.incrementAndGet();
+                            }
+                        }));
+            }
+            awaitAll(inFlight);
+            long elapsedNanos = System.nanoTime() - startNanos;
+            return new ReplayReport(schedule.size(), errors.get(), statusMismatches.get(), elapsedNanos, histogram);
+        }
+    }
+
+    HttpRequest toHttpRequest(CapturedRequest capturedRequest) {
+        String path = capturedRequest.interfaceId()
+                + (capturedRequest.queryString() == null ? "" : "?" + capturedRequest.queryString());
+        HttpRequest.Builder builder = HttpRequest.newBuilder(target.resolve(path)).timeout(timeout);
+        capturedRequest.headers().forEach((name, values) -> {
+            if (!SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                values.forEach(value -> builder.header(name, value));
+            }
+        });
+        HttpRequest.BodyPublisher body = capturedRequest.body() == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(capturedRequest.body());
+        return builder.method(capturedRequest.method(), body).build();
+    }
+
+    private void awaitAll(List<CompletableFuture<?>> inFlight) throws InterruptedException {
+        try {
+            // 各リクエストはタイムアウトで完了するため、全体の待機はその余裕を見た時間で打ち切る
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                    .get(timeout.toMillis() * 2 + 1000, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // 個々の失敗はエラー件数として数えている
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("送信中のリクエストが完了しない", e);
+        }
+    }
+
+    private static void waitUntil(long deadlineNanos) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.myou.backend.simulator.replay;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 再生結果。レイテンシはマイクロ秒で記録する。
+ *
+ * @param statusMismatches 記録時と異なるステータスコードが返った件数
+ */
+public record ReplayReport(long sent, long errors, long statusMismatches, long elapsedNanos, Histogram histogram) {
+
+    public double throughputPerSecond() {
+        return elapsedNanos == 0 ? 0 : sent * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    /**
+     * 集計とHdrHistogramのパーセンタイル分布(ミリ秒)を出力する。
+     */
+    public void print(PrintStream out) {
+        out.printf("sent=%d errors=%d statusMismatches=%d elapsed=%.3fs throughput=%.1f/s%n",
+                sent, errors, statusMismatches, elapsedNanos / 1e9, throughputPerSecond());
+        out.printf("latency(ms) p50=%.3f p90=%.3f p99=%.3f p99.9=%.3f max=%.3f%n",
+                percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(99.9),
+                histogram.getMaxValue() / 1000.0);
+        histogram.outputPercentileDistribution(out, 1000.0);
+    }
+
+    private double percentileMillis(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
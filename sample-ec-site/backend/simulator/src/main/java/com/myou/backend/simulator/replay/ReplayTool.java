@@ -0,0 +1,63 @@
+package com.myou.backend.simulator.replay;
+
+import com.myou.backend.simulator.infrastructure.capture.CaptureFile;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * キャプチャファイルを任意の宛先に再生し、レイテンシの分布を出力するコマンドラインツール。
+ * <pre>
+ * ReplayTool &lt;キャプチャファイル&gt; &lt;送信先のベースURL&gt; [--rate 倍率] [--timeout-seconds 秒] [--hlog 出力ファイル]
+ * </pre>
+ * {@code --hlog} を指定した場合はHdrHistogramのログ形式でも書き出す。
+ */
+public final class ReplayTool {
+
+    private ReplayTool() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("usage: ReplayTool <capture-file> <target-base-url> [--rate <multiplier>] "
+                    + "[--timeout-seconds <seconds>] [--hlog <file>]");
+            System.exit(2);
+        }
+        Path captureFile = Path.of(args[0]);
+        URI target = URI.create(args[1]);
+        double rate = 1.0;
+        Duration timeout = Duration.ofSeconds(30);
+        Path hlog = null;
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--rate" -> rate = Double.parseDouble(args[i + 1]);
+                case "--timeout-seconds" -> timeout = Duration.ofSeconds(Long.parseLong(args[i + 1]));
+                case "--hlog" -> hlog = Path.of(args[i + 1]);
+                default -> throw new IllegalArgumentException("unknown option: " + args[i]);
+            }
+        }
+
+        CaptureFile.Contents contents;
+        try (InputStream in = Files.newInputStream(captureFile)) {
+            contents = CaptureFile.read(in);
+        }
+        System.out.printf("replaying %d requests to %s at x%.2f%n", contents.requests().size(), target, rate);
+        ReplayReport report = new OpenLoopReplayer(target, rate, timeout).replay(contents.requests());
+        report.print(System.out);
+
+        if (hlog != null) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(hlog))) {
+                HistogramLogWriter writer = new HistogramLogWriter(out);
+                writer.outputLogFormatVersion();
+                writer.outputLegend();
+                writer.outputIntervalHistogram(report.histogram());
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.myou.backend.simulator;
+
+import com.myou.backend.simulator.domain.model.HttpStatus;
+import com.myou.backend.simulator.domain.model.JsonPointerContent;
+import com.myou.backend.simulator.domain.model.ResponseData;
+import com.myou.backend.simulator.domain.model.XmlPath;
+import com.myou.backend.simulator.domain.model.XmlPathContent;
+import com.myou.backend.simulator.infrastructure.cache.DefinitionCache;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * リクエスト処理の経路で仮想スレッドがキャリアスレッドに固定(pin)されないことを、JFRのイベントで確認する。
+ */
+class VirtualThreadPinningTest {
+
+    private static final int TASKS = 200;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void requestPath_notPinned() throws Exception {
+        DefinitionCache definitionCache = new DefinitionCache();
+        XmlPath simplePath = XmlPath.compile("/root/id");
+        XmlPath complexPath = XmlPath.compile("//id");
+
+        List<RecordedEvent> pinnedEvents = record(() -> {
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < TASKS; i++) {
+                    String responseId = "responseId" + (i % 10);
+                    futures.add(executor.submit(() -> {
+                        // ストレージからの読み込みを模してブロックする
+                        definitionCache.getResponseData(responseId, id -> {
+                            sleep();
+                            return Optional.of(new ResponseData(id, null, "body", HttpStatus.ok()));
+                        });
+                        JsonPointerContent.read(utf8("{\"id\":\"1\"}"), Set.of("/id"));
+                        XmlPathContent.read(utf8("<root><id>1</id></root>"), List.of(simplePath));
+                        XmlPathContent.read(utf8("<root><id>1</id></root>"), List.of(complexPath));
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+        });
+
+        Assertions.assertThat(pinnedEvents).isEmpty();
+    }
+
+    private List<RecordedEvent> record(ThrowingRunnable runnable) throws Exception {
+        Path file = tempDir.resolve("pinning.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            runnable.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("jdk.VirtualThreadPinned"))
+                .toList();
+    }
+
+    private static ByteArrayInputStream utf8(String value) {
+        return new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
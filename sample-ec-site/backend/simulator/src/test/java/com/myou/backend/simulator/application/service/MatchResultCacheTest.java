@@ -0,0 +1,51 @@
+package com.myou.backend.simulator.application.service;
+
+import com.myou.backend.simulator.domain.model.ConditionMatcher;
+import com.myou.backend.simulator.domain.model.DomainModelUtils;
+import com.myou.backend.simulator.domain.model.FormDataContent;
+import com.myou.backend.simulator.domain.model.RequestData;
+import com.myou.backend.simulator.domain.model.ResponseIdCondition;
+import com.myou.backend.simulator.infrastructure.metrics.SimulatorMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class MatchResultCacheTest {
+
+    private final SimulatorMetrics.InterfaceMetrics metrics =
+            new SimulatorMetrics(new SimpleMeterRegistry(), 10, 10).forInterface("interfaceId1");
+
+    @Test
+    void searchCondition_bounded() {
+        MatchResultCache target = new MatchResultCache(2);
+        ConditionMatcher matcher = ConditionMatcher.compile(DomainModelUtils.getConditionEntry());
+
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertThat(target.searchCondition(matcher, request("value" + i), metrics)
+                    .map(ResponseIdCondition::responseId)).isEqualTo(
+                    i == 1 ? Optional.of("responseId1") : Optional.empty());
+        }
+
+        Assertions.assertThat(target.size("interfaceId1")).isEqualTo(2);
+    }
+
+    @Test
+    void searchCondition_matcherChanged() {
+        MatchResultCache target = new MatchResultCache(10);
+        target.searchCondition(ConditionMatcher.compile(DomainModelUtils.getConditionEntry()), request("value1"), metrics);
+        target.searchCondition(ConditionMatcher.compile(DomainModelUtils.getConditionEntry()), request("value2"), metrics);
+
+        // マッチャーが作り直された場合は以前の結果を捨てる
+        Assertions.assertThat(target.size("interfaceId1")).isEqualTo(1);
+        Assertions.assertThat(metrics.statistics().matchCacheHitRatio()).isZero();
+    }
+
+    private static RequestData request(String contentValue) {
+        return new RequestData("interfaceId1", Map.of("header1", List.of("value1")),
+                new FormDataContent(Map.of("key1", List.of(contentValue))));
+    }
+}
@@ -0,0 +1,172 @@
+package com.myou.backend.simulator.application.service;
+
+import com.myou.backend.simulator.application.repository.ConditionEntryRepository;
+import com.myou.backend.simulator.application.repository.ResponseDataRepository;
+import com.myou.backend.simulator.application.upstream.UpstreamClient;
+import com.myou.backend.simulator.application.upstream.UpstreamRequest;
+import com.myou.backend.simulator.domain.model.JsonPointerContent;
+import com.myou.backend.simulator.domain.model.RequestData;
+import com.myou.backend.simulator.domain.model.ResponseData;
+import com.myou.backend.simulator.infrastructure.metrics.SimulatorMetrics;
+import com.myou.backend.simulator.infrastructure.proxy.UpstreamClientImpl;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+@SpringBootTest
+class RecordThroughProxyTest {
+
+    @Autowired
+    private ConditionEntryRepository conditionEntryRepository;
+
+    @Autowired
+    private ResponseDataRepository responseDataRepository;
+
+    private final SimulatorMetrics simulatorMetrics = new SimulatorMetrics(new SimpleMeterRegistry(), 10, 10);
+    private final Queue<String> received = new ConcurrentLinkedQueue<>();
+    private HttpServer upstream;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.createContext("/api/", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            received.add(exchange.getRequestMethod() + " " + exchange.getRequestURI() + " " + body);
+            String path = exchange.getRequestURI().getPath();
+            boolean binary = path.endsWith("binary") || path.endsWith("malformed");
+            byte[] response = binary
+                    ? new byte[]{(byte) 0x89, 'P', 'N', 'G', (byte) 0xff, (byte) 0xfe}
+                    : ("{\"echo\":" + body + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", path.endsWith("binary") ? "image/png" : "application/json");
+            exchange.getResponseHeaders().add("X-Upstream", "stub");
+            exchange.sendResponseHeaders(exchange.getRequestURI().getPath().endsWith("broken") ? 503 : 200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        upstream.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        upstream.stop(0);
+    }
+
+    @Test
+    void processRequest_recordThrough() {
+        SimulatorServiceImpl target = newService();
+
+        ResponseData first = target.processRequest(requestData("proxyInterface1", "{\"id\":\"1\"}"),
+                upstreamRequest("{\"id\":\"1\"}"));
+        ResponseData second = target.processRequest(requestData("proxyInterface1", "{\"id\":\"1\"}"),
+                upstreamRequest("{\"id\":\"1\"}"));
+        ResponseData other = target.processRequest(requestData("proxyInterface1", "{\"id\":\"2\"}"),
+                upstreamRequest("{\"id\":\"2\"}"));
+
+        // 同じ属性の値のリクエストは記録した応答をローカルで返す
+        Assertions.assertThat(received).containsExactly(
+                "POST /api/proxyInterface1?mode=test {\"id\":\"1\"}",
+                "POST /api/proxyInterface1?mode=test {\"id\":\"2\"}");
+        Assertions.assertThat(first.responseBody()).isEqualTo("{\"echo\":{\"id\":\"1\"}}");
+        Assertions.assertThat(first.responseHeaders().keySet()).map(name -> name.toLowerCase(Locale.ROOT))
+                .contains("x-upstream", "content-type")
+                .doesNotContain("content-length", "date");
+        Assertions.assertThat(second).isEqualTo(first);
+        Assertions.assertThat(other.responseBody()).isEqualTo("{\"echo\":{\"id\":\"2\"}}");
+        Assertions.assertThat(conditionEntryRepository.findByInterfaceId("proxyInterface1").orElseThrow()
+                .responseIdConditions()).hasSize(2);
+        Assertions.assertThat(simulatorMetrics.forInterface("proxyInterface1").statistics().matched()).isEqualTo(1);
+    }
+
+    @Test
+    void processRequest_serverError() {
+        SimulatorServiceImpl target = newService();
+
+        ResponseData actual = target.processRequest(requestData("broken", "{\"id\":\"1\"}"), upstreamRequest("{\"id\":\"1\"}"));
+
+        // 5xxは返却のみ行い記録しない
+        Assertions.assertThat(actual.statusCode().value()).isEqualTo(503);
+        Assertions.assertThat(conditionEntryRepository.findByInterfaceId("broken")).isEmpty();
+        Assertions.assertThat(responseDataRepository.findByResponseId(actual.responseId())).isEmpty();
+    }
+
+    @Test
+    void processRequest_notText() {
+        SimulatorServiceImpl target = newService();
+
+        // 文字列に変換すると元のバイト列に戻せないため記録しない
+        for (String interfaceId : List.of("binary", "malformed")) {
+            ResponseData actual = target.processRequest(requestData(interfaceId, "{\"id\":\"1\"}"), upstreamRequest("{\"id\":\"1\"}"));
+
+            Assertions.assertThat(actual.statusCode().value()).isEqualTo(200);
+            Assertions.assertThat(conditionEntryRepository.findByInterfaceId(interfaceId)).isEmpty();
+            Assertions.assertThat(responseDataRepository.findByResponseId(actual.responseId())).isEmpty();
+        }
+    }
+
+    @Test
+    void processRequest_placeholderBody() {
+        SimulatorServiceImpl target = newService();
+
+        String body = "{\"id\":\"${header:x-tenant}\"}";
+        ResponseData actual = target.processRequest(requestData("proxyInterface4", body), upstreamRequest(body));
+
+        // 上流の応答はテンプレートとして保存しないため、プレースホルダの形式を含んでも記録してそのまま返す
+        Assertions.assertThat(actual.template()).isFalse();
+        Assertions.assertThat(actual.responseTemplate()).isEmpty();
+        Assertions.assertThat(responseDataRepository.findByResponseId(actual.responseId()).orElseThrow().responseBody())
+                .isEqualTo("{\"echo\":" + body + "}");
+    }
+
+    @Test
+    void processRequest_disabled() {
+        SimulatorServiceImpl target = new SimulatorServiceImpl(conditionEntryRepository, responseDataRepository,
+                simulatorMetrics, 1024);
+
+        Assertions.assertThat(target.recordThroughEnabled()).isFalse();
+        Assertions.assertThatThrownBy(() -> target.processRequest(requestData("proxyInterface2", "{}"), upstreamRequest("{}")))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThat(received).isEmpty();
+    }
+
+    @Test
+    void findContentKeys() {
+        SimulatorServiceImpl target = newService();
+
+        Assertions.assertThat(target.findContentKeys("proxyInterface3")).containsExactly("/id");
+    }
+
+    private SimulatorServiceImpl newService() {
+        UpstreamClient upstreamClient = new UpstreamClientImpl("http://127.0.0.1:" + upstream.getAddress().getPort() + "/api/",
+                Duration.ofSeconds(5), Duration.ofSeconds(5));
+        RecordThroughProxy proxy = new RecordThroughProxy(upstreamClient, responseDataRepository, conditionEntryRepository,
+                List.of("X-Tenant"), List.of("/id"));
+        return new SimulatorServiceImpl(conditionEntryRepository, responseDataRepository, simulatorMetrics, 1024, 10000, proxy);
+    }
+
+    private static RequestData requestData(String interfaceId, String body) {
+        return new RequestData(interfaceId, Map.of("x-tenant", List.of("t1")),
+                JsonPointerContent.read(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), Set.of("/id")));
+    }
+
+    private static UpstreamRequest upstreamRequest(String body) {
+        return new UpstreamRequest("POST", "mode=test",
+                Map.of("x-tenant", List.of("t1"), "Content-Type", List.of("application/json"), "Host", List.of("simulator")),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
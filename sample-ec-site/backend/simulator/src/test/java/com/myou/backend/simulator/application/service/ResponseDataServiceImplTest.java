@@ -3,11 +3,20 @@ package com.myou.backend.simulator.application.service;
 import com.myou.backend.simulator.application.repository.ResponseDataRepository;
 import com.myou.backend.simulator.domain.model.HttpStatus;
 import com.myou.backend.simulator.domain.model.ResponseData;
+import com.myou.backend.simulator.infrastructure.body.MappedBodyStore;
+import com.myou.backend.simulator.infrastructure.cache.DefinitionCache;
+import com.myou.backend.simulator.infrastructure.cache.DefinitionChangeNotifier;
+import com.myou.backend.simulator.infrastructure.repository.ResponseDataRepositoryImpl;
+import com.myou.backend.simulator.infrastructure.storage.ResponseDataStorage;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.util.unit.DataSize;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -18,6 +27,18 @@ class ResponseDataServiceImplTest {
     @Autowired
     private ResponseDataRepository responseDataRepository;
 
+    @Autowired
+    private ResponseDataStorage responseDataStorage;
+
+    @Autowired
+    private DefinitionCache definitionCache;
+
+    @Autowired
+    private DefinitionChangeNotifier definitionChangeNotifier;
+
+    @TempDir
+    Path directory;
+
     @Test
     void saveResponseData() {
 
@@ -70,4 +91,55 @@ class ResponseDataServiceImplTest {
 
         Assertions.assertThat(actual).containsAll(responseDataList);
     }
+
+    @Test
+    void getResponseData_offloadedBody() {
+        ResponseDataServiceImpl target = new ResponseDataServiceImpl(offloadingRepository());
+        String body = "x".repeat(32);
+        target.saveResponseData(new ResponseData("offloadResponseId1", null, body, HttpStatus.ok()));
+
+        // 定義の参照ではボディストアに置いたボディを読み込んで返す
+        Assertions.assertThat(target.getResponseDataById("offloadResponseId1"))
+                .map(ResponseData::responseBody)
+                .contains(body);
+        Assertions.assertThat(target.getAllResponseData())
+                .filteredOn(responseData -> responseData.responseId().equals("offloadResponseId1"))
+                .extracting(ResponseData::responseBody)
+                .containsExactly(body);
+
+        // ボディのファイルは一時ディレクトリにあるため、他のテストの参照から外す
+        target.deleteResponseData("offloadResponseId1");
+    }
+
+    @Test
+    void deleteResponseData_offloadedBody() {
+        ResponseDataRepository repository = offloadingRepository();
+        ResponseDataServiceImpl target = new ResponseDataServiceImpl(repository);
+        target.saveAllResponseData(List.of(
+                new ResponseData("offloadResponseId2", null, "y".repeat(32), HttpStatus.ok()),
+                new ResponseData("offloadResponseId3", null, "y".repeat(32), HttpStatus.ok())));
+        Path shared = bodyFileOf(repository, "offloadResponseId2");
+
+        // 同じ内容のボディを参照するレスポンスデータが残っている間はファイルを残す
+        target.deleteResponseData("offloadResponseId2");
+        Assertions.assertThat(Files.exists(shared)).isTrue();
+
+        target.saveResponseData(new ResponseData("offloadResponseId3", null, "z".repeat(32), HttpStatus.ok()));
+        Assertions.assertThat(Files.exists(shared)).isFalse();
+
+        Path overwritten = bodyFileOf(repository, "offloadResponseId3");
+        target.deleteResponseData("offloadResponseId3");
+        Assertions.assertThat(Files.exists(overwritten)).isFalse();
+    }
+
+    private ResponseDataRepository offloadingRepository() {
+        return new ResponseDataRepositoryImpl(responseDataStorage, definitionCache, definitionChangeNotifier,
+                new MappedBodyStore(true, directory, DataSize.ofBytes(16)));
+    }
+
+    private Path bodyFileOf(ResponseDataRepository repository, String responseId) {
+        Path file = directory.resolve(repository.findByResponseId(responseId).orElseThrow().bodyHandle().key() + ".body");
+        Assertions.assertThat(Files.exists(file)).isTrue();
+        return file;
+    }
 }
@@ -0,0 +1,143 @@
+package com.myou.backend.simulator.application.service;
+
+import com.myou.backend.simulator.domain.model.ConditionEntry;
+import com.myou.backend.simulator.domain.model.ConditionMatcher;
+import com.myou.backend.simulator.domain.model.RequestData;
+import com.myou.backend.simulator.domain.model.ResponseIdCondition;
+import com.myou.backend.simulator.domain.model.scenario.Scenario;
+import com.myou.backend.simulator.domain.policy.ConditionPolicy;
+import com.myou.backend.simulator.domain.type.RuleTarget;
+import com.myou.backend.simulator.domain.type.ScenarioMode;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+class ScenarioStatesTest {
+
+    @Test
+    void responseIdOf_sequence() {
+        ScenarioStates target = new ScenarioStates(10);
+        ConditionMatcher matcher = matcher(new Scenario(ScenarioMode.SEQUENCE,
+                List.of(new Scenario.Step("pending"), new Scenario.Step("done"))));
+
+        Assertions.assertThat(call(target, matcher, null, 4)).containsExactly("pending", "done", "done", "done");
+    }
+
+    @Test
+    void responseIdOf_roundRobinPerKey() {
+        ScenarioStates target = new ScenarioStates(10);
+        ConditionMatcher matcher = matcher(new Scenario(ScenarioMode.ROUND_ROBIN,
+                List.of(new Scenario.Step("r1"), new Scenario.Step("r2")), RuleTarget.REQUEST_HEADER, "X-Correlation-Id"));
+
+        Assertions.assertThat(call(target, matcher, "a", 3)).containsExactly("r1", "r2", "r1");
+        Assertions.assertThat(call(target, matcher, "b", 1)).containsExactly("r1");
+        Assertions.assertThat(target.size("interfaceId1")).isEqualTo(2);
+    }
+
+    @Test
+    void responseIdOf_weightedRandom() {
+        ScenarioStates target = new ScenarioStates(10);
+        ConditionMatcher matcher = matcher(new Scenario(ScenarioMode.WEIGHTED_RANDOM,
+                List.of(new Scenario.Step("never", 0), new Scenario.Step("always", 5))));
+
+        // 状態を持たない
+        Assertions.assertThat(call(target, matcher, null, 20)).containsOnly("always");
+        Assertions.assertThat(target.size("interfaceId1")).isZero();
+    }
+
+    @Test
+    void responseIdOf_concurrent() throws Exception {
+        ScenarioStates target = new ScenarioStates(10);
+        ConditionMatcher matcher = matcher(new Scenario(ScenarioMode.ROUND_ROBIN,
+                List.of(new Scenario.Step("r1"), new Scenario.Step("r2"), new Scenario.Step("r3"))));
+        int threads = 8;
+        int callsPerThread = 3000;
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return call(target, matcher, null, callsPerThread);
+                }));
+            }
+            start.countDown();
+            List<String> all = new ArrayList<>();
+            for (Future<List<String>> future : futures) {
+                all.addAll(future.get());
+            }
+
+            // 同時に呼び出しても位置を取りこぼさず、各ステップを同じ回数返す
+            Assertions.assertThat(all.stream().collect(Collectors.groupingBy(Function.identity(), Collectors.counting())))
+                    .containsOnly(Map.entry("r1", 8000L), Map.entry("r2", 8000L), Map.entry("r3", 8000L));
+        }
+    }
+
+    @Test
+    void responseIdOf_conditionEntryChanged() {
+        ScenarioStates target = new ScenarioStates(10);
+        Scenario scenario = new Scenario(ScenarioMode.SEQUENCE, List.of(new Scenario.Step("s1"), new Scenario.Step("s2")));
+        call(target, matcher(scenario), null, 1);
+
+        // マッチャーが作り直されただけであれば状態を引き継ぐ
+        Assertions.assertThat(call(target, matcher(scenario), null, 1)).containsExactly("s2");
+
+        // 条件エントリの内容が変わった場合は最初のステップに戻る
+        Scenario changed = new Scenario(ScenarioMode.SEQUENCE, List.of(new Scenario.Step("s1"), new Scenario.Step("s3")));
+        Assertions.assertThat(call(target, matcher(changed), null, 2)).containsExactly("s1", "s3");
+    }
+
+    @Test
+    void responseIdOf_bounded() {
+        ScenarioStates target = new ScenarioStates(2);
+        ConditionMatcher matcher = matcher(new Scenario(ScenarioMode.SEQUENCE,
+                List.of(new Scenario.Step("s1"), new Scenario.Step("s2")), RuleTarget.REQUEST_HEADER, "X-Correlation-Id"));
+
+        for (int i = 0; i < 5; i++) {
+            call(target, matcher, "key" + i, 1);
+        }
+
+        Assertions.assertThat(target.size("interfaceId1")).isEqualTo(2);
+    }
+
+    @Test
+    void reset() {
+        ScenarioStates target = new ScenarioStates(10);
+        ConditionMatcher matcher = matcher(new Scenario(ScenarioMode.SEQUENCE,
+                List.of(new Scenario.Step("s1"), new Scenario.Step("s2")), RuleTarget.REQUEST_HEADER, "X-Correlation-Id"));
+        call(target, matcher, "a", 1);
+        call(target, matcher, "b", 1);
+
+        Assertions.assertThat(target.reset("interfaceId1")).isEqualTo(2);
+        Assertions.assertThat(target.reset("interfaceId1")).isZero();
+        Assertions.assertThat(call(target, matcher, "a", 1)).containsExactly("s1");
+        Assertions.assertThat(target.resetAll()).isEqualTo(1);
+    }
+
+    private static ConditionMatcher matcher(Scenario scenario) {
+        return ConditionMatcher.compile(new ConditionEntry("interfaceId1", List.of(
+                new ResponseIdCondition(null, new ConditionPolicy(List.of()), scenario))));
+    }
+
+    private static List<String> call(ScenarioStates target, ConditionMatcher matcher, String correlationId, int times) {
+        RequestData requestData = new RequestData("interfaceId1",
+                correlationId == null ? Map.of() : Map.of("X-Correlation-Id", List.of(correlationId)), null);
+        ResponseIdCondition condition = matcher.conditionEntry().responseIdConditions().get(0);
+        List<String> responseIds = new ArrayList<>();
+        for (int i = 0; i < times; i++) {
+            responseIds.add(target.responseIdOf(matcher, condition, requestData));
+        }
+        return Collections.unmodifiableList(responseIds);
+    }
+}
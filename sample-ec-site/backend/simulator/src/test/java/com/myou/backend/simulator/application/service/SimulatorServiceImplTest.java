@@ -3,10 +3,15 @@ package com.myou.backend.simulator.application.service;
 import com.myou.backend.simulator.application.repository.ConditionEntryRepository;
 import com.myou.backend.simulator.application.repository.ResponseDataRepository;
 import com.myou.backend.simulator.domain.model.*;
+import com.myou.backend.simulator.domain.model.scenario.Scenario;
 import com.myou.backend.simulator.domain.policy.ConditionPolicy;
 import com.myou.backend.simulator.domain.policy.rule.ConditionRule;
 import com.myou.backend.simulator.domain.policy.rule.RequestContentConditionRule;
 import com.myou.backend.simulator.domain.policy.rule.RequestHeaderConditionRule;
+import com.myou.backend.simulator.domain.type.RuleTarget;
+import com.myou.backend.simulator.domain.type.ScenarioMode;
+import com.myou.backend.simulator.infrastructure.metrics.SimulatorMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.Assertions;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
@@ -25,6 +30,8 @@ class SimulatorServiceImplTest {
     @Autowired
     private ResponseDataRepository responseDataRepository;
 
+    private final SimulatorMetrics simulatorMetrics = new SimulatorMetrics(new SimpleMeterRegistry(), 10, 10);
+
     @Test
     void processRequest_success() {
 
@@ -36,7 +43,7 @@ class SimulatorServiceImplTest {
                 HttpStatus.ok());
         responseDataRepository.save(responseData);
 
-        SimulatorServiceImpl target = new SimulatorServiceImpl(conditionEntryRepository, responseDataRepository);
+        SimulatorServiceImpl target = new SimulatorServiceImpl(conditionEntryRepository, responseDataRepository, simulatorMetrics, 1024);
 
         RequestData requestData = new RequestData("interfaceId1",
                 Map.of("header1", List.of("value1")),
@@ -46,6 +53,7 @@ class SimulatorServiceImplTest {
 
         Assertions.assertThat(actual.responseBody()).isEqualTo("success");
         Assertions.assertThat(actual.statusCode()).isEqualTo(HttpStatus.ok());
+        Assertions.assertThat(simulatorMetrics.forInterface("interfaceId1").statistics().matched()).isEqualTo(1);
 
     }
 
@@ -60,7 +68,7 @@ class SimulatorServiceImplTest {
                 HttpStatus.ok());
         responseDataRepository.save(responseData);
 
-        SimulatorServiceImpl target = new SimulatorServiceImpl(conditionEntryRepository, responseDataRepository);
+        SimulatorServiceImpl target = new SimulatorServiceImpl(conditionEntryRepository, responseDataRepository, simulatorMetrics, 1024);
 
         RequestData requestData = new RequestData("fail1",
                 Map.of("header1", List.of("value1")),
@@ -69,6 +77,10 @@ class SimulatorServiceImplTest {
         Assertions.assertThatThrownBy(() -> target.processRequest(requestData))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("インターフェースIDの条件エントリが存在しない");
+        // 存在しないインターフェースIDは固定のタグにまとめ、個別には記録しない
+        Assertions.assertThat(simulatorMetrics.unknownInterface().statistics().unmatched()).isEqualTo(1);
+        Assertions.assertThat(simulatorMetrics.interfaces()).extracting(SimulatorMetrics.InterfaceMetrics::interfaceId)
+                .doesNotContain("fail1");
 
     }
 
@@ -83,7 +95,7 @@ class SimulatorServiceImplTest {
                 HttpStatus.ok());
         responseDataRepository.save(responseData);
 
-        SimulatorServiceImpl target = new SimulatorServiceImpl(conditionEntryRepository, responseDataRepository);
+        SimulatorServiceImpl target = new SimulatorServiceImpl(conditionEntryRepository, responseDataRepository, simulatorMetrics, 1024);
 
         RequestData requestData = new RequestData("interfaceId1",
                 Map.of("header1", List.of("value1")),
@@ -92,6 +104,7 @@ class SimulatorServiceImplTest {
         Assertions.assertThatThrownBy(() -> target.processRequest(requestData))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("またはリクエストの内容が条件に一致しない");
+        Assertions.assertThat(simulatorMetrics.forInterface("interfaceId1").statistics().unmatched()).isEqualTo(1);
 
     }
 
@@ -99,8 +112,10 @@ class SimulatorServiceImplTest {
     void processRequest_failure3() {
 
         conditionEntryRepository.save(getConditionEntry2());
+        // 同じコンテキストを共有する他のテストが保存したレスポンスデータを削除する
+        responseDataRepository.deleteByResponseId("responseId2");
 
-        SimulatorServiceImpl target = new SimulatorServiceImpl(conditionEntryRepository, responseDataRepository);
+        SimulatorServiceImpl target = new SimulatorServiceImpl(conditionEntryRepository, responseDataRepository, simulatorMetrics, 1024);
 
         RequestData requestData = new RequestData("interfaceId2",
                 Map.of("header2", List.of("value2")),
@@ -113,6 +128,69 @@ class SimulatorServiceImplTest {
     }
 
 
+    @Test
+    void processRequest_matchCache() {
+
+        conditionEntryRepository.save(new ConditionEntry("interfaceId3", List.of(
+                new ResponseIdCondition("responseId3", new ConditionPolicy(List.of(
+                        new RequestHeaderConditionRule("header3", "value3")))))));
+        responseDataRepository.save(new ResponseData("responseId3", Map.of(), "success3", HttpStatus.ok()));
+        responseDataRepository.save(new ResponseData("responseId4", Map.of(), "success4", HttpStatus.ok()));
+
+        SimulatorServiceImpl target = new SimulatorServiceImpl(conditionEntryRepository, responseDataRepository, simulatorMetrics, 1024);
+
+        // 条件が参照しないヘッダ・ボディの値は結果に影響しないため、同じ結果を再利用する
+        for (int i = 0; i < 3; i++) {
+            RequestData requestData = new RequestData("interfaceId3",
+                    Map.of("header3", List.of("value3"), "X-Request-Id", List.of("id" + i)),
+                    new JsonContent("{\"seq\": " + i + "}"));
+            Assertions.assertThat(target.processRequest(requestData).responseId()).isEqualTo("responseId3");
+        }
+        Assertions.assertThat(simulatorMetrics.forInterface("interfaceId3").statistics().matchCacheHitRatio())
+                .isEqualTo(2.0 / 3);
+
+        // 条件エントリを保存し直した場合は以前の結果を使わない
+        conditionEntryRepository.save(new ConditionEntry("interfaceId3", List.of(
+                new ResponseIdCondition("responseId4", new ConditionPolicy(List.of(
+                        new RequestHeaderConditionRule("header3", "value3")))))));
+        RequestData requestData = new RequestData("interfaceId3",
+                Map.of("header3", List.of("value3")),
+                new JsonContent("{}"));
+        Assertions.assertThat(target.processRequest(requestData).responseId()).isEqualTo("responseId4");
+    }
+
+    @Test
+    void processRequest_scenario() {
+
+        conditionEntryRepository.save(new ConditionEntry("interfaceId5", List.of(
+                new ResponseIdCondition(null, new ConditionPolicy(List.of(
+                        new RequestHeaderConditionRule("header5", "value5"))),
+                        new Scenario(ScenarioMode.SEQUENCE,
+                                List.of(new Scenario.Step("pending5"), new Scenario.Step("pending5"), new Scenario.Step("done5")),
+                                RuleTarget.REQUEST_HEADER, "X-Correlation-Id")))));
+        responseDataRepository.save(new ResponseData("pending5", Map.of(), "PENDING", HttpStatus.ok()));
+        responseDataRepository.save(new ResponseData("done5", Map.of(), "DONE", HttpStatus.ok()));
+
+        SimulatorServiceImpl target = new SimulatorServiceImpl(conditionEntryRepository, responseDataRepository, simulatorMetrics, 1024);
+
+        // 一致結果のキャッシュを使っても、相関ID毎に呼び出し回数に応じたレスポンスを返す
+        Assertions.assertThat(List.of(
+                        scenarioRequest(target, "a"), scenarioRequest(target, "a"), scenarioRequest(target, "b"),
+                        scenarioRequest(target, "a"), scenarioRequest(target, "a")))
+                .containsExactly("PENDING", "PENDING", "PENDING", "DONE", "DONE");
+
+        Assertions.assertThat(target.resetScenarios("interfaceId5")).isEqualTo(2);
+        Assertions.assertThat(scenarioRequest(target, "a")).isEqualTo("PENDING");
+        Assertions.assertThat(target.resetScenarios(null)).isEqualTo(1);
+    }
+
+    private static String scenarioRequest(SimulatorServiceImpl target, String correlationId) {
+        RequestData requestData = new RequestData("interfaceId5",
+                Map.of("header5", List.of("value5"), "X-Correlation-Id", List.of(correlationId)),
+                new JsonContent("{}"));
+        return target.processRequest(requestData).responseBody();
+    }
+
     @NotNull
     public static ConditionEntry getConditionEntry() {
         List<ConditionRule> rules = List.of(
@@ -0,0 +1,148 @@
+package com.myou.backend.simulator.benchmark;
+
+import com.myou.backend.simulator.SimulatorApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 同時接続を維持したまま、プラットフォームスレッドと仮想スレッドで捌ける件数と使用スレッド数を比較する。
+ * <ul>
+ *     <li>slowBody: ヘッダを送った後、ボディを送るまで {@link #CLIENT_PAUSE} だけ送信を止めるクライアント。
+ *     サーブレットはボディの読み込みでブロックする</li>
+ *     <li>latency: {@link #INJECTED_LATENCY_MILLIS} の遅延を指定したインターフェース</li>
+ * </ul>
+ * 経過時間・スループットと、計測中のプラットフォームスレッド数のピークを出力する。
+ * <p>
+ * 通常のテストからは除外している。{@code ./gradlew :simulator:benchmark} で実行する。
+ */
+@Tag("benchmark")
+class ConcurrentConnectionBenchmark {
+
+    private static final int CONNECTIONS = 1000;
+    private static final Duration CLIENT_PAUSE = Duration.ofSeconds(1);
+    private static final long INJECTED_LATENCY_MILLIS = 1000;
+    private static final String BODY = "{\"id\":\"benchmark\"}";
+
+    @Test
+    void platformThreads() throws Exception {
+        run(false);
+    }
+
+    @Test
+    void virtualThreads() throws Exception {
+        run(true);
+    }
+
+    private void run(boolean virtualThreads) throws Exception {
+        try (var context = (ServletWebServerApplicationContext) new SpringApplicationBuilder(SimulatorApplication.class)
+                // テスト用のログ設定(debug)より優先させるため、コマンドライン引数で指定する
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--logback.access.enabled=false",
+                        "--logging.level.web=info",
+                        // リクエスト毎のログ出力(コンソールへの書き込み)が律速にならないよう抑止する
+                        "--logging.level.com.myou.backend.simulator.filter=warn",
+                        "--management.tracing.enabled=false")) {
+            int port = context.getWebServer().getPort();
+            register(port);
+
+            measure("slowBody", virtualThreads, () -> client(port, "benchmark", CLIENT_PAUSE));
+            measure("latency", virtualThreads, () -> client(port, "benchmark-latency", Duration.ZERO));
+        }
+    }
+
+    private static void measure(String scenario, boolean virtualThreads, Callable<Boolean> client) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        long start = System.nanoTime();
+        int succeeded = 0;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < CONNECTIONS; i++) {
+                results.add(clients.submit(client));
+            }
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    succeeded++;
+                }
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        System.out.printf("[benchmark] scenario=%s virtualThreads=%s connections=%d succeeded=%d elapsed=%dms " +
+                        "throughput=%.1f req/s peakPlatformThreads=%d%n",
+                scenario, virtualThreads, CONNECTIONS, succeeded, elapsed.toMillis(),
+                succeeded * 1000.0 / elapsed.toMillis(), threads.getPeakThreadCount());
+    }
+
+    private static void register(int port) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        post(client, port, "/api/responses/benchmark",
+                "{\"responseId\":\"benchmark\",\"responseBody\":\"{\\\"result\\\":\\\"ok\\\"}\",\"statusCode\":200}");
+        post(client, port, "/api/conditions",
+                "{\"interfaceId\":\"benchmark\",\"responseIdConditions\":[{\"responseId\":\"benchmark\",\"policy\":{\"rules\":" +
+                        "[{\"type\":\"REQUEST_CONTENT\",\"key\":\"/id\",\"expectedValue\":\"benchmark\"}]}}]}");
+        post(client, port, "/api/conditions",
+                "{\"interfaceId\":\"benchmark-latency\",\"responseIdConditions\":[{\"responseId\":\"benchmark\",\"policy\":{\"rules\":[]}}]," +
+                        "\"latency\":{\"type\":\"FIXED\",\"millis\":" + INJECTED_LATENCY_MILLIS + "}}");
+    }
+
+    private static void post(HttpClient client, int port, String path, String json) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(json))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("定義の登録に失敗。path:" + path + ", status:" + response.statusCode());
+        }
+    }
+
+    private static boolean client(int port, String interfaceId, Duration pause) {
+        byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+        String head = "POST /" + interfaceId + " HTTP/1.1\r\n" +
+                "Host: localhost\r\n" +
+                "Content-Type: application/json\r\n" +
+                "Content-Length: " + body.length + "\r\n" +
+                "Connection: close\r\n\r\n";
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setSoTimeout((int) Duration.ofMinutes(1).toMillis());
+            OutputStream out = socket.getOutputStream();
+            out.write(head.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            if (pause.isPositive()) {
+                Thread.sleep(pause);
+            }
+            out.write(body);
+            out.flush();
+            InputStream in = socket.getInputStream();
+            String response = new String(in.readAllBytes(), StandardCharsets.US_ASCII);
+            return response.startsWith("HTTP/1.1 200");
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
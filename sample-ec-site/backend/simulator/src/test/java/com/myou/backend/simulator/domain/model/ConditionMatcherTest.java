@@ -0,0 +1,154 @@
+package com.myou.backend.simulator.domain.model;
+
+import com.myou.backend.simulator.domain.policy.ConditionPolicy;
+import com.myou.backend.simulator.domain.policy.rule.PrefixConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.RangeConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.RequestContentConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.RequestHeaderConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.SetConditionRule;
+import com.myou.backend.simulator.domain.type.RuleOrdering;
+import com.myou.backend.simulator.domain.type.RuleTarget;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.Map;
+
+class ConditionMatcherTest {
+
+    @Test
+    void searchResponseId_headerIndex() {
+        ConditionMatcher target = ConditionMatcher.compile(new ConditionEntry("interfaceId1", List.of(
+                new ResponseIdCondition("responseId1", new ConditionPolicy(List.of(
+                        new RequestHeaderConditionRule("header1", "value1")))),
+                new ResponseIdCondition("responseId2", new ConditionPolicy(List.of(
+                        new RequestHeaderConditionRule("header1", "value2"))))
+        )));
+
+        RequestData requestData = new RequestData("interfaceId1",
+                Map.of("header1", List.of("value2")),
+                new JsonContent("{\"key1\": \"value1\"}"));
+
+        Assertions.assertThat(target.searchResponseId(requestData)).contains("responseId2");
+    }
+
+    @Test
+    void searchResponseId_contentIndex() {
+        ConditionMatcher target = ConditionMatcher.compile(new ConditionEntry("interfaceId1", List.of(
+                new ResponseIdCondition("responseId1", new ConditionPolicy(List.of(
+                        new RequestContentConditionRule("/key1", "value1")))),
+                new ResponseIdCondition("responseId2", new ConditionPolicy(List.of(
+                        new RequestContentConditionRule("/key1", "value2"))))
+        )));
+
+        RequestData requestData = new RequestData("interfaceId1",
+                Map.of(),
+                new JsonContent("{\"key1\": \"value2\"}"));
+
+        Assertions.assertThat(target.searchResponseId(requestData)).contains("responseId2");
+    }
+
+    @Test
+    void searchResponseId_setIndex() {
+        ConditionMatcher target = ConditionMatcher.compile(new ConditionEntry("interfaceId1", List.of(
+                new ResponseIdCondition("responseId1", new ConditionPolicy(List.of(
+                        new SetConditionRule(RuleTarget.REQUEST_CONTENT, "/key1", Set.of("value1", "value2")),
+                        new RangeConditionRule(RuleTarget.REQUEST_CONTENT, "/amount", BigDecimal.ZERO, BigDecimal.TEN)))),
+                new ResponseIdCondition("responseId2", new ConditionPolicy(List.of(
+                        new PrefixConditionRule(RuleTarget.REQUEST_CONTENT, "/key1", "value"))))
+        )));
+
+        Assertions.assertThat(target.contentKeys()).containsExactlyInAnyOrder("/key1", "/amount");
+        Assertions.assertThat(target.toString()).contains("contentIndexKeys=[/key1]");
+        Assertions.assertThat(target.searchResponseId(new RequestData("interfaceId1", Map.of(),
+                new JsonContent("{\"key1\": \"value2\", \"amount\": 5}")))).contains("responseId1");
+        Assertions.assertThat(target.searchResponseId(new RequestData("interfaceId1", Map.of(),
+                new JsonContent("{\"key1\": \"value2\", \"amount\": 50}")))).contains("responseId2");
+        Assertions.assertThat(target.searchResponseId(new RequestData("interfaceId1", Map.of(),
+                new JsonContent("{\"key1\": \"other\", \"amount\": 5}")))).isEmpty();
+    }
+
+    @Test
+    void searchResponseId_firstMatchWins() {
+        // 索引対象外の条件(ルールなし)と索引対象の条件が混在しても宣言順で評価されること
+        ConditionMatcher target = ConditionMatcher.compile(new ConditionEntry("interfaceId1", List.of(
+                new ResponseIdCondition("responseId1", new ConditionPolicy(List.of(
+                        new RequestHeaderConditionRule("header1", "value1"),
+                        new RequestContentConditionRule("/key1", "value9")))),
+                new ResponseIdCondition("responseId2", new ConditionPolicy(List.of(
+                        new RequestContentConditionRule("/key1", "value1")))),
+                new ResponseIdCondition("responseId3", new ConditionPolicy(List.of())),
+                new ResponseIdCondition("responseId4", new ConditionPolicy(List.of(
+                        new RequestHeaderConditionRule("header1", "value1"))))
+        )));
+
+        RequestData requestData = new RequestData("interfaceId1",
+                Map.of("header1", List.of("value1")),
+                new JsonContent("{\"key1\": \"value1\"}"));
+        Assertions.assertThat(target.searchResponseId(requestData)).contains("responseId2");
+
+        RequestData requestData2 = new RequestData("interfaceId1",
+                Map.of("header1", List.of("value1")),
+                new JsonContent("{\"key1\": \"value2\"}"));
+        Assertions.assertThat(target.searchResponseId(requestData2)).contains("responseId3");
+    }
+
+    @Test
+    void searchResponseId_sameAsConditionEntry() {
+        ConditionEntry conditionEntry = DomainModelUtils.getConditionEntry();
+        ConditionMatcher target = ConditionMatcher.compile(conditionEntry);
+
+        RequestData requestData = new RequestData("interfaceId1",
+                Map.of("header1", List.of("value1")),
+                new FormDataContent(Map.of("key1", List.of("value1"))));
+
+        Assertions.assertThat(target.searchResponseId(requestData)).isEqualTo(conditionEntry.searchResponseId(requestData));
+        Assertions.assertThat(target.searchResponseId(requestData)).contains("responseId1");
+    }
+
+    @Test
+    void searchResponseId_notMatch() {
+        ConditionMatcher target = ConditionMatcher.compile(DomainModelUtils.getConditionEntry());
+
+        RequestData requestData = new RequestData("interfaceId1",
+                Map.of("header1", List.of("value2")),
+                new FormDataContent(Map.of("key1", List.of("value1"))));
+
+        Assertions.assertThat(target.searchResponseId(requestData)).isEmpty();
+    }
+
+    @Test
+    void compile_responseContentKeys() {
+        ConditionMatcher target = ConditionMatcher.compile(DomainModelUtils.getConditionEntry(),
+                responseId -> responseId.equals("responseId1") ? Set.of("/order/no", "/req/no") : Set.of(),
+                RuleOrdering.STATIC);
+
+        // テンプレートが参照するキーも抽出対象に含める
+        Assertions.assertThat(target.contentKeys()).containsExactlyInAnyOrder("key1", "/order/no", "/req/no");
+        Assertions.assertThat(target.xmlPaths()).extracting(XmlPath::expression).contains("/order/no", "/req/no");
+        Assertions.assertThat(target.responseIds()).containsExactly("responseId1");
+    }
+
+    @Test
+    void fingerprint() {
+        ConditionMatcher target = ConditionMatcher.compile(DomainModelUtils.getConditionEntry(),
+                responseId -> Set.of("/order/no"), RuleOrdering.STATIC);
+
+        // 条件が参照するヘッダ・コンテンツの値だけを使い、テンプレートのキーは含めない
+        Assertions.assertThat(target.fingerprint(new RequestData("interfaceId1",
+                Map.of("header1", List.of("value1"), "header9", List.of("x")),
+                new FormDataContent(Map.of("key1", List.of("value1"), "/order/no", List.of("1"))))))
+                .isEqualTo(target.fingerprint(new RequestData("interfaceId1",
+                        Map.of("header1", List.of("value1")),
+                        new FormDataContent(Map.of("key1", List.of("value1"), "/order/no", List.of("2"))))));
+        Assertions.assertThat(target.fingerprint(new RequestData("interfaceId1",
+                Map.of("header1", List.of("value1")),
+                new FormDataContent(Map.of("key1", List.of("value2"))))))
+                .isNotEqualTo(target.fingerprint(new RequestData("interfaceId1",
+                        Map.of("header1", List.of("value1")),
+                        new FormDataContent(Map.of("key1", List.of("value1"))))));
+        Assertions.assertThat(target.fingerprint(new RequestData("interfaceId1", Map.of(), null))).isEmpty();
+    }
+}
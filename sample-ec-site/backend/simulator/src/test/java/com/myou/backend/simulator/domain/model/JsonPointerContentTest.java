@@ -0,0 +1,87 @@
+package com.myou.backend.simulator.domain.model;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonPointerContentTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            " ",
+            "  ",
+            "aaa"
+    })
+    public void testRead_failure(String content) {
+        Assertions.assertThatThrownBy(() -> read(content, "/name"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testMatches_whenFieldMatches() {
+        JsonPointerContent content = read("{\"name\":\"John\", \"age\":30}", "/name", "/age");
+
+        assertTrue(content.matches("/name", "John"));
+        assertTrue(content.matches("/age", "30"));
+        assertFalse(content.matches("/name", "Jane"));
+    }
+
+    @Test
+    public void testMatches_whenFieldIsAbsent() {
+        JsonPointerContent content = read("{\"name\":\"John\", \"age\":30}", "/address");
+
+        assertFalse(content.matches("/address", "123 Main St"));
+        Assertions.assertThat(content.extractValues("/address")).isEmpty();
+    }
+
+    @Test
+    public void testMatches_whenNestedAndArrayElementMatches() {
+        String json = "{\"skip\":{\"a\":[1,2,{\"b\":3}]},\"users\":[{\"name\":\"John\"}, {\"name\":\"Jane\"}]}";
+        JsonPointerContent content = read(json, "/users/1/name", "/users/0");
+
+        assertTrue(content.matches("/users/1/name", "Jane"));
+        Assertions.assertThat(content.values()).doesNotContainKey("/skip");
+    }
+
+    @Test
+    public void testMatches_whenPointerAndDescendantReferenced() {
+        String json = "{\"user\":{\"name\":\"John\", \"age\":30.50}}";
+        JsonPointerContent content = read(json, "/user", "/user/age");
+        JsonContent jsonContent = new JsonContent(json);
+
+        // JsonContentと同じ表現になること
+        Assertions.assertThat(content.extractValues("/user")).isEqualTo(jsonContent.extractValues("/user"));
+        Assertions.assertThat(content.extractValues("/user/age")).isEqualTo(jsonContent.extractValues("/user/age"));
+    }
+
+    @Test
+    public void testMatches_invalidPointer() {
+        JsonPointerContent content = read("{\"name\":\"John\"}", "test");
+
+        assertFalse(content.matches("test", "John"));
+    }
+
+    @Test
+    public void testRead_malformedAfterPointers() {
+        // 抽出後の内容も構文を検証し、JsonContentと同様に不正なJSONは受け付けない
+        Assertions.assertThatThrownBy(() -> read("{\"name\":\"John\", \"rest\": ", "/name"))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> read("{\"name\":\"John\", \"rest\": ", "/none"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static JsonPointerContent read(String json, String... pointers) {
+        return JsonPointerContent.read(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)),
+                Set.of(pointers));
+    }
+}
@@ -0,0 +1,117 @@
+package com.myou.backend.simulator.domain.model;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XmlPathContentTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            " ",
+            "aaa"
+    })
+    public void testRead_failure(String content) {
+        Assertions.assertThatThrownBy(() -> read(content, "/user/name"))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> read(content, "//name"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testCompile_simplePath() {
+        XmlPath xmlPath = XmlPath.compile("/users/user[2]/@name");
+
+        Assertions.assertThat(xmlPath.isSimple()).isTrue();
+        Assertions.assertThat(xmlPath.steps()).containsExactly(
+                new XmlPath.Step("users", 0),
+                new XmlPath.Step("user", 2));
+        Assertions.assertThat(xmlPath.attributeName()).isEqualTo("name");
+        Assertions.assertThat(XmlPath.compile("//name").isSimple()).isFalse();
+        Assertions.assertThatThrownBy(() -> XmlPath.compile("/user/["))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testOf_shared() {
+        XmlPath xmlPath = XmlPath.of("/users/user/@id");
+
+        Assertions.assertThat(XmlPath.of("/users/user/@id")).isSameAs(xmlPath);
+        Assertions.assertThat(XmlPath.compile("/users/user/@id")).isNotSameAs(xmlPath);
+        Assertions.assertThatThrownBy(() -> XmlPath.of("/user/["))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testMatches_whenNestedElementMatches() {
+        XmlPathContent content = read("<user><name>John</name><age>30</age></user>", "/user/name", "/user/age");
+
+        assertTrue(content.matches("/user/name", "John"));
+        assertFalse(content.matches("/user/age", "25"));
+    }
+
+    @Test
+    public void testMatches_whenArrayElementMatches() {
+        String xml = "<users><user><name>John</name></user><user><name>Jane</name></user></users>";
+        XmlPathContent content = read(xml, "/users/user[2]/name", "/users/user/name");
+
+        assertTrue(content.matches("/users/user[2]/name", "Jane"));
+        assertTrue(content.matches("/users/user/name", "John"));
+    }
+
+    @Test
+    public void testMatches_whenAttributeMatches() {
+        String xml = "<users><user/><user name=\"John\" age=\"30\"/></users>";
+        XmlPathContent content = read(xml, "/users/user/@name", "/users/user/@age");
+
+        assertTrue(content.matches("/users/user/@name", "John"));
+        assertFalse(content.matches("/users/user/@age", "25"));
+    }
+
+    @Test
+    public void testMatches_whenElementIsAbsent() {
+        XmlPathContent content = read("<user><name>John</name></user>", "/user/address");
+
+        // XPathと同じく該当なしは空文字
+        Assertions.assertThat(content.extractValues("/user/address")).containsExactly("");
+        assertFalse(content.matches("/user/address", "123 Main St"));
+    }
+
+    @Test
+    public void testMatches_domFallback() {
+        String xml = "<users><user><name>John</name></user><user><name>Jane</name></user></users>";
+        XmlPathContent content = read(xml, "//user[name='Jane']/name", "/users/user[1]/name");
+
+        assertTrue(content.matches("//user[name='Jane']/name", "Jane"));
+        assertTrue(content.matches("/users/user[1]/name", "John"));
+    }
+
+    @Test
+    public void testRead_sameAsXmlContent() {
+        String xml = "<a><b>x<![CDATA[<y>]]><c>z</c>&amp;</b><b id=\"2\">w</b></a>";
+        String[] paths = {"/a/b", "/a/b[2]", "/a/b/c", "/a/b/@id", "/a/d"};
+        XmlPathContent content = read(xml, paths);
+        XmlContent xmlContent = new XmlContent(xml);
+
+        for (String path : paths) {
+            Assertions.assertThat(content.extractValues(path))
+                    .as(path)
+                    .isEqualTo(xmlContent.extractValues(path));
+        }
+    }
+
+    private static XmlPathContent read(String xml, String... paths) {
+        return XmlPathContent.read(
+                new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)),
+                Arrays.stream(paths).map(XmlPath::compile).toList());
+    }
+}
@@ -0,0 +1,81 @@
+package com.myou.backend.simulator.domain.model.capacity;
+
+import com.myou.backend.simulator.domain.model.HttpStatus;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CapacityLimiterTest {
+
+    @Test
+    void acquire_rateLimit_failFast() throws Exception {
+        CapacityLimiter target = new CapacityLimiter(new CapacityPolicy(1, 3, 0, 0, HttpStatus.of(429), null));
+
+        // バースト分は即座に受け付け、それを超えると拒否する
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThat(target.acquire().admitted()).isTrue();
+        }
+        CapacityLimiter.Permit rejected = target.acquire();
+        Assertions.assertThat(rejected.admitted()).isFalse();
+        Assertions.assertThat(rejected.retryAfterSeconds()).isEqualTo(1);
+    }
+
+    @Test
+    void acquire_rateLimit_boundedWait() throws Exception {
+        CapacityLimiter target = new CapacityLimiter(new CapacityPolicy(20, 1, 0, 200, HttpStatus.of(429), null));
+
+        long start = System.nanoTime();
+        Assertions.assertThat(target.acquire().admitted()).isTrue();
+        Assertions.assertThat(target.acquire().admitted()).isTrue();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // 2件目は次のトークン(50ms後)まで待機する
+        Assertions.assertThat(elapsedMillis).isGreaterThanOrEqualTo(40);
+    }
+
+    @Test
+    void acquire_concurrency() throws Exception {
+        CapacityLimiter target = new CapacityLimiter(new CapacityPolicy(0, 1, 2, 0, HttpStatus.of(503), 5L));
+
+        CapacityLimiter.Permit first = target.acquire();
+        CapacityLimiter.Permit second = target.acquire();
+        CapacityLimiter.Permit rejected = target.acquire();
+
+        Assertions.assertThat(first.admitted()).isTrue();
+        Assertions.assertThat(second.admitted()).isTrue();
+        Assertions.assertThat(rejected.admitted()).isFalse();
+        Assertions.assertThat(rejected.retryAfterSeconds()).isEqualTo(5);
+
+        // 二重に返却しても枠は1つだけ戻る
+        first.release();
+        first.release();
+        Assertions.assertThat(target.acquire().admitted()).isTrue();
+        Assertions.assertThat(target.acquire().admitted()).isFalse();
+    }
+
+    @Test
+    void acquire_concurrencyRejectionKeepsRateToken() throws Exception {
+        CapacityLimiter target = new CapacityLimiter(new CapacityPolicy(1, 2, 1, 0, HttpStatus.of(503), null));
+
+        CapacityLimiter.Permit first = target.acquire();
+        Assertions.assertThat(first.admitted()).isTrue();
+        // 同時実行数で拒否した場合はトークンを消費しない
+        Assertions.assertThat(target.acquire().admitted()).isFalse();
+
+        first.release();
+        Assertions.assertThat(target.acquire().admitted()).isTrue();
+    }
+
+    @Test
+    void acquire_rateRejectionReleasesConcurrency() throws Exception {
+        CapacityLimiter target = new CapacityLimiter(new CapacityPolicy(1, 1, 1, 0, HttpStatus.of(429), null));
+
+        target.acquire().release();
+        // レートで拒否した場合は確保した同時実行数の枠を返却する
+        CapacityLimiter.Permit rejected = target.acquire();
+        Assertions.assertThat(rejected.admitted()).isFalse();
+        Assertions.assertThat(rejected.retryAfterSeconds()).isEqualTo(1);
+
+        Thread.sleep(1100);
+        Assertions.assertThat(target.acquire().admitted()).isTrue();
+    }
+}
@@ -0,0 +1,88 @@
+package com.myou.backend.simulator.domain.model.latency;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+class LatencyProfileTest {
+
+    private static final int SAMPLES = 20_000;
+
+    @Test
+    void fixed() {
+        Assertions.assertThat(new FixedLatency(150).sample(new SplittableRandom(1))).isEqualTo(Duration.ofMillis(150));
+    }
+
+    @Test
+    void uniform() {
+        long[] samples = sample(new UniformLatency(10, 20));
+
+        Assertions.assertThat(samples[0]).isEqualTo(10);
+        Assertions.assertThat(samples[samples.length - 1]).isEqualTo(20);
+    }
+
+    @Test
+    void normal() {
+        long[] samples = sample(new NormalLatency(100, 10));
+
+        Assertions.assertThat(Arrays.stream(samples).average().orElseThrow()).isBetween(99.0, 101.0);
+    }
+
+    @Test
+    void normal_negativeIsZero() {
+        long[] samples = sample(new NormalLatency(0, 50));
+
+        Assertions.assertThat(samples[0]).isZero();
+    }
+
+    @Test
+    void logNormal() {
+        long[] samples = sample(new LogNormalLatency(50, 1.0));
+
+        Assertions.assertThat(percentile(samples, 50)).isBetween(47L, 53L);
+        // 対数正規分布は裾が長く、p99は中央値のおよそ10倍(exp(2.326))になる
+        Assertions.assertThat(percentile(samples, 99)).isBetween(450L, 580L);
+    }
+
+    @Test
+    void percentile() {
+        long[] samples = sample(PercentileLatency.of(Map.of(50.0, 20L, 90.0, 100L, 99.0, 500L)));
+
+        Assertions.assertThat(samples[0]).isGreaterThanOrEqualTo(20);
+        Assertions.assertThat(samples[samples.length - 1]).isLessThanOrEqualTo(500);
+        Assertions.assertThat(percentile(samples, 50)).isBetween(19L, 22L);
+        Assertions.assertThat(percentile(samples, 90)).isBetween(90L, 110L);
+    }
+
+    @Test
+    void percentile_invalid() {
+        Assertions.assertThatThrownBy(() -> PercentileLatency.of(Map.of(50.0, 100L, 99.0, 20L)))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> PercentileLatency.of(Map.of(150.0, 100L)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void uniform_invalid() {
+        Assertions.assertThatThrownBy(() -> new UniformLatency(20, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long[] sample(LatencyProfile latencyProfile) {
+        RandomGenerator random = new SplittableRandom(42);
+        return IntStream.range(0, SAMPLES)
+                .mapToLong(i -> latencyProfile.sample(random).toMillis())
+                .sorted()
+                .toArray();
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile / 100 * sorted.length) - 1];
+    }
+}
@@ -0,0 +1,109 @@
+package com.myou.backend.simulator.domain.model.template;
+
+import com.myou.backend.simulator.domain.model.FormDataContent;
+import com.myou.backend.simulator.domain.model.JsonPointerContent;
+import com.myou.backend.simulator.domain.model.QueryParamsContent;
+import com.myou.backend.simulator.domain.model.RequestData;
+import com.myou.backend.simulator.domain.model.XmlPath;
+import com.myou.backend.simulator.domain.model.XmlPathContent;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class ResponseTemplateTest {
+
+    @Test
+    void compile() {
+        ResponseTemplate target = ResponseTemplate.compile("{\"orderNo\":\"${json:/order/no}\",\"trace\":\"${header:X-Trace-Id:-none}\"}");
+
+        Assertions.assertThat(target.isStatic()).isFalse();
+        Assertions.assertThat(target.segments()).containsExactly(
+                new ResponseTemplate.Literal("{\"orderNo\":\""),
+                new ResponseTemplate.Placeholder(PlaceholderSource.JSON, "/order/no", null),
+                new ResponseTemplate.Literal("\",\"trace\":\""),
+                new ResponseTemplate.Placeholder(PlaceholderSource.HEADER, "X-Trace-Id", "none"),
+                new ResponseTemplate.Literal("\"}"));
+        Assertions.assertThat(target.contentKeys()).containsExactly("/order/no");
+    }
+
+    @Test
+    void compile_escape() {
+        ResponseTemplate target = ResponseTemplate.compile("price: $${amount} $");
+
+        Assertions.assertThat(target.isStatic()).isTrue();
+        Assertions.assertThat(target.segments()).containsExactly(new ResponseTemplate.Literal("price: ${amount} $"));
+    }
+
+    @Test
+    void compile_invalid() {
+        Assertions.assertThatThrownBy(() -> ResponseTemplate.compile("${json:/a"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("閉じられていない");
+        Assertions.assertThatThrownBy(() -> ResponseTemplate.compile("${cookie:a}"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("取得元が不正");
+        Assertions.assertThatThrownBy(() -> ResponseTemplate.compile("${header}"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("形式が不正");
+    }
+
+    @Test
+    void of() {
+        Assertions.assertThat(ResponseTemplate.of("static")).isEmpty();
+        Assertions.assertThat(ResponseTemplate.of("$${escaped}")).isEmpty();
+        Assertions.assertThat(ResponseTemplate.of("${query:id}")).isPresent();
+        Assertions.assertThatThrownBy(() -> ResponseTemplate.of("function() { return `${x}`; }"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void render_json() {
+        ResponseTemplate.Renderer target = ResponseTemplate.compile(
+                "{\"orderNo\":\"${json:/order/no}\",\"trace\":\"${header:x-trace-id}\",\"missing\":\"${json:/none:-n/a}\"}")
+                .compileRenderer(StandardCharsets.UTF_8, ValueEscaper.JSON);
+        JsonPointerContent content = JsonPointerContent.read(new ByteArrayInputStream(
+                "{\"order\":{\"no\":\"A\\\"1\"}}".getBytes(StandardCharsets.UTF_8)), Set.of("/order/no", "/none"));
+
+        byte[] actual = target.render(new RequestData("interfaceId1", Map.of("X-Trace-Id", List.of("t1")), content));
+
+        Assertions.assertThat(new String(actual, StandardCharsets.UTF_8))
+                .isEqualTo("{\"orderNo\":\"A\\\"1\",\"trace\":\"t1\",\"missing\":\"n/a\"}");
+    }
+
+    @Test
+    void render_xml() {
+        ResponseTemplate.Renderer target = ResponseTemplate.compile("<res><no>${xml:/req/no}</no><q>${query:no}</q></res>")
+                .compileRenderer(StandardCharsets.UTF_8, ValueEscaper.XML);
+        XmlPathContent content = XmlPathContent.read(new ByteArrayInputStream(
+                "<req><no>1&amp;2</no></req>".getBytes(StandardCharsets.UTF_8)), List.of(XmlPath.compile("/req/no")));
+
+        byte[] actual = target.render(new RequestData("interfaceId1", Map.of(), content));
+
+        // 取得元と形式が異なるリクエストの値は埋め込まない
+        Assertions.assertThat(new String(actual, StandardCharsets.UTF_8)).isEqualTo("<res><no>1&amp;2</no><q></q></res>");
+    }
+
+    @Test
+    void render_formAndQuery() {
+        ResponseTemplate.Renderer target = ResponseTemplate.compile("id=${form:id}&q=${query:id:-none}")
+                .compileRenderer(StandardCharsets.UTF_8, ValueEscaper.NONE);
+
+        Assertions.assertThat(new String(target.render(new RequestData("interfaceId1", Map.of(),
+                new FormDataContent(Map.of("id", List.of("あ", "b"))))), StandardCharsets.UTF_8)).isEqualTo("id=あ&q=none");
+        Assertions.assertThat(new String(target.render(new RequestData("interfaceId1", Map.of(),
+                new QueryParamsContent(Map.of("id", List.of("q1"))))), StandardCharsets.UTF_8)).isEqualTo("id=&q=q1");
+    }
+
+    @Test
+    void escaper() {
+        Assertions.assertThat(ValueEscaper.JSON.apply("a\"b\\c\nd\u0001")).isEqualTo("a\\\"b\\\\c\\nd\\u0001");
+        Assertions.assertThat(ValueEscaper.XML.apply("<a href='x'>&</a>")).isEqualTo("&lt;a href=&apos;x&apos;&gt;&amp;&lt;/a&gt;");
+        String plain = "plain";
+        Assertions.assertThat(ValueEscaper.JSON.apply(plain)).isSameAs(plain);
+    }
+}
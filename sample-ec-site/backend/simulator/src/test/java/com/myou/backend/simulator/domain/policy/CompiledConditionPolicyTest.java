@@ -0,0 +1,69 @@
+package com.myou.backend.simulator.domain.policy;
+
+import com.myou.backend.simulator.domain.model.QueryParamsContent;
+import com.myou.backend.simulator.domain.model.RequestData;
+import com.myou.backend.simulator.domain.policy.rule.ConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.PresenceConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.RegexConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.RequestContentConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.RequestHeaderConditionRule;
+import com.myou.backend.simulator.domain.type.RuleOrdering;
+import com.myou.backend.simulator.domain.type.RuleTarget;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+class CompiledConditionPolicyTest {
+
+    @Test
+    void compile_static() {
+        ConditionRule regex = RegexConditionRule.of(RuleTarget.REQUEST_CONTENT, "key1", "v.*");
+        ConditionRule content = new RequestContentConditionRule("key1", "value1");
+        ConditionRule header = new RequestHeaderConditionRule("header1", "value1");
+        ConditionRule presence = new PresenceConditionRule(RuleTarget.REQUEST_HEADER, "header2", true);
+
+        CompiledConditionPolicy target = CompiledConditionPolicy.compile(
+                new ConditionPolicy(List.of(regex, content, header, presence)), RuleOrdering.STATIC);
+
+        // コストが同じルールは宣言順を保つ
+        Assertions.assertThat(target.rules()).containsExactly(header, presence, content, regex);
+    }
+
+    @Test
+    void apply() {
+        CompiledConditionPolicy target = CompiledConditionPolicy.compile(new ConditionPolicy(List.of(
+                new RequestContentConditionRule("key1", "value1"),
+                new RequestHeaderConditionRule("header1", "value1"))), RuleOrdering.STATIC);
+
+        Assertions.assertThat(target.apply(request("value1", "value1"))).isTrue();
+        Assertions.assertThat(target.apply(request("value1", "value2"))).isFalse();
+        Assertions.assertThat(target.apply(request("value2", "value1"))).isFalse();
+        // ヘッダで不一致が確定するため、ボディのないリクエストでもコンテンツを参照しない
+        Assertions.assertThat(target.apply(new RequestData("interfaceId1", Map.of(), null))).isFalse();
+    }
+
+    @Test
+    void apply_adaptive() {
+        ConditionRule alwaysPass = new PresenceConditionRule(RuleTarget.REQUEST_HEADER, "header1", true);
+        ConditionRule rarelyPass = new RequestHeaderConditionRule("header1", "value1");
+        CompiledConditionPolicy target = CompiledConditionPolicy.compile(
+                new ConditionPolicy(List.of(alwaysPass, rarelyPass)), RuleOrdering.ADAPTIVE);
+        Assertions.assertThat(target.rules()).containsExactly(alwaysPass, rarelyPass);
+
+        RequestData request = request("value2", "value1");
+        int applications = CompiledConditionPolicy.SAMPLING_INTERVAL * CompiledConditionPolicy.REORDER_SAMPLES * 8;
+        for (int i = 0; i < applications; i++) {
+            Assertions.assertThat(target.apply(request)).isFalse();
+        }
+
+        // ほぼ一致しないルールを先に評価する
+        Assertions.assertThat(target.rules()).containsExactly(rarelyPass, alwaysPass);
+    }
+
+    private static RequestData request(String headerValue, String contentValue) {
+        return new RequestData("interfaceId1", Map.of("header1", List.of(headerValue)),
+                new QueryParamsContent(Map.of("key1", List.of(contentValue))));
+    }
+}
@@ -0,0 +1,79 @@
+package com.myou.backend.simulator.domain.policy.rule;
+
+import com.myou.backend.simulator.domain.model.QueryParamsContent;
+import com.myou.backend.simulator.domain.model.RequestData;
+import com.myou.backend.simulator.domain.type.RuleTarget;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.PatternSyntaxException;
+
+class ConditionRuleTest {
+
+    private static final RequestData REQUEST = new RequestData("interfaceId1",
+            Map.of("X-Route", List.of("tenant-a", "blue")),
+            new QueryParamsContent(Map.of("amount", List.of("1500"), "code", List.of("ABC-123"))));
+
+    @Test
+    void prefix() {
+        Assertions.assertThat(new PrefixConditionRule(RuleTarget.REQUEST_HEADER, "X-Route", "tenant-").evaluate(REQUEST)).isTrue();
+        Assertions.assertThat(new PrefixConditionRule(RuleTarget.REQUEST_CONTENT, "code", "XYZ").evaluate(REQUEST)).isFalse();
+        Assertions.assertThat(new PrefixConditionRule(RuleTarget.REQUEST_CONTENT, "none", "").evaluate(REQUEST)).isFalse();
+    }
+
+    @Test
+    void regex() {
+        Assertions.assertThat(RegexConditionRule.of(RuleTarget.REQUEST_CONTENT, "code", "[A-Z]{3}-\\d+").evaluate(REQUEST)).isTrue();
+        // 値全体に一致する必要がある
+        Assertions.assertThat(RegexConditionRule.of(RuleTarget.REQUEST_CONTENT, "code", "\\d+").evaluate(REQUEST)).isFalse();
+        Assertions.assertThat(RegexConditionRule.of(RuleTarget.REQUEST_HEADER, "X-Route", "a.*"))
+                .isEqualTo(RegexConditionRule.of(RuleTarget.REQUEST_HEADER, "X-Route", "a.*"));
+        Assertions.assertThatThrownBy(() -> RegexConditionRule.of(RuleTarget.REQUEST_HEADER, "X-Route", "("))
+                .isInstanceOf(PatternSyntaxException.class);
+    }
+
+    @Test
+    void range() {
+        Assertions.assertThat(new RangeConditionRule(RuleTarget.REQUEST_CONTENT, "amount", new BigDecimal("1000"), new BigDecimal("1500")).evaluate(REQUEST)).isTrue();
+        Assertions.assertThat(new RangeConditionRule(RuleTarget.REQUEST_CONTENT, "amount", new BigDecimal("1500.01"), null).evaluate(REQUEST)).isFalse();
+        Assertions.assertThat(new RangeConditionRule(RuleTarget.REQUEST_CONTENT, "amount", null, new BigDecimal("2e3")).evaluate(REQUEST)).isTrue();
+        // 数値でない値は範囲外
+        Assertions.assertThat(new RangeConditionRule(RuleTarget.REQUEST_CONTENT, "code", BigDecimal.ZERO, null).evaluate(REQUEST)).isFalse();
+        Assertions.assertThatThrownBy(() -> new RangeConditionRule(RuleTarget.REQUEST_CONTENT, "amount", null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> new RangeConditionRule(RuleTarget.REQUEST_CONTENT, "amount", BigDecimal.TEN, BigDecimal.ONE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void presence() {
+        Assertions.assertThat(new PresenceConditionRule(RuleTarget.REQUEST_HEADER, "X-Route", true).evaluate(REQUEST)).isTrue();
+        Assertions.assertThat(new PresenceConditionRule(RuleTarget.REQUEST_HEADER, "X-Route", false).evaluate(REQUEST)).isFalse();
+        Assertions.assertThat(new PresenceConditionRule(RuleTarget.REQUEST_CONTENT, "none", false).evaluate(REQUEST)).isTrue();
+        // ボディがない場合は値が存在しないとみなす
+        Assertions.assertThat(new PresenceConditionRule(RuleTarget.REQUEST_CONTENT, "amount", false)
+                .evaluate(new RequestData("interfaceId1", Map.of(), null))).isTrue();
+    }
+
+    @Test
+    void set() {
+        Assertions.assertThat(new SetConditionRule(RuleTarget.REQUEST_HEADER, "X-Route", Set.of("green", "blue")).evaluate(REQUEST)).isTrue();
+        Assertions.assertThat(new SetConditionRule(RuleTarget.REQUEST_CONTENT, "code", Set.of("ABC")).evaluate(REQUEST)).isFalse();
+        Assertions.assertThatThrownBy(() -> new SetConditionRule(RuleTarget.REQUEST_CONTENT, "code", Set.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void estimatedCost() {
+        Assertions.assertThat(new RequestHeaderConditionRule("X-Route", "blue").estimatedCost())
+                .isLessThan(new RequestContentConditionRule("code", "ABC-123").estimatedCost());
+        Assertions.assertThat(new SetConditionRule(RuleTarget.REQUEST_CONTENT, "code", Set.of("a")).estimatedCost())
+                .isLessThan(new PrefixConditionRule(RuleTarget.REQUEST_CONTENT, "code", "a").estimatedCost());
+        Assertions.assertThat(new RangeConditionRule(RuleTarget.REQUEST_CONTENT, "amount", BigDecimal.ONE, null).estimatedCost())
+                .isLessThan(RegexConditionRule.of(RuleTarget.REQUEST_CONTENT, "code", "a").estimatedCost());
+    }
+}
@@ -0,0 +1,104 @@
+package com.myou.backend.simulator.infrastructure.body;
+
+import com.myou.backend.simulator.domain.model.BodyHandle;
+import com.myou.backend.simulator.domain.model.HttpStatus;
+import com.myou.backend.simulator.domain.model.ResponseData;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+class MappedBodyStoreTest {
+
+    private static final Map<String, List<String>> SHIFT_JIS = Map.of("Content-Type", List.of("application/xml;charset=Shift_JIS"));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void offload() throws Exception {
+        MappedBodyStore target = new MappedBodyStore(true, directory, DataSize.ofBytes(64));
+        String body = "<res>" + "あ".repeat(40) + "</res>";
+
+        ResponseData actual = target.offload(new ResponseData("responseId1", SHIFT_JIS, body, HttpStatus.ok()));
+
+        // 応答のContent-Typeの文字コードでエンコードして保存する
+        byte[] expected = body.getBytes(Charset.forName("Shift_JIS"));
+        Assertions.assertThat(actual.responseBody()).isNull();
+        Assertions.assertThat(actual.bodyHandle().length()).isEqualTo(expected.length);
+        Assertions.assertThat(Files.readAllBytes(directory.resolve(actual.bodyHandle().key() + ".body"))).isEqualTo(expected);
+
+        MappedBody mapped = target.open(actual.bodyHandle());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        mapped.writeTo(out);
+        Assertions.assertThat(out.toByteArray()).isEqualTo(expected);
+        Assertions.assertThat(target.open(actual.bodyHandle())).isSameAs(mapped);
+        Assertions.assertThat(target.load(actual).responseBody()).isEqualTo(body);
+    }
+
+    @Test
+    void offload_sameContent() throws Exception {
+        MappedBodyStore target = new MappedBodyStore(true, directory, DataSize.ofBytes(16));
+        String body = "x".repeat(32);
+
+        BodyHandle handle1 = target.offload(new ResponseData("responseId1", null, body, HttpStatus.ok())).bodyHandle();
+        BodyHandle handle2 = target.offload(new ResponseData("responseId2", null, body, HttpStatus.ok())).bodyHandle();
+
+        Assertions.assertThat(handle1).isEqualTo(handle2);
+        try (var files = Files.list(directory)) {
+            Assertions.assertThat(files).hasSize(1);
+        }
+    }
+
+    @Test
+    void offload_notApplicable() {
+        ResponseData small = new ResponseData("responseId1", null, "x".repeat(15), HttpStatus.ok());
+        ResponseData template = new ResponseData("responseId1", null, "${query:id}" + "x".repeat(32), HttpStatus.ok())
+                .withTemplate(true);
+        ResponseData large = new ResponseData("responseId1", null, "x".repeat(32), HttpStatus.ok());
+
+        MappedBodyStore target = new MappedBodyStore(true, directory, DataSize.ofBytes(16));
+        Assertions.assertThat(target.offload(small)).isSameAs(small);
+        // テンプレートはリクエスト毎にレンダリングするためヒープに残す
+        Assertions.assertThat(target.offload(template)).isSameAs(template);
+        Assertions.assertThat(new MappedBodyStore(false, directory, DataSize.ofBytes(16)).offload(large)).isSameAs(large);
+    }
+
+    @Test
+    void delete() throws Exception {
+        MappedBodyStore target = new MappedBodyStore(true, directory, DataSize.ofBytes(16));
+        BodyHandle handle = target.offload(new ResponseData("responseId1", null, "x".repeat(32), HttpStatus.ok())).bodyHandle();
+        MappedBody mapped = target.open(handle);
+
+        target.delete(handle.key());
+
+        Assertions.assertThat(Files.exists(directory.resolve(handle.key() + ".body"))).isFalse();
+        // マップ済みのバッファは応答中の書き込みのため有効なまま残す
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        mapped.writeTo(out);
+        Assertions.assertThat(out.toByteArray()).hasSize(32);
+        Assertions.assertThatThrownBy(() -> target.open(handle)).isInstanceOf(IllegalStateException.class);
+        // 存在しないファイルの削除は何もしない
+        target.delete(handle.key());
+    }
+
+    @Test
+    void open_lengthMismatch() throws Exception {
+        MappedBodyStore target = new MappedBodyStore(true, directory, DataSize.ofBytes(16));
+        BodyHandle handle = target.offload(new ResponseData("responseId1", null, "x".repeat(32), HttpStatus.ok())).bodyHandle();
+
+        Assertions.assertThatThrownBy(() -> new MappedBodyStore(true, directory, DataSize.ofBytes(16))
+                        .open(new BodyHandle(handle.key(), 31)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("長さが一致しない");
+        Assertions.assertThatThrownBy(() -> target.open(new BodyHandle("missing", 1)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
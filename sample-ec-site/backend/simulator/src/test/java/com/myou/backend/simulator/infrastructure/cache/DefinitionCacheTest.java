@@ -0,0 +1,189 @@
+package com.myou.backend.simulator.infrastructure.cache;
+
+import com.myou.backend.simulator.domain.model.ConditionMatcher;
+import com.myou.backend.simulator.domain.model.DomainModelUtils;
+import com.myou.backend.simulator.domain.model.HttpStatus;
+import com.myou.backend.simulator.domain.model.ResponseData;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class DefinitionCacheTest {
+
+    @Test
+    void getResponseData_loadOnce() {
+        DefinitionCache target = new DefinitionCache();
+        AtomicInteger loadCount = new AtomicInteger();
+        ResponseData responseData = new ResponseData("responseId1", Map.of("header1", List.of("data1")), "success", HttpStatus.ok());
+
+        for (int i = 0; i < 3; i++) {
+            Optional<ResponseData> actual = target.getResponseData("responseId1", id -> {
+                loadCount.incrementAndGet();
+                return Optional.of(responseData);
+            });
+            Assertions.assertThat(actual).contains(responseData);
+        }
+        Assertions.assertThat(loadCount.get()).isEqualTo(1);
+
+        target.evict(DefinitionType.RESPONSE_DATA, "responseId1");
+        target.getResponseData("responseId1", id -> {
+            loadCount.incrementAndGet();
+            return Optional.of(responseData);
+        });
+        Assertions.assertThat(loadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    void getResponseData_cacheAbsentUntilSaved() {
+        DefinitionCache target = new DefinitionCache();
+        AtomicInteger loadCount = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThat(target.getResponseData("responseId1", id -> {
+                loadCount.incrementAndGet();
+                return Optional.empty();
+            })).isEmpty();
+        }
+        Assertions.assertThat(loadCount.get()).isEqualTo(1);
+
+        // 保存で存在しなかった結果も更新される
+        ResponseData responseData = new ResponseData("responseId1", null, "success", HttpStatus.ok());
+        target.putResponseData(responseData);
+        Assertions.assertThat(target.getResponseData("responseId1", id -> Optional.empty())).contains(responseData);
+    }
+
+    @Test
+    void getConditionMatcher_absentEvictedByOtherNodeChange() {
+        DefinitionCache target = new DefinitionCache();
+        ConditionMatcher matcher = ConditionMatcher.compile(DomainModelUtils.getConditionEntry());
+
+        Assertions.assertThat(target.getConditionMatcher("interfaceId1", id -> Optional.empty())).isEmpty();
+        Assertions.assertThat(target.getConditionMatcher("interfaceId1", id -> Optional.of(matcher))).isEmpty();
+
+        target.evict(DefinitionType.CONDITION_ENTRY, "interfaceId1");
+        Assertions.assertThat(target.getConditionMatcher("interfaceId1", id -> Optional.of(matcher))).contains(matcher);
+    }
+
+    @Test
+    void getResponseData_notCacheAbsentOverLimit() {
+        DefinitionCache target = new DefinitionCache(Duration.ZERO, 1, System::nanoTime);
+        target.putResponseData(new ResponseData("responseId1", null, "success", HttpStatus.ok()));
+        AtomicInteger loadCount = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            target.getResponseData("unknown", id -> {
+                loadCount.incrementAndGet();
+                return Optional.empty();
+            });
+        }
+        Assertions.assertThat(loadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    void getResponseData_reloadAfterMaxAge() {
+        AtomicLong now = new AtomicLong();
+        DefinitionCache target = new DefinitionCache(Duration.ofSeconds(10), 10000, now::get);
+        ResponseData oldData = new ResponseData("responseId1", null, "old", HttpStatus.ok());
+        ResponseData newData = new ResponseData("responseId1", null, "new", HttpStatus.ok());
+
+        Assertions.assertThat(target.getResponseData("responseId1", id -> Optional.of(oldData))).contains(oldData);
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        Assertions.assertThat(target.getResponseData("responseId1", id -> Optional.of(newData))).contains(oldData);
+
+        now.incrementAndGet();
+        Assertions.assertThat(target.getResponseData("responseId1", id -> Optional.of(newData))).contains(newData);
+    }
+
+    @Test
+    void putResponseData_evictReferencingMatchers() {
+        DefinitionCache target = new DefinitionCache();
+        target.putConditionMatcher(ConditionMatcher.compile(DomainModelUtils.getConditionEntry()));
+
+        target.putResponseData(new ResponseData("other", null, "success", HttpStatus.ok()));
+        Assertions.assertThat(target.getConditionMatcher("interfaceId1", id -> Optional.empty())).isPresent();
+
+        // マッチャーはテンプレートのキーを含めてコンパイルしているため、返し得るレスポンスデータの保存で破棄する
+        target.putResponseData(new ResponseData("responseId1", null, "${json:/id}", HttpStatus.ok()));
+        Assertions.assertThat(target.getConditionMatcher("interfaceId1", id -> Optional.empty())).isEmpty();
+    }
+
+    @Test
+    void responseDataEvictionListener_notifyEvictAndReplace() {
+        AtomicLong now = new AtomicLong();
+        DefinitionCache target = new DefinitionCache(Duration.ofSeconds(10), 10000, now::get);
+        List<String> evicted = new ArrayList<>();
+        target.addResponseDataEvictionListener(evicted::add);
+
+        target.putResponseData(new ResponseData("responseId1", null, "success", HttpStatus.ok()));
+        target.evict(DefinitionType.RESPONSE_DATA, "responseId2");
+        target.getResponseData("responseId3", id -> Optional.of(new ResponseData(id, null, "success", HttpStatus.ok())));
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+        // 最大保持期間の経過で別のインスタンスに置き換えた場合も通知する
+        target.getResponseData("responseId3", id -> Optional.of(new ResponseData(id, null, "success", HttpStatus.ok())));
+        target.clear();
+
+        Assertions.assertThat(evicted.subList(0, 3)).containsExactly("responseId1", "responseId2", "responseId3");
+        Assertions.assertThat(evicted.subList(3, evicted.size())).containsExactlyInAnyOrder("responseId1", "responseId3");
+    }
+
+    @Test
+    void definitionChangeMessage_encodeDecode() {
+        DefinitionChangeMessage message = new DefinitionChangeMessage("node1", DefinitionType.CONDITION_ENTRY, "interface|1");
+
+        Assertions.assertThat(DefinitionChangeMessage.decode(message.encode())).isEqualTo(message);
+    }
+
+    @Test
+    void redisNotifier_evictOnlyOtherNodeChanges() {
+        DefinitionCache cache = new DefinitionCache();
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        RedisDefinitionChangeNotifier target = new RedisDefinitionChangeNotifier(redisTemplate, cache);
+        ResponseData responseData = new ResponseData("responseId1", null, "success", HttpStatus.ok());
+        cache.putResponseData(responseData);
+
+        target.notifyChanged(DefinitionType.RESPONSE_DATA, "responseId1");
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(RedisDefinitionChangeNotifier.TOPIC.getTopic()), captor.capture());
+        DefinitionChangeMessage sent = DefinitionChangeMessage.decode(captor.getValue());
+
+        // 自ノードの通知では破棄されない
+        target.onMessage(message(sent), null);
+        Assertions.assertThat(cache.getResponseData("responseId1", id -> Optional.empty())).contains(responseData);
+
+        // 他ノードからの通知で破棄される
+        target.onMessage(message(new DefinitionChangeMessage("otherNode", DefinitionType.RESPONSE_DATA, "responseId1")), null);
+        Assertions.assertThat(cache.getResponseData("responseId1", id -> Optional.empty())).isEmpty();
+    }
+
+    @Test
+    void redisNotifier_clearOnSubscribe() {
+        DefinitionCache cache = new DefinitionCache();
+        RedisDefinitionChangeNotifier target = new RedisDefinitionChangeNotifier(mock(StringRedisTemplate.class), cache);
+        cache.putResponseData(new ResponseData("responseId1", null, "success", HttpStatus.ok()));
+
+        // 再接続までに発行された通知を取りこぼしている可能性があるため、サブスクライブの度に破棄する
+        target.onChannelSubscribed(RedisDefinitionChangeNotifier.TOPIC.getTopic().getBytes(StandardCharsets.UTF_8), 1);
+        Assertions.assertThat(cache.getResponseData("responseId1", id -> Optional.empty())).isEmpty();
+    }
+
+    private static DefaultMessage message(DefinitionChangeMessage change) {
+        return new DefaultMessage(
+                RedisDefinitionChangeNotifier.TOPIC.getTopic().getBytes(StandardCharsets.UTF_8),
+                change.encode().getBytes(StandardCharsets.UTF_8));
+    }
+}
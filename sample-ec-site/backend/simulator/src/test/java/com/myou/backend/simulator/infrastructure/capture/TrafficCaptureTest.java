@@ -0,0 +1,136 @@
+package com.myou.backend.simulator.infrastructure.capture;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class TrafficCaptureTest {
+
+    @Test
+    void offer_notRunning() {
+        TrafficCapture capture = new TrafficCapture(DataSize.ofKilobytes(1), false);
+
+        Assertions.assertThat(capture.offer(System.nanoTime(), request("a", "{}"))).isFalse();
+        Assertions.assertThat(capture.status()).isEqualTo(new CaptureStatus(false, 0, 0, 0, 1024));
+    }
+
+    @Test
+    void startOnBoot() {
+        TrafficCapture capture = new TrafficCapture(DataSize.ofKilobytes(1), true);
+
+        // 構築時には開始せず、初期化後に開始する
+        Assertions.assertThat(capture.isRunning()).isFalse();
+        capture.startOnBoot();
+        Assertions.assertThat(capture.isRunning()).isTrue();
+    }
+
+    @Test
+    void exportTo_roundTrip() throws Exception {
+        TrafficCapture capture = running(DataSize.ofKilobytes(4));
+        long arrival = System.nanoTime();
+        capture.offer(arrival, request("interfaceId1", "{\"key\":\"value\"}"));
+        capture.offer(arrival, new CapturedRequest(0, "GET", "interfaceId2", "a=1&b=%E3%81%82",
+                Map.of("Accept", List.of("text/plain")), null, null, 429));
+
+        CaptureFile.Contents contents = export(capture);
+
+        Assertions.assertThat(contents.requests()).hasSize(2);
+        CapturedRequest post = contents.requests().get(0);
+        Assertions.assertThat(post.method()).isEqualTo("POST");
+        Assertions.assertThat(post.interfaceId()).isEqualTo("interfaceId1");
+        Assertions.assertThat(post.queryString()).isNull();
+        Assertions.assertThat(post.headers()).isEqualTo(Map.of("Content-Type", List.of("application/json"),
+                "X-Multi", List.of("1", "2")));
+        Assertions.assertThat(new String(post.body(), StandardCharsets.UTF_8)).isEqualTo("{\"key\":\"value\"}");
+        Assertions.assertThat(post.responseId()).isEqualTo("responseId1");
+        Assertions.assertThat(post.statusCode()).isEqualTo(200);
+        Assertions.assertThat(post.arrivalNanos()).isGreaterThanOrEqualTo(0);
+        CapturedRequest get = contents.requests().get(1);
+        Assertions.assertThat(get.queryString()).isEqualTo("a=1&b=%E3%81%82");
+        Assertions.assertThat(get.body()).isNull();
+        Assertions.assertThat(get.responseId()).isNull();
+        Assertions.assertThat(get.statusCode()).isEqualTo(429);
+    }
+
+    @Test
+    void offer_full() throws Exception {
+        TrafficCapture capture = running(DataSize.ofBytes(256));
+
+        int captured = 0;
+        for (int i = 0; i < 10; i++) {
+            if (capture.offer(System.nanoTime(), request("interfaceId" + i, "{\"key\":\"value\"}"))) {
+                captured++;
+            }
+        }
+
+        // バッファが一杯になった後は記録せず、先頭から連続した区間が残る
+        CaptureStatus status = capture.status();
+        Assertions.assertThat(captured).isBetween(1, 9);
+        Assertions.assertThat(status.capturedCount()).isEqualTo(captured);
+        Assertions.assertThat(status.droppedCount()).isEqualTo(10 - captured);
+        Assertions.assertThat(status.usedBytes()).isLessThanOrEqualTo(256);
+        Assertions.assertThat(export(capture).requests())
+                .extracting(CapturedRequest::interfaceId)
+                .first().isEqualTo("interfaceId0");
+    }
+
+    @Test
+    void clear() throws Exception {
+        TrafficCapture capture = running(DataSize.ofKilobytes(1));
+        capture.offer(System.nanoTime(), request("interfaceId1", "{}"));
+        capture.stop();
+
+        capture.clear();
+
+        Assertions.assertThat(capture.status()).isEqualTo(new CaptureStatus(false, 0, 0, 0, 1024));
+        Assertions.assertThat(export(capture).requests()).isEmpty();
+    }
+
+    @Test
+    void offer_concurrent() throws Exception {
+        TrafficCapture capture = running(DataSize.ofMegabytes(1));
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 500; i++) {
+                    capture.offer(System.nanoTime(), request(thread + "-" + i, "{\"i\":" + i + "}"));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertThat(export(capture).requests())
+                .hasSize(2000)
+                .extracting(CapturedRequest::interfaceId)
+                .doesNotHaveDuplicates();
+    }
+
+    private static CapturedRequest request(String interfaceId, String body) {
+        return new CapturedRequest(0, "POST", interfaceId, null,
+                new LinkedHashMap<>(Map.of("Content-Type", List.of("application/json"), "X-Multi", List.of("1", "2"))),
+                body.getBytes(StandardCharsets.UTF_8), "responseId1", 200);
+    }
+
+    private static CaptureFile.Contents export(TrafficCapture capture) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        capture.exportTo(out);
+        return CaptureFile.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    private static TrafficCapture running(DataSize capacity) {
+        TrafficCapture capture = new TrafficCapture(capacity, true);
+        capture.startOnBoot();
+        return capture;
+    }
+}
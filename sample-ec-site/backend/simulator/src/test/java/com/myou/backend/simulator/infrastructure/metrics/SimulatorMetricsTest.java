@@ -0,0 +1,94 @@
+package com.myou.backend.simulator.infrastructure.metrics;
+
+import com.myou.backend.simulator.application.metrics.RequestMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+class SimulatorMetricsTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final SimulatorMetrics target = new SimulatorMetrics(registry, 2, 2);
+
+    @Test
+    void record() {
+        SimulatorMetrics.InterfaceMetrics metrics = target.forInterface("interfaceId1");
+        metrics.recordLookup(TimeUnit.MILLISECONDS.toNanos(1));
+        metrics.recordRuleEvaluation(TimeUnit.MILLISECONDS.toNanos(2));
+        metrics.recordBodyParse(TimeUnit.MILLISECONDS.toNanos(3));
+        metrics.recordMatched("responseId1");
+        metrics.recordServed("responseId1", 100);
+        metrics.recordUnmatched(RequestMetrics.Outcome.NO_MATCH);
+        metrics.recordMatchCache(false);
+        metrics.recordMatchCache(true);
+        metrics.recordMatchCache(true);
+        metrics.recordMatchCache(true);
+
+        Assertions.assertThat(registry.get("simulator.requests")
+                .tags("interfaceId", "interfaceId1", "responseId", "responseId1", "outcome", "matched")
+                .counter().count()).isEqualTo(1);
+        Assertions.assertThat(registry.get("simulator.requests")
+                .tags("interfaceId", "interfaceId1", "responseId", "none", "outcome", "no_match")
+                .counter().count()).isEqualTo(1);
+        Assertions.assertThat(registry.get("simulator.served")
+                .tags("interfaceId", "interfaceId1", "responseId", "responseId1")
+                .summary().totalAmount()).isEqualTo(100);
+        Assertions.assertThat(metrics.statistics()).isEqualTo(new InterfaceStatistics(
+                "interfaceId1", 2, 1, 1, 1.0, 2.0, 3.0, 2.0, 100, 0.75));
+        Assertions.assertThat(registry.get("simulator.match.cache")
+                .tags("interfaceId", "interfaceId1", "result", "hit")
+                .counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void forInterface_capped() {
+        target.forInterface("interfaceId1").recordMatched("responseId1");
+        target.forInterface("interfaceId2").recordMatched("responseId1");
+        target.forInterface("interfaceId3").recordMatched("responseId1");
+        target.forInterface("interfaceId4").recordMatched("responseId1");
+
+        // 上限を超えたインターフェースIDはまとめて記録する
+        Assertions.assertThat(target.forInterface("interfaceId3").interfaceId()).isEqualTo(SimulatorMetrics.OVERFLOW_TAG);
+        Assertions.assertThat(registry.find("simulator.requests").tag("interfaceId", "interfaceId3").counters()).isEmpty();
+        Assertions.assertThat(registry.get("simulator.requests").tag("interfaceId", SimulatorMetrics.OVERFLOW_TAG)
+                .counter().count()).isEqualTo(2);
+        // 一度登録されたIDは上限に達した後も個別に記録する
+        Assertions.assertThat(target.forInterface("interfaceId1").interfaceId()).isEqualTo("interfaceId1");
+    }
+
+    @Test
+    void forResponse_capped() {
+        SimulatorMetrics.InterfaceMetrics metrics = target.forInterface("interfaceId1");
+        metrics.recordMatched("responseId1");
+        metrics.recordMatched("responseId2");
+        metrics.recordMatched("responseId3");
+        metrics.recordServed("responseId4", 10);
+
+        Assertions.assertThat(registry.find("simulator.requests").tag("interfaceId", "interfaceId1").counters())
+                .hasSize(3);
+        Assertions.assertThat(registry.get("simulator.served").tag("responseId", SimulatorMetrics.OVERFLOW_TAG)
+                .summary().totalAmount()).isEqualTo(10);
+        Assertions.assertThat(metrics.statistics().matched()).isEqualTo(3);
+    }
+
+    @Test
+    void endpoint_report() {
+        SimulatorMetrics.InterfaceMetrics hot = target.forInterface("hot");
+        for (int i = 0; i < 3; i++) {
+            hot.recordMatched("responseId1");
+            hot.recordRuleEvaluation(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        SimulatorMetrics.InterfaceMetrics slow = target.forInterface("slow");
+        slow.recordUnmatched(RequestMetrics.Outcome.NO_MATCH);
+        slow.recordRuleEvaluation(TimeUnit.MILLISECONDS.toNanos(50));
+
+        SimulatorEndpoint.Report report = new SimulatorEndpoint(target).report(null);
+
+        Assertions.assertThat(report.hottest()).extracting(InterfaceStatistics::interfaceId).containsExactly("hot", "slow");
+        Assertions.assertThat(report.slowest()).extracting(InterfaceStatistics::interfaceId).containsExactly("slow", "hot");
+        Assertions.assertThat(new SimulatorEndpoint(target).report(1).hottest()).hasSize(1);
+    }
+}
@@ -0,0 +1,72 @@
+package com.myou.backend.simulator.infrastructure.snapshot;
+
+import com.myou.backend.simulator.application.repository.ConditionEntryRepository;
+import com.myou.backend.simulator.application.repository.ResponseDataRepository;
+import com.myou.backend.simulator.domain.model.ConditionEntry;
+import com.myou.backend.simulator.domain.model.HttpStatus;
+import com.myou.backend.simulator.domain.model.ResponseData;
+import com.myou.backend.simulator.domain.model.ResponseIdCondition;
+import com.myou.backend.simulator.domain.policy.ConditionPolicy;
+import com.myou.backend.simulator.domain.policy.rule.RequestHeaderConditionRule;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+@SpringBootTest
+class DefinitionSnapshotTest {
+
+    @Autowired
+    private ResponseDataRepository responseDataRepository;
+
+    @Autowired
+    private ConditionEntryRepository conditionEntryRepository;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void saveAndLoad() {
+        ResponseData responseData = new ResponseData("snapshotResponseId1", null, "{\"snapshot\":true}", HttpStatus.ok());
+        ConditionEntry conditionEntry = new ConditionEntry("snapshotInterfaceId1", List.of(new ResponseIdCondition(
+                "snapshotResponseId1", new ConditionPolicy(List.of(new RequestHeaderConditionRule("header1", "value1"))))));
+        responseDataRepository.save(responseData);
+        conditionEntryRepository.save(conditionEntry);
+
+        DefinitionSnapshot target = new DefinitionSnapshot(responseDataRepository, conditionEntryRepository, "", true);
+        Path file = directory.resolve("snapshot.bin");
+        SnapshotSummary saved = target.save(file);
+
+        Assertions.assertThat(Files.exists(file)).isTrue();
+        Assertions.assertThat(saved.responses()).isEqualTo(responseDataRepository.findAll().size());
+        Assertions.assertThat(saved.conditions()).isEqualTo(conditionEntryRepository.findAll().size());
+
+        responseDataRepository.deleteByResponseId("snapshotResponseId1");
+        conditionEntryRepository.deleteByInterfaceId("snapshotInterfaceId1");
+        Assertions.assertThat(conditionEntryRepository.findMatcherByInterfaceId("snapshotInterfaceId1")).isEmpty();
+
+        SnapshotSummary loaded = target.load(file);
+
+        Assertions.assertThat(loaded.responses()).isEqualTo(saved.responses());
+        Assertions.assertThat(loaded.createdEpochMillis()).isEqualTo(saved.createdEpochMillis());
+        Assertions.assertThat(responseDataRepository.findByResponseId("snapshotResponseId1")).contains(responseData);
+        Assertions.assertThat(conditionEntryRepository.findByInterfaceId("snapshotInterfaceId1")).contains(conditionEntry);
+        Assertions.assertThat(conditionEntryRepository.findMatcherByInterfaceId("snapshotInterfaceId1")).isPresent();
+    }
+
+    @Test
+    void run_fileNotFound() throws Exception {
+        DefinitionSnapshot target = new DefinitionSnapshot(responseDataRepository, conditionEntryRepository,
+                directory.resolve("missing.bin").toString(), true);
+
+        // 初回起動時はファイルがないため、読み込まずに起動する
+        target.run(null);
+
+        Assertions.assertThat(target.file()).contains(directory.resolve("missing.bin"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.myou.backend.simulator.infrastructure.snapshot;
+
+import com.myou.backend.simulator.domain.model.DomainModelUtils;
+import com.myou.backend.simulator.domain.model.HttpStatus;
+import com.myou.backend.simulator.domain.model.ResponseData;
+import com.myou.backend.simulator.infrastructure.storage.ConditionEntryEntity;
+import com.myou.backend.simulator.infrastructure.storage.ResponseDataEntity;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+class SnapshotFileTest {
+
+    @Test
+    void writeAndRead() throws Exception {
+        List<ResponseDataEntity> responses = IntStream.range(0, SnapshotFile.CHUNK_SIZE * 2 + 1)
+                .mapToObj(i -> ResponseDataEntity.from(new ResponseData("responseId" + i,
+                        Map.of("Content-Type", List.of("application/json")), "{\"no\":" + i + "}", HttpStatus.ok())))
+                .toList();
+        List<ConditionEntryEntity> conditions = List.of(ConditionEntryEntity.from(DomainModelUtils.getConditionEntry()));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SnapshotFile.write(out, new SnapshotFile.Contents(1_000L, responses, conditions));
+        SnapshotFile.Contents actual = SnapshotFile.read(out.toByteArray());
+
+        // 並列にデコードしても書き込んだ順に返す
+        Assertions.assertThat(actual.createdEpochMillis()).isEqualTo(1_000L);
+        Assertions.assertThat(actual.responses()).isEqualTo(responses);
+        Assertions.assertThat(actual.conditions()).isEqualTo(conditions);
+        Assertions.assertThat(actual.conditions().get(0).toConditionEntry()).isEqualTo(DomainModelUtils.getConditionEntry());
+    }
+
+    @Test
+    void read_invalidMagic() {
+        Assertions.assertThatThrownBy(() -> SnapshotFile.read("SIMCAP01xxxxxxxxxxxxxxxx".getBytes()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void read_truncated() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SnapshotFile.write(out, new SnapshotFile.Contents(1_000L, List.of(),
+                List.of(ConditionEntryEntity.from(DomainModelUtils.getConditionEntry()))));
+        byte[] bytes = out.toByteArray();
+
+        Assertions.assertThatThrownBy(() -> SnapshotFile.read(Arrays.copyOf(bytes, bytes.length - 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
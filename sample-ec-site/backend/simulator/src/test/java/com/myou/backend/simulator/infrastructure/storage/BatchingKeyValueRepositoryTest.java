@@ -0,0 +1,69 @@
+package com.myou.backend.simulator.infrastructure.storage;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.keyvalue.core.KeyValueTemplate;
+import org.springframework.data.keyvalue.core.mapping.context.KeyValueMappingContext;
+import org.springframework.data.keyvalue.repository.support.KeyValueRepositoryFactory;
+import org.springframework.data.map.MapKeyValueAdapter;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class BatchingKeyValueRepositoryTest {
+
+    private final InMemoryRedis redis = new InMemoryRedis();
+
+    @Test
+    void saveAll_pipelined() {
+        BatchingKeyValueRepository<ResponseDataEntity, String> target = binaryRepository();
+        Map<String, ResponseDataEntity> entities = BinaryRedisKeyValueAdapterTest.entities(3);
+
+        List<ResponseDataEntity> saved = target.saveAll(entities.values());
+
+        Assertions.assertThat(saved).containsExactlyElementsOf(entities.values());
+        // 1件ずつのSET・SADDではなく1回のパイプラインで保存する
+        Assertions.assertThat(redis.pipelines.get()).isEqualTo(1);
+        verify(redis.stringCommands, times(3)).set(any(byte[].class), any(byte[].class));
+        Assertions.assertThat(target.count()).isEqualTo(3);
+    }
+
+    @Test
+    void findAllById_mget() {
+        BatchingKeyValueRepository<ResponseDataEntity, String> target = binaryRepository();
+        Map<String, ResponseDataEntity> entities = BinaryRedisKeyValueAdapterTest.entities(3);
+        target.saveAll(entities.values());
+
+        List<ResponseDataEntity> actual = target.findAllById(List.of("responseId2", "unknown", "responseId0"));
+
+        Assertions.assertThat(actual).containsExactly(entities.get("responseId2"), entities.get("responseId0"));
+        verify(redis.stringCommands).mGet(any(byte[][].class));
+        verify(redis.stringCommands, never()).get(any(byte[].class));
+    }
+
+    @Test
+    void otherAdapter_delegateOneByOne() {
+        KeyValueTemplate template = new KeyValueTemplate(new MapKeyValueAdapter());
+        BatchingKeyValueRepository<ResponseDataEntity, String> target = repository(template);
+        Map<String, ResponseDataEntity> entities = BinaryRedisKeyValueAdapterTest.entities(3);
+
+        Assertions.assertThat(target.saveAll(entities.values())).containsExactlyElementsOf(entities.values());
+        Assertions.assertThat(target.findAllById(List.of("responseId2", "unknown", "responseId0")))
+                .containsExactly(entities.get("responseId2"), entities.get("responseId0"));
+    }
+
+    private BatchingKeyValueRepository<ResponseDataEntity, String> binaryRepository() {
+        KeyValueMappingContext<?, ?> mappingContext = new KeyValueMappingContext<>();
+        return repository(new KeyValueTemplate(new BinaryRedisKeyValueAdapter(redis.template, mappingContext), mappingContext));
+    }
+
+    private static BatchingKeyValueRepository<ResponseDataEntity, String> repository(KeyValueTemplate template) {
+        return new BatchingKeyValueRepository<>(
+                new KeyValueRepositoryFactory(template).getEntityInformation(ResponseDataEntity.class), template);
+    }
+}
@@ -0,0 +1,132 @@
+package com.myou.backend.simulator.infrastructure.storage;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.myou.backend.simulator.domain.model.ConditionEntry;
+import com.myou.backend.simulator.domain.model.DomainModelUtils;
+import com.myou.backend.simulator.domain.model.HttpStatus;
+import com.myou.backend.simulator.domain.model.ResponseData;
+import com.myou.backend.simulator.domain.model.capacity.CapacityPolicy;
+import com.myou.backend.simulator.domain.model.latency.PercentileLatency;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.keyvalue.core.mapping.context.KeyValueMappingContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class BinaryRedisKeyValueAdapterTest {
+
+    private final InMemoryRedis redis = new InMemoryRedis();
+    private final KeyValueMappingContext<?, ?> mappingContext = new KeyValueMappingContext<>();
+    private final BinaryRedisKeyValueAdapter target = new BinaryRedisKeyValueAdapter(redis.template, mappingContext);
+    private final String keyspace = mappingContext.getRequiredPersistentEntity(ResponseDataEntity.class).getKeySpace();
+
+    @Test
+    void serialize_responseData() throws Exception {
+        ResponseDataEntity entity = ResponseDataEntity.from(new ResponseData("responseId1",
+                Map.of("Content-Type", List.of("application/json"), "X-Trace", List.of("a", "b")),
+                "{\"key\":\"value\"}",
+                HttpStatus.of(201),
+                PercentileLatency.of(Map.of(50.0, 10L, 99.0, 200L))));
+
+        byte[] serialized = BinaryRedisKeyValueAdapter.serialize(entity);
+
+        Assertions.assertThat(BinaryRedisKeyValueAdapter.deserialize(serialized, ResponseDataEntity.class)).isEqualTo(entity);
+        Assertions.assertThat(serialized.length).isLessThan(JsonMapper.builder().build().writeValueAsBytes(entity).length);
+    }
+
+    @Test
+    void serialize_conditionEntry() {
+        ConditionEntry conditionEntry = DomainModelUtils.getConditionEntry();
+        ConditionEntryEntity entity = ConditionEntryEntity.from(new ConditionEntry(conditionEntry.interfaceId(),
+                conditionEntry.responseIdConditions(),
+                null,
+                new CapacityPolicy(100, 10, 5, 0, HttpStatus.of(503), 2L)));
+
+        ConditionEntryEntity actual = BinaryRedisKeyValueAdapter.deserialize(
+                BinaryRedisKeyValueAdapter.serialize(entity), ConditionEntryEntity.class);
+
+        Assertions.assertThat(actual).isEqualTo(entity);
+        Assertions.assertThat(actual.toConditionEntry().capacityPolicy()).isEqualTo(entity.capacity().toCapacityPolicy());
+    }
+
+    @Test
+    void putAll_pipelinedPerChunk() {
+        target.putAll(keyspace, entities(BinaryRedisKeyValueAdapter.CHUNK_SIZE + 1));
+
+        // 件数分の往復ではなく、CHUNK_SIZE 件毎に1回のパイプラインで送る
+        Assertions.assertThat(redis.pipelines.get()).isEqualTo(2);
+        Assertions.assertThat(redis.values).hasSize(BinaryRedisKeyValueAdapter.CHUNK_SIZE + 1)
+                .containsKey(BinaryRedisKeyValueAdapter.KEY_PREFIX + keyspace + ":responseId0");
+        Assertions.assertThat(target.count(keyspace)).isEqualTo(BinaryRedisKeyValueAdapter.CHUNK_SIZE + 1);
+    }
+
+    @Test
+    void getAll_mgetPerChunk() {
+        Map<String, ResponseDataEntity> entities = entities(BinaryRedisKeyValueAdapter.CHUNK_SIZE * 2);
+        target.putAll(keyspace, entities);
+        List<String> ids = new ArrayList<>(entities.keySet());
+        ids.add("unknown");
+
+        List<ResponseDataEntity> actual = target.getAll(ids, keyspace, ResponseDataEntity.class);
+
+        // 存在しないIDは結果に含めない
+        Assertions.assertThat(actual).containsExactlyElementsOf(entities.values());
+        verify(redis.stringCommands, times(3)).mGet(any(byte[][].class));
+    }
+
+    @Test
+    void delete_removeValueAndId() {
+        Map<String, ResponseDataEntity> entities = entities(2);
+        target.putAll(keyspace, entities);
+
+        Object deleted = target.delete("responseId0", keyspace, ResponseDataEntity.class);
+
+        Assertions.assertThat(deleted).isEqualTo(entities.get("responseId0"));
+        Assertions.assertThat(target.contains("responseId0", keyspace)).isFalse();
+        Assertions.assertThat(target.get("responseId0", keyspace, ResponseDataEntity.class)).isNull();
+        Assertions.assertThat(target.count(keyspace)).isEqualTo(1);
+        Assertions.assertThat(target.getAllOf(keyspace, ResponseDataEntity.class)).containsExactly(entities.get("responseId1"));
+        Assertions.assertThat(target.delete("unknown", keyspace, ResponseDataEntity.class)).isNull();
+    }
+
+    @Test
+    void deleteAllOf_deletePerChunk() {
+        target.putAll(keyspace, entities(BinaryRedisKeyValueAdapter.CHUNK_SIZE));
+        target.put("other", new ResponseDataEntity("other", null, "other", 200), "otherKeyspace");
+
+        target.deleteAllOf(keyspace);
+
+        // 定義 CHUNK_SIZE 件とIDの集合のキーを CHUNK_SIZE 件毎に削除する
+        verify(redis.keyCommands, times(2)).del(any(byte[][].class));
+        Assertions.assertThat(target.count(keyspace)).isZero();
+        Assertions.assertThat(redis.sets).doesNotContainKey(BinaryRedisKeyValueAdapter.KEY_PREFIX + keyspace);
+        Assertions.assertThat(redis.values).containsOnlyKeys(BinaryRedisKeyValueAdapter.KEY_PREFIX + "otherKeyspace:other");
+    }
+
+    @Test
+    void count_indexSize() {
+        Assertions.assertThat(target.count(keyspace)).isZero();
+
+        target.putAll(keyspace, entities(3));
+        // 同じIDの保存し直しは件数に含めない
+        target.put("responseId0", new ResponseDataEntity("responseId0", null, "updated", 200), keyspace);
+
+        Assertions.assertThat(target.count(keyspace)).isEqualTo(3);
+        Assertions.assertThat(target.get("responseId0", keyspace, ResponseDataEntity.class).responseBody()).isEqualTo("updated");
+    }
+
+    static Map<String, ResponseDataEntity> entities(int size) {
+        Map<String, ResponseDataEntity> entities = new LinkedHashMap<>();
+        IntStream.range(0, size).forEach(i -> entities.put("responseId" + i,
+                new ResponseDataEntity("responseId" + i, Map.of("Content-Type", List.of("application/json")), "body" + i, 200)));
+        return entities;
+    }
+}
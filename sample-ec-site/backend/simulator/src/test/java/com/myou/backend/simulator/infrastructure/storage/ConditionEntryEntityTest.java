@@ -2,12 +2,25 @@ package com.myou.backend.simulator.infrastructure.storage;
 
 import com.myou.backend.simulator.domain.model.ConditionEntry;
 import com.myou.backend.simulator.domain.model.DomainModelUtils;
+import com.myou.backend.simulator.domain.model.ResponseIdCondition;
+import com.myou.backend.simulator.domain.model.scenario.Scenario;
+import com.myou.backend.simulator.domain.policy.ConditionPolicy;
+import com.myou.backend.simulator.domain.policy.rule.ConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.PrefixConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.PresenceConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.RangeConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.RegexConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.SetConditionRule;
+import com.myou.backend.simulator.domain.type.RuleTarget;
 import com.myou.backend.simulator.domain.type.RuleType;
+import com.myou.backend.simulator.domain.type.ScenarioMode;
 import org.assertj.core.api.Assertions;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Set;
 
 class ConditionEntryEntityTest {
 
@@ -30,6 +43,41 @@ class ConditionEntryEntityTest {
         Assertions.assertThat(actual).isEqualTo(DomainModelUtils.getConditionEntry());
     }
 
+    @Test
+    void scenario_roundTrip() {
+        Scenario scenario = new Scenario(ScenarioMode.WEIGHTED_RANDOM,
+                List.of(new Scenario.Step("responseId1", 3), new Scenario.Step("responseId2", 1)),
+                RuleTarget.REQUEST_HEADER, "X-Correlation-Id");
+        ConditionEntry conditionEntry = new ConditionEntry("interfaceId1", List.of(
+                new ResponseIdCondition(null, new ConditionPolicy(List.of()), scenario)));
+
+        ConditionEntryEntity entity = ConditionEntryEntity.from(conditionEntry);
+
+        Assertions.assertThat(entity.responseIdConditions().get(0).scenario().steps())
+                .containsExactly(new ConditionEntryEntity.StepEntity("responseId1", 3),
+                        new ConditionEntryEntity.StepEntity("responseId2", 1));
+        Assertions.assertThat(entity.toConditionEntry()).isEqualTo(conditionEntry);
+    }
+
+    @Test
+    void ruleEntity_roundTrip() {
+        List<ConditionRule> rules = List.of(
+                new PrefixConditionRule(RuleTarget.REQUEST_HEADER, "header1", "tenant-"),
+                RegexConditionRule.of(RuleTarget.REQUEST_CONTENT, "/code", "[A-Z]+-\\d+"),
+                new RangeConditionRule(RuleTarget.REQUEST_CONTENT, "/amount", new BigDecimal("0.10"), null),
+                new PresenceConditionRule(RuleTarget.REQUEST_HEADER, "header2", true),
+                new PresenceConditionRule(RuleTarget.REQUEST_CONTENT, "/debug", false),
+                new SetConditionRule(RuleTarget.REQUEST_CONTENT, "/status", Set.of("A", "B")));
+
+        List<ConditionEntryEntity.RuleEntity> entities = rules.stream().map(ConditionEntryEntity.RuleEntity::from).toList();
+
+        Assertions.assertThat(entities).extracting(ConditionEntryEntity.RuleEntity::type)
+                .containsExactly(RuleType.PREFIX, RuleType.REGEX, RuleType.RANGE, RuleType.EXISTS, RuleType.ABSENT, RuleType.IN);
+        Assertions.assertThat(entities.get(2).min()).isEqualTo("0.10");
+        Assertions.assertThat(entities.stream().map(ConditionEntryEntity.RuleEntity::toConditionRule).toList())
+                .isEqualTo(rules);
+    }
+
     @NotNull
     private static ConditionEntryEntity getConditionEntryEntity() {
         List<ConditionEntryEntity.RuleEntity> rules = List.of(
@@ -0,0 +1,106 @@
+package com.myou.backend.simulator.infrastructure.storage;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisSetCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link RedisConnection} をモックし、文字列・集合のコマンドをメモリ上のマップで再現する。
+ * {@link StringRedisTemplate} の execute・executePipelined はモックの接続でコールバックを実行する。
+ */
+@SuppressWarnings("unchecked")
+class InMemoryRedis {
+
+    final Map<String, byte[]> values = new HashMap<>();
+    final Map<String, Set<String>> sets = new HashMap<>();
+    final AtomicInteger pipelines = new AtomicInteger();
+
+    final StringRedisTemplate template = mock(StringRedisTemplate.class);
+    final RedisConnection connection = mock(RedisConnection.class);
+    final RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+    final RedisSetCommands setCommands = mock(RedisSetCommands.class);
+    final RedisKeyCommands keyCommands = mock(RedisKeyCommands.class);
+
+    InMemoryRedis() {
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        when(connection.setCommands()).thenReturn(setCommands);
+        when(connection.keyCommands()).thenReturn(keyCommands);
+        when(template.execute(any(RedisCallback.class))).thenAnswer(invocation ->
+                invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection));
+        when(template.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            pipelines.incrementAndGet();
+            invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection);
+            return List.of();
+        });
+
+        when(stringCommands.set(any(byte[].class), any(byte[].class))).thenAnswer(invocation -> {
+            values.put(string(invocation.getArgument(0)), invocation.getArgument(1));
+            return true;
+        });
+        when(stringCommands.get(any(byte[].class))).thenAnswer(invocation -> values.get(string(invocation.getArgument(0))));
+        doAnswer(invocation -> {
+            List<byte[]> result = new ArrayList<>();
+            for (byte[] key : (byte[][]) invocation.getRawArguments()[0]) {
+                result.add(values.get(string(key)));
+            }
+            return result;
+        }).when(stringCommands).mGet(any(byte[][].class));
+
+        doAnswer(invocation -> {
+            long added = 0;
+            for (byte[] member : (byte[][]) invocation.getRawArguments()[1]) {
+                added += sets.computeIfAbsent(string(invocation.getArgument(0)), k -> new LinkedHashSet<>()).add(string(member)) ? 1 : 0;
+            }
+            return added;
+        }).when(setCommands).sAdd(any(byte[].class), any(byte[][].class));
+        doAnswer(invocation -> {
+            long removed = 0;
+            for (byte[] member : (byte[][]) invocation.getRawArguments()[1]) {
+                removed += sets.getOrDefault(string(invocation.getArgument(0)), Set.of()).remove(string(member)) ? 1 : 0;
+            }
+            return removed;
+        }).when(setCommands).sRem(any(byte[].class), any(byte[][].class));
+        when(setCommands.sMembers(any(byte[].class))).thenAnswer(invocation ->
+                sets.getOrDefault(string(invocation.getArgument(0)), Set.of()).stream()
+                        .map(InMemoryRedis::bytes)
+                        .collect(Collectors.toCollection(LinkedHashSet::new)));
+        when(setCommands.sCard(any(byte[].class))).thenAnswer(invocation ->
+                (long) sets.getOrDefault(string(invocation.getArgument(0)), Set.of()).size());
+
+        when(keyCommands.exists(any(byte[].class))).thenAnswer(invocation -> values.containsKey(string(invocation.getArgument(0))));
+        doAnswer(invocation -> {
+            long deleted = 0;
+            for (byte[] key : (byte[][]) invocation.getRawArguments()[0]) {
+                String k = string(key);
+                deleted += (values.remove(k) != null ? 1 : 0) + (sets.remove(k) != null ? 1 : 0);
+            }
+            return deleted;
+        }).when(keyCommands).del(any(byte[][].class));
+    }
+
+    static String string(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
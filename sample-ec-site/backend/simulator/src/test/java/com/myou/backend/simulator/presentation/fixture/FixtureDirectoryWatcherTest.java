@@ -0,0 +1,114 @@
+package com.myou.backend.simulator.presentation.fixture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myou.backend.simulator.application.service.ConditionEntryService;
+import com.myou.backend.simulator.application.service.ResponseDataService;
+import com.myou.backend.simulator.domain.model.ResponseData;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+@SpringBootTest
+class FixtureDirectoryWatcherTest {
+
+    @Autowired
+    private ResponseDataService responseDataService;
+
+    @Autowired
+    private ConditionEntryService conditionEntryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void apply() throws Exception {
+        FixtureDirectoryWatcher target = newWatcher();
+        Path responses = directory.resolve("sample.responses.ndjson");
+        Path conditions = directory.resolve("sample.conditions.json");
+        Files.writeString(responses, """
+                {"responseId":"fixtureResponseId1","responseBody":"body1","statusCode":200}
+                {"responseId":"fixtureResponseId2","responseBody":"body2","statusCode":200}
+                """);
+        Files.writeString(conditions, """
+                [{"interfaceId":"fixtureInterfaceId1","responseIdConditions":[{"responseId":"fixtureResponseId1",
+                  "policy":{"rules":[{"type":"REQUEST_HEADER","key":"header1","expectedValue":"value1"}]}}]}]
+                """);
+
+        target.apply(List.of(conditions, responses));
+
+        Assertions.assertThat(body("fixtureResponseId1")).contains("body1");
+        Assertions.assertThat(body("fixtureResponseId2")).contains("body2");
+        Assertions.assertThat(conditionEntryService.findByInterfaceId("fixtureInterfaceId1")).isPresent();
+
+        // 変更した定義を保存し、なくなった定義を削除する
+        Files.writeString(responses, """
+                {"responseId":"fixtureResponseId1","responseBody":"changed","statusCode":200}
+                """);
+        Files.delete(conditions);
+        target.apply(List.of(responses, conditions));
+
+        Assertions.assertThat(body("fixtureResponseId1")).contains("changed");
+        Assertions.assertThat(responseDataService.getResponseDataById("fixtureResponseId2")).isEmpty();
+        Assertions.assertThat(conditionEntryService.findByInterfaceId("fixtureInterfaceId1")).isEmpty();
+    }
+
+    @Test
+    void apply_invalidJson() throws Exception {
+        FixtureDirectoryWatcher target = newWatcher();
+        Path responses = directory.resolve("invalid.responses.json");
+        Files.writeString(responses, """
+                [{"responseId":"fixtureResponseId3","responseBody":"body3","statusCode":200}]
+                """);
+        target.apply(List.of(responses));
+
+        // 書き込み途中等で読めない場合は前回の内容を維持する
+        Files.writeString(responses, "[{\"responseId\":\"fixtureResp");
+        target.apply(List.of(responses));
+
+        Assertions.assertThat(body("fixtureResponseId3")).contains("body3");
+    }
+
+    @Test
+    void run() throws Exception {
+        FixtureDirectoryWatcher target = newWatcher();
+        Files.writeString(directory.resolve("initial.responses.ndjson"), """
+                {"responseId":"fixtureResponseId4","responseBody":"body4","statusCode":200}
+                """);
+        try {
+            target.run(null);
+            Assertions.assertThat(body("fixtureResponseId4")).contains("body4");
+
+            Files.writeString(directory.resolve("added.responses.ndjson"), """
+                    {"responseId":"fixtureResponseId5","responseBody":"body5","statusCode":200}
+                    """);
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+            while (body("fixtureResponseId5").isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            Assertions.assertThat(body("fixtureResponseId5")).contains("body5");
+        } finally {
+            target.close();
+        }
+    }
+
+    private FixtureDirectoryWatcher newWatcher() {
+        return new FixtureDirectoryWatcher(responseDataService, conditionEntryService, objectMapper,
+                directory.toString(), Duration.ofMillis(50));
+    }
+
+    private Optional<String> body(String responseId) {
+        return responseDataService.getResponseDataById(responseId).map(ResponseData::responseBody);
+    }
+}
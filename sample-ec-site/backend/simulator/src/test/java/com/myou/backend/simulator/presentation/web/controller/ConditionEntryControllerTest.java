@@ -16,6 +16,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -46,6 +47,29 @@ class ConditionEntryControllerTest {
 
     }
 
+    @Test
+    void importConditionEntries_jsonArray() throws Exception {
+        String json = """
+                [
+                  {"interfaceId":"bulkInterface1","responseIdConditions":[{"responseId":"responseId1","policy":{"rules":[]}}]},
+                  {"interfaceId":"bulkInterface2","responseIdConditions":[{"responseId":"responseId2","policy":{"rules":[]}}]}
+                ]
+                """;
+
+        mockMvc.perform(post("/api/conditions/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.succeeded").value(2))
+                .andExpect(jsonPath("$.results[1].id").value("bulkInterface2"))
+                .andDo(print());
+
+        mockMvc.perform(get("/api/conditions/{interfaceId}", "bulkInterface2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
     @NotNull
     private static ConditionEntryRequest getConditionEntryRequest() {
         ConditionEntryRequest.RuleRequest rule1 = new ConditionEntryRequest.RuleRequest(
@@ -1,12 +1,19 @@
 package com.myou.backend.simulator.presentation.web.controller;
 
 import com.myou.backend.simulator.domain.model.DomainModelUtils;
+import com.myou.backend.simulator.domain.model.scenario.Scenario;
+import com.myou.backend.simulator.domain.policy.rule.RangeConditionRule;
+import com.myou.backend.simulator.domain.policy.rule.SetConditionRule;
+import com.myou.backend.simulator.domain.type.RuleTarget;
 import com.myou.backend.simulator.domain.type.RuleType;
+import com.myou.backend.simulator.domain.type.ScenarioMode;
 import org.assertj.core.api.Assertions;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Set;
 
 class ConditionEntryRequestTest {
 
@@ -17,6 +24,36 @@ class ConditionEntryRequestTest {
         Assertions.assertThat(actual).isEqualTo(DomainModelUtils.getConditionEntry());
     }
 
+    @Test
+    void ruleRequest_toConditionRule() {
+        Assertions.assertThat(new ConditionEntryRequest.RuleRequest(RuleType.IN, "/status", null,
+                RuleTarget.REQUEST_CONTENT, List.of("A", "B", "A"), null, null).toConditionRule())
+                .isEqualTo(new SetConditionRule(RuleTarget.REQUEST_CONTENT, "/status", Set.of("A", "B")));
+        Assertions.assertThat(new ConditionEntryRequest.RuleRequest(RuleType.RANGE, "/amount", null,
+                RuleTarget.REQUEST_CONTENT, null, BigDecimal.ONE, BigDecimal.TEN).toConditionRule())
+                .isEqualTo(new RangeConditionRule(RuleTarget.REQUEST_CONTENT, "/amount", BigDecimal.ONE, BigDecimal.TEN));
+        Assertions.assertThatThrownBy(() -> new ConditionEntryRequest.RuleRequest(RuleType.PREFIX, "header1", "v").toConditionRule())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("target is required for rule type PREFIX");
+    }
+
+    @Test
+    void scenarioRequest_toScenario() {
+        ConditionEntryRequest.ScenarioRequest request = new ConditionEntryRequest.ScenarioRequest(ScenarioMode.SEQUENCE,
+                List.of(new ConditionEntryRequest.StepRequest("pending", null), new ConditionEntryRequest.StepRequest("done", null)),
+                RuleTarget.REQUEST_HEADER, "X-Correlation-Id");
+
+        Assertions.assertThat(request.toScenario()).isEqualTo(new Scenario(ScenarioMode.SEQUENCE,
+                List.of(new Scenario.Step("pending"), new Scenario.Step("done")), RuleTarget.REQUEST_HEADER, "X-Correlation-Id"));
+        Assertions.assertThatThrownBy(() -> new ConditionEntryRequest.ScenarioRequest(ScenarioMode.SEQUENCE, List.of(), null, null)
+                        .toScenario())
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> new ConditionEntryRequest.ScenarioRequest(ScenarioMode.ROUND_ROBIN,
+                        List.of(new ConditionEntryRequest.StepRequest("pending", null)), RuleTarget.REQUEST_HEADER, null)
+                        .toScenario())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @NotNull
     private static ConditionEntryRequest getConditionEntryRequest() {
         ConditionEntryRequest.RuleRequest ruleDefinitionRequest1 =
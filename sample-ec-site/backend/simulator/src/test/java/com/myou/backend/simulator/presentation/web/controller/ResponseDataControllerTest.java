@@ -14,6 +14,7 @@ import java.util.Map;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -56,4 +57,54 @@ class ResponseDataControllerTest {
                 .andExpect(status().isNotFound())
                 .andDo(print());
     }
+
+    @Test
+    void importResponseData_ndjson() throws Exception {
+        String ndjson = """
+                {"responseId":"bulk1","responseBody":"body1","statusCode":200}
+                {"responseId":"bulk2","responseBody":"body2","statusCode":"abc"}
+                {"responseId":"bulk3","responseBody":"body3","statusCode":0}
+                {"responseId":"bulk4","responseBody":"body4","statusCode":201}
+                """;
+
+        mockMvc.perform(post("/api/responses/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(4))
+                .andExpect(jsonPath("$.succeeded").value(2))
+                .andExpect(jsonPath("$.results[0].id").value("bulk1"))
+                .andExpect(jsonPath("$.results[0].success").value(true))
+                .andExpect(jsonPath("$.results[1].success").value(false))
+                .andExpect(jsonPath("$.results[2].success").value(false))
+                .andExpect(jsonPath("$.results[3].id").value("bulk4"))
+                .andExpect(jsonPath("$.results[3].success").value(true))
+                .andDo(print());
+
+        mockMvc.perform(get("/api/responses/{responseId}", "bulk4")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.responseBody").value("body4"));
+    }
+
+    @Test
+    void importResponseData_template() throws Exception {
+        String ndjson = """
+                {"responseId":"template1","responseBody":"${header:id","statusCode":200}
+                {"responseId":"template2","responseBody":"${header:id","statusCode":200,"template":true}
+                """;
+
+        // テンプレートの構文はテンプレートとして保存する場合のみ検証する
+        mockMvc.perform(post("/api/responses/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].success").value(true))
+                .andExpect(jsonPath("$.results[1].success").value(false));
+
+        mockMvc.perform(get("/api/responses/{responseId}", "template1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.template").value(false));
+    }
 }
@@ -1,21 +1,35 @@
 package com.myou.backend.simulator.presentation.web.controller;
 
 import com.myou.backend.simulator.application.service.SimulatorService;
+import com.myou.backend.simulator.application.upstream.UpstreamRequest;
 import com.myou.backend.simulator.domain.model.HttpStatus;
 import com.myou.backend.simulator.domain.model.ResponseData;
+import com.myou.backend.simulator.infrastructure.body.MappedBodyStore;
+import com.myou.backend.simulator.infrastructure.cache.DefinitionCache;
+import com.myou.backend.simulator.infrastructure.capture.CapturedRequest;
+import com.myou.backend.simulator.infrastructure.capture.TrafficCapture;
+import com.myou.backend.simulator.infrastructure.metrics.SimulatorMetrics;
+import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.LinkedMultiValueMap;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -24,6 +38,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(SimulatorController.class)
+@Import({SimulatorMetrics.class, MappedBodyStore.class, DefinitionCache.class})
 @AutoConfigureObservability
 class SimulatorControllerTest {
 
@@ -33,6 +48,9 @@ class SimulatorControllerTest {
     @MockBean
     private SimulatorService simulatorService;
 
+    @MockBean
+    private TrafficCapture trafficCapture;
+
     @Test
     public void testProcessJsonRequest() throws Exception {
 
@@ -104,4 +122,109 @@ class SimulatorControllerTest {
                 .andExpect(content().string(containsString("queryParamValue")))
                 .andDo(print());
     }
+
+    @Test
+    public void testProcessJsonRequest_capture() throws Exception {
+
+        ResponseData responseData = new ResponseData("responseId23", Map.of("Content-Type", List.of("application/json")), "{\"message\":\"Success\"}", HttpStatus.of(201));
+        when(simulatorService.processRequest(any())).thenReturn(responseData);
+        when(trafficCapture.isRunning()).thenReturn(true);
+
+        mockMvc.perform(post("/interfaceId123")
+                        .contentType("application/json")
+                        .content("{\"key\":\"value\"}"))
+                .andExpect(status().isCreated());
+
+        ArgumentCaptor<CapturedRequest> captured = ArgumentCaptor.forClass(CapturedRequest.class);
+        verify(trafficCapture).offer(anyLong(), captured.capture());
+        Assertions.assertThat(captured.getValue().method()).isEqualTo("POST");
+        Assertions.assertThat(captured.getValue().interfaceId()).isEqualTo("interfaceId123");
+        Assertions.assertThat(new String(captured.getValue().body(), StandardCharsets.UTF_8)).isEqualTo("{\"key\":\"value\"}");
+        Assertions.assertThat(captured.getValue().headers()).containsKey("Content-Type");
+        Assertions.assertThat(captured.getValue().responseId()).isEqualTo("responseId23");
+        Assertions.assertThat(captured.getValue().statusCode()).isEqualTo(201);
+    }
+
+    @Test
+    public void testProcessGetRequest_capture() throws Exception {
+
+        ResponseData responseData = new ResponseData("responseId23", Map.of(), "queryParamValue", HttpStatus.of(200));
+        when(simulatorService.processRequest(any())).thenReturn(responseData);
+        when(trafficCapture.isRunning()).thenReturn(true);
+
+        mockMvc.perform(get("/interfaceIdGet?query=testQuery"))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<CapturedRequest> captured = ArgumentCaptor.forClass(CapturedRequest.class);
+        verify(trafficCapture).offer(anyLong(), captured.capture());
+        Assertions.assertThat(captured.getValue().queryString()).isEqualTo("query=testQuery");
+        Assertions.assertThat(captured.getValue().body()).isNull();
+    }
+
+    @Test
+    public void testProcessRequest_notCapturing() throws Exception {
+
+        ResponseData responseData = new ResponseData("responseId23", Map.of(), "queryParamValue", HttpStatus.of(200));
+        when(simulatorService.processRequest(any())).thenReturn(responseData);
+
+        mockMvc.perform(get("/interfaceIdGet?query=testQuery"))
+                .andExpect(status().isOk());
+
+        verify(trafficCapture, never()).offer(anyLong(), any());
+    }
+
+    @Test
+    public void testProcessJsonRequest_recordThrough() throws Exception {
+
+        ResponseData responseData = new ResponseData("proxy-interfaceId123-0", Map.of(), "{\"echo\":true}", HttpStatus.of(200));
+        when(simulatorService.recordThroughEnabled()).thenReturn(true);
+        when(simulatorService.processRequest(any(), any())).thenReturn(responseData);
+
+        mockMvc.perform(post("/interfaceId123?mode=test")
+                        .contentType("application/json")
+                        .content("{\"key\":\"value\"}"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"echo\":true}"));
+
+        // 上流に転送できるよう、ボディとクエリ文字列を保持して渡す
+        ArgumentCaptor<UpstreamRequest> upstreamRequest = ArgumentCaptor.forClass(UpstreamRequest.class);
+        verify(simulatorService).processRequest(any(), upstreamRequest.capture());
+        Assertions.assertThat(upstreamRequest.getValue().method()).isEqualTo("POST");
+        Assertions.assertThat(upstreamRequest.getValue().queryString()).isEqualTo("mode=test");
+        Assertions.assertThat(new String(upstreamRequest.getValue().body(), StandardCharsets.UTF_8)).isEqualTo("{\"key\":\"value\"}");
+        verify(trafficCapture, never()).offer(anyLong(), any());
+    }
+
+    @Test
+    public void testProcessGetRequest_defaultContentType() throws Exception {
+
+        ResponseData responseData = new ResponseData("responseId23", null, "{\"message\":\"Success\"}", HttpStatus.of(200));
+        when(simulatorService.processRequest(any())).thenReturn(responseData);
+
+        // Content-Typeのないレスポンスデータは、Acceptに応じたContent-Typeで返す
+        mockMvc.perform(get("/interfaceIdGet").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+        mockMvc.perform(get("/interfaceIdGet"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/plain;charset=UTF-8"));
+    }
+
+    @Test
+    public void testNegotiatedContentType() {
+        Assertions.assertThat(SimulatorController.negotiatedContentType(new LinkedMultiValueMap<>()))
+                .isEqualTo("text/plain;charset=UTF-8");
+        Assertions.assertThat(negotiatedContentType("*/*")).isEqualTo("text/plain;charset=UTF-8");
+        Assertions.assertThat(negotiatedContentType("text/*")).isEqualTo("text/plain;charset=UTF-8");
+        Assertions.assertThat(negotiatedContentType("application/json")).isEqualTo("application/json");
+        Assertions.assertThat(negotiatedContentType("application/xml;q=0.5, text/html")).isEqualTo("text/html;charset=UTF-8");
+        Assertions.assertThat(negotiatedContentType("application/*")).isEqualTo("application/octet-stream;charset=UTF-8");
+        Assertions.assertThat(negotiatedContentType("invalid")).isEqualTo("text/plain;charset=UTF-8");
+    }
+
+    private static String negotiatedContentType(String accept) {
+        LinkedMultiValueMap<String, String> headers = new LinkedMultiValueMap<>();
+        headers.add("accept", accept);
+        return SimulatorController.negotiatedContentType(headers);
+    }
 }
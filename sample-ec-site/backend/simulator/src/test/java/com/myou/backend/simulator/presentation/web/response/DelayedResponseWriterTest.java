@@ -0,0 +1,90 @@
+package com.myou.backend.simulator.presentation.web.response;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class DelayedResponseWriterTest {
+
+    private final DelayedResponseWriter target = new DelayedResponseWriter();
+
+    @AfterEach
+    void tearDown() {
+        target.close();
+    }
+
+    @Test
+    void writeAfter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(1);
+        AtomicInteger finished = new AtomicInteger();
+
+        long start = System.nanoTime();
+        target.writeAfter(Duration.ofMillis(100), request, response, r -> {
+            r.setStatus(202);
+            r.getWriter().write("delayed");
+            written.countDown();
+        }, () -> {
+            finished.incrementAndGet();
+            completed.countDown();
+        });
+
+        // 書き込みを待たずに呼び出し元へ戻る
+        Assertions.assertThat(request.isAsyncStarted()).isTrue();
+        Assertions.assertThat(written.await(5, TimeUnit.SECONDS)).isTrue();
+        Assertions.assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+        Assertions.assertThat(response.getStatus()).isEqualTo(202);
+        Assertions.assertThat(response.getContentAsString()).isEqualTo("delayed");
+        Assertions.assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+        Assertions.assertThat(finished).hasValue(1);
+    }
+
+    @Test
+    void writeAfter_timeout() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicInteger writes = new AtomicInteger();
+        AtomicInteger finished = new AtomicInteger();
+
+        target.writeAfter(Duration.ofMillis(100), request, response, r -> writes.incrementAndGet(), finished::incrementAndGet);
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+
+        // タイムアウトした時点で終了時の処理を呼び出し、遅延後は書き込まない
+        Assertions.assertThat(finished).hasValue(1);
+        Thread.sleep(300);
+        Assertions.assertThat(writes).hasValue(0);
+        Assertions.assertThat(finished).hasValue(1);
+    }
+
+    @Test
+    void writeAfter_rejected() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicInteger finished = new AtomicInteger();
+        target.close();
+
+        target.writeAfter(Duration.ofMillis(100), request, response, r -> r.setStatus(200), finished::incrementAndGet);
+
+        Assertions.assertThat(response.getStatus()).isEqualTo(503);
+        Assertions.assertThat(request.isAsyncStarted()).isFalse();
+        Assertions.assertThat(finished).hasValue(1);
+    }
+}
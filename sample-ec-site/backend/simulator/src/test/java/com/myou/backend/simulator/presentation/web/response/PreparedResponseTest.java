@@ -0,0 +1,201 @@
+package com.myou.backend.simulator.presentation.web.response;
+
+import com.myou.backend.simulator.domain.model.HttpStatus;
+import com.myou.backend.simulator.domain.model.QueryParamsContent;
+import com.myou.backend.simulator.domain.model.RequestData;
+import com.myou.backend.simulator.domain.model.ResponseData;
+import com.myou.backend.simulator.infrastructure.body.MappedBodyStore;
+import com.myou.backend.simulator.infrastructure.cache.DefinitionCache;
+import com.myou.backend.simulator.infrastructure.cache.DefinitionType;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+class PreparedResponseTest {
+
+    private static final String LARGE_BODY = "{\"message\":\"" + "あ".repeat(PreparedResponse.COMPRESSION_THRESHOLD) + "\"}";
+
+    @Test
+    void writeTo_identity() throws Exception {
+        PreparedResponse target = PreparedResponse.prepare(new ResponseData("responseId1",
+                Map.of("Content-Type", List.of("application/json"), "Content-Length", List.of("999")),
+                "{\"message\":\"Success\"}",
+                HttpStatus.of(201)));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        target.writeTo(response, "gzip", "text/plain");
+
+        Assertions.assertThat(response.getStatus()).isEqualTo(201);
+        Assertions.assertThat(response.getContentType()).isEqualTo("application/json");
+        Assertions.assertThat(response.getContentLength()).isEqualTo(21);
+        Assertions.assertThat(response.getHeader("Content-Encoding")).isNull();
+        Assertions.assertThat(response.getContentAsString()).isEqualTo("{\"message\":\"Success\"}");
+    }
+
+    @Test
+    void writeTo_defaultContentType() throws Exception {
+        PreparedResponse target = PreparedResponse.prepare(new ResponseData("responseId1", null, "value", HttpStatus.ok()));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        target.writeTo(response, null, "text/plain;charset=UTF-8");
+
+        Assertions.assertThat(response.getContentType()).isEqualTo("text/plain;charset=UTF-8");
+        Assertions.assertThat(response.getContentAsString()).isEqualTo("value");
+    }
+
+    @Test
+    void writeTo_gzip() throws Exception {
+        PreparedResponse target = PreparedResponse.prepare(new ResponseData("responseId1",
+                Map.of("Content-Type", List.of("application/json")), LARGE_BODY, HttpStatus.ok()));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        target.writeTo(response, "deflate;q=0.5, gzip", null);
+
+        Assertions.assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+        Assertions.assertThat(response.getHeader("Vary")).isEqualTo("Accept-Encoding");
+        byte[] body = response.getContentAsByteArray();
+        Assertions.assertThat(response.getContentLength()).isEqualTo(body.length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            Assertions.assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(LARGE_BODY);
+        }
+    }
+
+    @Test
+    void writeTo_deflate() throws Exception {
+        PreparedResponse target = PreparedResponse.prepare(new ResponseData("responseId1", null, LARGE_BODY, HttpStatus.ok()));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        target.writeTo(response, "gzip;q=0, deflate", null);
+
+        Assertions.assertThat(response.getHeader("Content-Encoding")).isEqualTo("deflate");
+        try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            Assertions.assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(LARGE_BODY);
+        }
+    }
+
+    @Test
+    void writeTo_notCompressWhenAlreadyEncoded() throws Exception {
+        PreparedResponse target = PreparedResponse.prepare(new ResponseData("responseId1",
+                Map.of("Content-Encoding", List.of("br")), LARGE_BODY, HttpStatus.ok()));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        target.writeTo(response, "*", null);
+
+        Assertions.assertThat(response.getHeader("Content-Encoding")).isEqualTo("br");
+        Assertions.assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo(LARGE_BODY);
+    }
+
+    @Test
+    void preparedResponseCache_reuseUntilReplaced() {
+        PreparedResponseCache target = new PreparedResponseCache();
+        ResponseData responseData = new ResponseData("responseId1", null, "value", HttpStatus.ok());
+
+        PreparedResponse first = target.get(responseData);
+        Assertions.assertThat(target.get(responseData)).isSameAs(first);
+
+        ResponseData replaced = new ResponseData("responseId1", null, "value2", HttpStatus.ok());
+        Assertions.assertThat(target.get(replaced)).isNotSameAs(first);
+        Assertions.assertThat(target.get(replaced).source()).isSameAs(replaced);
+    }
+
+    @Test
+    void preparedResponseCache_evictWithDefinitionCache() {
+        PreparedResponseCache target = new PreparedResponseCache();
+        DefinitionCache definitionCache = new DefinitionCache();
+        definitionCache.addResponseDataEvictionListener(target::evict);
+        ResponseData responseData = new ResponseData("responseId1", null, "value", HttpStatus.ok());
+        definitionCache.putResponseData(responseData);
+        PreparedResponse first = target.get(responseData);
+
+        // 削除されたレスポンスデータのエンコード結果は残さない
+        definitionCache.evict(DefinitionType.RESPONSE_DATA, "responseId1");
+        Assertions.assertThat(target.get(responseData)).isNotSameAs(first);
+
+        PreparedResponse second = target.get(responseData);
+        definitionCache.putResponseData(new ResponseData("responseId1", null, "value2", HttpStatus.ok()));
+        Assertions.assertThat(target.get(responseData)).isNotSameAs(second);
+    }
+
+    @Test
+    void writeTo_template() throws Exception {
+        PreparedResponse target = PreparedResponse.prepare(new ResponseData("responseId1",
+                Map.of("Content-Type", List.of("application/json")),
+                "{\"id\":\"${query:id}\",\"padding\":\"" + "x".repeat(PreparedResponse.COMPRESSION_THRESHOLD) + "\"}",
+                HttpStatus.ok()).withTemplate(true));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        int written = target.writeTo(response, "gzip", null,
+                new RequestData("interfaceId1", Map.of(), new QueryParamsContent(Map.of("id", List.of("a\"b")))));
+
+        // レンダリング結果はリクエスト毎に異なるため圧縮しない
+        Assertions.assertThat(response.getHeader("Content-Encoding")).isNull();
+        Assertions.assertThat(response.getHeader("Vary")).isNull();
+        Assertions.assertThat(response.getContentAsString()).startsWith("{\"id\":\"a\\\"b\",");
+        Assertions.assertThat(response.getContentLength()).isEqualTo(written);
+    }
+
+    @Test
+    void writeTo_templateNotEnabled() throws Exception {
+        String body = "{\"id\":\"${query:id}\"}";
+        PreparedResponse target = PreparedResponse.prepare(new ResponseData("responseId1",
+                Map.of("Content-Type", List.of("application/json")), body, HttpStatus.ok()));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        target.writeTo(response, null, null,
+                new RequestData("interfaceId1", Map.of(), new QueryParamsContent(Map.of("id", List.of("a")))));
+
+        // テンプレートとして保存していないボディはプレースホルダの形式を含んでもそのまま返す
+        Assertions.assertThat(response.getContentAsString()).isEqualTo(body);
+    }
+
+    @Test
+    void writeTo_mappedBody(@TempDir Path directory) throws Exception {
+        MappedBodyStore store = new MappedBodyStore(true, directory, DataSize.ofBytes(16));
+        ResponseData responseData = store.offload(new ResponseData("responseId1",
+                Map.of("Content-Type", List.of("application/json")), LARGE_BODY, HttpStatus.ok()));
+        PreparedResponseCache cache = new PreparedResponseCache(store::open);
+        PreparedResponse target = cache.get(responseData);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        int written = target.writeTo(new MockHttpServletRequest(), response, "gzip", null, null);
+
+        // ヒープに載せないため圧縮しない
+        byte[] expected = LARGE_BODY.getBytes(StandardCharsets.UTF_8);
+        Assertions.assertThat(written).isEqualTo(expected.length);
+        Assertions.assertThat(response.getHeader("Content-Encoding")).isNull();
+        Assertions.assertThat(response.getContentLengthLong()).isEqualTo(expected.length);
+        Assertions.assertThat(response.getContentAsByteArray()).isEqualTo(expected);
+    }
+
+    @Test
+    void writeTo_sendfile(@TempDir Path directory) throws Exception {
+        MappedBodyStore store = new MappedBodyStore(true, directory, DataSize.ofBytes(16));
+        ResponseData responseData = store.offload(new ResponseData("responseId1", null, LARGE_BODY, HttpStatus.ok()));
+        PreparedResponse target = PreparedResponse.prepare(responseData, store.open(responseData.bodyHandle()));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(PreparedResponse.SENDFILE_SUPPORT, true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        target.writeTo(request, response, null, "text/plain", null);
+
+        // ボディはコンテナがファイルから送信する
+        long length = responseData.bodyHandle().length();
+        Assertions.assertThat(request.getAttribute(PreparedResponse.SENDFILE_FILENAME))
+                .isEqualTo(directory.resolve(responseData.bodyHandle().key() + ".body").toAbsolutePath().toString());
+        Assertions.assertThat(request.getAttribute(PreparedResponse.SENDFILE_START)).isEqualTo(0L);
+        Assertions.assertThat(request.getAttribute(PreparedResponse.SENDFILE_END)).isEqualTo(length);
+        Assertions.assertThat(response.getContentLengthLong()).isEqualTo(length);
+        Assertions.assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+}
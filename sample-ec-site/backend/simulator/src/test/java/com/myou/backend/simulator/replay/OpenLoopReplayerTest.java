@@ -0,0 +1,109 @@
+package com.myou.backend.simulator.replay;
+
+import com.myou.backend.simulator.infrastructure.capture.CapturedRequest;
+import com.sun.net.httpserver.HttpServer;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+class OpenLoopReplayerTest {
+
+    private HttpServer server;
+    private final Queue<String> received = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/simulator/", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            received.add(exchange.getRequestMethod() + " " + exchange.getRequestURI() + " " + body);
+            exchange.sendResponseHeaders(exchange.getRequestURI().getPath().endsWith("busy") ? 503 : 200, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void replay() throws Exception {
+        long interval = TimeUnit.MILLISECONDS.toNanos(100);
+        List<CapturedRequest> requests = List.of(
+                new CapturedRequest(2 * interval, "GET", "busy", "a=1", Map.of(), null, "r3", 200),
+                new CapturedRequest(0, "POST", "json", null,
+                        Map.of("Content-Type", List.of("application/json"), "Content-Length", List.of("2")),
+                        "{}".getBytes(StandardCharsets.UTF_8), "r1", 200),
+                new CapturedRequest(interval, "GET", "get", null, Map.of(), null, null, 0));
+
+        ReplayReport report = replayer(1.0).replay(requests);
+
+        Assertions.assertThat(received).containsExactly(
+                "POST /simulator/json {}",
+                "GET /simulator/get ",
+                "GET /simulator/busy?a=1 ");
+        Assertions.assertThat(report.sent()).isEqualTo(3);
+        Assertions.assertThat(report.errors()).isZero();
+        // 記録時のステータスコードが0(不明)のものは比較しない
+        Assertions.assertThat(report.statusMismatches()).isEqualTo(1);
+        Assertions.assertThat(report.histogram().getTotalCount()).isEqualTo(3);
+        // 到着間隔どおりに送信する
+        Assertions.assertThat(report.elapsedNanos()).isGreaterThanOrEqualTo(2 * interval);
+    }
+
+    @Test
+    void replay_scaledRate() throws Exception {
+        long interval = TimeUnit.MILLISECONDS.toNanos(200);
+        List<CapturedRequest> requests = List.of(
+                new CapturedRequest(0, "GET", "a", null, Map.of(), null, null, 200),
+                new CapturedRequest(interval, "GET", "b", null, Map.of(), null, null, 200),
+                new CapturedRequest(2 * interval, "GET", "c", null, Map.of(), null, null, 200));
+
+        ReplayReport report = replayer(4.0).replay(requests);
+
+        Assertions.assertThat(report.sent()).isEqualTo(3);
+        Assertions.assertThat(report.elapsedNanos()).isBetween(interval / 2, interval * 2);
+    }
+
+    @Test
+    void replay_connectionRefused() throws Exception {
+        server.stop(0);
+
+        ReplayReport report = replayer(1.0).replay(List.of(
+                new CapturedRequest(0, "GET", "a", null, Map.of(), null, null, 200)));
+
+        Assertions.assertThat(report.errors()).isEqualTo(1);
+        Assertions.assertThat(report.histogram().getTotalCount()).isEqualTo(1);
+    }
+
+    @Test
+    void toHttpRequest_skipsRestrictedHeaders() {
+        HttpRequest request = replayer(1.0).toHttpRequest(new CapturedRequest(0, "POST", "json", "x=1",
+                Map.of("Host", List.of("origin"), "Connection", List.of("keep-alive"), "X-Test", List.of("1", "2")),
+                new byte[]{1}, null, 200));
+
+        Assertions.assertThat(request.uri().getPath()).isEqualTo("/simulator/json");
+        Assertions.assertThat(request.uri().getQuery()).isEqualTo("x=1");
+        Assertions.assertThat(request.headers().map()).containsOnlyKeys("X-Test");
+        Assertions.assertThat(request.headers().allValues("X-Test")).containsExactly("1", "2");
+    }
+
+    private OpenLoopReplayer replayer(double rate) {
+        return new OpenLoopReplayer(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/simulator"),
+                rate, Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,18 @@
+package com.myou.ec.ecsite.application.auth.event;
+
+import com.myou.ec.ecsite.domain.auth.model.value.LoginId;
+
+import java.util.Objects;
+
+/**
+ * パスワード変更必須の判定結果が変わりうる操作（パスワード変更・初期化）が行われたことを表すイベント。
+ * 判定結果をキャッシュしている側は、このイベントで対象アカウントのキャッシュを破棄する。
+ *
+ * @param loginId 対象アカウントのログインID
+ */
+public record PasswordChangeRequirementChangedEvent(LoginId loginId) {
+
+    public PasswordChangeRequirementChangedEvent {
+        Objects.requireNonNull(loginId, "loginId must not be null");
+    }
+}
@@ -1,12 +1,31 @@
 package com.myou.ec.ecsite.application.auth.sharedservice;
 
+import com.myou.ec.ecsite.domain.auth.model.AuthAccountState;
+import com.myou.ec.ecsite.domain.auth.model.AuthSnapshot;
 import com.myou.ec.ecsite.domain.auth.model.value.AuthAccountId;
 
 public interface AccountExpirySharedService {
     
     boolean isExpired(AuthAccountId accountId);
 
-    void expireIfNeeded(AuthAccountId accountId);
+    /**
+     * 取得済みのスナップショットから判定する。履歴の問い合わせは行わない。
+     */
+    boolean isExpired(AuthSnapshot snapshot);
+
+    /**
+     * 計算上の期限切れであれば有効期限切れを記録する。
+     *
+     * @return 処理後に有効期限切れ状態であれば true
+     */
+    boolean expireIfNeeded(AuthAccountId accountId);
+
+    /**
+     * 取得済みの状態から判定し、計算上の期限切れであれば有効期限切れを記録する。状態の再取得は行わない。
+     *
+     * @return 処理後に有効期限切れ状態であれば true
+     */
+    boolean expireIfNeeded(AuthAccountState state);
    
     void unexpireIfExpired(AuthAccountId accountId);
 }
@@ -3,13 +3,13 @@ package com.myou.ec.ecsite.application.auth.sharedservice;
 
 import com.myou.ec.ecsite.application.auth.provider.CurrentUserProvider;
 import com.myou.ec.ecsite.domain.auth.model.AccountExpiryEvent;
-import com.myou.ec.ecsite.domain.auth.model.AccountExpiryEvents;
-import com.myou.ec.ecsite.domain.auth.model.LoginHistory;
+import com.myou.ec.ecsite.domain.auth.model.AuthAccountState;
+import com.myou.ec.ecsite.domain.auth.model.AuthSnapshot;
 import com.myou.ec.ecsite.domain.auth.model.value.AuthAccountId;
 import com.myou.ec.ecsite.domain.auth.model.value.Operator;
 import com.myou.ec.ecsite.domain.auth.policy.AccountExpiryPolicy;
 import com.myou.ec.ecsite.domain.auth.repository.AuthAccountExpiryHistoryRepository;
-import com.myou.ec.ecsite.domain.auth.repository.AuthLoginHistoryRepository;
+import com.myou.ec.ecsite.domain.auth.repository.AuthAccountStateRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,54 +26,58 @@ public class AccountExpirySharedServiceImpl implements AccountExpirySharedServic
     public static final String REASON_ADMIN_ENABLE = "ADMIN_ENABLE";
 
     private final AuthAccountExpiryHistoryRepository expiryHistoryRepository;
-    private final AuthLoginHistoryRepository authLoginHistoryRepository;
+    private final AuthAccountStateRepository accountStateRepository;
     private final AccountExpiryPolicy policy;
     private final CurrentUserProvider currentUserProvider;
     private final Clock clock;
 
     public AccountExpirySharedServiceImpl(
             AuthAccountExpiryHistoryRepository expiryHistoryRepository,
-            AuthLoginHistoryRepository authLoginHistoryRepository,
+            AuthAccountStateRepository accountStateRepository,
             AccountExpiryPolicy policy, CurrentUserProvider currentUserProvider, Clock clock
     ) {
         this.expiryHistoryRepository = requireNonNull(expiryHistoryRepository);
-        this.authLoginHistoryRepository = requireNonNull(authLoginHistoryRepository);
+        this.accountStateRepository = requireNonNull(accountStateRepository);
         this.policy = requireNonNull(policy);
         this.currentUserProvider = currentUserProvider;
         this.clock = clock;
     }
 
-    @Transactional(readOnly = true)
+    @Transactional
     @Override
     public boolean isExpired(AuthAccountId accountId) {
-        AccountExpiryEvents events = expiryHistoryRepository.findByAccountId(accountId);
-        if (events.isExpired()) {
-            return true;
-        }
-
-        Optional<LocalDateTime> lastSuccessAt = authLoginHistoryRepository.findLatestSuccessByAccountId(accountId).map(LoginHistory::loginAt);
-        Optional<LocalDateTime> lastUnexpireAt = events.lastUnexpireAt();
-        Optional<LocalDateTime> baseAt = max(lastSuccessAt, lastUnexpireAt);
+        return isExpired(accountStateRepository.findByAccountId(accountId));
+    }
 
-        if (baseAt.isEmpty()) {
-            return false;
+    @Override
+    public boolean isExpired(AuthSnapshot snapshot) {
+        if (snapshot.expired()) {
+            return true;
         }
+        return isInactiveTooLong(snapshot.lastSuccessLoginAtOptional(), snapshot.lastUnexpireAtOptional());
+    }
 
-        LocalDateTime now = LocalDateTime.now(clock);
-        return now.isAfter(baseAt.get().plus(policy.expiryDuration()));
+    @Transactional
+    @Override
+    public boolean expireIfNeeded(AuthAccountId accountId) {
+        return expireIfNeeded(accountStateRepository.findByAccountId(accountId));
     }
 
     @Transactional
     @Override
-    public void expireIfNeeded(AuthAccountId accountId) {
-        if (!isExpired(accountId)) {
-            return;
-        }
-        
+    public boolean expireIfNeeded(AuthAccountState state) {
+        AuthAccountId accountId = state.accountId();
         // 既にEXPIRED状態なら何もしない（isExpiredは計算上の期限切れも含むため、DB上の状態も確認する）
-        AccountExpiryEvents events = expiryHistoryRepository.findByAccountId(accountId);
-        if (events.isExpired()) {
-            return;
+        if (state.expired()) {
+            return true;
+        }
+        if (!isExpired(state)) {
+            return false;
+        }
+
+        // 同時に期限切れにした場合も履歴は1件だけ登録する
+        if (!accountStateRepository.expire(accountId)) {
+            return true;
         }
 
         Operator operator = currentUserProvider.currentOrSystem();
@@ -86,19 +90,19 @@ public class AccountExpirySharedServiceImpl implements AccountExpirySharedServic
                 operator
         );
         expiryHistoryRepository.save(ev, operator);
+        return true;
     }
 
     @Transactional
     @Override
     public void unexpireIfExpired(AuthAccountId accountId) { // Change LoginId to Operator
-        var events = expiryHistoryRepository.findByAccountId(accountId);
-        if (!events.isExpired()) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (!accountStateRepository.unexpire(accountId, now)) {
             return;
         }
 
         Operator operator = currentUserProvider.currentOrSystem();
 
-        LocalDateTime now = LocalDateTime.now(clock);
         var ev = AccountExpiryEvent.unexpired(
                 accountId,
                 REASON_ADMIN_ENABLE,
@@ -108,6 +112,27 @@ public class AccountExpirySharedServiceImpl implements AccountExpirySharedServic
         expiryHistoryRepository.save(ev, operator); // Pass Operator directly
     }
 
+    private boolean isExpired(AuthAccountState state) {
+        if (state.expired()) {
+            return true;
+        }
+        return isInactiveTooLong(state.lastSuccessAtOptional(), state.lastUnexpireAtOptional());
+    }
+
+    /**
+     * 最終ログイン成功・最終 UNEXPIRE の新しい方から有効期間が経過しているか。
+     */
+    private boolean isInactiveTooLong(Optional<LocalDateTime> lastSuccessAt, Optional<LocalDateTime> lastUnexpireAt) {
+        Optional<LocalDateTime> baseAt = max(lastSuccessAt, lastUnexpireAt);
+
+        if (baseAt.isEmpty()) {
+            return false;
+        }
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        return now.isAfter(baseAt.get().plus(policy.expiryDuration()));
+    }
+
     private static Optional<LocalDateTime> max(Optional<LocalDateTime> a, Optional<LocalDateTime> b) {
         if (a.isEmpty()) return b;
         if (b.isEmpty()) return a ;
@@ -1,11 +1,13 @@
 package com.myou.ec.ecsite.application.auth.sharedservice;
 
+import com.myou.ec.ecsite.application.auth.event.PasswordChangeRequirementChangedEvent;
 import com.myou.ec.ecsite.application.auth.provider.CurrentUserProvider;
 import com.myou.ec.ecsite.domain.auth.exception.AuthDomainException;
 import com.myou.ec.ecsite.domain.auth.model.*;
 import com.myou.ec.ecsite.domain.auth.model.value.*;
 import com.myou.ec.ecsite.domain.auth.repository.*;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,10 +24,12 @@ public class AuthAccountAdminSharedServiceImpl implements AuthAccountAdminShared
     private final AuthAccountRoleRepository authAccountRoleRepository;
     private final AuthPasswordHistoryRepository passwordHistoryRepository;
     private final AuthAccountLockHistoryRepository lockHistoryRepository;
+    private final AuthAccountStateRepository accountStateRepository;
     private final AuthAccountStatusHistoryRepository statusHistoryRepository;
     private final AccountExpirySharedService accountExpirySharedService;
     private final CurrentUserProvider currentUserProvider;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
     private final String initialPassword;
     private final Clock clock;
 
@@ -33,18 +37,21 @@ public class AuthAccountAdminSharedServiceImpl implements AuthAccountAdminShared
 
                                              AuthPasswordHistoryRepository passwordHistoryRepository,
                                              AuthAccountLockHistoryRepository lockHistoryRepository,
+                                             AuthAccountStateRepository accountStateRepository,
                                              AuthAccountStatusHistoryRepository statusHistoryRepository,
                                              AccountExpirySharedService accountExpirySharedService, CurrentUserProvider currentUserProvider,
-                                             PasswordEncoder passwordEncoder,
+                                             PasswordEncoder passwordEncoder, ApplicationEventPublisher eventPublisher,
                                              @Value("${auth.initial-password:password123}") String initialPassword, Clock clock) {
         this.authAccountRepository = authAccountRepository;
         this.authAccountRoleRepository = authAccountRoleRepository;
         this.passwordHistoryRepository = passwordHistoryRepository;
         this.lockHistoryRepository = lockHistoryRepository;
+        this.accountStateRepository = accountStateRepository;
         this.statusHistoryRepository = statusHistoryRepository;
         this.accountExpirySharedService = accountExpirySharedService;
         this.currentUserProvider = currentUserProvider;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
         this.initialPassword = initialPassword;
         this.clock = clock;
     }
@@ -128,6 +135,9 @@ public class AuthAccountAdminSharedServiceImpl implements AuthAccountAdminShared
                 operator
         );
         lockHistoryRepository.save(unlockEvent, operator);
+        accountStateRepository.unlock(targetAccountId, now);
+
+        eventPublisher.publishEvent(new PasswordChangeRequirementChangedEvent(authAccount.loginId()));
     }
 
     @Override
@@ -136,8 +146,8 @@ public class AuthAccountAdminSharedServiceImpl implements AuthAccountAdminShared
                 .orElseThrow(() -> new AuthDomainException("対象アカウントが存在しません。"));
 
 
-        AccountLockEvents events = lockHistoryRepository.findByAccountId(authAccount.id(), 20);
-        if (!events.isLocked()) {
+        AuthAccountState state = accountStateRepository.findByAccountId(authAccount.id());
+        if (!state.locked()) {
             // 既に未ロックなら何もしない（イベントを増やさない方針）
             return;
         }
@@ -153,6 +163,7 @@ public class AuthAccountAdminSharedServiceImpl implements AuthAccountAdminShared
                 operator
         );
         lockHistoryRepository.save(unlockEvent, operator);
+        accountStateRepository.unlock(authAccount.id(), now);
     }
 
     @Override
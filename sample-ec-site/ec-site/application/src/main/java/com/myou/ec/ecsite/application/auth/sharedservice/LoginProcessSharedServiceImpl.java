@@ -9,6 +9,7 @@ import com.myou.ec.ecsite.domain.auth.model.value.Operator;
 import com.myou.ec.ecsite.domain.auth.policy.LockPolicy;
 import com.myou.ec.ecsite.domain.auth.repository.AuthAccountLockHistoryRepository;
 import com.myou.ec.ecsite.domain.auth.repository.AuthAccountRepository;
+import com.myou.ec.ecsite.domain.auth.repository.AuthAccountStateRepository;
 import com.myou.ec.ecsite.domain.auth.repository.AuthLoginHistoryRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,6 +25,7 @@ public class LoginProcessSharedServiceImpl implements LoginProcessSharedService
     private final AuthAccountRepository authAccountRepository;
     private final AuthLoginHistoryRepository loginHistoryRepository;
     private final AuthAccountLockHistoryRepository lockHistoryRepository;
+    private final AuthAccountStateRepository accountStateRepository;
     private final AccountExpirySharedService accountExpirySharedService;
     private final LockPolicy lockPolicy;
     private final Clock clock;
@@ -31,11 +33,13 @@ public class LoginProcessSharedServiceImpl implements LoginProcessSharedService
     public LoginProcessSharedServiceImpl(AuthAccountRepository authAccountRepository,
                                          AuthLoginHistoryRepository loginHistoryRepository,
                                          AuthAccountLockHistoryRepository lockHistoryRepository,
+                                         AuthAccountStateRepository accountStateRepository,
                                          AccountExpirySharedService accountExpirySharedService,
                                          LockPolicy lockPolicy, Clock clock) {
         this.authAccountRepository = authAccountRepository;
         this.loginHistoryRepository = loginHistoryRepository;
         this.lockHistoryRepository = lockHistoryRepository;
+        this.accountStateRepository = accountStateRepository;
         this.accountExpirySharedService = accountExpirySharedService;
         this.lockPolicy = lockPolicy;
         this.clock = clock;
@@ -59,6 +63,7 @@ public class LoginProcessSharedServiceImpl implements LoginProcessSharedService
                 now
         );
         loginHistoryRepository.save(successHistory, Operator.ofLoginId(loginId));
+        accountStateRepository.recordLoginSuccess(accountId, now);
     }
 
     @Override
@@ -76,9 +81,11 @@ public class LoginProcessSharedServiceImpl implements LoginProcessSharedService
         LocalDateTime now = LocalDateTime.now(clock);
         Operator operator = Operator.of(loginId.value());
 
+        // ロック状態・有効期限は履歴を走査せず、状態の1行で判定する（1回だけ取得して使い回す）
+        AuthAccountState state = accountStateRepository.findByAccountId(accountId);
+
         // 有効期限切れの判定と更新
-        accountExpirySharedService.expireIfNeeded(accountId);
-        if (accountExpirySharedService.isExpired(accountId)) {
+        if (accountExpirySharedService.expireIfNeeded(state)) {
             saveLoginHistory(LoginHistory.expired(accountId, now), operator);
             return;
         }
@@ -88,13 +95,12 @@ public class LoginProcessSharedServiceImpl implements LoginProcessSharedService
             return;
         }
 
-        AccountLockEvents lockEvents = lockHistoryRepository.findByAccountId(accountId, 20);
-        if (lockEvents.isLocked()) {
+        if (state.locked()) {
             saveLoginHistory(LoginHistory.locked(accountId, now), operator);
             return;
         }
 
-        processFailureAndLockout(accountId, loginId, now, lockEvents, operator);
+        processFailureAndLockout(accountId, loginId, now, operator);
     }
 
     private AuthAccount findAccount(LoginId loginId) {
@@ -107,25 +113,18 @@ public class LoginProcessSharedServiceImpl implements LoginProcessSharedService
         loginHistoryRepository.save(history, operator);
     }
 
-    private void processFailureAndLockout(AuthAccountId accountId, LoginId loginId, LocalDateTime now, AccountLockEvents lockEvents, Operator operator) {
-        // 直近の履歴を取得
-        LoginHistories recentHistories = loginHistoryRepository.findRecentByAccountId(accountId, 20);
-
-        // 今回の失敗履歴
-        LoginHistory failHistory = LoginHistory.fail(accountId, now);
-
-        // 履歴を追加して判定用コレクションを作成
-        LoginHistories loginHistories = recentHistories.add(failHistory);
-
-        // ロックアウト判定
-        LocalDateTime lastUnlockAt = lockEvents.lastUnlockAt().orElse(null);
-        boolean shouldLockout = lockPolicy.isLockout(loginHistories, lastUnlockAt);
+    private void processFailureAndLockout(AuthAccountId accountId, LoginId loginId, LocalDateTime now, Operator operator) {
+        // ロックアウト判定（今回の失敗を含む連続失敗回数）
+        // 状態を履歴から作成する場合に今回の失敗を二重に数えないよう、失敗履歴の保存より先に加算する
+        int failureCount = accountStateRepository.incrementFailureCount(accountId);
 
         // 失敗履歴保存
-        saveLoginHistory(failHistory, operator);
+        saveLoginHistory(LoginHistory.fail(accountId, now), operator);
+
+        boolean shouldLockout = lockPolicy.isLockout(failureCount);
 
-        // ロックアウト処理
-        if (shouldLockout) {
+        // ロックアウト処理（同時に閾値へ達した場合もロック履歴は1件だけ登録する）
+        if (shouldLockout && accountStateRepository.lock(accountId)) {
             AccountLockEvent lockEvent = AccountLockEvent.lock(
                     accountId,
                     now,
@@ -1,5 +1,6 @@
 package com.myou.ec.ecsite.application.auth.sharedservice;
 
+import com.myou.ec.ecsite.application.auth.event.PasswordChangeRequirementChangedEvent;
 import com.myou.ec.ecsite.application.auth.provider.CurrentUserProvider;
 import com.myou.ec.ecsite.domain.auth.exception.AuthDomainException;
 import com.myou.ec.ecsite.domain.auth.exception.PasswordReuseNotAllowedException;
@@ -12,6 +13,7 @@ import com.myou.ec.ecsite.domain.auth.policy.ExpiredPasswordPolicy;
 import com.myou.ec.ecsite.domain.auth.policy.PasswordPolicy;
 import com.myou.ec.ecsite.domain.auth.repository.AuthAccountRepository;
 import com.myou.ec.ecsite.domain.auth.repository.AuthPasswordHistoryRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,17 +31,20 @@ public class PasswordChangeSharedServiceImpl implements PasswordChangeSharedServ
     private final PasswordEncoder passwordEncoder;
     private final PasswordPolicy passwordPolicy;
     private final CurrentUserProvider currentUserProvider;
+    private final ApplicationEventPublisher eventPublisher;
     private final Clock clock;
 
     public PasswordChangeSharedServiceImpl(AuthAccountRepository authAccountRepository,
                                            AuthPasswordHistoryRepository passwordHistoryRepository,
                                            PasswordEncoder passwordEncoder,
-                                           PasswordPolicy passwordPolicy, CurrentUserProvider currentUserProvider, Clock clock) {
+                                           PasswordPolicy passwordPolicy, CurrentUserProvider currentUserProvider,
+                                           ApplicationEventPublisher eventPublisher, Clock clock) {
         this.authAccountRepository = authAccountRepository;
         this.passwordHistoryRepository = passwordHistoryRepository;
         this.passwordEncoder = passwordEncoder;
         this.passwordPolicy = passwordPolicy;
         this.currentUserProvider = currentUserProvider;
+        this.eventPublisher = eventPublisher;
         this.clock = clock;
     }
 
@@ -113,6 +118,8 @@ public class PasswordChangeSharedServiceImpl implements PasswordChangeSharedServ
         // パスワード履歴登録
         PasswordHistory history = PasswordHistory.userChange(accountId, passwordHash, now, operator);
         passwordHistoryRepository.save(history, operator);
+
+        eventPublisher.publishEvent(new PasswordChangeRequirementChangedEvent(user.loginId()));
     }
 
 
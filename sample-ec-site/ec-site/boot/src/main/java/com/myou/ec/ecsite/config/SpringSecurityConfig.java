@@ -1,38 +1,63 @@
 package com.myou.ec.ecsite.config;
 
 
-import com.myou.ec.ecsite.application.auth.sharedservice.PasswordChangeSharedService;
 import com.myou.ec.ecsite.presentation.auth.security.handler.AuthAuthenticationFailureHandler;
 import com.myou.ec.ecsite.presentation.auth.security.handler.AuthAuthenticationSuccessHandler;
+import com.myou.ec.ecsite.presentation.auth.security.interceptor.PasswordChangeRequirementCache;
+import com.myou.ec.ecsite.presentation.auth.security.throttle.ClientIpResolver;
+import com.myou.ec.ecsite.presentation.auth.security.throttle.InMemoryLoginThrottle;
+import com.myou.ec.ecsite.presentation.auth.security.throttle.LoginThrottle;
+import com.myou.ec.ecsite.presentation.auth.security.throttle.LoginThrottleFilter;
+import com.myou.ec.ecsite.presentation.auth.security.throttle.LoginThrottleLimits;
+import com.myou.ec.ecsite.presentation.auth.security.throttle.LoginThrottleMode;
+import com.myou.ec.ecsite.presentation.auth.security.throttle.RedisLoginThrottle;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import java.time.Duration;
 
 @Configuration
 @EnableWebSecurity
 class SpringSecurityConfig {
 
+    // フォームログインの設定とログイン試行の制限で共有する
+    private static final String LOGIN_PAGE = "/login";
+    private static final String LOGIN_PROCESSING_URL = "/login";
+    private static final String USERNAME_PARAMETER = "loginId";
+
     @Bean
     public SecurityFilterChain applicationSecurityFilterChain(HttpSecurity http,
                                                               AuthAuthenticationSuccessHandler successHandler,
-                                                              AuthAuthenticationFailureHandler failureHandler) throws Exception {
+                                                              AuthAuthenticationFailureHandler failureHandler,
+                                                              LoginThrottle loginThrottle,
+                                                              ClientIpResolver clientIpResolver,
+                                                              @Value("${auth.failure-url:/login?error}") String failureUrl) throws Exception {
         http
+                // 試行回数の制限は認証（DBアクセス）の前に行う
+                .addFilterBefore(new LoginThrottleFilter(loginThrottle, clientIpResolver,
+                                LOGIN_PROCESSING_URL, USERNAME_PARAMETER, failureUrl),
+                        UsernamePasswordAuthenticationFilter.class)
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/css/**", "/js/**", "/images/**").permitAll()
                         .requestMatchers(PathRequest.toH2Console()).permitAll()
-                        .requestMatchers("/login").permitAll()
+                        .requestMatchers(LOGIN_PAGE).permitAll()
                         .requestMatchers("/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .formLogin(form -> form
-                        .loginPage("/login")
-                        .usernameParameter("loginId")
+                        .loginPage(LOGIN_PAGE)
+                        .loginProcessingUrl(LOGIN_PROCESSING_URL)
+                        .usernameParameter(USERNAME_PARAMETER)
                         .passwordParameter("password")
                         .successHandler(successHandler)
                         .failureHandler(failureHandler)
@@ -54,10 +79,10 @@ class SpringSecurityConfig {
 
     @Bean
     public AuthAuthenticationSuccessHandler authAuthenticationSuccessHandler(
-            PasswordChangeSharedService passwordChangeSharedService,
+            PasswordChangeRequirementCache passwordChangeRequirementCache,
             @Value("${auth.default-success-url:/menu}") String defaultSuccessUrl
     ) {
-        AuthAuthenticationSuccessHandler h = new AuthAuthenticationSuccessHandler(passwordChangeSharedService);
+        AuthAuthenticationSuccessHandler h = new AuthAuthenticationSuccessHandler(passwordChangeRequirementCache);
         h.setDefaultTargetUrl(defaultSuccessUrl);
 
         // SavedRequestがあればそれを優先（デフォルト）。trueにすると常にdefaultへ飛ばす
@@ -72,4 +97,32 @@ class SpringSecurityConfig {
     ) {
         return new AuthAuthenticationFailureHandler(failureUrl);
     }
+
+    @Bean
+    public LoginThrottle loginThrottle(
+            @Value("${auth.login-throttle.mode:MEMORY}") LoginThrottleMode mode,
+            @Value("${auth.login-throttle.window:5m}") Duration window,
+            @Value("${auth.login-throttle.buckets:10}") int buckets,
+            @Value("${auth.login-throttle.max-failures-per-login-id:10}") int maxFailuresPerLoginId,
+            @Value("${auth.login-throttle.max-failures-per-ip:100}") int maxFailuresPerIp,
+            @Value("${auth.login-throttle.max-keys:100000}") int maxKeys,
+            @Value("${auth.login-throttle.redis.sync-interval:100ms}") Duration syncInterval,
+            @Value("${auth.login-throttle.redis.key-prefix:ec-site:login-throttle:}") String keyPrefix,
+            ObjectProvider<StringRedisTemplate> redisTemplate
+    ) {
+        LoginThrottleLimits limits = new LoginThrottleLimits(window, buckets, maxFailuresPerLoginId, maxFailuresPerIp);
+        return switch (mode) {
+            case NONE -> LoginThrottle.unlimited();
+            case MEMORY -> new InMemoryLoginThrottle(limits, maxKeys);
+            case REDIS -> new RedisLoginThrottle(redisTemplate.getObject(), limits, maxKeys, keyPrefix, syncInterval);
+        };
+    }
+
+    @Bean
+    public ClientIpResolver clientIpResolver(
+            @Value("${auth.login-throttle.client-ip.forwarded-header:}") String forwardedHeader,
+            @Value("${auth.login-throttle.client-ip.trusted-hops:1}") int trustedHops
+    ) {
+        return new ClientIpResolver(forwardedHeader, trustedHops);
+    }
 }
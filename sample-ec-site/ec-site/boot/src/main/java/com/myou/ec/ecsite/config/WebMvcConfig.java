@@ -0,0 +1,29 @@
+package com.myou.ec.ecsite.config;
+
+import com.myou.ec.ecsite.presentation.auth.security.interceptor.PasswordChangeRequiredInterceptor;
+import com.myou.ec.ecsite.presentation.auth.security.interceptor.PasswordChangeRequirementCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+class WebMvcConfig implements WebMvcConfigurer {
+
+    private final PasswordChangeRequirementCache passwordChangeRequirementCache;
+    private final List<String> bypassPatterns;
+
+    WebMvcConfig(PasswordChangeRequirementCache passwordChangeRequirementCache,
+                 @Value("${auth.pwchange.bypass-patterns}") List<String> bypassPatterns) {
+        this.passwordChangeRequirementCache = passwordChangeRequirementCache;
+        this.bypassPatterns = bypassPatterns;
+    }
+
+    // パスワード変更必須の画面遷移制御を有効にする（意図して登録している。除外URLは auth.pwchange.bypass-patterns）
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new PasswordChangeRequiredInterceptor(passwordChangeRequirementCache, bypassPatterns));
+    }
+}
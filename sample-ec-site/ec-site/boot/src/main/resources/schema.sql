@@ -136,6 +136,23 @@ CREATE TABLE AUTH_ACCOUNT_STATUS_HISTORY
     CONSTRAINT ck_auth_status_hist_to CHECK (to_status IN ('ACTIVE', 'DISABLED', 'DELETED'))
 );
 
+-- 認証判定用の現在状態（履歴から導出した投影。履歴の登録と同じトランザクションで更新する）
+CREATE TABLE AUTH_ACCOUNT_STATE
+(
+    auth_account_id           BIGINT    NOT NULL PRIMARY KEY,
+
+    consecutive_failure_count INT       NOT NULL DEFAULT 0, -- 最終成功・最終ロック解除以降の連続失敗回数
+    locked                    BOOLEAN   NOT NULL DEFAULT FALSE,
+    last_unlock_at            TIMESTAMP NULL,
+    last_success_at           TIMESTAMP NULL,
+    expired                   BOOLEAN   NOT NULL DEFAULT FALSE,
+    last_unexpire_at          TIMESTAMP NULL,
+
+    updated_at                TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_auth_state_account FOREIGN KEY (auth_account_id) REFERENCES AUTH_ACCOUNT (auth_account_id)
+);
+
 -- ==============
 -- Indexes
 -- ==============
@@ -0,0 +1,41 @@
+package com.myou.ec.ecsite.domain.auth.model;
+
+import com.myou.ec.ecsite.domain.auth.model.value.AuthAccountId;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * アカウントの認証状態（ロック・有効期限の判定に必要な現在値）。
+ * <p>
+ * ログイン・ロック・有効期限の各履歴から導出した値を1行で保持する。履歴は監査ログとして別途残る。
+ *
+ * @param accountId               AUTH_ACCOUNT_ID。
+ * @param consecutiveFailureCount 最終ログイン成功・最終ロック解除以降の連続失敗回数。
+ * @param locked                  ロック中か。
+ * @param lastUnlockAt            最終ロック解除日時。なければ null。
+ * @param lastSuccessAt           最終ログイン成功日時。なければ null。
+ * @param expired                 有効期限切れ（EXPIRE 記録済み）か。
+ * @param lastUnexpireAt          最終有効期限切れ解除日時。なければ null。
+ */
+public record AuthAccountState(AuthAccountId accountId,
+                               int consecutiveFailureCount,
+                               boolean locked,
+                               LocalDateTime lastUnlockAt,
+                               LocalDateTime lastSuccessAt,
+                               boolean expired,
+                               LocalDateTime lastUnexpireAt) {
+
+    public AuthAccountState {
+        Objects.requireNonNull(accountId, "accountId must not be null");
+    }
+
+    public Optional<LocalDateTime> lastSuccessAtOptional() {
+        return Optional.ofNullable(lastSuccessAt);
+    }
+
+    public Optional<LocalDateTime> lastUnexpireAtOptional() {
+        return Optional.ofNullable(lastUnexpireAt);
+    }
+}
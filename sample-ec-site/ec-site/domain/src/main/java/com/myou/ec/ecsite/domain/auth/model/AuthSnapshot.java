@@ -0,0 +1,41 @@
+package com.myou.ec.ecsite.domain.auth.model;
+
+import com.myou.ec.ecsite.domain.auth.model.value.RoleCode;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * ログイン時の認証判定に必要な状態をまとめたスナップショット。
+ * <p>
+ * アカウント・ロールと、認証状態（{@link AuthAccountState}）のロック・有効期限・最終ログイン成功日時を1回の問い合わせで取得した結果。
+ *
+ * @param account            アカウント。
+ * @param roleCodes          付与されているロール。
+ * @param locked             ロック中か。
+ * @param expired            有効期限切れ（EXPIRE 記録済み）か。
+ * @param lastUnexpireAt     最終有効期限切れ解除日時。なければ null。
+ * @param lastSuccessLoginAt 最終ログイン成功日時。なければ null。
+ */
+public record AuthSnapshot(AuthAccount account,
+                           Set<RoleCode> roleCodes,
+                           boolean locked,
+                           boolean expired,
+                           LocalDateTime lastUnexpireAt,
+                           LocalDateTime lastSuccessLoginAt) {
+
+    public AuthSnapshot {
+        Objects.requireNonNull(account, "account must not be null");
+        roleCodes = Set.copyOf(Objects.requireNonNull(roleCodes, "roleCodes must not be null"));
+    }
+
+    public Optional<LocalDateTime> lastUnexpireAtOptional() {
+        return Optional.ofNullable(lastUnexpireAt);
+    }
+
+    public Optional<LocalDateTime> lastSuccessLoginAtOptional() {
+        return Optional.ofNullable(lastSuccessLoginAt);
+    }
+}
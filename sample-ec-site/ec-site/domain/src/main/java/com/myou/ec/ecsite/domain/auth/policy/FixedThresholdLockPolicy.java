@@ -15,6 +15,11 @@ public record FixedThresholdLockPolicy() implements LockPolicy {
     @Override
     public boolean isLockout(LoginHistories histories, LocalDateTime boundaryExclusive) {
         int count = histories.countConsecutiveFailuresSince(boundaryExclusive);
-        return count >= FAIL_THRESHOLD;
+        return isLockout(count);
+    }
+
+    @Override
+    public boolean isLockout(int consecutiveFailureCount) {
+        return consecutiveFailureCount >= FAIL_THRESHOLD;
     }
 }
\ No newline at end of file
@@ -14,4 +14,11 @@ public interface LockPolicy {
      */
     boolean isLockout(LoginHistories histories, LocalDateTime boundaryExclusive);
 
+    /**
+     * 連続失敗回数からロックアウトすべきかどうかを判定する。
+     *
+     * @param consecutiveFailureCount 最終ログイン成功・最終 UNLOCK 以降の連続失敗回数（今回の失敗を含む）
+     */
+    boolean isLockout(int consecutiveFailureCount);
+
 }
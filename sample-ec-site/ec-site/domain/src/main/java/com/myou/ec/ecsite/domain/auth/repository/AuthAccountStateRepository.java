@@ -0,0 +1,57 @@
+package com.myou.ec.ecsite.domain.auth.repository;
+
+import com.myou.ec.ecsite.domain.auth.model.AuthAccountState;
+import com.myou.ec.ecsite.domain.auth.model.value.AuthAccountId;
+
+import java.time.LocalDateTime;
+
+/**
+ * アカウントの認証状態の永続化インタフェース。
+ * <p>
+ * 状態は各履歴の登録と同じトランザクションで更新する。
+ * 状態の行がないアカウントは、その時点で登録済みの履歴から状態を作成する。
+ */
+public interface AuthAccountStateRepository {
+
+    AuthAccountState findByAccountId(AuthAccountId accountId);
+
+    /**
+     * ログイン成功を反映する（連続失敗回数をクリアし、最終成功日時を更新）。
+     * 状態を履歴から作成する場合に今回の成功を含めても結果は変わらないため、ログイン履歴の登録の前後どちらで呼んでもよい。
+     */
+    void recordLoginSuccess(AuthAccountId accountId, LocalDateTime loginAt);
+
+    /**
+     * 連続失敗回数を加算する。ログイン履歴の登録前に呼ぶ。
+     * 状態を履歴から作成した場合も今回の失敗を加算するため、登録後に呼ぶと今回の失敗を二重に数える。
+     *
+     * @return 加算後の連続失敗回数
+     */
+    int incrementFailureCount(AuthAccountId accountId);
+
+    /**
+     * 未ロックの場合のみロック状態にする。
+     *
+     * @return ロック状態にした場合 true（既にロック中なら false）
+     */
+    boolean lock(AuthAccountId accountId);
+
+    /**
+     * ロックを解除し、連続失敗回数をクリアする。
+     */
+    void unlock(AuthAccountId accountId, LocalDateTime unlockAt);
+
+    /**
+     * 有効期限切れでない場合のみ有効期限切れにする。
+     *
+     * @return 有効期限切れにした場合 true
+     */
+    boolean expire(AuthAccountId accountId);
+
+    /**
+     * 有効期限切れの場合のみ解除する。
+     *
+     * @return 解除した場合 true
+     */
+    boolean unexpire(AuthAccountId accountId, LocalDateTime unexpireAt);
+}
@@ -0,0 +1,14 @@
+package com.myou.ec.ecsite.domain.auth.repository;
+
+import com.myou.ec.ecsite.domain.auth.model.AuthSnapshot;
+import com.myou.ec.ecsite.domain.auth.model.value.LoginId;
+
+import java.util.Optional;
+
+public interface AuthSnapshotRepository {
+
+    /**
+     * ログイン判定に必要な状態を1回の問い合わせで取得する。
+     */
+    Optional<AuthSnapshot> findByLoginId(LoginId loginId);
+}
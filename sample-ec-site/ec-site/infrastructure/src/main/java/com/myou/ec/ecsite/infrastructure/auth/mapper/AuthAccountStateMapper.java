@@ -0,0 +1,37 @@
+package com.myou.ec.ecsite.infrastructure.auth.mapper;
+
+import com.myou.ec.ecsite.infrastructure.auth.record.AuthAccountStateRecord;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+
+@Mapper
+public interface AuthAccountStateMapper {
+    AuthAccountStateRecord selectByAccountId(@Param("authAccountId") long authAccountId);
+
+    int insertFromHistory(@Param("authAccountId") long authAccountId, @Param("updatedAt") LocalDateTime updatedAt);
+
+    int updateFailureCountAndLastSuccess(@Param("authAccountId") long authAccountId,
+                                         @Param("consecutiveFailureCount") int consecutiveFailureCount,
+                                         @Param("lastSuccessAt") LocalDateTime lastSuccessAt,
+                                         @Param("updatedAt") LocalDateTime updatedAt);
+
+    int updateLoginSuccess(@Param("authAccountId") long authAccountId,
+                           @Param("loginAt") LocalDateTime loginAt,
+                           @Param("updatedAt") LocalDateTime updatedAt);
+
+    int incrementFailureCount(@Param("authAccountId") long authAccountId, @Param("updatedAt") LocalDateTime updatedAt);
+
+    int updateLockIfUnlocked(@Param("authAccountId") long authAccountId, @Param("updatedAt") LocalDateTime updatedAt);
+
+    int updateUnlock(@Param("authAccountId") long authAccountId,
+                     @Param("unlockAt") LocalDateTime unlockAt,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    int updateExpireIfNotExpired(@Param("authAccountId") long authAccountId, @Param("updatedAt") LocalDateTime updatedAt);
+
+    int updateUnexpireIfExpired(@Param("authAccountId") long authAccountId,
+                                @Param("unexpireAt") LocalDateTime unexpireAt,
+                                @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -0,0 +1,12 @@
+package com.myou.ec.ecsite.infrastructure.auth.mapper;
+
+import com.myou.ec.ecsite.infrastructure.auth.record.AuthSnapshotRecord;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface AuthSnapshotMapper {
+    List<AuthSnapshotRecord> selectByLoginId(@Param("loginId") String loginId);
+}
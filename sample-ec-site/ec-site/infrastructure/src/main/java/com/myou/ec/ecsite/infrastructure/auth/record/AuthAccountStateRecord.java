@@ -0,0 +1,34 @@
+package com.myou.ec.ecsite.infrastructure.auth.record;
+
+import com.myou.ec.ecsite.domain.auth.model.AuthAccountState;
+import com.myou.ec.ecsite.domain.auth.model.value.AuthAccountId;
+import jakarta.annotation.Nullable;
+
+import java.time.LocalDateTime;
+
+/**
+ * AUTH_ACCOUNT_STATE テーブルの1行を表す Record。
+ */
+public record AuthAccountStateRecord(
+        Long authAccountId,
+        int consecutiveFailureCount,
+        boolean locked,
+        @Nullable LocalDateTime lastUnlockAt,
+        @Nullable LocalDateTime lastSuccessAt,
+        boolean expired,
+        @Nullable LocalDateTime lastUnexpireAt,
+        LocalDateTime updatedAt
+) {
+
+    public AuthAccountState toDomain() {
+        return new AuthAccountState(
+                new AuthAccountId(authAccountId),
+                consecutiveFailureCount,
+                locked,
+                lastUnlockAt,
+                lastSuccessAt,
+                expired,
+                lastUnexpireAt
+        );
+    }
+}
@@ -0,0 +1,25 @@
+package com.myou.ec.ecsite.infrastructure.auth.record;
+
+import jakarta.annotation.Nullable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 認証スナップショットの1行を表す Record。
+ * <p>
+ * ロール毎に1行となり、アカウントと状態の列は全行で同じ値を持つ。ロールがなければ roleCode が null の1行となる。
+ * AUTH_ACCOUNT_STATE の行がなければ stateAccountId 以降の状態の列は null となる。
+ */
+public record AuthSnapshotRecord(
+        Long authAccountId,
+        String loginId,
+        String passwordHash,
+        String accountStatus,
+        @Nullable String roleCode,
+        @Nullable Long stateAccountId,
+        @Nullable Boolean locked,
+        @Nullable Boolean expired,
+        @Nullable LocalDateTime lastUnexpireAt,
+        @Nullable LocalDateTime lastSuccessAt
+) {
+}
@@ -0,0 +1,158 @@
+package com.myou.ec.ecsite.infrastructure.auth.repository;
+
+import com.myou.ec.ecsite.domain.auth.exception.AuthAccountNotFoundException;
+import com.myou.ec.ecsite.domain.auth.model.AuthAccountState;
+import com.myou.ec.ecsite.domain.auth.model.value.AuthAccountId;
+import com.myou.ec.ecsite.domain.auth.repository.AuthAccountStateRepository;
+import com.myou.ec.ecsite.domain.auth.model.value.LoginResult;
+import com.myou.ec.ecsite.infrastructure.auth.mapper.AuthAccountStateMapper;
+import com.myou.ec.ecsite.infrastructure.auth.record.AuthAccountStateRecord;
+import com.myou.ec.ecsite.infrastructure.auth.record.AuthLoginHistoryRecord;
+import com.myou.ec.ecsite.infrastructure.auth.writebehind.LoginHistoryWriteBehind;
+import jakarta.annotation.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntSupplier;
+
+@Repository
+public class AuthAccountStateRepositoryImpl implements AuthAccountStateRepository {
+
+    private final AuthAccountStateMapper mapper;
+    private final Clock clock;
+    // 状態を履歴から作成する際に、まだ登録されていないログイン履歴を反映する（null の場合は同期登録）
+    @Nullable
+    private final LoginHistoryWriteBehind writeBehind;
+
+    public AuthAccountStateRepositoryImpl(AuthAccountStateMapper mapper, Clock clock) {
+        this(mapper, clock, null);
+    }
+
+    @Autowired
+    public AuthAccountStateRepositoryImpl(AuthAccountStateMapper mapper, Clock clock,
+                                          @Nullable LoginHistoryWriteBehind writeBehind) {
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+        this.clock = clock;
+        this.writeBehind = writeBehind;
+    }
+
+    @Override
+    public AuthAccountState findByAccountId(AuthAccountId accountId) {
+        AuthAccountStateRecord record = mapper.selectByAccountId(accountId.value());
+        if (record == null) {
+            initialize(accountId);
+            record = mapper.selectByAccountId(accountId.value());
+            if (record == null) {
+                throw new AuthAccountNotFoundException("対象アカウントが存在しません。accountId=" + accountId.value());
+            }
+        }
+        return record.toDomain();
+    }
+
+    @Override
+    public void recordLoginSuccess(AuthAccountId accountId, LocalDateTime loginAt) {
+        updateOrInitialize(accountId,
+                () -> mapper.updateLoginSuccess(accountId.value(), loginAt, LocalDateTime.now(clock)));
+    }
+
+    @Override
+    public int incrementFailureCount(AuthAccountId accountId) {
+        // 今回の失敗は履歴の登録前に数える（呼び出し元の順序）ため、状態を作成した場合も加算する
+        updateOrInitialize(accountId,
+                () -> mapper.incrementFailureCount(accountId.value(), LocalDateTime.now(clock)));
+        return findByAccountId(accountId).consecutiveFailureCount();
+    }
+
+    @Override
+    public boolean lock(AuthAccountId accountId) {
+        return updateOrInitialize(accountId,
+                () -> mapper.updateLockIfUnlocked(accountId.value(), LocalDateTime.now(clock))) > 0;
+    }
+
+    @Override
+    public void unlock(AuthAccountId accountId, LocalDateTime unlockAt) {
+        updateOrInitialize(accountId,
+                () -> mapper.updateUnlock(accountId.value(), unlockAt, LocalDateTime.now(clock)));
+    }
+
+    @Override
+    public boolean expire(AuthAccountId accountId) {
+        return updateOrInitialize(accountId,
+                () -> mapper.updateExpireIfNotExpired(accountId.value(), LocalDateTime.now(clock))) > 0;
+    }
+
+    @Override
+    public boolean unexpire(AuthAccountId accountId, LocalDateTime unexpireAt) {
+        return updateOrInitialize(accountId,
+                () -> mapper.updateUnexpireIfExpired(accountId.value(), unexpireAt, LocalDateTime.now(clock))) > 0;
+    }
+
+    /**
+     * 更新対象の行がない場合は履歴から作成して更新し直す。
+     * 条件付き更新で条件を満たさなかった場合（行は存在する）は作成されないため、0 を返す。
+     */
+    private int updateOrInitialize(AuthAccountId accountId, IntSupplier update) {
+        int updated = update.getAsInt();
+        if (updated == 0 && initialize(accountId)) {
+            updated = update.getAsInt();
+        }
+        return updated;
+    }
+
+    /**
+     * 状態の行がない場合に、登録済みの履歴と未登録（write-behind のキュー内）のログイン履歴から作成する。
+     * 同じアカウントの初回のログインが同時に行われ、他のリクエストが先に作成した場合は作成済みの行を使う。
+     *
+     * @return 作成した、または他のリクエストが作成した場合は true
+     */
+    private boolean initialize(AuthAccountId accountId) {
+        try {
+            // 登録済みの履歴の集計と未登録の履歴の反映の間に登録がコミットされると、同じ失敗を二重に数える
+            return writeBehind == null
+                    ? initialize(accountId, List.of())
+                    : writeBehind.readWithPending(accountId.value(), pending -> initialize(accountId, pending));
+        } catch (DuplicateKeyException e) {
+            // NOT EXISTS の判定後に他のリクエストが作成した（未登録の履歴はそちらで反映済み）
+            return true;
+        }
+    }
+
+    private boolean initialize(AuthAccountId accountId, List<AuthLoginHistoryRecord> pending) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (mapper.insertFromHistory(accountId.value(), now) == 0) {
+            return false;
+        }
+        if (pending.isEmpty()) {
+            return true;
+        }
+
+        AuthAccountStateRecord seeded = mapper.selectByAccountId(accountId.value());
+        int failureCount = seeded.consecutiveFailureCount();
+        LocalDateTime lastSuccessAt = seeded.lastSuccessAt();
+        for (AuthLoginHistoryRecord record : pending.stream()
+                .sorted(Comparator.comparing(AuthLoginHistoryRecord::loginAt)).toList()) {
+            if (LoginResult.SUCCESS.name().equals(record.result())) {
+                failureCount = 0;
+                if (lastSuccessAt == null || record.loginAt().isAfter(lastSuccessAt)) {
+                    lastSuccessAt = record.loginAt();
+                }
+            } else if (LoginResult.FAILURE.name().equals(record.result())
+                    && isAfter(record.loginAt(), lastSuccessAt)
+                    && isAfter(record.loginAt(), seeded.lastUnlockAt())) {
+                failureCount++;
+            }
+        }
+        mapper.updateFailureCountAndLastSuccess(accountId.value(), failureCount, lastSuccessAt, now);
+        return true;
+    }
+
+    private static boolean isAfter(LocalDateTime at, @Nullable LocalDateTime other) {
+        return other == null || at.isAfter(other);
+    }
+}
@@ -3,45 +3,82 @@ package com.myou.ec.ecsite.infrastructure.auth.repository;
 import com.myou.ec.ecsite.domain.auth.model.LoginHistories;
 import com.myou.ec.ecsite.domain.auth.model.LoginHistory;
 import com.myou.ec.ecsite.domain.auth.model.value.AuthAccountId;
+import com.myou.ec.ecsite.domain.auth.model.value.LoginResult;
 import com.myou.ec.ecsite.domain.auth.model.value.Operator;
 import com.myou.ec.ecsite.domain.auth.repository.AuthLoginHistoryRepository;
 import com.myou.ec.ecsite.infrastructure.auth.mapper.AuthLoginHistoryMapper;
 import com.myou.ec.ecsite.infrastructure.auth.record.AuthLoginHistoryRecord;
+import com.myou.ec.ecsite.infrastructure.auth.writebehind.LoginHistoryWriteBehind;
+import jakarta.annotation.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.time.Clock;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Repository
 public class AuthLoginHistoryRepositoryImpl implements AuthLoginHistoryRepository {
 
     private final AuthLoginHistoryMapper mapper;
     private final Clock clock; // Inject Clock
+    // null の場合は同期的に登録する
+    @Nullable
+    private final LoginHistoryWriteBehind writeBehind;
 
     public AuthLoginHistoryRepositoryImpl(AuthLoginHistoryMapper mapper, Clock clock) {
+        this(mapper, clock, null);
+    }
+
+    @Autowired
+    public AuthLoginHistoryRepositoryImpl(AuthLoginHistoryMapper mapper, Clock clock,
+                                          @Nullable LoginHistoryWriteBehind writeBehind) {
         this.mapper = mapper;
         this.clock = clock;
+        this.writeBehind = writeBehind;
     }
 
     @Override
     public void save(LoginHistory history, Operator operator) { // Use Operator
         AuthLoginHistoryRecord record = AuthLoginHistoryRecord.fromDomain(history, operator); // Pass Operator directly
-        mapper.insert(record);
+        if (writeBehind == null) {
+            mapper.insert(record);
+        } else {
+            writeBehind.submit(record);
+        }
     }
 
     @Override
     public LoginHistories findRecentByAccountId(AuthAccountId accountId, int limit) {
-        List<LoginHistory> histories =  mapper.selectRecentByAccountId(accountId.value(), limit).stream()
-                .map(r -> r.toDomain())
+        List<LoginHistory> histories = withPending(accountId, () -> mapper.selectRecentByAccountId(accountId.value(), limit))
+                .sorted(Comparator.comparing(LoginHistory::loginAt).reversed())
+                .limit(limit)
                 .toList();
         return new LoginHistories(histories);
     }
 
     @Override
     public Optional<LoginHistory> findLatestSuccessByAccountId(AuthAccountId accountId) {
-        return Optional.ofNullable(mapper.selectLatestSuccessByAccountId(accountId.value()))
-                .map(r -> r.toDomain());
+        return withPending(accountId, () -> {
+                    AuthLoginHistoryRecord latest = mapper.selectLatestSuccessByAccountId(accountId.value());
+                    return latest == null ? List.<AuthLoginHistoryRecord>of() : List.of(latest);
+                })
+                .filter(history -> history.result() == LoginResult.SUCCESS)
+                .max(Comparator.comparing(LoginHistory::loginAt));
+    }
+
+    /**
+     * 登録済みの履歴に、まだ登録されていない自身の書き込みを合成する。
+     */
+    private Stream<LoginHistory> withPending(AuthAccountId accountId, Supplier<List<AuthLoginHistoryRecord>> persisted) {
+        List<AuthLoginHistoryRecord> records = writeBehind == null
+                ? persisted.get()
+                : writeBehind.readWithPending(accountId.value(),
+                        pending -> Stream.concat(persisted.get().stream(), pending.stream()).toList());
+        return records.stream().map(AuthLoginHistoryRecord::toDomain);
     }
 
 }
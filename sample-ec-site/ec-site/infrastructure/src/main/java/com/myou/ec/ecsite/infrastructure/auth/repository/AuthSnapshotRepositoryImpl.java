@@ -0,0 +1,78 @@
+package com.myou.ec.ecsite.infrastructure.auth.repository;
+
+import com.myou.ec.ecsite.domain.auth.model.AuthAccount;
+import com.myou.ec.ecsite.domain.auth.model.AuthAccountState;
+import com.myou.ec.ecsite.domain.auth.model.AuthSnapshot;
+import com.myou.ec.ecsite.domain.auth.model.value.AccountStatus;
+import com.myou.ec.ecsite.domain.auth.model.value.AuthAccountId;
+import com.myou.ec.ecsite.domain.auth.model.value.LoginId;
+import com.myou.ec.ecsite.domain.auth.model.value.PasswordHash;
+import com.myou.ec.ecsite.domain.auth.model.value.RoleCode;
+import com.myou.ec.ecsite.domain.auth.repository.AuthAccountStateRepository;
+import com.myou.ec.ecsite.domain.auth.repository.AuthSnapshotRepository;
+import com.myou.ec.ecsite.infrastructure.auth.mapper.AuthSnapshotMapper;
+import com.myou.ec.ecsite.infrastructure.auth.record.AuthSnapshotRecord;
+import org.springframework.stereotype.Repository;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+@Repository
+public class AuthSnapshotRepositoryImpl implements AuthSnapshotRepository {
+
+    private final AuthSnapshotMapper authSnapshotMapper;
+    private final AuthAccountStateRepository accountStateRepository;
+
+    public AuthSnapshotRepositoryImpl(AuthSnapshotMapper authSnapshotMapper,
+                                      AuthAccountStateRepository accountStateRepository) {
+        this.authSnapshotMapper = Objects.requireNonNull(authSnapshotMapper, "authSnapshotMapper");
+        this.accountStateRepository = Objects.requireNonNull(accountStateRepository, "accountStateRepository");
+    }
+
+    @Override
+    public Optional<AuthSnapshot> findByLoginId(LoginId loginId) {
+        List<AuthSnapshotRecord> records = authSnapshotMapper.selectByLoginId(loginId.value());
+        if (records.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // ロール以外の列は全行で同じ値
+        AuthSnapshotRecord first = records.get(0);
+        Set<RoleCode> roleCodes = new LinkedHashSet<>();
+        for (AuthSnapshotRecord record : records) {
+            if (record.roleCode() != null) {
+                roleCodes.add(new RoleCode(record.roleCode()));
+            }
+        }
+
+        AuthAccount account = new AuthAccount(
+                new AuthAccountId(first.authAccountId()),
+                new LoginId(first.loginId()),
+                new PasswordHash(first.passwordHash()),
+                AccountStatus.valueOf(first.accountStatus())
+        );
+        if (first.stateAccountId() == null) {
+            // 状態の行がまだないアカウントのみ、履歴から作成した状態を使う
+            AuthAccountState state = accountStateRepository.findByAccountId(account.id());
+            return Optional.of(new AuthSnapshot(
+                    account,
+                    roleCodes,
+                    state.locked(),
+                    state.expired(),
+                    state.lastUnexpireAt(),
+                    state.lastSuccessAt()
+            ));
+        }
+        return Optional.of(new AuthSnapshot(
+                account,
+                roleCodes,
+                Boolean.TRUE.equals(first.locked()),
+                Boolean.TRUE.equals(first.expired()),
+                first.lastUnexpireAt(),
+                first.lastSuccessAt()
+        ));
+    }
+}
@@ -0,0 +1,12 @@
+package com.myou.ec.ecsite.infrastructure.auth.writebehind;
+
+/**
+ * 書き込みキューが満杯の場合の動作。
+ * 監査に使う履歴のため、いずれの場合も破棄はしない。
+ */
+public enum BackpressurePolicy {
+    /** 呼び出し元のスレッド（トランザクション）で同期的に登録する。 */
+    CALLER_RUNS,
+    /** キューに空きができるまで呼び出し元を待たせる。 */
+    BLOCK
+}
@@ -0,0 +1,129 @@
+package com.myou.ec.ecsite.infrastructure.auth.writebehind;
+
+import com.myou.ec.ecsite.infrastructure.auth.record.AuthLoginHistoryRecord;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * キューに積んだログイン履歴を追記するジャーナルファイル。
+ * <p>
+ * 1行1レコードで、キューへの投入時に「E」行、DBへの登録後に登録済みの最大連番を「C」行として追記する。
+ * 起動時に最後の「C」行より後の「E」行を未登録として読み戻す。
+ * 登録とチェックポイントの間で停止した場合は同じ履歴を再登録し得る（at-least-once）。
+ */
+class LoginHistoryJournal implements AutoCloseable {
+
+    private static final String ENTRY = "E";
+    private static final String CHECKPOINT = "C";
+
+    private final Path file;
+    private final boolean fsync;
+    private final FileChannel channel;
+
+    LoginHistoryJournal(Path file, boolean fsync) {
+        this.file = file;
+        this.fsync = fsync;
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("ログイン履歴のジャーナルを開けません。file=" + file, e);
+        }
+    }
+
+    /**
+     * 最後のチェックポイントより後の未登録の履歴。
+     */
+    List<AuthLoginHistoryRecord> readUncommitted() {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("ログイン履歴のジャーナルを読めません。file=" + file, e);
+        }
+        long committed = 0;
+        for (String line : lines) {
+            String[] fields = line.split("\t", -1);
+            if (fields.length == 2 && CHECKPOINT.equals(fields[0])) {
+                committed = Math.max(committed, Long.parseLong(fields[1]));
+            }
+        }
+        List<AuthLoginHistoryRecord> records = new ArrayList<>();
+        for (String line : lines) {
+            String[] fields = line.split("\t", -1);
+            // 書き込み途中で停止した末尾の行は読み飛ばす
+            if (fields.length != 6 || !ENTRY.equals(fields[0]) || Long.parseLong(fields[1]) <= committed) {
+                continue;
+            }
+            records.add(new AuthLoginHistoryRecord(
+                    null,
+                    Long.parseLong(fields[2]),
+                    fields[3],
+                    LocalDateTime.parse(fields[4]),
+                    null,
+                    URLDecoder.decode(fields[5], StandardCharsets.UTF_8)));
+        }
+        return records;
+    }
+
+    void append(long seq, AuthLoginHistoryRecord record) {
+        write(String.join("\t", ENTRY, Long.toString(seq), Long.toString(record.authAccountId()), record.result(),
+                record.loginAt().toString(), URLEncoder.encode(record.createdBy(), StandardCharsets.UTF_8)));
+    }
+
+    void checkpoint(long seq) {
+        write(CHECKPOINT + "\t" + seq);
+    }
+
+    /**
+     * 全件登録済みになった時点で内容を破棄する。
+     */
+    void truncate() {
+        try {
+            channel.truncate(0);
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("ログイン履歴のジャーナルを切り詰められません。file=" + file, e);
+        }
+    }
+
+    private void write(String line) {
+        ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("ログイン履歴のジャーナルに書き込めません。file=" + file, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.myou.ec.ecsite.infrastructure.auth.writebehind;
+
+import com.myou.ec.ecsite.infrastructure.auth.mapper.AuthLoginHistoryMapper;
+import com.myou.ec.ecsite.infrastructure.auth.record.AuthLoginHistoryRecord;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * ログイン履歴の非同期一括登録（write-behind）。
+ * <p>
+ * 認証処理のスレッドでは上限付きのキューに積むだけとし、バックグラウンドのスレッドが
+ * 件数（flush-size）または経過時間（flush-interval）ごとに JDBC バッチで登録する。
+ * トランザクション中に投入した履歴は、コミット後にキューへ積む（ロールバック時は破棄）。
+ * <p>
+ * 未登録の履歴は {@link #readWithPending(long, Function)} で参照でき、リポジトリの検索結果に合成することで自身の書き込みを読める。
+ * ジャーナルファイルを指定した場合は、キューに積んだ履歴を追記し、起動時に未登録分を登録し直す。
+ */
+@Component
+public class LoginHistoryWriteBehind implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginHistoryWriteBehind.class);
+
+    private final AuthLoginHistoryMapper mapper;
+    private final SqlSessionFactory sqlSessionFactory;
+    private final boolean enabled;
+    private final int flushSize;
+    private final Duration flushInterval;
+    private final BackpressurePolicy backpressurePolicy;
+    private final BlockingQueue<Entry> queue;
+    private final LoginHistoryJournal journal;
+    // コミット待ち・キュー内・登録中の履歴（登録完了で除く）
+    private final Set<Entry> pending = ConcurrentHashMap.newKeySet();
+    // 連番の採番・ジャーナルへの追記・キューへの投入の順序を揃える
+    private final ReentrantLock enqueueLock = new ReentrantLock();
+    // 登録のコミットと pending からの除去（書き込み側）を、登録済みと未登録の履歴の読み込み（読み込み側）と排他にする
+    private final ReadWriteLock commitLock = new ReentrantReadWriteLock();
+    private final Thread worker;
+    private long sequence;
+    private volatile boolean running = true;
+
+    public LoginHistoryWriteBehind(AuthLoginHistoryMapper mapper,
+                                   SqlSessionFactory sqlSessionFactory,
+                                   @Value("${auth.login-history.write-behind.enabled:true}") boolean enabled,
+                                   @Value("${auth.login-history.write-behind.capacity:10000}") int capacity,
+                                   @Value("${auth.login-history.write-behind.flush-size:100}") int flushSize,
+                                   @Value("${auth.login-history.write-behind.flush-interval:200ms}") Duration flushInterval,
+                                   @Value("${auth.login-history.write-behind.backpressure:CALLER_RUNS}") BackpressurePolicy backpressurePolicy,
+                                   @Value("${auth.login-history.write-behind.journal-file:}") String journalFile,
+                                   @Value("${auth.login-history.write-behind.journal-fsync:false}") boolean journalFsync) {
+        if (capacity <= 0 || flushSize <= 0) {
+            throw new IllegalArgumentException("capacity と flush-size は1以上を指定してください。");
+        }
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+        this.sqlSessionFactory = Objects.requireNonNull(sqlSessionFactory, "sqlSessionFactory");
+        this.enabled = enabled;
+        this.flushSize = flushSize;
+        this.flushInterval = flushInterval;
+        this.backpressurePolicy = backpressurePolicy;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.journal = enabled && !journalFile.isBlank() ? new LoginHistoryJournal(Path.of(journalFile), journalFsync) : null;
+
+        if (journal != null) {
+            recover();
+        }
+        if (enabled) {
+            worker = Thread.ofPlatform().name("login-history-writer").daemon(true).start(this::run);
+        } else {
+            worker = null;
+        }
+    }
+
+    /**
+     * 履歴の登録を依頼する。
+     */
+    public void submit(AuthLoginHistoryRecord record) {
+        if (!enabled) {
+            mapper.insert(record);
+            return;
+        }
+        Entry entry = new Entry(record);
+        pending.add(entry);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        enqueue(entry);
+                    } else {
+                        pending.remove(entry);
+                    }
+                }
+            });
+        } else {
+            enqueue(entry);
+        }
+    }
+
+    /**
+     * 指定アカウントの未登録の履歴。
+     */
+    public List<AuthLoginHistoryRecord> pending(long authAccountId) {
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+        return pending.stream()
+                .map(Entry::record)
+                .filter(record -> record.authAccountId() == authAccountId)
+                .toList();
+    }
+
+    /**
+     * 指定アカウントの未登録の履歴を渡して、登録済みの履歴の読み込み（reader）を実行する。
+     * 実行中は登録のコミットを待たせるため、同じ履歴が登録済みと未登録の両方に現れない。
+     */
+    public <T> T readWithPending(long authAccountId, Function<List<AuthLoginHistoryRecord>, T> reader) {
+        commitLock.readLock().lock();
+        try {
+            return reader.apply(pending(authAccountId));
+        } finally {
+            commitLock.readLock().unlock();
+        }
+    }
+
+    private void enqueue(Entry entry) {
+        enqueueLock.lock();
+        try {
+            if (running && offer(entry)) {
+                entry.seq = ++sequence;
+                if (journal != null) {
+                    journal.append(entry.seq, entry.record());
+                }
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            enqueueLock.unlock();
+        }
+
+        // キューに積めなかった（満杯・停止中）。監査のため破棄せず、呼び出し元で同期的に登録する
+        try {
+            mapper.insert(entry.record());
+        } finally {
+            pending.remove(entry);
+        }
+    }
+
+    private boolean offer(Entry entry) throws InterruptedException {
+        if (backpressurePolicy != BackpressurePolicy.BLOCK) {
+            return queue.offer(entry);
+        }
+        // ワーカーがジャーナルの切り詰めで同じロックを待つため、空きを待つ間はロックを手放す
+        while (!queue.offer(entry)) {
+            enqueueLock.unlock();
+            try {
+                TimeUnit.MILLISECONDS.sleep(1);
+            } finally {
+                enqueueLock.lock();
+            }
+            if (!running) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>(flushSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < flushSize) {
+                    queue.drainTo(batch, flushSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= flushSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    Entry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("ログイン履歴の登録に失敗。", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Entry> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            insertBatch(batch);
+        } catch (RuntimeException e) {
+            // 1件ずつ登録し直し、登録できない履歴だけを失う
+            logger.warn("ログイン履歴のバッチ登録に失敗したため1件ずつ登録する。件数:{}", batch.size(), e);
+            for (Entry entry : batch) {
+                try {
+                    insertBatch(List.of(entry));
+                } catch (RuntimeException ex) {
+                    logger.error("ログイン履歴を登録できないため破棄。authAccountId:{} result:{} loginAt:{}",
+                            entry.record().authAccountId(), entry.record().result(), entry.record().loginAt(), ex);
+                }
+            }
+        }
+        // 登録できずに破棄した履歴を除く
+        batch.forEach(pending::remove);
+
+        if (journal != null) {
+            enqueueLock.lock();
+            try {
+                if (queue.isEmpty()) {
+                    journal.truncate();
+                } else {
+                    journal.checkpoint(batch.stream().mapToLong(entry -> entry.seq).max().orElseThrow());
+                }
+            } finally {
+                enqueueLock.unlock();
+            }
+        }
+    }
+
+    private void insertBatch(List<Entry> entries) {
+        insertBatch(entries.stream().map(Entry::record).toList(), () -> entries.forEach(pending::remove));
+    }
+
+    private void insertBatch(List<AuthLoginHistoryRecord> records, Runnable afterCommit) {
+        try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+            AuthLoginHistoryMapper batchMapper = session.getMapper(AuthLoginHistoryMapper.class);
+            records.forEach(batchMapper::insert);
+            // コミットから pending の除去までの間に読み込まれると、同じ履歴を二重に返す。
+            // Spring 管理外の接続は自動コミットのため、バッチの実行（flushStatements）から含める
+            commitLock.writeLock().lock();
+            try {
+                session.flushStatements();
+                session.commit();
+                afterCommit.run();
+            } finally {
+                commitLock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void recover() {
+        List<AuthLoginHistoryRecord> records = journal.readUncommitted();
+        if (!records.isEmpty()) {
+            logger.info("ジャーナルから未登録のログイン履歴を登録。件数:{}", records.size());
+            for (int from = 0; from < records.size(); from += flushSize) {
+                insertBatch(records.subList(from, Math.min(from + flushSize, records.size())), () -> {
+                });
+            }
+        }
+        journal.truncate();
+    }
+
+    /**
+     * キューに残った履歴を登録してから停止する。
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        if (worker == null) {
+            return;
+        }
+        // 登録中の JDBC 呼び出しを割り込まないよう、ワーカーがキューを空にして終了するのを待つ
+        running = false;
+        worker.join();
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private static final class Entry {
+        private final AuthLoginHistoryRecord record;
+        // ジャーナルの連番。enqueueLock の中で設定・参照する
+        private long seq;
+
+        private Entry(AuthLoginHistoryRecord record) {
+            this.record = record;
+        }
+
+        AuthLoginHistoryRecord record() {
+            return record;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.myou.ec.ecsite.infrastructure.auth.repository;
+
+import com.myou.ec.ecsite.domain.auth.exception.AuthAccountNotFoundException;
+import com.myou.ec.ecsite.domain.auth.model.AccountExpiryEvent;
+import com.myou.ec.ecsite.domain.auth.model.AccountLockEvent;
+import com.myou.ec.ecsite.domain.auth.model.AuthAccountState;
+import com.myou.ec.ecsite.domain.auth.model.LoginHistory;
+import com.myou.ec.ecsite.domain.auth.model.value.AuthAccountId;
+import com.myou.ec.ecsite.domain.auth.model.value.Operator;
+import com.myou.ec.ecsite.infrastructure.auth.mapper.AuthAccountExpiryHistoryMapper;
+import com.myou.ec.ecsite.infrastructure.auth.mapper.AuthAccountLockHistoryMapper;
+import com.myou.ec.ecsite.infrastructure.auth.mapper.AuthAccountStateMapper;
+import com.myou.ec.ecsite.infrastructure.auth.mapper.AuthLoginHistoryMapper;
+import com.myou.ec.ecsite.infrastructure.auth.writebehind.BackpressurePolicy;
+import com.myou.ec.ecsite.infrastructure.auth.writebehind.LoginHistoryWriteBehind;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.boot.test.autoconfigure.MybatisTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Proxy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@MybatisTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional
+class AuthAccountStateRepositoryImplTest {
+
+    private AuthAccountStateRepositoryImpl authAccountStateRepository;
+
+    @Autowired
+    private AuthAccountStateMapper authAccountStateMapper;
+    @Autowired
+    private AuthAccountLockHistoryMapper lockHistoryMapper;
+    @Autowired
+    private AuthAccountExpiryHistoryMapper expiryHistoryMapper;
+    @Autowired
+    private AuthLoginHistoryMapper loginHistoryMapper;
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    private Clock clock;
+    private LocalDateTime now;
+    private AuthAccountLockHistoryRepositoryImpl lockHistoryRepository;
+    private AuthAccountExpiryHistoryRepositoryImpl expiryHistoryRepository;
+    private AuthLoginHistoryRepositoryImpl loginHistoryRepository;
+
+    private final AuthAccountId accountId = new AuthAccountId(1L);
+
+    @BeforeEach
+    void setUp() {
+        clock = Clock.fixed(Instant.parse("2023-01-01T10:00:00Z"), ZoneId.systemDefault());
+        now = LocalDateTime.now(clock);
+        authAccountStateRepository = new AuthAccountStateRepositoryImpl(authAccountStateMapper, clock);
+        lockHistoryRepository = new AuthAccountLockHistoryRepositoryImpl(lockHistoryMapper, clock);
+        expiryHistoryRepository = new AuthAccountExpiryHistoryRepositoryImpl(expiryHistoryMapper, clock);
+        loginHistoryRepository = new AuthLoginHistoryRepositoryImpl(loginHistoryMapper, clock);
+    }
+
+    @Nested
+    @DisplayName("findByAccountId")
+    class FindByAccountId {
+
+        @Test
+        @DisplayName("履歴がないアカウントは初期状態で作成されること")
+        void testFindByAccountId_noHistory() {
+            AuthAccountState state = authAccountStateRepository.findByAccountId(accountId);
+
+            assertThat(state).isEqualTo(new AuthAccountState(accountId, 0, false, null, null, false, null));
+            assertThat(authAccountStateMapper.selectByAccountId(accountId.value())).isNotNull();
+        }
+
+        @Test
+        @DisplayName("状態がないアカウントは登録済みの履歴から作成されること")
+        void testFindByAccountId_fromHistory() {
+            saveLogin(LoginHistory.fail(accountId, now.minusHours(6)));
+            saveLogin(LoginHistory.success(accountId, now.minusHours(5)));
+            saveLogin(LoginHistory.fail(accountId, now.minusHours(4)));
+            lockHistoryRepository.save(AccountLockEvent.lock(accountId, now.minusHours(4), "test", Operator.system()), Operator.system());
+            lockHistoryRepository.save(AccountLockEvent.unlock(accountId, now.minusHours(3), "test", Operator.system()), Operator.system());
+            saveLogin(LoginHistory.fail(accountId, now.minusHours(2)));
+            saveLogin(LoginHistory.locked(accountId, now.minusMinutes(90)));
+            saveLogin(LoginHistory.fail(accountId, now.minusHours(1)));
+            expiryHistoryRepository.save(AccountExpiryEvent.unexpired(accountId, "test", now.minusDays(2), Operator.system()), Operator.system());
+            expiryHistoryRepository.save(AccountExpiryEvent.expired(accountId, "test", now.minusDays(1), Operator.system()), Operator.system());
+
+            AuthAccountState state = authAccountStateRepository.findByAccountId(accountId);
+
+            // ロック解除より前の失敗と FAILURE 以外の結果は数えない
+            assertThat(state.consecutiveFailureCount()).isEqualTo(2);
+            assertThat(state.locked()).isFalse();
+            assertThat(state.lastUnlockAt()).isEqualTo(now.minusHours(3));
+            assertThat(state.lastSuccessAt()).isEqualTo(now.minusHours(5));
+            assertThat(state.expired()).isTrue();
+            assertThat(state.lastUnexpireAt()).isEqualTo(now.minusDays(2));
+        }
+
+        @Test
+        @DisplayName("存在しないアカウントの場合に例外が発生すること")
+        void testFindByAccountId_notFound() {
+            assertThatThrownBy(() -> authAccountStateRepository.findByAccountId(new AuthAccountId(99L)))
+                    .isInstanceOf(AuthAccountNotFoundException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("ログイン成功・失敗")
+    class Login {
+
+        @Test
+        @DisplayName("失敗回数を加算し、ログイン成功でクリアされること")
+        void testIncrementAndSuccess() {
+            authAccountStateRepository.findByAccountId(accountId);
+
+            assertThat(authAccountStateRepository.incrementFailureCount(accountId)).isEqualTo(1);
+            assertThat(authAccountStateRepository.incrementFailureCount(accountId)).isEqualTo(2);
+
+            authAccountStateRepository.recordLoginSuccess(accountId, now);
+
+            AuthAccountState state = authAccountStateRepository.findByAccountId(accountId);
+            assertThat(state.consecutiveFailureCount()).isZero();
+            assertThat(state.lastSuccessAt()).isEqualTo(now);
+        }
+
+        @Test
+        @DisplayName("状態の作成が他のリクエストと競合しても、作成済みの行に失敗を加算すること")
+        void testIncrement_concurrentInitialize() {
+            // NOT EXISTS の判定後に他のリクエストが先に作成した場合を再現する
+            AuthAccountStateMapper racing = (AuthAccountStateMapper) Proxy.newProxyInstance(
+                    AuthAccountStateMapper.class.getClassLoader(), new Class<?>[]{AuthAccountStateMapper.class},
+                    (proxy, method, args) -> {
+                        Object result = method.invoke(authAccountStateMapper, args);
+                        if (method.getName().equals("insertFromHistory")) {
+                            throw new DuplicateKeyException("auth_account_id");
+                        }
+                        return result;
+                    });
+            AuthAccountStateRepositoryImpl repository = new AuthAccountStateRepositoryImpl(racing, clock);
+
+            assertThat(repository.incrementFailureCount(accountId)).isEqualTo(1);
+            assertThat(repository.findByAccountId(accountId).consecutiveFailureCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("状態がない場合は登録済みの失敗履歴から作成し、今回の失敗を加算すること")
+        void testIncrement_fromHistory() {
+            saveLogin(LoginHistory.fail(accountId, now.minusMinutes(2)));
+            saveLogin(LoginHistory.fail(accountId, now.minusMinutes(1)));
+
+            assertThat(authAccountStateRepository.incrementFailureCount(accountId)).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("状態がない場合は未登録（write-behind のキュー内）のログイン履歴も反映すること")
+        void testIncrement_withPendingHistory() throws InterruptedException {
+            LoginHistoryWriteBehind writeBehind = new LoginHistoryWriteBehind(loginHistoryMapper, sqlSessionFactory,
+                    true, 10, 10, Duration.ofSeconds(30), BackpressurePolicy.CALLER_RUNS, "", false);
+            try {
+                AuthAccountStateRepositoryImpl repository =
+                        new AuthAccountStateRepositoryImpl(authAccountStateMapper, clock, writeBehind);
+                AuthLoginHistoryRepositoryImpl pendingHistoryRepository =
+                        new AuthLoginHistoryRepositoryImpl(loginHistoryMapper, clock, writeBehind);
+                saveLogin(LoginHistory.fail(accountId, now.minusMinutes(10)));
+                // テストのトランザクション内で投入した履歴はコミットまで未登録のまま
+                pendingHistoryRepository.save(LoginHistory.success(accountId, now.minusMinutes(5)), Operator.system());
+                pendingHistoryRepository.save(LoginHistory.fail(accountId, now.minusMinutes(3)), Operator.system());
+                pendingHistoryRepository.save(LoginHistory.fail(accountId, now.minusMinutes(2)), Operator.system());
+
+                assertThat(repository.incrementFailureCount(accountId)).isEqualTo(3);
+                assertThat(repository.findByAccountId(accountId).lastSuccessAt()).isEqualTo(now.minusMinutes(5));
+            } finally {
+                writeBehind.destroy();
+            }
+        }
+
+        @Test
+        @DisplayName("状態がない場合もログイン成功が反映されること")
+        void testRecordLoginSuccess_fromHistory() {
+            saveLogin(LoginHistory.success(accountId, now));
+
+            authAccountStateRepository.recordLoginSuccess(accountId, now);
+
+            assertThat(authAccountStateRepository.findByAccountId(accountId).lastSuccessAt()).isEqualTo(now);
+        }
+    }
+
+    @Nested
+    @DisplayName("lock/unlock")
+    class LockUnlock {
+
+        @Test
+        @DisplayName("未ロックの場合のみロックでき、解除で失敗回数がクリアされること")
+        void testLockAndUnlock() {
+            authAccountStateRepository.incrementFailureCount(accountId);
+
+            assertThat(authAccountStateRepository.lock(accountId)).isTrue();
+            assertThat(authAccountStateRepository.lock(accountId)).isFalse();
+            assertThat(authAccountStateRepository.findByAccountId(accountId).locked()).isTrue();
+
+            authAccountStateRepository.unlock(accountId, now);
+
+            AuthAccountState state = authAccountStateRepository.findByAccountId(accountId);
+            assertThat(state.locked()).isFalse();
+            assertThat(state.lastUnlockAt()).isEqualTo(now);
+            assertThat(state.consecutiveFailureCount()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("expire/unexpire")
+    class ExpireUnexpire {
+
+        @Test
+        @DisplayName("有効期限切れと解除が状態に応じて1回だけ反映されること")
+        void testExpireAndUnexpire() {
+            assertThat(authAccountStateRepository.unexpire(accountId, now)).isFalse();
+
+            assertThat(authAccountStateRepository.expire(accountId)).isTrue();
+            assertThat(authAccountStateRepository.expire(accountId)).isFalse();
+
+            assertThat(authAccountStateRepository.unexpire(accountId, now)).isTrue();
+            assertThat(authAccountStateRepository.unexpire(accountId, now)).isFalse();
+
+            AuthAccountState state = authAccountStateRepository.findByAccountId(accountId);
+            assertThat(state.expired()).isFalse();
+            assertThat(state.lastUnexpireAt()).isEqualTo(now);
+        }
+    }
+
+    private void saveLogin(LoginHistory history) {
+        loginHistoryRepository.save(history, Operator.system());
+    }
+}
@@ -0,0 +1,152 @@
+package com.myou.ec.ecsite.infrastructure.auth.repository;
+
+import com.myou.ec.ecsite.domain.auth.model.AccountExpiryEvent;
+import com.myou.ec.ecsite.domain.auth.model.AccountLockEvent;
+import com.myou.ec.ecsite.domain.auth.model.AuthSnapshot;
+import com.myou.ec.ecsite.domain.auth.model.LoginHistory;
+import com.myou.ec.ecsite.domain.auth.model.value.AccountStatus;
+import com.myou.ec.ecsite.domain.auth.model.value.AuthAccountId;
+import com.myou.ec.ecsite.domain.auth.model.value.LoginId;
+import com.myou.ec.ecsite.domain.auth.model.value.Operator;
+import com.myou.ec.ecsite.domain.auth.model.value.RoleCode;
+import com.myou.ec.ecsite.infrastructure.auth.mapper.AuthAccountExpiryHistoryMapper;
+import com.myou.ec.ecsite.infrastructure.auth.mapper.AuthAccountLockHistoryMapper;
+import com.myou.ec.ecsite.infrastructure.auth.mapper.AuthAccountRoleMapper;
+import com.myou.ec.ecsite.infrastructure.auth.mapper.AuthAccountStateMapper;
+import com.myou.ec.ecsite.infrastructure.auth.mapper.AuthLoginHistoryMapper;
+import com.myou.ec.ecsite.infrastructure.auth.mapper.AuthSnapshotMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.boot.test.autoconfigure.MybatisTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@MybatisTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional
+class AuthSnapshotRepositoryImplTest {
+
+    private AuthSnapshotRepositoryImpl authSnapshotRepository;
+
+    @Autowired
+    private AuthSnapshotMapper authSnapshotMapper;
+    @Autowired
+    private AuthAccountLockHistoryMapper lockHistoryMapper;
+    @Autowired
+    private AuthAccountExpiryHistoryMapper expiryHistoryMapper;
+    @Autowired
+    private AuthLoginHistoryMapper loginHistoryMapper;
+    @Autowired
+    private AuthAccountRoleMapper authAccountRoleMapper;
+    @Autowired
+    private AuthAccountStateMapper accountStateMapper;
+
+    private Clock clock;
+    private AuthAccountLockHistoryRepositoryImpl lockHistoryRepository;
+    private AuthAccountExpiryHistoryRepositoryImpl expiryHistoryRepository;
+    private AuthLoginHistoryRepositoryImpl loginHistoryRepository;
+    private AuthAccountStateRepositoryImpl accountStateRepository;
+
+    private final AuthAccountId accountId = new AuthAccountId(1L);
+
+    @BeforeEach
+    void setUp() {
+        clock = Clock.fixed(Instant.parse("2023-01-01T10:00:00Z"), ZoneId.systemDefault());
+        accountStateRepository = new AuthAccountStateRepositoryImpl(accountStateMapper, clock);
+        authSnapshotRepository = new AuthSnapshotRepositoryImpl(authSnapshotMapper, accountStateRepository);
+        lockHistoryRepository = new AuthAccountLockHistoryRepositoryImpl(lockHistoryMapper, clock);
+        expiryHistoryRepository = new AuthAccountExpiryHistoryRepositoryImpl(expiryHistoryMapper, clock);
+        loginHistoryRepository = new AuthLoginHistoryRepositoryImpl(loginHistoryMapper, clock);
+    }
+
+    @Nested
+    @DisplayName("findByLoginId")
+    class FindByLoginId {
+
+        @Test
+        @DisplayName("履歴がないアカウントのスナップショットを取得できること")
+        void testFindByLoginId_noHistory() {
+            AuthSnapshot snapshot = authSnapshotRepository.findByLoginId(new LoginId("testUser")).orElseThrow();
+
+            assertThat(snapshot.account().id()).isEqualTo(accountId);
+            assertThat(snapshot.account().loginId().value()).isEqualTo("testUser");
+            assertThat(snapshot.account().passwordHash().value()).isEqualTo("pass");
+            assertThat(snapshot.account().accountStatus()).isEqualTo(AccountStatus.ACTIVE);
+            assertThat(snapshot.roleCodes()).containsExactly(new RoleCode("ROLE_USER"));
+            assertThat(snapshot.locked()).isFalse();
+            assertThat(snapshot.expired()).isFalse();
+            assertThat(snapshot.lastUnexpireAt()).isNull();
+            assertThat(snapshot.lastSuccessLoginAt()).isNull();
+        }
+
+        @Test
+        @DisplayName("状態の行がなければ履歴から作成した状態を取得できること")
+        void testFindByLoginId_latestHistory() {
+            LocalDateTime now = LocalDateTime.now(clock);
+            lockHistoryRepository.save(AccountLockEvent.lock(accountId, now.minusMinutes(2), "test", Operator.system()), Operator.system());
+            lockHistoryRepository.save(AccountLockEvent.unlock(accountId, now.minusMinutes(1), "test", Operator.system()), Operator.system());
+            lockHistoryRepository.save(AccountLockEvent.lock(accountId, now, "test", Operator.system()), Operator.system());
+            expiryHistoryRepository.save(AccountExpiryEvent.expired(accountId, "test", now.minusDays(2), Operator.system()), Operator.system());
+            expiryHistoryRepository.save(AccountExpiryEvent.unexpired(accountId, "test", now.minusDays(1), Operator.system()), Operator.system());
+            loginHistoryRepository.save(LoginHistory.success(accountId, now.minusHours(3)), Operator.system());
+            loginHistoryRepository.save(LoginHistory.success(accountId, now.minusHours(2)), Operator.system());
+            loginHistoryRepository.save(LoginHistory.fail(accountId, now.minusHours(1)), Operator.system());
+
+            AuthSnapshot snapshot = authSnapshotRepository.findByLoginId(new LoginId("testUser")).orElseThrow();
+
+            assertThat(snapshot.locked()).isTrue();
+            assertThat(snapshot.expired()).isFalse();
+            assertThat(snapshot.lastUnexpireAt()).isEqualTo(now.minusDays(1));
+            assertThat(snapshot.lastSuccessLoginAt()).isEqualTo(now.minusHours(2));
+            assertThat(accountStateMapper.selectByAccountId(accountId.value())).isNotNull();
+        }
+
+        @Test
+        @DisplayName("状態の行があれば履歴ではなく状態の行から取得すること")
+        void testFindByLoginId_fromState() {
+            LocalDateTime now = LocalDateTime.now(clock);
+            accountStateRepository.findByAccountId(accountId);
+            accountStateRepository.lock(accountId);
+            accountStateRepository.expire(accountId);
+            accountStateRepository.recordLoginSuccess(accountId, now.minusHours(1));
+            // 状態の行作成後の履歴は判定に使われない
+            lockHistoryRepository.save(AccountLockEvent.unlock(accountId, now, "test", Operator.system()), Operator.system());
+            expiryHistoryRepository.save(AccountExpiryEvent.unexpired(accountId, "test", now, Operator.system()), Operator.system());
+
+            AuthSnapshot snapshot = authSnapshotRepository.findByLoginId(new LoginId("testUser")).orElseThrow();
+
+            assertThat(snapshot.locked()).isTrue();
+            assertThat(snapshot.expired()).isTrue();
+            assertThat(snapshot.lastUnexpireAt()).isNull();
+            assertThat(snapshot.lastSuccessLoginAt()).isEqualTo(now.minusHours(1));
+        }
+
+        @Test
+        @DisplayName("複数ロールを持つアカウントは全ロールを1件のスナップショットにまとめること")
+        void testFindByLoginId_multipleRoles() {
+            // ROLE_USER (auth_role_id = 1) を追加
+            authAccountRoleMapper.insert(2L, "1", "SYSTEM");
+
+            AuthSnapshot snapshot = authSnapshotRepository.findByLoginId(new LoginId("adminUser")).orElseThrow();
+
+            assertThat(snapshot.account().id()).isEqualTo(new AuthAccountId(2L));
+            assertThat(snapshot.roleCodes()).containsExactlyInAnyOrder(new RoleCode("ROLE_USER"), new RoleCode("ROLE_ADMIN"));
+        }
+
+        @Test
+        @DisplayName("存在しないログインIDの場合は空が返されること")
+        void testFindByLoginId_notFound() {
+            assertThat(authSnapshotRepository.findByLoginId(new LoginId("unknown"))).isEmpty();
+        }
+    }
+}
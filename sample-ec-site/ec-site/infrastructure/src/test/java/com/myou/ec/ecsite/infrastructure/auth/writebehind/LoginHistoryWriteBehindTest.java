@@ -0,0 +1,191 @@
+package com.myou.ec.ecsite.infrastructure.auth.writebehind;
+
+import com.myou.ec.ecsite.domain.auth.model.LoginHistory;
+import com.myou.ec.ecsite.domain.auth.model.value.AuthAccountId;
+import com.myou.ec.ecsite.domain.auth.model.value.LoginResult;
+import com.myou.ec.ecsite.domain.auth.model.value.Operator;
+import com.myou.ec.ecsite.infrastructure.auth.mapper.AuthLoginHistoryMapper;
+import com.myou.ec.ecsite.infrastructure.auth.record.AuthLoginHistoryRecord;
+import com.myou.ec.ecsite.infrastructure.auth.repository.AuthLoginHistoryRepositoryImpl;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mybatis.spring.boot.test.autoconfigure.MybatisTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * バックグラウンドのスレッドが別トランザクションで登録するため、テストのトランザクションは使わずに後始末する。
+ */
+@MybatisTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LoginHistoryWriteBehindTest {
+
+    @Autowired
+    private AuthLoginHistoryMapper authLoginHistoryMapper;
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+    @Autowired
+    private DataSource dataSource;
+
+    @TempDir
+    private Path tempDir;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2023-01-01T10:00:00Z"), ZoneId.systemDefault());
+    private final LocalDateTime now = LocalDateTime.now(clock);
+    private final AuthAccountId accountId = new AuthAccountId(2L);
+    private final List<LoginHistoryWriteBehind> writers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (LoginHistoryWriteBehind writer : writers) {
+            writer.destroy();
+        }
+        new JdbcTemplate(dataSource).update("DELETE FROM AUTH_LOGIN_HISTORY WHERE auth_account_id = ?", accountId.value());
+    }
+
+    @Nested
+    @DisplayName("submit")
+    class Submit {
+
+        @Test
+        @DisplayName("flush-size に達した時点でまとめて登録され、登録前も自身の書き込みを読めること")
+        void testSubmit_flushBySize() throws InterruptedException {
+            LoginHistoryWriteBehind writer = newWriter(3, Duration.ofSeconds(30), "");
+            AuthLoginHistoryRepositoryImpl repository = new AuthLoginHistoryRepositoryImpl(authLoginHistoryMapper, clock, writer);
+
+            repository.save(LoginHistory.success(accountId, now.minusMinutes(2)), Operator.system());
+            repository.save(LoginHistory.fail(accountId, now.minusMinutes(1)), Operator.system());
+
+            assertThat(repository.findRecentByAccountId(accountId, 10).countConsecutiveFailuresSince(null)).isEqualTo(1);
+            assertThat(repository.findLatestSuccessByAccountId(accountId))
+                    .map(LoginHistory::loginAt).contains(now.minusMinutes(2));
+
+            repository.save(LoginHistory.fail(accountId, now), Operator.system());
+
+            awaitPersisted(writer, 3);
+            assertThat(writer.pending(accountId.value())).isEmpty();
+            assertThat(repository.findRecentByAccountId(accountId, 10).countConsecutiveFailuresSince(null)).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("未登録の履歴を読み込む間は登録のコミットを待たせ、同じ履歴を二重に返さないこと")
+        void testReadWithPending_excludesCommit() throws InterruptedException {
+            LoginHistoryWriteBehind writer = newWriter(1, Duration.ofMillis(10), "");
+
+            int[] seen = writer.readWithPending(accountId.value(), pending -> {
+                writer.submit(record(LoginResult.FAILURE, now));
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                // ワーカーは登録済みだがコミットできず、履歴は未登録のまま残る
+                return new int[]{persistedCount(), writer.pending(accountId.value()).size()};
+            });
+
+            assertThat(seen).containsExactly(0, 1);
+            awaitPersisted(writer, 1);
+        }
+
+        @Test
+        @DisplayName("無効の場合は呼び出し元で同期的に登録されること")
+        void testSubmit_disabled() throws InterruptedException {
+            LoginHistoryWriteBehind writer = new LoginHistoryWriteBehind(authLoginHistoryMapper, sqlSessionFactory,
+                    false, 10, 10, Duration.ofSeconds(30), BackpressurePolicy.CALLER_RUNS, "", false);
+            writers.add(writer);
+
+            writer.submit(record(LoginResult.FAILURE, now));
+
+            assertThat(persistedCount()).isEqualTo(1);
+            assertThat(writer.pending(accountId.value())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("停止時にキューに残った履歴が登録され、ジャーナルが空になること")
+        void testDestroy_flushesQueue() throws Exception {
+            Path journal = tempDir.resolve("login-history.journal");
+            LoginHistoryWriteBehind writer = newWriter(100, Duration.ofMillis(500), journal.toString());
+
+            writer.submit(record(LoginResult.FAILURE, now.minusMinutes(1)));
+            writer.submit(record(LoginResult.SUCCESS, now));
+
+            assertThat(Files.readAllLines(journal)).hasSize(2).allMatch(line -> line.startsWith("E\t"));
+
+            writer.destroy();
+            writers.remove(writer);
+
+            assertThat(persistedCount()).isEqualTo(2);
+            assertThat(Files.size(journal)).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("journal")
+    class Journal {
+
+        @Test
+        @DisplayName("起動時にチェックポイントより後の履歴が登録されること")
+        void testRecover() throws Exception {
+            Path journal = tempDir.resolve("login-history.journal");
+            Files.writeString(journal, String.join("\n",
+                    "E\t1\t2\tFAILURE\t2023-01-01T09:00\tadminUser",
+                    "C\t1",
+                    "E\t2\t2\tFAILURE\t2023-01-01T09:01\tadminUser",
+                    "E\t3\t2\tSUCCESS\t2023-01-01T09:02\tadmin%09User",
+                    "E\t4\t2\tFAIL") + "\n", StandardCharsets.UTF_8);
+
+            newWriter(100, Duration.ofSeconds(30), journal.toString());
+
+            List<AuthLoginHistoryRecord> persisted = authLoginHistoryMapper.selectRecentByAccountId(accountId.value(), 10);
+            assertThat(persisted).extracting(AuthLoginHistoryRecord::result).containsExactly("SUCCESS", "FAILURE");
+            assertThat(persisted.get(0).createdBy()).isEqualTo("admin\tUser");
+            assertThat(Files.size(journal)).isZero();
+        }
+    }
+
+    private LoginHistoryWriteBehind newWriter(int flushSize, Duration flushInterval, String journalFile) {
+        LoginHistoryWriteBehind writer = new LoginHistoryWriteBehind(authLoginHistoryMapper, sqlSessionFactory,
+                true, 100, flushSize, flushInterval, BackpressurePolicy.CALLER_RUNS, journalFile, false);
+        writers.add(writer);
+        return writer;
+    }
+
+    private AuthLoginHistoryRecord record(LoginResult result, LocalDateTime loginAt) {
+        return new AuthLoginHistoryRecord(null, accountId.value(), result.name(), loginAt, null, "SYSTEM");
+    }
+
+    private void awaitPersisted(LoginHistoryWriteBehind writer, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while ((persistedCount() < expected || !writer.pending(accountId.value()).isEmpty())
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(persistedCount()).isEqualTo(expected);
+    }
+
+    private int persistedCount() {
+        return authLoginHistoryMapper.selectRecentByAccountId(accountId.value(), 100).size();
+    }
+}
@@ -1,6 +1,6 @@
 package com.myou.ec.ecsite.presentation.auth.security.handler;
 
-import com.myou.ec.ecsite.application.auth.sharedservice.PasswordChangeSharedService;
+import com.myou.ec.ecsite.presentation.auth.security.interceptor.PasswordChangeRequirementCache;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -17,16 +17,14 @@ import java.io.IOException;
 @Component
 public class AuthAuthenticationSuccessHandler extends SavedRequestAwareAuthenticationSuccessHandler {
 
-    //public static final String SESSION_ATTR_PASSWORD_CHANGE_REQUIRED = "AUTH_PASSWORD_CHANGE_REQUIRED";
-
-    private final PasswordChangeSharedService passwordChangeSharedService;
+    private final PasswordChangeRequirementCache passwordChangeRequirementCache;
 
     // デフォルト遷移先URL（必要に応じて設定で差し替え可能にしてもよい）
 //    private final String defaultMenuUrl = "/menu";
     private static final String passwordChangeUrl = "/.well-known/change-password";
 
-    public AuthAuthenticationSuccessHandler(PasswordChangeSharedService passwordChangeSharedService) {
-        this.passwordChangeSharedService = passwordChangeSharedService;
+    public AuthAuthenticationSuccessHandler(PasswordChangeRequirementCache passwordChangeRequirementCache) {
+        this.passwordChangeRequirementCache = passwordChangeRequirementCache;
     }
 
     @Override
@@ -35,7 +33,8 @@ public class AuthAuthenticationSuccessHandler extends SavedRequestAwareAuthentic
                                         Authentication authentication)
             throws IOException, ServletException {
 
-        boolean result = passwordChangeSharedService.isPasswordChangeRequired();
+        // 判定結果はセッションに保持し、以降のリクエストでは PasswordChangeRequiredInterceptor が参照する
+        boolean result = passwordChangeRequirementCache.refresh(request).requiresPasswordChange();
 
         if (result) {
             // パスワード変更画面へリダイレクト
@@ -0,0 +1,59 @@
+package com.myou.ec.ecsite.presentation.auth.security.interceptor;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 除外URLのパターンを起動時に解析しておき、1回の呼び出しで判定するマッチャ。
+ * ワイルドカードを含まないパターンは完全一致の集合で判定し、それ以外のみパターンで判定する。
+ */
+final class BypassPathMatcher {
+
+    private final Set<String> exactPaths;
+    private final List<PathPattern> patterns;
+
+    private BypassPathMatcher(Set<String> exactPaths, List<PathPattern> patterns) {
+        this.exactPaths = exactPaths;
+        this.patterns = patterns;
+    }
+
+    static BypassPathMatcher compile(List<String> bypassPatterns) {
+        Set<String> exactPaths = new HashSet<>();
+        List<PathPattern> patterns = new ArrayList<>();
+        for (String raw : bypassPatterns) {
+            String pattern = raw.trim();
+            if (pattern.isEmpty()) {
+                continue;
+            }
+            PathPattern parsed = PathPatternParser.defaultInstance.parse(pattern);
+            if (parsed.hasPatternSyntax()) {
+                patterns.add(parsed);
+            } else {
+                exactPaths.add(pattern);
+            }
+        }
+        return new BypassPathMatcher(Set.copyOf(exactPaths), List.copyOf(patterns));
+    }
+
+    boolean matches(String path) {
+        if (exactPaths.contains(path)) {
+            return true;
+        }
+        if (patterns.isEmpty()) {
+            return false;
+        }
+        PathContainer container = PathContainer.parsePath(path);
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(container)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,26 +1,23 @@
 package com.myou.ec.ecsite.presentation.auth.security.interceptor;
 
-import com.myou.ec.ecsite.application.auth.sharedservice.PasswordChangeSharedService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.web.servlet.HandlerInterceptor;
 
 import java.util.List;
 
 public class PasswordChangeRequiredInterceptor implements HandlerInterceptor {
 
-    private final PasswordChangeSharedService passwordChangeSharedService;
-    private final List<String> bypassPatterns;
-    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final PasswordChangeRequirementCache passwordChangeRequirementCache;
+    private final BypassPathMatcher bypassMatcher;
     private static final String passwordChangeUrl = "/.well-known/change-password";
 
     public PasswordChangeRequiredInterceptor(
-            PasswordChangeSharedService passwordChangeSharedService,
+            PasswordChangeRequirementCache passwordChangeRequirementCache,
             List<String> bypassPatterns
     ) {
-        this.passwordChangeSharedService = passwordChangeSharedService;
-        this.bypassPatterns = List.copyOf(bypassPatterns);
+        this.passwordChangeRequirementCache = passwordChangeRequirementCache;
+        this.bypassMatcher = BypassPathMatcher.compile(bypassPatterns);
     }
 
     @Override
@@ -28,19 +25,16 @@ public class PasswordChangeRequiredInterceptor implements HandlerInterceptor {
 
         String path = request.getRequestURI().substring(request.getContextPath().length());
 
-        if (isBypassed(path)) {
+        if (bypassMatcher.matches(path)) {
             return true; // 無限ループ防止（外部設定で制御）
         }
 
-        if (passwordChangeSharedService.isPasswordChangeRequired()) {
+        // ログイン時の判定結果をセッションから取得する（パスワード変更・初期化で破棄される）
+        if (passwordChangeRequirementCache.isPasswordChangeRequired(request)) {
             response.sendRedirect(request.getContextPath() + passwordChangeUrl);
             return false;
         }
         return true;
     }
 
-    private boolean isBypassed(String path) {
-        return bypassPatterns.stream().anyMatch(p -> matcher.match(p.trim(), path));
-    }
-
 }
@@ -0,0 +1,160 @@
+package com.myou.ec.ecsite.presentation.auth.security.interceptor;
+
+import com.myou.ec.ecsite.application.auth.event.PasswordChangeRequirementChangedEvent;
+import com.myou.ec.ecsite.application.auth.sharedservice.PasswordChangeRequirementType;
+import com.myou.ec.ecsite.application.auth.sharedservice.PasswordChangeSharedService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.Serializable;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * パスワード変更必須の判定結果をセッションにキャッシュする。
+ * <p>
+ * 判定はログイン時に行い、以降のリクエストではセッションの値を使う（DBアクセスなし）。
+ * パスワード変更・初期化（{@link PasswordChangeRequirementChangedEvent}）で対象アカウントの値を破棄する。
+ * <ul>
+ *     <li>セッションストアが {@link FindByIndexNameSessionRepository}（Redis の indexed 等）の場合、
+ *     対象アカウントの全セッションから値を削除する（セッションストア経由で全ノードに反映される）</li>
+ *     <li>加えてノード内に破棄時刻を保持し、それより前に判定した値は使わない</li>
+ * </ul>
+ * 有効期限切れは時間の経過で変わるため、判定から cache-ttl を過ぎた値は判定し直す。
+ * <p>
+ * 他ノードのセッションへの反映は {@code spring.session.redis.repository-type: indexed} 等で
+ * {@link FindByIndexNameSessionRepository} がある場合に限る。破棄時刻はノード内のみのため、
+ * ない場合に複数ノードで動かすと、他ノードで判定した値は cache-ttl を過ぎるまで使われる（起動時に警告を出す）。
+ */
+@Component
+public class PasswordChangeRequirementCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordChangeRequirementCache.class);
+
+    static final String SESSION_ATTR_PASSWORD_CHANGE_REQUIREMENT = "AUTH_PASSWORD_CHANGE_REQUIREMENT";
+
+    private final PasswordChangeSharedService passwordChangeSharedService;
+    private final ObjectProvider<FindByIndexNameSessionRepository<? extends Session>> sessionRepository;
+    private final Duration ttl;
+    private final Clock clock;
+    // ログインID → 破棄時刻（ノード内）
+    private final ConcurrentMap<String, Instant> invalidatedAt = new ConcurrentHashMap<>();
+
+    public PasswordChangeRequirementCache(
+            PasswordChangeSharedService passwordChangeSharedService,
+            ObjectProvider<FindByIndexNameSessionRepository<? extends Session>> sessionRepository,
+            @Value("${auth.pwchange.cache-ttl:1h}") Duration ttl,
+            Clock clock) {
+        this.passwordChangeSharedService = passwordChangeSharedService;
+        this.sessionRepository = sessionRepository;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * 判定し直してセッションに保持する（ログイン時）。
+     */
+    public PasswordChangeRequirementType refresh(HttpServletRequest request) {
+        PasswordChangeRequirementType type = passwordChangeSharedService.requirementOf();
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            session.setAttribute(SESSION_ATTR_PASSWORD_CHANGE_REQUIREMENT, new CachedRequirement(type, clock.instant()));
+        }
+        return type;
+    }
+
+    /**
+     * パスワード変更が必要かどうか。セッションに有効な値があればそれを使う。
+     */
+    public boolean isPasswordChangeRequired(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session != null
+                && session.getAttribute(SESSION_ATTR_PASSWORD_CHANGE_REQUIREMENT) instanceof CachedRequirement cached
+                && isValid(cached, request.getRemoteUser())) {
+            return cached.type().requiresPasswordChange();
+        }
+        return refresh(request).requiresPasswordChange();
+    }
+
+    private boolean isValid(CachedRequirement cached, String loginId) {
+        Instant now = clock.instant();
+        if (!cached.checkedAt().plus(ttl).isAfter(now)) {
+            return false;
+        }
+        Instant invalidated = loginId == null ? null : invalidatedAt.get(loginId);
+        return invalidated == null || cached.checkedAt().isAfter(invalidated);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkSessionRepository() {
+        if (sessionRepository.getIfAvailable() == null) {
+            logger.warn("セッションストアが FindByIndexNameSessionRepository ではないため、パスワード変更必須の判定結果は"
+                    + "他ノードのセッションから破棄されません（cache-ttl:{} を過ぎるまで使われます）。"
+                    + "複数ノードで動かす場合は spring.session.redis.repository-type: indexed を設定してください。", ttl);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChanged(PasswordChangeRequirementChangedEvent event) {
+        String loginId = event.loginId().value();
+        Instant now = clock.instant();
+
+        // ttl を過ぎた破棄時刻は不要（それより前の値は ttl で判定し直す）
+        invalidatedAt.values().removeIf(at -> !at.plus(ttl).isAfter(now));
+        invalidatedAt.put(loginId, now);
+
+        // リクエスト中のセッションは、リクエスト終了時に古い値で上書き保存しないよう直接削除する
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && loginId.equals(attributes.getRequest().getRemoteUser())) {
+            HttpSession session = attributes.getRequest().getSession(false);
+            if (session != null) {
+                session.removeAttribute(SESSION_ATTR_PASSWORD_CHANGE_REQUIREMENT);
+            }
+        }
+
+        FindByIndexNameSessionRepository<? extends Session> repository = sessionRepository.getIfAvailable();
+        if (repository != null) {
+            try {
+                removeFromSessions(repository, loginId);
+            } catch (RuntimeException e) {
+                logger.warn("パスワード変更必須の判定結果をセッションから削除できません。loginId:{}", loginId, e);
+            }
+        }
+    }
+
+    private static <S extends Session> void removeFromSessions(FindByIndexNameSessionRepository<S> repository,
+                                                                String loginId) {
+        Map<String, S> sessions = repository.findByPrincipalName(loginId);
+        for (S session : sessions.values()) {
+            if (session.getAttribute(SESSION_ATTR_PASSWORD_CHANGE_REQUIREMENT) != null) {
+                session.removeAttribute(SESSION_ATTR_PASSWORD_CHANGE_REQUIREMENT);
+                repository.save(session);
+            }
+        }
+    }
+
+    /**
+     * セッションに保持する判定結果。
+     *
+     * @param type      判定結果
+     * @param checkedAt 判定した時刻
+     */
+    record CachedRequirement(PasswordChangeRequirementType type, Instant checkedAt) implements Serializable {
+    }
+}
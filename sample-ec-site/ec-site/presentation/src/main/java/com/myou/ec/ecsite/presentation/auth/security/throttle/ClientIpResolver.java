@@ -0,0 +1,47 @@
+package com.myou.ec.ecsite.presentation.auth.security.throttle;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * 試行回数を数えるクライアントIPを決める。
+ * <p>
+ * ヘッダ名を設定した場合、前段のプロキシ（ロードバランサ等）が付与した転送元ヘッダ（X-Forwarded-For 形式）から取得する。
+ * クライアント自身が付与した値は信用しないため、右端から trustedHops 番目（信頼するプロキシが付与した値）を使う。
+ * ヘッダ名が空の場合、ヘッダがない場合、値がプロキシの段数より少ない場合は接続元アドレスを使う。
+ */
+public class ClientIpResolver {
+
+    private final String forwardedHeader;
+    private final int trustedHops;
+
+    public ClientIpResolver(String forwardedHeader, int trustedHops) {
+        if (trustedHops <= 0) {
+            throw new IllegalArgumentException("trustedHops は1以上を指定してください。");
+        }
+        this.forwardedHeader = forwardedHeader == null || forwardedHeader.isBlank() ? null : forwardedHeader.trim();
+        this.trustedHops = trustedHops;
+    }
+
+    /**
+     * 接続元アドレスをそのまま使う。
+     */
+    public static ClientIpResolver remoteAddress() {
+        return new ClientIpResolver(null, 1);
+    }
+
+    public String resolve(HttpServletRequest request) {
+        if (forwardedHeader != null) {
+            String value = request.getHeader(forwardedHeader);
+            if (value != null && !value.isBlank()) {
+                String[] addresses = value.split(",");
+                if (addresses.length >= trustedHops) {
+                    String address = addresses[addresses.length - trustedHops].trim();
+                    if (!address.isEmpty()) {
+                        return address;
+                    }
+                }
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
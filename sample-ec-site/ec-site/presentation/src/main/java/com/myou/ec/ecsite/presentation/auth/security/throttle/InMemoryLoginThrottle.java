@@ -0,0 +1,50 @@
+package com.myou.ec.ecsite.presentation.auth.security.throttle;
+
+import java.util.function.LongSupplier;
+
+/**
+ * ノードのメモリ上で数えるログイン試行の制限。ノード間では合算しない。
+ * キー数が上限に達した場合は回数の少ないキーを除いて数えるため、新しいログインID・IPからの試行は拒否しない。
+ */
+public class InMemoryLoginThrottle implements LoginThrottle {
+
+    private final LoginThrottleLimits limits;
+    private final SlidingWindowCounter byLoginId;
+    private final SlidingWindowCounter byIp;
+
+    public InMemoryLoginThrottle(LoginThrottleLimits limits, int maxKeys) {
+        this(limits, maxKeys, System::currentTimeMillis);
+    }
+
+    InMemoryLoginThrottle(LoginThrottleLimits limits, int maxKeys, LongSupplier currentTimeMillis) {
+        this.limits = limits;
+        this.byLoginId = new SlidingWindowCounter(limits.window(), limits.buckets(), maxKeys, currentTimeMillis);
+        this.byIp = new SlidingWindowCounter(limits.window(), limits.buckets(), maxKeys, currentTimeMillis);
+    }
+
+    @Override
+    public boolean isBlocked(String loginId, String clientIp) {
+        long ipFailures = byIp.get(clientIp);
+        long loginIdFailures = isBlank(loginId) ? 0 : byLoginId.get(loginId);
+        return !limits.allows(loginIdFailures, ipFailures);
+    }
+
+    @Override
+    public void recordFailure(String loginId, String clientIp) {
+        byIp.incrementAndGet(clientIp);
+        if (!isBlank(loginId)) {
+            byLoginId.incrementAndGet(loginId);
+        }
+    }
+
+    @Override
+    public void reset(String loginId) {
+        if (loginId != null) {
+            byLoginId.remove(loginId);
+        }
+    }
+
+    private static boolean isBlank(String loginId) {
+        return loginId == null || loginId.isBlank();
+    }
+}
@@ -0,0 +1,52 @@
+package com.myou.ec.ecsite.presentation.auth.security.throttle;
+
+/**
+ * 認証（DBアクセス）の前にログイン試行を制限する。
+ * <p>
+ * ログインID毎・クライアントIP毎にウィンドウ内の認証失敗回数を数え、どちらかが上限に達した場合は認証の前に拒否する。
+ * 成功した試行は数えず、ログイン成功時にはログインIDの回数をクリアする。
+ */
+public interface LoginThrottle {
+
+    /**
+     * 認証に進めずに拒否するかどうかを返す（回数は数えない）。
+     *
+     * @param loginId  フォームのログインID（未入力の場合は null）
+     * @param clientIp クライアントのIPアドレス
+     * @return 上限に達している場合は true
+     */
+    boolean isBlocked(String loginId, String clientIp);
+
+    /**
+     * 認証失敗を1回数える。
+     *
+     * @param loginId  フォームのログインID（未入力の場合は null）
+     * @param clientIp クライアントのIPアドレス
+     */
+    void recordFailure(String loginId, String clientIp);
+
+    /**
+     * ログイン成功時に、ログインIDの失敗回数をクリアする。
+     */
+    void reset(String loginId);
+
+    /**
+     * 制限しない。
+     */
+    static LoginThrottle unlimited() {
+        return new LoginThrottle() {
+            @Override
+            public boolean isBlocked(String loginId, String clientIp) {
+                return false;
+            }
+
+            @Override
+            public void recordFailure(String loginId, String clientIp) {
+            }
+
+            @Override
+            public void reset(String loginId) {
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.myou.ec.ecsite.presentation.auth.security.throttle;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.web.DefaultRedirectStrategy;
+import org.springframework.security.web.RedirectStrategy;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * フォームログインの認証フィルタの前で試行を制限する。
+ * <ul>
+ *     <li>失敗回数が上限に達している試行は認証（DBアクセス）を行わず、ログイン画面へエラーキー throttled でリダイレクトする</li>
+ *     <li>認証フィルタの処理後、認証できなかった試行を失敗として数え、認証できた場合はログインIDの回数をクリアする</li>
+ * </ul>
+ * 認証の成否は、認証フィルタが設定した SecurityContext で判定する。
+ */
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginThrottleFilter.class);
+
+    private final LoginThrottle loginThrottle;
+    private final ClientIpResolver clientIpResolver;
+    private final RequestMatcher loginRequestMatcher;
+    private final String usernameParameter;
+    private final String failureUrl;
+    private final RedirectStrategy redirectStrategy = new DefaultRedirectStrategy();
+    private final SecurityContextHolderStrategy securityContextHolderStrategy =
+            SecurityContextHolder.getContextHolderStrategy();
+
+    public LoginThrottleFilter(LoginThrottle loginThrottle, ClientIpResolver clientIpResolver,
+                               String loginProcessingUrl, String usernameParameter, String failureUrl) {
+        this.loginThrottle = loginThrottle;
+        this.clientIpResolver = clientIpResolver;
+        this.loginRequestMatcher = PathPatternRequestMatcher.withDefaults().matcher(HttpMethod.POST, loginProcessingUrl);
+        this.usernameParameter = usernameParameter;
+        this.failureUrl = failureUrl;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!loginRequestMatcher.matches(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String loginId = request.getParameter(usernameParameter);
+        String clientIp = clientIpResolver.resolve(request);
+        if (loginThrottle.isBlocked(loginId, clientIp)) {
+            logger.warn("ログイン失敗回数の上限に達しています。loginId:{}, clientIp:{}", loginId, clientIp);
+            redirectStrategy.sendRedirect(request, response, failureUrl + "=throttled");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+
+        if (isAuthenticated(securityContextHolderStrategy.getContext().getAuthentication())) {
+            loginThrottle.reset(loginId);
+        } else {
+            loginThrottle.recordFailure(loginId, clientIp);
+        }
+    }
+
+    private static boolean isAuthenticated(Authentication authentication) {
+        return authentication != null
+                && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+    }
+}
@@ -0,0 +1,29 @@
+package com.myou.ec.ecsite.presentation.auth.security.throttle;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * ログイン試行の上限。
+ *
+ * @param window                 失敗回数を数える期間
+ * @param buckets                期間の分割数（多いほど正確でメモリを使う）
+ * @param maxFailuresPerLoginId  ログインID毎の期間内の失敗回数の上限
+ * @param maxFailuresPerIp       クライアントIP毎の期間内の失敗回数の上限
+ */
+public record LoginThrottleLimits(Duration window, int buckets, int maxFailuresPerLoginId, int maxFailuresPerIp) {
+
+    public LoginThrottleLimits {
+        Objects.requireNonNull(window, "window must not be null");
+        if (buckets <= 0 || maxFailuresPerLoginId <= 0 || maxFailuresPerIp <= 0) {
+            throw new IllegalArgumentException("buckets と上限は1以上を指定してください。");
+        }
+    }
+
+    /**
+     * 失敗回数がどちらも上限未満であれば、次の試行を認証に進めてよい。
+     */
+    boolean allows(long loginIdFailures, long ipFailures) {
+        return loginIdFailures < maxFailuresPerLoginId && ipFailures < maxFailuresPerIp;
+    }
+}
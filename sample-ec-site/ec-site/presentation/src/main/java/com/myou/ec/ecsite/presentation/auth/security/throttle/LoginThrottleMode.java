@@ -0,0 +1,10 @@
+package com.myou.ec.ecsite.presentation.auth.security.throttle;
+
+public enum LoginThrottleMode {
+    /** 制限しない。 */
+    NONE,
+    /** ノード毎にメモリ上で数える。 */
+    MEMORY,
+    /** Redis で全ノードの失敗を合算して数える。 */
+    REDIS
+}
@@ -0,0 +1,200 @@
+package com.myou.ec.ecsite.presentation.auth.security.throttle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Redis で全ノードの失敗を合算するログイン試行の制限。
+ * <p>
+ * リクエストのスレッドでは Redis にアクセスしない。
+ * <ul>
+ *     <li>失敗はノード内で貯め、sync-interval 毎に全キー分をパイプラインでまとめて送信する</li>
+ *     <li>判定は前回取得した全ノードの合計にノード内の未送信分を足して行う。
+ *     初めて見るキーは次回の送信で合計を取得し、それまではノード内の回数で判定する</li>
+ *     <li>保持するキー数は max-keys までとし、上限に達した場合は回数の少ないキーの追跡をやめて新しいキーを数える。
+ *     送信済みの合計は Redis に残り、次に見た時の送信で取得し直す</li>
+ *     <li>Redis にアクセスできない間はノード内の回数だけで判定する</li>
+ * </ul>
+ */
+public class RedisLoginThrottle implements LoginThrottle, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisLoginThrottle.class);
+    private static final int EVICTION_SAMPLE = 32;
+
+    private final RemoteWindowStore store;
+    private final LoginThrottleLimits limits;
+    private final String keyPrefix;
+    private final int maxKeys;
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    public RedisLoginThrottle(StringRedisTemplate redisTemplate, LoginThrottleLimits limits, int maxKeys,
+                              String keyPrefix, Duration syncInterval) {
+        this(new RedisWindowStore(redisTemplate, limits, System::currentTimeMillis), limits, maxKeys, keyPrefix);
+        scheduler.scheduleWithFixedDelay(this::sync, syncInterval.toMillis(), syncInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    RedisLoginThrottle(RemoteWindowStore store, LoginThrottleLimits limits, int maxKeys, String keyPrefix) {
+        if (maxKeys <= 0) {
+            throw new IllegalArgumentException("maxKeys は1以上を指定してください。");
+        }
+        this.store = store;
+        this.limits = limits;
+        this.maxKeys = maxKeys;
+        this.keyPrefix = keyPrefix;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("login-throttle-sync").daemon(true).factory());
+    }
+
+    @Override
+    public boolean isBlocked(String loginId, String clientIp) {
+        long ipFailures = estimate(ipKey(clientIp));
+        long loginIdFailures = isBlank(loginId) ? 0 : estimate(loginIdKey(loginId));
+        return !limits.allows(loginIdFailures, ipFailures);
+    }
+
+    @Override
+    public void recordFailure(String loginId, String clientIp) {
+        increment(ipKey(clientIp));
+        if (!isBlank(loginId)) {
+            increment(loginIdKey(loginId));
+        }
+    }
+
+    @Override
+    public void reset(String loginId) {
+        if (loginId == null) {
+            return;
+        }
+        String key = loginIdKey(loginId);
+        counters.remove(key);
+        try {
+            store.delete(key);
+        } catch (RuntimeException e) {
+            logger.warn("ログイン失敗回数をクリアできません。key:{}", key, e);
+        }
+    }
+
+    private long estimate(String key) {
+        return track(key).estimate();
+    }
+
+    private void increment(String key) {
+        track(key).unsent.increment();
+    }
+
+    /**
+     * キーの回数を返す。初めて見るキーは次回の送信で合計を取得するよう登録する。
+     */
+    private Counter track(String key) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            return counter;
+        }
+        if (counters.size() >= maxKeys) {
+            evictLeast();
+        }
+        return counters.computeIfAbsent(key, k -> new Counter());
+    }
+
+    /**
+     * 先頭から {@code EVICTION_SAMPLE} 件のうち、回数が最も少ないキーの追跡をやめる。
+     */
+    private void evictLeast() {
+        Map.Entry<String, Counter> least = null;
+        int sampled = 0;
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            if (least == null || entry.getValue().estimate() < least.getValue().estimate()) {
+                least = entry;
+            }
+            if (++sampled >= EVICTION_SAMPLE) {
+                break;
+            }
+        }
+        if (least != null) {
+            counters.remove(least.getKey(), least.getValue());
+        }
+    }
+
+    /**
+     * 未送信の失敗をまとめて送信し、全ノードの合計を取得する。
+     */
+    void sync() {
+        List<String> keys = new ArrayList<>(counters.size());
+        List<Counter> targets = new ArrayList<>(counters.size());
+        List<Long> deltas = new ArrayList<>(counters.size());
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            keys.add(entry.getKey());
+            targets.add(entry.getValue());
+            deltas.add(entry.getValue().unsent.sum());
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        List<Long> totals;
+        try {
+            totals = store.addAndGet(keys, deltas);
+        } catch (RuntimeException e) {
+            logger.warn("ログイン失敗回数を Redis に送信できません。keys:{}", keys.size(), e);
+            return;
+        }
+
+        for (int i = 0; i < keys.size(); i++) {
+            Counter counter = targets.get(i);
+            // 合計を更新してから未送信分を減らす（一時的に多く数える側に倒す）
+            counter.total = totals.get(i);
+            counter.unsent.add(-deltas.get(i));
+            if (counter.total == 0 && counter.unsent.sum() == 0) {
+                // ウィンドウ内の失敗がなくなったキーは追跡をやめる
+                counters.remove(keys.get(i), counter);
+            }
+        }
+    }
+
+    int size() {
+        return counters.size();
+    }
+
+    private String ipKey(String clientIp) {
+        return keyPrefix + "ip:" + clientIp;
+    }
+
+    private String loginIdKey(String loginId) {
+        return keyPrefix + "id:" + loginId;
+    }
+
+    private static boolean isBlank(String loginId) {
+        return loginId == null || loginId.isBlank();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private static final class Counter {
+        // ノード内の未送信の失敗数
+        private final LongAdder unsent = new LongAdder();
+        // 前回取得した全ノードの合計
+        private volatile long total;
+
+        long estimate() {
+            return total + unsent.sum();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.myou.ec.ecsite.presentation.auth.security.throttle;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Redis に保存するスライディングウィンドウ。
+ * <p>
+ * キー毎に「区間の番号 → 回数」のハッシュを持ち、加算・期限切れの区間の削除・合計を1つの Lua スクリプトで原子的に行う。
+ * 複数キーの送信はパイプラインでまとめ、CHUNK_SIZE 件毎に1往復にする。
+ */
+final class RedisWindowStore implements RemoteWindowStore {
+
+    static final int CHUNK_SIZE = 500;
+
+    // KEYS[1]: キー, ARGV: 現在の区間番号, 加算数, 区間数, キーの有効期間(ms)
+    static final byte[] INCREMENT_SCRIPT = """
+            local epoch = tonumber(ARGV[1])
+            local delta = tonumber(ARGV[2])
+            local buckets = tonumber(ARGV[3])
+            if delta > 0 then
+              redis.call('HINCRBY', KEYS[1], ARGV[1], delta)
+              redis.call('PEXPIRE', KEYS[1], ARGV[4])
+            end
+            local values = redis.call('HGETALL', KEYS[1])
+            local total = 0
+            for i = 1, #values, 2 do
+              if epoch - tonumber(values[i]) >= buckets then
+                redis.call('HDEL', KEYS[1], values[i])
+              else
+                total = total + tonumber(values[i + 1])
+              end
+            end
+            return total
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final StringRedisTemplate redisTemplate;
+    private final long bucketMillis;
+    private final byte[] buckets;
+    private final byte[] ttlMillis;
+    private final LongSupplier currentTimeMillis;
+
+    RedisWindowStore(StringRedisTemplate redisTemplate, LoginThrottleLimits limits, LongSupplier currentTimeMillis) {
+        this.redisTemplate = redisTemplate;
+        this.bucketMillis = Math.max(1, limits.window().toMillis() / limits.buckets());
+        this.buckets = bytes(limits.buckets());
+        this.ttlMillis = bytes(limits.window().toMillis() + bucketMillis);
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    @Override
+    public List<Long> addAndGet(List<String> keys, List<Long> deltas) {
+        byte[] epoch = bytes(currentTimeMillis.getAsLong() / bucketMillis);
+        List<Long> totals = new ArrayList<>(keys.size());
+        for (int from = 0; from < keys.size(); from += CHUNK_SIZE) {
+            int to = Math.min(keys.size(), from + CHUNK_SIZE);
+            List<String> chunkKeys = keys.subList(from, to);
+            List<Long> chunkDeltas = deltas.subList(from, to);
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                eval(connection, chunkKeys, chunkDeltas, epoch);
+                return null;
+            });
+            for (Object result : results) {
+                totals.add(result instanceof Number number ? number.longValue() : 0L);
+            }
+        }
+        return totals;
+    }
+
+    private void eval(RedisConnection connection, List<String> keys, List<Long> deltas, byte[] epoch) {
+        for (int i = 0; i < keys.size(); i++) {
+            connection.scriptingCommands().eval(INCREMENT_SCRIPT, ReturnType.INTEGER, 1,
+                    keys.get(i).getBytes(StandardCharsets.UTF_8), epoch, bytes(deltas.get(i)), buckets, ttlMillis);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        redisTemplate.delete(key);
+    }
+
+    private static byte[] bytes(long value) {
+        return Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,19 @@
+package com.myou.ec.ecsite.presentation.auth.security.throttle;
+
+import java.util.List;
+
+/**
+ * 全ノードで共有するスライディングウィンドウの回数の保存先。
+ */
+interface RemoteWindowStore {
+
+    /**
+     * キー毎に加算し、加算後のウィンドウ内の合計をキーと同じ順に返す。
+     *
+     * @param keys   キー
+     * @param deltas キー毎の加算数（0 の場合は合計の取得のみ）
+     */
+    List<Long> addAndGet(List<String> keys, List<Long> deltas);
+
+    void delete(String key);
+}
@@ -0,0 +1,175 @@
+package com.myou.ec.ecsite.presentation.auth.security.throttle;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * キー毎の試行回数をスライディングウィンドウで数えるカウンタ。
+ * <p>
+ * ウィンドウを buckets 個の時間区間に分け、区間毎の回数を「区間の番号」と組にして1つの long に詰めて保持する。
+ * 加算は CAS のみで行い、古い区間は次に同じ位置を使う時に上書きする（ロック不要）。
+ * キーはハッシュでストライプに分け、ストライプ毎に区間1つ分の間隔で期限切れのキーを除く。
+ * ストライプのキー数が上限に達した場合、先頭から {@code EVICTION_SAMPLE} 件のうち回数が最も少ないキーを除いて新しいキーを数える。
+ * 多数のキーで埋められても、失敗していないキーを拒否せず、失敗を重ねたキーの回数は残りやすい。
+ */
+final class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int STRIPES = 16;
+    private static final int EVICTION_SAMPLE = 32;
+
+    private final long bucketMillis;
+    private final int buckets;
+    private final int maxKeysPerStripe;
+    private final LongSupplier currentTimeMillis;
+    private final long origin;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    SlidingWindowCounter(Duration window, int buckets, int maxKeys, LongSupplier currentTimeMillis) {
+        if (buckets <= 0 || maxKeys <= 0 || window.toMillis() < buckets) {
+            throw new IllegalArgumentException("window は buckets ミリ秒以上、buckets と maxKeys は1以上を指定してください。");
+        }
+        this.bucketMillis = window.toMillis() / buckets;
+        this.buckets = buckets;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        this.currentTimeMillis = currentTimeMillis;
+        this.origin = currentTimeMillis.getAsLong();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * 1回加算し、ウィンドウ内の回数（今回を含む）を返す。
+     */
+    long incrementAndGet(String key) {
+        long epoch = epoch();
+        Stripe stripe = stripeOf(key);
+        stripe.sweepIfDue(epoch);
+
+        AtomicLongArray window = stripe.windows.get(key);
+        if (window == null) {
+            if (stripe.windows.size() >= maxKeysPerStripe) {
+                stripe.sweep(epoch);
+                if (stripe.windows.size() >= maxKeysPerStripe) {
+                    stripe.evictLeast(epoch);
+                }
+            }
+            window = stripe.windows.computeIfAbsent(key, k -> new AtomicLongArray(buckets));
+        }
+
+        int index = (int) (epoch % buckets);
+        while (true) {
+            long value = window.get(index);
+            long next;
+            if (epochOf(value) != epoch) {
+                next = pack(epoch, 1);
+            } else if ((value & COUNT_MASK) == COUNT_MASK) {
+                break;
+            } else {
+                next = value + 1;
+            }
+            if (window.compareAndSet(index, value, next)) {
+                break;
+            }
+        }
+        return sum(window, epoch);
+    }
+
+    /**
+     * ウィンドウ内の回数。未登録のキーは0。
+     */
+    long get(String key) {
+        long epoch = epoch();
+        Stripe stripe = stripeOf(key);
+        stripe.sweepIfDue(epoch);
+        AtomicLongArray window = stripe.windows.get(key);
+        if (window != null) {
+            return sum(window, epoch);
+        }
+        return 0;
+    }
+
+    void remove(String key) {
+        stripeOf(key).windows.remove(key);
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.windows.size();
+        }
+        return size;
+    }
+
+    private long sum(AtomicLongArray window, long epoch) {
+        long total = 0;
+        for (int i = 0; i < buckets; i++) {
+            long value = window.get(i);
+            if (epoch - epochOf(value) < buckets) {
+                total += value & COUNT_MASK;
+            }
+        }
+        return total;
+    }
+
+    private long epoch() {
+        return Math.max(0, currentTimeMillis.getAsLong() - origin) / bucketMillis;
+    }
+
+    private Stripe stripeOf(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static long epochOf(long value) {
+        return value >>> COUNT_BITS;
+    }
+
+    private static long pack(long epoch, long count) {
+        return (epoch << COUNT_BITS) | count;
+    }
+
+    private final class Stripe {
+        private final ConcurrentMap<String, AtomicLongArray> windows = new ConcurrentHashMap<>();
+        private final AtomicLong nextSweepEpoch = new AtomicLong();
+
+        void sweepIfDue(long epoch) {
+            long next = nextSweepEpoch.get();
+            if (epoch >= next && nextSweepEpoch.compareAndSet(next, epoch + 1)) {
+                sweep(epoch);
+            }
+        }
+
+        void sweep(long epoch) {
+            windows.values().removeIf(window -> sum(window, epoch) == 0);
+        }
+
+        void evictLeast(long epoch) {
+            String least = null;
+            AtomicLongArray leastWindow = null;
+            long leastCount = Long.MAX_VALUE;
+            int sampled = 0;
+            for (Map.Entry<String, AtomicLongArray> entry : windows.entrySet()) {
+                long count = sum(entry.getValue(), epoch);
+                if (count < leastCount) {
+                    least = entry.getKey();
+                    leastWindow = entry.getValue();
+                    leastCount = count;
+                }
+                if (++sampled >= EVICTION_SAMPLE) {
+                    break;
+                }
+            }
+            if (least != null) {
+                windows.remove(least, leastWindow);
+            }
+        }
+    }
+}
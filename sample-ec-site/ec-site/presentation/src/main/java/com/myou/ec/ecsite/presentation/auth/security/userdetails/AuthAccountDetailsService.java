@@ -1,76 +1,51 @@
 package com.myou.ec.ecsite.presentation.auth.security.userdetails;
 
 import com.myou.ec.ecsite.application.auth.sharedservice.AccountExpirySharedService;
-import com.myou.ec.ecsite.domain.auth.model.AccountLockEvents;
 import com.myou.ec.ecsite.domain.auth.model.AuthAccount;
-import com.myou.ec.ecsite.domain.auth.model.LoginHistory;
-import com.myou.ec.ecsite.domain.auth.model.value.AuthAccountId;
+import com.myou.ec.ecsite.domain.auth.model.AuthSnapshot;
 import com.myou.ec.ecsite.domain.auth.model.value.LoginId;
-import com.myou.ec.ecsite.domain.auth.repository.AuthAccountLockHistoryRepository;
-import com.myou.ec.ecsite.domain.auth.repository.AuthAccountRepository;
-import com.myou.ec.ecsite.domain.auth.repository.AuthAccountRoleRepository;
-import com.myou.ec.ecsite.domain.auth.repository.AuthLoginHistoryRepository;
+import com.myou.ec.ecsite.domain.auth.repository.AuthSnapshotRepository;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
 public class AuthAccountDetailsService implements UserDetailsService {
 
-    private final AuthAccountRepository authAccountRepository;
-    private final AuthAccountRoleRepository authAccountRoleRepository;
-    private final AuthAccountLockHistoryRepository lockHistoryRepository;
-    private final AuthLoginHistoryRepository loginHistoryRepository;
+    private final AuthSnapshotRepository authSnapshotRepository;
     private final AccountExpirySharedService accountExpirySharedService;
-    private final Clock clock;
 
-
-    public AuthAccountDetailsService(AuthAccountRepository authAccountRepository,
-                                     AuthAccountRoleRepository authAccountRoleRepository,
-                                     AuthAccountLockHistoryRepository lockHistoryRepository,
-                                     AuthLoginHistoryRepository loginHistoryRepository,
-                                     AccountExpirySharedService accountExpirySharedService,
-                                     Clock clock) {
-        this.authAccountRepository = authAccountRepository;
-        this.authAccountRoleRepository = authAccountRoleRepository;
-        this.lockHistoryRepository = lockHistoryRepository;
-        this.loginHistoryRepository = loginHistoryRepository;
+    public AuthAccountDetailsService(AuthSnapshotRepository authSnapshotRepository,
+                                     AccountExpirySharedService accountExpirySharedService) {
+        this.authSnapshotRepository = authSnapshotRepository;
         this.accountExpirySharedService = accountExpirySharedService;
-        this.clock = clock;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username)
             throws UsernameNotFoundException {
 
-        LoginId loginId = new LoginId(username);
-        AuthAccount user = authAccountRepository.findByLoginId(loginId)
+        // アカウント・ロール・ロック/有効期限の最新状態・最終ログイン成功を1回の問い合わせで取得する
+        AuthSnapshot snapshot = authSnapshotRepository.findByLoginId(new LoginId(username))
                 .orElseThrow(() -> new UsernameNotFoundException("アカウントが存在しません: " + username));
-
-        AuthAccountId accountId = user.id();
+        AuthAccount user = snapshot.account();
 
         // 前回ログイン日時（今回ログインより前の SUCCESS）
-        LocalDateTime previousLoginAt = loginHistoryRepository
-                .findLatestSuccessByAccountId(accountId)
-                .map(LoginHistory::loginAt)
-                .orElse(null);
+        LocalDateTime previousLoginAt = snapshot.lastSuccessLoginAt();
 
         // アカウント有効期限切れ状態かの判定
         // 判定のみ行い、状態更新は行わない
-        boolean expired = accountExpirySharedService.isExpired(accountId);
+        boolean expired = accountExpirySharedService.isExpired(snapshot);
 
         // ロック状態の判定
-        AccountLockEvents lockEvents = lockHistoryRepository.findByAccountId(accountId, 20);
-        boolean locked = lockEvents.isLocked();
-
+        boolean locked = snapshot.locked();
 
-        List<SimpleGrantedAuthority> authorities = authAccountRoleRepository.findRolesByAccountId(accountId).stream()
+        List<SimpleGrantedAuthority> authorities = snapshot.roleCodes().stream()
                 .map(rc -> new SimpleGrantedAuthority(rc.value()))
                 .toList();
 
@@ -80,7 +55,7 @@ public class AuthAccountDetailsService implements UserDetailsService {
         boolean accountNonLocked = !locked;
 
         return new AuthAccountDetails(
-                accountId,
+                user.id(),
                 user.loginId().value(),
                 user.passwordHash().value(),
                 enabled,
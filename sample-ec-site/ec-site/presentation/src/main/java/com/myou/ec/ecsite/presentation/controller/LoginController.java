@@ -20,6 +20,7 @@ public class LoginController {
                 case "locked" -> "このアカウントはロックされています。管理者に連絡してください。";
                 case "disabled" -> "このアカウントは現在無効です。";
                 case "expired" -> "パスワードの有効期限が切れています。";
+                case "throttled" -> "ログインの試行回数が多すぎます。時間をおいて再度お試しください。";
                 default -> "不明なエラーが発生しました。時間をおいて再度お試しください。";
             };
             model.addAttribute("errorMessage", errorMessage);
@@ -0,0 +1,39 @@
+package com.myou.ec.ecsite.presentation.auth.security.interceptor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BypassPathMatcherTest {
+
+    private final BypassPathMatcher matcher = BypassPathMatcher.compile(
+            List.of("/login", " /logout ", "", "/account/password/change/**", "/css/**", "/*.ico"));
+
+    @Test
+    @DisplayName("完全一致のパターンに一致する")
+    void exact() {
+        assertThat(matcher.matches("/login")).isTrue();
+        assertThat(matcher.matches("/logout")).isTrue();
+        assertThat(matcher.matches("/login/other")).isFalse();
+    }
+
+    @Test
+    @DisplayName("ワイルドカードのパターンに一致する")
+    void wildcard() {
+        assertThat(matcher.matches("/account/password/change")).isTrue();
+        assertThat(matcher.matches("/account/password/change/complete")).isTrue();
+        assertThat(matcher.matches("/css/app/site.css")).isTrue();
+        assertThat(matcher.matches("/favicon.ico")).isTrue();
+    }
+
+    @Test
+    @DisplayName("どのパターンにも一致しない")
+    void notMatched() {
+        assertThat(matcher.matches("/menu")).isFalse();
+        assertThat(matcher.matches("/account/other")).isFalse();
+        assertThat(matcher.matches("/")).isFalse();
+    }
+}
@@ -0,0 +1,41 @@
+package com.myou.ec.ecsite.presentation.auth.security.interceptor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PasswordChangeRequiredInterceptorTest {
+
+    private final PasswordChangeRequirementCache cache = mock(PasswordChangeRequirementCache.class);
+    private final PasswordChangeRequiredInterceptor interceptor =
+            new PasswordChangeRequiredInterceptor(cache, List.of("/login", "/account/password/change/**"));
+
+    @Test
+    @DisplayName("変更必須の場合はパスワード変更画面へリダイレクトする")
+    void redirectsWhenRequired() throws Exception {
+        when(cache.isPasswordChangeRequired(any())).thenReturn(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean result = interceptor.preHandle(new MockHttpServletRequest("GET", "/menu"), response, new Object());
+
+        assertThat(result).isFalse();
+        assertThat(response.getRedirectedUrl()).isEqualTo("/.well-known/change-password");
+    }
+
+    @Test
+    @DisplayName("除外URLは判定しない")
+    void bypassed() throws Exception {
+        boolean result = interceptor.preHandle(new MockHttpServletRequest("GET", "/account/password/change"),
+                new MockHttpServletResponse(), new Object());
+
+        assertThat(result).isTrue();
+        verifyNoInteractions(cache);
+    }
+}
@@ -0,0 +1,149 @@
+package com.myou.ec.ecsite.presentation.auth.security.interceptor;
+
+import com.myou.ec.ecsite.application.auth.event.PasswordChangeRequirementChangedEvent;
+import com.myou.ec.ecsite.application.auth.sharedservice.PasswordChangeRequirementType;
+import com.myou.ec.ecsite.application.auth.sharedservice.PasswordChangeSharedService;
+import com.myou.ec.ecsite.domain.auth.model.value.LoginId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class PasswordChangeRequirementCacheTest {
+
+    private static final Instant NOW = Instant.parse("2023-01-01T10:00:00Z");
+
+    private PasswordChangeSharedService passwordChangeSharedService;
+    private FindByIndexNameSessionRepository<MapSession> sessionRepository;
+    private Clock clock;
+    private PasswordChangeRequirementCache cache;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        passwordChangeSharedService = mock(PasswordChangeSharedService.class);
+        sessionRepository = mock(FindByIndexNameSessionRepository.class);
+        ObjectProvider<FindByIndexNameSessionRepository<? extends Session>> provider = mock(ObjectProvider.class);
+        doReturn(sessionRepository).when(provider).getIfAvailable();
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW);
+
+        cache = new PasswordChangeRequirementCache(passwordChangeSharedService, provider, Duration.ofHours(1), clock);
+
+        request = new MockHttpServletRequest();
+        request.setRemoteUser("testUser");
+        request.setSession(new MockHttpSession());
+    }
+
+    @Test
+    @DisplayName("ログイン時の判定結果を以降のリクエストで使う")
+    void usesCachedResult() {
+        when(passwordChangeSharedService.requirementOf()).thenReturn(PasswordChangeRequirementType.ADMIN_RESET);
+
+        assertThat(cache.refresh(request)).isEqualTo(PasswordChangeRequirementType.ADMIN_RESET);
+        assertThat(cache.isPasswordChangeRequired(request)).isTrue();
+        assertThat(cache.isPasswordChangeRequired(request)).isTrue();
+
+        verify(passwordChangeSharedService, times(1)).requirementOf();
+    }
+
+    @Test
+    @DisplayName("セッションに値がない場合は判定して保持する")
+    void computesWhenAbsent() {
+        when(passwordChangeSharedService.requirementOf()).thenReturn(PasswordChangeRequirementType.NONE);
+
+        assertThat(cache.isPasswordChangeRequired(request)).isFalse();
+        assertThat(cache.isPasswordChangeRequired(request)).isFalse();
+
+        verify(passwordChangeSharedService, times(1)).requirementOf();
+    }
+
+    @Test
+    @DisplayName("ttl を過ぎた値は判定し直す")
+    void expiresAfterTtl() {
+        when(passwordChangeSharedService.requirementOf())
+                .thenReturn(PasswordChangeRequirementType.NONE, PasswordChangeRequirementType.EXPIRED);
+        cache.refresh(request);
+
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofHours(1)));
+
+        assertThat(cache.isPasswordChangeRequired(request)).isTrue();
+    }
+
+    @Test
+    @DisplayName("パスワード変更で破棄された値は使わない")
+    void invalidatedByEvent() {
+        when(passwordChangeSharedService.requirementOf())
+                .thenReturn(PasswordChangeRequirementType.INITIAL_REGISTER, PasswordChangeRequirementType.NONE);
+        cache.refresh(request);
+
+        when(clock.instant()).thenReturn(NOW.plusSeconds(1));
+        cache.onChanged(new PasswordChangeRequirementChangedEvent(new LoginId("testUser")));
+        when(clock.instant()).thenReturn(NOW.plusSeconds(2));
+
+        assertThat(cache.isPasswordChangeRequired(request)).isFalse();
+        verify(passwordChangeSharedService, times(2)).requirementOf();
+    }
+
+    @Test
+    @DisplayName("同じアカウントの別セッションで判定した値も破棄される")
+    void invalidatesOtherSessionOfSamePrincipal() {
+        when(passwordChangeSharedService.requirementOf())
+                .thenReturn(PasswordChangeRequirementType.INITIAL_REGISTER, PasswordChangeRequirementType.INITIAL_REGISTER,
+                        PasswordChangeRequirementType.NONE);
+        MockHttpServletRequest otherRequest = new MockHttpServletRequest();
+        otherRequest.setRemoteUser("testUser");
+        otherRequest.setSession(new MockHttpSession());
+        cache.refresh(request);
+        cache.refresh(otherRequest);
+
+        // request のセッションでパスワードを変更する
+        when(clock.instant()).thenReturn(NOW.plusSeconds(1));
+        cache.onChanged(new PasswordChangeRequirementChangedEvent(new LoginId("testUser")));
+        when(clock.instant()).thenReturn(NOW.plusSeconds(2));
+
+        assertThat(cache.isPasswordChangeRequired(otherRequest)).isFalse();
+        verify(passwordChangeSharedService, times(3)).requirementOf();
+    }
+
+    @Test
+    @DisplayName("他アカウントの破棄では判定し直さない")
+    void otherAccountEvent() {
+        when(passwordChangeSharedService.requirementOf()).thenReturn(PasswordChangeRequirementType.NONE);
+        cache.refresh(request);
+
+        cache.onChanged(new PasswordChangeRequirementChangedEvent(new LoginId("adminUser")));
+
+        assertThat(cache.isPasswordChangeRequired(request)).isFalse();
+        verify(passwordChangeSharedService, times(1)).requirementOf();
+    }
+
+    @Test
+    @DisplayName("セッションストアの対象アカウントの全セッションから値を削除する")
+    void removesFromSessionRepository() {
+        MapSession other = new MapSession("other-node-session");
+        other.setAttribute(PasswordChangeRequirementCache.SESSION_ATTR_PASSWORD_CHANGE_REQUIREMENT,
+                new PasswordChangeRequirementCache.CachedRequirement(PasswordChangeRequirementType.NONE, NOW));
+        when(sessionRepository.findByPrincipalName("testUser")).thenReturn(Map.of(other.getId(), other));
+
+        cache.onChanged(new PasswordChangeRequirementChangedEvent(new LoginId("testUser")));
+
+        assertThat(other.<Object>getAttribute(PasswordChangeRequirementCache.SESSION_ATTR_PASSWORD_CHANGE_REQUIREMENT))
+                .isNull();
+        verify(sessionRepository).save(other);
+    }
+}
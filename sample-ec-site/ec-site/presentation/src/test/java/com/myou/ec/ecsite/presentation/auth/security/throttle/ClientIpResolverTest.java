@@ -0,0 +1,46 @@
+package com.myou.ec.ecsite.presentation.auth.security.throttle;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientIpResolverTest {
+
+    @Test
+    @DisplayName("ヘッダ名が未設定の場合は接続元アドレスを使う")
+    void remoteAddress() {
+        MockHttpServletRequest request = request("1.1.1.1, 2.2.2.2");
+
+        assertThat(ClientIpResolver.remoteAddress().resolve(request)).isEqualTo("10.0.0.1");
+        assertThat(new ClientIpResolver(" ", 1).resolve(request)).isEqualTo("10.0.0.1");
+    }
+
+    @Test
+    @DisplayName("信頼するプロキシが付与した値（右端から段数番目）を使う")
+    void forwardedHeader() {
+        MockHttpServletRequest request = request("9.9.9.9, 1.1.1.1, 2.2.2.2");
+
+        assertThat(new ClientIpResolver("X-Forwarded-For", 1).resolve(request)).isEqualTo("2.2.2.2");
+        assertThat(new ClientIpResolver("X-Forwarded-For", 2).resolve(request)).isEqualTo("1.1.1.1");
+    }
+
+    @Test
+    @DisplayName("ヘッダがない場合や段数より少ない場合は接続元アドレスを使う")
+    void fallback() {
+        ClientIpResolver resolver = new ClientIpResolver("X-Forwarded-For", 2);
+
+        assertThat(resolver.resolve(request(null))).isEqualTo("10.0.0.1");
+        assertThat(resolver.resolve(request("1.1.1.1"))).isEqualTo("10.0.0.1");
+    }
+
+    private static MockHttpServletRequest request(String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+        request.setRemoteAddr("10.0.0.1");
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+}
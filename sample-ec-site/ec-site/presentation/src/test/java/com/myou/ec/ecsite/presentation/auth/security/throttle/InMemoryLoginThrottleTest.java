@@ -0,0 +1,119 @@
+package com.myou.ec.ecsite.presentation.auth.security.throttle;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryLoginThrottleTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private InMemoryLoginThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        LoginThrottleLimits limits = new LoginThrottleLimits(Duration.ofMinutes(5), 10, 3, 5);
+        throttle = new InMemoryLoginThrottle(limits, 1000, now::get);
+    }
+
+    @Test
+    @DisplayName("ログインID毎の失敗回数が上限に達すると拒否する")
+    void limitsPerLoginId() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(throttle.isBlocked("user", "10.0.0." + i)).isFalse();
+            throttle.recordFailure("user", "10.0.0." + i);
+        }
+
+        assertThat(throttle.isBlocked("user", "10.0.0.9")).isTrue();
+        assertThat(throttle.isBlocked("other", "10.0.0.9")).isFalse();
+    }
+
+    @Test
+    @DisplayName("クライアントIP毎の失敗回数が上限に達すると拒否する")
+    void limitsPerIp() {
+        for (int i = 0; i < 5; i++) {
+            throttle.recordFailure("user" + i, "10.0.0.1");
+        }
+
+        assertThat(throttle.isBlocked("user5", "10.0.0.1")).isTrue();
+        assertThat(throttle.isBlocked("user5", "10.0.0.2")).isFalse();
+    }
+
+    @Test
+    @DisplayName("判定だけでは回数を数えない")
+    void checkDoesNotCount() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(throttle.isBlocked("user", "10.0.0.1")).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("未入力のログインIDはIPのみで数える")
+    void blankLoginId() {
+        for (int i = 0; i < 5; i++) {
+            throttle.recordFailure(null, "10.0.0.1");
+        }
+
+        assertThat(throttle.isBlocked("", "10.0.0.1")).isTrue();
+        assertThat(throttle.isBlocked("user", "10.0.0.2")).isFalse();
+    }
+
+    @Test
+    @DisplayName("ウィンドウを過ぎると再び受け付ける")
+    void recoversAfterWindow() {
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("user", "10.0.0." + i);
+        }
+        assertThat(throttle.isBlocked("user", "10.0.0.9")).isTrue();
+
+        now.addAndGet(Duration.ofMinutes(5).toMillis());
+        assertThat(throttle.isBlocked("user", "10.0.0.9")).isFalse();
+    }
+
+    @Test
+    @DisplayName("ログイン成功でログインIDの回数をクリアする")
+    void reset() {
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("user", "10.0.0." + i);
+        }
+        throttle.reset("user");
+
+        assertThat(throttle.isBlocked("user", "10.0.0.9")).isFalse();
+    }
+
+    @Test
+    @DisplayName("キー数が上限に達しても、新しいキーは拒否しない")
+    void allowsNewKeysWhenFull() {
+        InMemoryLoginThrottle small = new InMemoryLoginThrottle(
+                new LoginThrottleLimits(Duration.ofMinutes(5), 10, 3, 5), 16, now::get);
+        for (int i = 0; i < 1000; i++) {
+            small.recordFailure(null, "10.0." + (i / 256) + "." + (i % 256));
+        }
+
+        long blocked = 0;
+        for (int i = 0; i < 100; i++) {
+            if (small.isBlocked(null, "192.168.0." + i)) {
+                blocked++;
+            }
+        }
+        assertThat(blocked).isZero();
+    }
+
+    @Test
+    @DisplayName("多数のログインIDで埋められても、新しいログインIDは拒否せず失敗を重ねたログインIDは拒否する")
+    void floodOfDistinctLoginIds() {
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("victim", "10.0.1." + i);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            throttle.recordFailure("flood" + i, "10.1." + (i / 256) + "." + (i % 256));
+        }
+
+        assertThat(throttle.isBlocked("fresh", "10.0.0.9")).isFalse();
+        assertThat(throttle.isBlocked("victim", "10.0.0.9")).isTrue();
+    }
+}
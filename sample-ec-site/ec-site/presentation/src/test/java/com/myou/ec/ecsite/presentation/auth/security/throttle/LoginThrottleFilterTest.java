@@ -0,0 +1,101 @@
+package com.myou.ec.ecsite.presentation.auth.security.throttle;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServlet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginThrottleFilterTest {
+
+    private final InMemoryLoginThrottle throttle =
+            new InMemoryLoginThrottle(new LoginThrottleLimits(Duration.ofMinutes(5), 10, 2, 100), 1000);
+
+    private final LoginThrottleFilter filter = new LoginThrottleFilter(throttle,
+            new ClientIpResolver("X-Forwarded-For", 1), "/login", "loginId", "/login?error");
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("失敗回数が上限に達したログイン要求は認証に進めずリダイレクトする")
+    void rejectsAfterFailures() throws Exception {
+        assertThat(login("user", false).getRedirectedUrl()).isNull();
+        assertThat(login("user", false).getRedirectedUrl()).isNull();
+
+        MockHttpServletRequest request = loginRequest("user");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getRedirectedUrl()).isEqualTo("/login?error=throttled");
+    }
+
+    @Test
+    @DisplayName("ログイン成功は数えず、ログインIDの失敗回数をクリアする")
+    void successResets() throws Exception {
+        login("user", false);
+        login("user", true);
+        login("user", false);
+
+        assertThat(throttle.isBlocked("user", "203.0.113.1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("転送元ヘッダのクライアントIPで数える")
+    void countsByForwardedAddress() throws Exception {
+        login("user1", false);
+        login("user2", false);
+
+        assertThat(throttle.isBlocked("other", "203.0.113.1")).isFalse();
+        assertThat(throttle.isBlocked("user1", "198.51.100.1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("ログイン要求以外は制限しない")
+    void passesOtherRequests() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/login");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    private MockHttpServletResponse login(String loginId, boolean success) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        // 認証フィルタの代わりに、成功時は SecurityContext に認証済みの情報を設定する
+        Filter authenticationFilter = (req, res, next) -> {
+            if (success) {
+                SecurityContextHolder.getContext().setAuthentication(
+                        UsernamePasswordAuthenticationToken.authenticated(loginId, null, List.of()));
+            }
+        };
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+        }, authenticationFilter);
+        filter.doFilter(loginRequest(loginId), response, chain);
+        SecurityContextHolder.clearContext();
+        return response;
+    }
+
+    private static MockHttpServletRequest loginRequest(String loginId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+        request.setParameter("loginId", loginId);
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader("X-Forwarded-For", "198.51.100.1, 203.0.113.1");
+        return request;
+    }
+}
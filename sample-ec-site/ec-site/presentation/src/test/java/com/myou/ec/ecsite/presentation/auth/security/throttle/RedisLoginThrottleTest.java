@@ -0,0 +1,151 @@
+package com.myou.ec.ecsite.presentation.auth.security.throttle;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RedisLoginThrottleTest {
+
+    private final LoginThrottleLimits limits = new LoginThrottleLimits(Duration.ofMinutes(5), 10, 3, 100);
+    private FakeStore store;
+    private RedisLoginThrottle node1;
+    private RedisLoginThrottle node2;
+
+    @BeforeEach
+    void setUp() {
+        store = new FakeStore();
+        node1 = new RedisLoginThrottle(store, limits, 1000, "test:");
+        node2 = new RedisLoginThrottle(store, limits, 1000, "test:");
+    }
+
+    @Test
+    @DisplayName("リクエストのスレッドでは送信せず、次回の送信でまとめて送る")
+    void batchesUntilSync() {
+        for (int i = 0; i < 50; i++) {
+            node1.isBlocked("user" + i, "10.0.0.1");
+            node1.recordFailure("user" + i, "10.0.0.1");
+        }
+        assertThat(store.calls).isZero();
+
+        node1.sync();
+
+        assertThat(store.calls).isEqualTo(1);
+        assertThat(store.lastBatchSize).isEqualTo(51);
+        assertThat(store.totals.get("test:ip:10.0.0.1")).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("送信後は他ノードの失敗を合算して判定する")
+    void sharesAcrossNodes() {
+        node1.recordFailure("user", "10.0.0.1");
+        node1.recordFailure("user", "10.0.0.2");
+        node1.sync();
+
+        // 初めて見るキーは次回の送信までノード内の回数で判定する
+        assertThat(node2.isBlocked("user", "10.0.0.3")).isFalse();
+        node2.recordFailure("user", "10.0.0.3");
+        node2.sync();
+
+        assertThat(node2.isBlocked("user", "10.0.0.4")).isTrue();
+        node1.sync();
+        assertThat(node1.isBlocked("user", "10.0.0.4")).isTrue();
+    }
+
+    @Test
+    @DisplayName("キー数が上限に達した場合、回数の少ないキーの追跡をやめて新しいキーを数える")
+    void boundsKeys() {
+        RedisLoginThrottle small = new RedisLoginThrottle(store, limits, 4, "test:");
+        for (int i = 0; i < 3; i++) {
+            small.recordFailure("victim", "10.0.0." + i);
+        }
+        small.sync();
+        for (int i = 0; i < 10_000; i++) {
+            small.recordFailure("flood" + i, "10.0.1.1");
+        }
+
+        assertThat(small.size()).isLessThanOrEqualTo(4);
+        assertThat(small.isBlocked("fresh", "10.0.2.1")).isFalse();
+        assertThat(small.isBlocked("victim", "10.0.2.1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("失敗がなくなったキーは送信後に追跡をやめる")
+    void dropsIdleKeys() {
+        node1.isBlocked("user", "10.0.0.1");
+        assertThat(node1.size()).isEqualTo(2);
+
+        node1.sync();
+
+        assertThat(node1.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Redis にアクセスできない場合はノード内の回数で判定する")
+    void failsOverToLocalCounts() {
+        store.failing = true;
+        for (int i = 0; i < 3; i++) {
+            node1.recordFailure("user", "10.0.0.1");
+        }
+        node1.sync();
+
+        assertThat(node1.isBlocked("user", "10.0.0.1")).isTrue();
+
+        store.failing = false;
+        node1.sync();
+        assertThat(store.totals.get("test:id:user")).isEqualTo(3);
+        assertThat(node1.isBlocked("user", "10.0.0.1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("ログイン成功でノード内と Redis のログインIDの回数をクリアする")
+    void reset() {
+        for (int i = 0; i < 3; i++) {
+            node1.recordFailure("user", "10.0.0.1");
+        }
+        node1.sync();
+
+        node1.reset("user");
+
+        assertThat(store.totals).doesNotContainKey("test:id:user");
+        assertThat(node1.isBlocked("user", "10.0.0.2")).isFalse();
+    }
+
+    /**
+     * Redis の代わりに合計をメモリ上で持つ（ウィンドウの経過は扱わない）。
+     */
+    private static final class FakeStore implements RemoteWindowStore {
+        private final Map<String, Long> totals = new ConcurrentHashMap<>();
+        private int calls;
+        private int lastBatchSize;
+        private boolean failing;
+
+        @Override
+        public List<Long> addAndGet(List<String> keys, List<Long> deltas) {
+            if (failing) {
+                throw new IllegalStateException("redis unavailable");
+            }
+            calls++;
+            lastBatchSize = keys.size();
+            List<Long> result = new ArrayList<>();
+            for (int i = 0; i < keys.size(); i++) {
+                long delta = deltas.get(i);
+                long total = delta > 0 ? totals.merge(keys.get(i), delta, Long::sum) : totals.getOrDefault(keys.get(i), 0L);
+                result.add(total);
+            }
+            return result;
+        }
+
+        @Override
+        public void delete(String key) {
+            totals.remove(key);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.myou.ec.ecsite.presentation.auth.security.throttle;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RedisWindowStoreTest {
+
+    private final LoginThrottleLimits limits = new LoginThrottleLimits(Duration.ofSeconds(10), 10, 3, 100);
+
+    @Test
+    @DisplayName("キー毎のスクリプトをパイプラインで送り、CHUNK_SIZE 件毎に1往復にする")
+    @SuppressWarnings("unchecked")
+    void pipelinesInChunks() {
+        StringRedisTemplate template = mock(StringRedisTemplate.class);
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisScriptingCommands scripting = mock(RedisScriptingCommands.class);
+        when(connection.scriptingCommands()).thenReturn(scripting);
+        when(template.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            int before = mockingDetails(scripting).getInvocations().size();
+            invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection);
+            int count = mockingDetails(scripting).getInvocations().size() - before;
+            return new ArrayList<Object>(Collections.nCopies(count, 7L));
+        });
+
+        int size = RedisWindowStore.CHUNK_SIZE + 10;
+        List<String> keys = IntStream.range(0, size).mapToObj(i -> "key" + i).toList();
+        List<Long> deltas = Collections.nCopies(size, 2L);
+        // 1秒毎の区間で 12.5 秒 → 区間番号 12
+        RedisWindowStore store = new RedisWindowStore(template, limits, () -> 12_500L);
+
+        List<Long> totals = store.addAndGet(keys, deltas);
+
+        assertThat(totals).hasSize(size).containsOnly(7L);
+        verify(template, times(2)).executePipelined(any(RedisCallback.class));
+        verify(scripting).eval(eq(RedisWindowStore.INCREMENT_SCRIPT), eq(ReturnType.INTEGER), eq(1),
+                eq(bytes("key0")), eq(bytes("12")), eq(bytes("2")), eq(bytes("10")), eq(bytes("11000")));
+        verify(scripting, times(size)).eval(any(byte[].class), eq(ReturnType.INTEGER), eq(1), any(byte[][].class));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,117 @@
+package com.myou.ec.ecsite.presentation.auth.security.throttle;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlidingWindowCounterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private SlidingWindowCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        // 10秒のウィンドウを1秒毎の区間に分ける
+        counter = new SlidingWindowCounter(Duration.ofSeconds(10), 10, 1000, now::get);
+    }
+
+    @Test
+    @DisplayName("ウィンドウ内の回数をキー毎に数える")
+    void countsPerKey() {
+        assertThat(counter.incrementAndGet("a")).isEqualTo(1);
+        assertThat(counter.incrementAndGet("a")).isEqualTo(2);
+        assertThat(counter.incrementAndGet("b")).isEqualTo(1);
+
+        assertThat(counter.get("a")).isEqualTo(2);
+        assertThat(counter.get("c")).isZero();
+    }
+
+    @Test
+    @DisplayName("ウィンドウを過ぎた区間の回数は数えない")
+    void slidesWindow() {
+        counter.incrementAndGet("a");
+        now.addAndGet(5_000);
+        counter.incrementAndGet("a");
+        assertThat(counter.get("a")).isEqualTo(2);
+
+        now.addAndGet(5_000);
+        assertThat(counter.get("a")).isEqualTo(1);
+
+        // 同じ位置の区間を再利用しても古い回数は引き継がない
+        assertThat(counter.incrementAndGet("a")).isEqualTo(2);
+        now.addAndGet(10_000);
+        assertThat(counter.get("a")).isZero();
+    }
+
+    @Test
+    @DisplayName("期限切れのキーは次の加算時に除かれる")
+    void sweepsExpiredKeys() {
+        counter.incrementAndGet("a");
+        counter.incrementAndGet("b");
+        assertThat(counter.size()).isEqualTo(2);
+
+        now.addAndGet(20_000);
+        for (int i = 0; i < 100; i++) {
+            counter.incrementAndGet("key" + i);
+        }
+
+        assertThat(counter.get("a")).isZero();
+        assertThat(counter.size()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("キー数が上限に達した場合、回数の少ないキーを除いて新しいキーを数える")
+    void limitsKeys() {
+        SlidingWindowCounter small = new SlidingWindowCounter(Duration.ofSeconds(10), 10, 16, now::get);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(small.incrementAndGet("key" + i)).isEqualTo(1);
+        }
+
+        assertThat(small.size()).isLessThanOrEqualTo(16);
+        assertThat(small.get("other")).isZero();
+        assertThat(small.incrementAndGet("other")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("削除したキーは0から数え直す")
+    void remove() {
+        counter.incrementAndGet("a");
+        counter.incrementAndGet("a");
+        counter.remove("a");
+
+        assertThat(counter.get("a")).isZero();
+        assertThat(counter.incrementAndGet("a")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("同時に加算しても回数を失わない")
+    void concurrentIncrements() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 8_000; i++) {
+                executor.execute(() -> counter.incrementAndGet("a"));
+            }
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(counter.get("a")).isEqualTo(8_000);
+    }
+
+    @Test
+    @DisplayName("区間の長さが1ミリ秒未満になる設定は受け付けない")
+    void rejectsInvalidSettings() {
+        assertThatThrownBy(() -> new SlidingWindowCounter(Duration.ofMillis(5), 10, 100, now::get))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}